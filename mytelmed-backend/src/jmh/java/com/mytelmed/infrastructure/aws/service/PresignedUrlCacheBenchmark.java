@@ -0,0 +1,90 @@
+package com.mytelmed.infrastructure.aws.service;
+
+import com.mytelmed.common.constant.file.FileType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures presigning the image URLs of one listing page, signing every URL versus
+ * serving them from {@link PresignedUrlCache}. Signing runs locally, so no AWS
+ * account or network access is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PresignedUrlCacheBenchmark {
+    private static final String BUCKET = "mytelmed-benchmark";
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private S3Presigner presigner;
+    private PresignedUrlCache cache;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        presigner = S3Presigner.builder()
+                .region(Region.AP_SOUTHEAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create("AKIABENCHMARK", "benchmark-secret")))
+                .build();
+        cache = new PresignedUrlCache(new SimpleMeterRegistry(), true, 60, 10000);
+
+        keys = new String[pageSize];
+        for (int i = 0; i < pageSize; i++) {
+            keys[i] = "image/doctor/" + UUID.randomUUID() + "/profile.jpg";
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        presigner.close();
+    }
+
+    @Benchmark
+    public void presignEveryUrl(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(presign(key).url().toString());
+        }
+    }
+
+    @Benchmark
+    public void cachedUrls(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(cache.get(key, FileType.IMAGE, () -> presign(key)));
+        }
+    }
+
+    private PresignedGetObjectRequest presign(String key) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(BUCKET)
+                .key(key)
+                .responseContentDisposition("inline")
+                .build();
+
+        return presigner.presignGetObject(GetObjectPresignRequest.builder()
+                .signatureDuration(Duration.ofMinutes(5))
+                .getObjectRequest(getObjectRequest)
+                .build());
+    }
+}
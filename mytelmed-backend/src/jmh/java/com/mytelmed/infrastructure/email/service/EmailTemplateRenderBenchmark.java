@@ -0,0 +1,67 @@
+package com.mytelmed.infrastructure.email.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering of an appointment reminder, the highest-volume email, with the
+ * Thymeleaf template cache on (production) and off (re-parsing on every render).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmailTemplateRenderBenchmark {
+    private static final String TEMPLATE = "appointment/patient/reminder";
+
+    @Param({"true", "false"})
+    public boolean cacheable;
+
+    private EmailTemplateRenderer renderer;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resolver.setCacheable(cacheable);
+
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        renderer = new EmailTemplateRenderer(templateEngine, new SimpleMeterRegistry());
+
+        variables = new HashMap<>();
+        variables.put("patientName", "Nur Aisyah binti Ahmad");
+        variables.put("providerName", "Dr. Lim Wei Jie");
+        variables.put("appointmentId", UUID.randomUUID());
+        variables.put("appointmentDateTime", LocalDateTime.now().plusHours(24));
+        variables.put("hoursUntilAppointment", 24);
+        variables.put("consultationMode", "VIRTUAL");
+        variables.put("reasonForVisit", "Follow-up on blood pressure medication");
+        variables.put("uiHost", "https://mytelmed.example.com");
+    }
+
+    @Benchmark
+    public String renderReminder() {
+        return renderer.render(TEMPLATE, variables);
+    }
+}
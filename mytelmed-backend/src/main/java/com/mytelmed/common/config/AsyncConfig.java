@@ -1,38 +1,162 @@
 package com.mytelmed.common.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
-
+/**
+ * Per-domain executors for asynchronous work.
+ * <p>
+ * Every executor is bounded, can run its tasks on virtual threads, and publishes
+ * queue depth, active count, queue wait, task duration and rejections tagged with
+ * its name. Rejected tasks run on the submitting thread instead of being dropped,
+ * which slows the producer down rather than losing events.
+ */
+@Slf4j
 @Configuration
 public class AsyncConfig implements AsyncConfigurer {
-    @Bean(name = "emailExecutor")
-    public Executor emailExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(4);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(500);
-        executor.setThreadNamePrefix("EmailExecutor-");
-        executor.initialize();
-        return executor;
+    private static final String METRIC_PREFIX = "mytelmed.executor";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean defaultVirtualThreads;
+
+    public AsyncConfig(MeterRegistry meterRegistry,
+                       @Value("${application.async.default.virtual-threads:false}") boolean defaultVirtualThreads) {
+        this.meterRegistry = meterRegistry;
+        this.defaultVirtualThreads = defaultVirtualThreads;
+    }
+
+    @Bean(name = "defaultExecutor")
+    public Executor defaultExecutor() {
+        return buildExecutor("DefaultExecutor-", 4, 10, 500, defaultVirtualThreads);
+    }
+
+    @Bean(name = "notificationExecutor")
+    public Executor notificationExecutor(
+            @Value("${application.async.notification.queue-capacity:1000}") int queueCapacity,
+            @Value("${application.async.notification.virtual-threads:false}") boolean virtualThreads) {
+        return buildExecutor("NotificationExecutor-", 4, 8, queueCapacity, virtualThreads);
+    }
+
+    @Bean(name = "pushExecutor")
+    public Executor pushExecutor(
+            @Value("${application.push.executor.virtual-threads:false}") boolean virtualThreads) {
+        return buildExecutor("PushExecutor-", 8, 32, 2000, virtualThreads);
+    }
+
+    @Bean(name = "transcriptionExecutor")
+    public Executor transcriptionExecutor(
+            @Value("${application.async.transcription.queue-capacity:200}") int queueCapacity,
+            @Value("${application.async.transcription.virtual-threads:false}") boolean virtualThreads) {
+        return buildExecutor("TranscriptionExecutor-", 2, 4, queueCapacity, virtualThreads);
+    }
+
+    @Bean(name = "summarizationExecutor")
+    public Executor summarizationExecutor(
+            @Value("${ai.summary.max-parallel-calls:4}") int maxParallelCalls,
+            @Value("${application.async.summarization.virtual-threads:false}") boolean virtualThreads) {
+        return buildExecutor("SummarizationExecutor-", maxParallelCalls, maxParallelCalls, 500, virtualThreads);
+    }
+
+    @Bean(name = "videoTranscodingExecutor")
+    public Executor videoTranscodingExecutor(@Value("${video.transcoding.concurrency:1}") int concurrency) {
+        return buildExecutor("VideoTranscodingExecutor-", concurrency, concurrency, concurrency, false);
+    }
+
+    @Bean(name = "domainEventExecutor")
+    public Executor domainEventExecutor(
+            @Value("${domain-events.partitions:4}") int partitions,
+            @Value("${application.async.domain-event.virtual-threads:false}") boolean virtualThreads) {
+        return buildExecutor("DomainEventExecutor-", partitions, partitions, 100, virtualThreads);
     }
 
     @Bean(name = "schedulerExecutor")
     public Executor schedulerExecutor() {
+        return buildExecutor("SchedulerExecutor-", 2, 5, 100, false);
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return defaultExecutor();
+    }
+
+    ThreadPoolTaskExecutor buildExecutor(String threadNamePrefix, int corePoolSize, int maxPoolSize,
+                                         int queueCapacity, boolean virtualThreads) {
+        String name = threadNamePrefix.substring(0, threadNamePrefix.length() - 1);
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(5);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("SchedulerExecutor-");
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setVirtualThreads(virtualThreads);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setTaskDecorator(timingDecorator(name));
+        executor.setRejectedExecutionHandler(countingRejectionHandler(name, new ThreadPoolExecutor.CallerRunsPolicy()));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
         executor.initialize();
+
+        Gauge.builder(METRIC_PREFIX + ".queue.size", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Tasks waiting in the executor queue")
+                .tag("executor", name)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Tasks currently running on the executor")
+                .tag("executor", name)
+                .register(meterRegistry);
+
+        log.info("Initialized {} (core: {}, max: {}, queue: {}, virtual threads: {})",
+                name, corePoolSize, maxPoolSize, queueCapacity, virtualThreads);
         return executor;
     }
 
-    @Override
-    public Executor getAsyncExecutor() {
-        return emailExecutor();
+    private TaskDecorator timingDecorator(String name) {
+        Timer queueWait = Timer.builder(METRIC_PREFIX + ".queue.wait")
+                .description("Time a task waited before it started running")
+                .tag("executor", name)
+                .register(meterRegistry);
+        Timer duration = Timer.builder(METRIC_PREFIX + ".task.duration")
+                .description("Task execution time")
+                .tag("executor", name)
+                .register(meterRegistry);
+
+        return task -> {
+            long submittedAt = System.nanoTime();
+            return () -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    task.run();
+                } finally {
+                    duration.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            };
+        };
+    }
+
+    private RejectedExecutionHandler countingRejectionHandler(String name, RejectedExecutionHandler delegate) {
+        Counter rejected = Counter.builder(METRIC_PREFIX + ".rejected")
+                .description("Tasks rejected by a saturated executor and handled by the overflow policy")
+                .tag("executor", name)
+                .register(meterRegistry);
+
+        return (task, executor) -> {
+            rejected.increment();
+            log.warn("{} saturated (queue: {}), running task on the submitting thread",
+                    name, executor.getQueue().size());
+            delegate.rejectedExecution(task, executor);
+        };
     }
 }
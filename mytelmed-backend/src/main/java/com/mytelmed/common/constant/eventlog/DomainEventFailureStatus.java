@@ -0,0 +1,8 @@
+package com.mytelmed.common.constant.eventlog;
+
+public enum DomainEventFailureStatus {
+    // Waiting for a retry, or for an earlier event of the same aggregate to succeed
+    RETRYING,
+    // Out of attempts; held until an admin retries or discards it
+    PARKED
+}
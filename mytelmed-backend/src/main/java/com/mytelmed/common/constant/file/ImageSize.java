@@ -0,0 +1,27 @@
+package com.mytelmed.common.constant.file;
+
+import lombok.Getter;
+import org.springframework.util.StringUtils;
+
+/**
+ * Resized copies generated for every uploaded image, by the longest side in pixels.
+ */
+@Getter
+public enum ImageSize {
+    SMALL(64),
+    MEDIUM(256),
+    LARGE(1024);
+
+    private final int maxDimension;
+
+    ImageSize(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    /**
+     * Derivatives live next to the original, so they can be found and deleted from its key alone.
+     */
+    public String keyFor(String originalKey) {
+        return StringUtils.stripFilenameExtension(originalKey) + "_" + maxDimension + ".jpg";
+    }
+}
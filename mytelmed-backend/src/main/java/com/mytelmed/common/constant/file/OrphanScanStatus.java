@@ -0,0 +1,7 @@
+package com.mytelmed.common.constant.file;
+
+public enum OrphanScanStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,8 @@
+package com.mytelmed.common.constant.file;
+
+public enum VideoTranscodingStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,6 @@
+package com.mytelmed.common.constant.notification;
+
+public enum NotificationChannel {
+    EMAIL,
+    PUSH
+}
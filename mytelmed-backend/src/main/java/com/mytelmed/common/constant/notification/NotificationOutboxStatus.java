@@ -0,0 +1,8 @@
+package com.mytelmed.common.constant.notification;
+
+public enum NotificationOutboxStatus {
+    PENDING,
+    PROCESSING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,21 @@
+package com.mytelmed.common.event;
+
+/**
+ * Processes one type of {@link DurableDomainEvent} from the domain event log.
+ * <p>
+ * Each consumer keeps its own offset in the log. Delivery is at-least-once: an
+ * event may be delivered again after a failure, a crash or a replay, so
+ * {@link #consume} must be idempotent. Throwing from {@link #consume} causes the
+ * event to be retried with backoff; later events of the same aggregate wait until
+ * it succeeds. An event that keeps failing is parked for an admin to retry or discard.
+ */
+public interface DomainEventConsumer<E extends DurableDomainEvent> {
+    /**
+     * Stable name under which the consumer offset is stored.
+     */
+    String getConsumerName();
+
+    Class<E> getEventType();
+
+    void consume(E event) throws Exception;
+}
@@ -0,0 +1,16 @@
+package com.mytelmed.common.event;
+
+/**
+ * Marker for events that are appended to the durable domain event log when the
+ * publishing transaction commits, and delivered to their {@link DomainEventConsumer}s
+ * from the log rather than in memory.
+ * <p>
+ * Implementations must be JSON-serializable records, since they are stored and
+ * replayed after restarts.
+ */
+public interface DurableDomainEvent {
+    /**
+     * Events with the same aggregate ID are delivered to a consumer in the order they were logged.
+     */
+    String aggregateId();
+}
@@ -0,0 +1,15 @@
+package com.mytelmed.common.event;
+
+import com.mytelmed.core.patient.entity.Patient;
+import java.util.UUID;
+
+/**
+ * Who a notification is addressed to, captured when the event is published so
+ * listeners do not have to load or decrypt the patient again.
+ */
+public record NotificationRecipient(String name, String email, UUID accountId) {
+
+    public static NotificationRecipient of(Patient patient) {
+        return new NotificationRecipient(patient.getName(), patient.getEmail(), patient.getAccount().getId());
+    }
+}
@@ -5,13 +5,13 @@ import com.mytelmed.common.event.account.model.AccountCreatedEvent;
 import com.mytelmed.common.event.account.model.AccountDeactivatedEvent;
 import com.mytelmed.common.event.account.model.AccountDeletionEvent;
 import com.mytelmed.common.event.account.model.AccountPasswordResetEvent;
+import com.mytelmed.core.notification.service.NotificationOutboxService;
 import com.mytelmed.infrastructure.email.constant.EmailType;
-import com.mytelmed.infrastructure.email.factory.EmailSenderFactoryRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -19,17 +19,16 @@ import java.util.Map;
 @Slf4j
 @Component
 public class AccountEventListener {
-    private final EmailSenderFactoryRegistry emailService;
+    private final NotificationOutboxService notificationOutboxService;
     private final String frontendUrl;
 
-    public AccountEventListener(EmailSenderFactoryRegistry emailService,
+    public AccountEventListener(NotificationOutboxService notificationOutboxService,
                                 @Value("${application.frontend.url}") String frontendUrl) {
-        this.emailService = emailService;
+        this.notificationOutboxService = notificationOutboxService;
         this.frontendUrl = frontendUrl;
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleAccountCreated(AccountCreatedEvent event) {
         Map<String, Object> variables = new HashMap<>();
         variables.put("name", event.name());
@@ -38,11 +37,10 @@ public class AccountEventListener {
         variables.put("password", event.password());
         variables.put("uiHost", frontendUrl);
 
-        emailService.getEmailSender(EmailType.ACCOUNT_CREATED).sendEmail(event.email(), variables);
+        notificationOutboxService.enqueueEmail(EmailType.ACCOUNT_CREATED, event.email(), variables);
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleAccountDeactivated(AccountDeactivatedEvent event) {
         Map<String, Object> variables = new HashMap<>();
         variables.put("name", event.name());
@@ -50,11 +48,10 @@ public class AccountEventListener {
         variables.put("role", event.role());
         variables.put("uiHost", frontendUrl);
 
-        emailService.getEmailSender(EmailType.ACCOUNT_DEACTIVATED).sendEmail(event.email(), variables);
+        notificationOutboxService.enqueueEmail(EmailType.ACCOUNT_DEACTIVATED, event.email(), variables);
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleAccountActivated(AccountActivatedEvent event) {
         Map<String, Object> variables = new HashMap<>();
         variables.put("name", event.name());
@@ -62,11 +59,10 @@ public class AccountEventListener {
         variables.put("role", event.role());
         variables.put("uiHost", frontendUrl);
 
-        emailService.getEmailSender(EmailType.ACCOUNT_ACTIVATED).sendEmail(event.email(), variables);
+        notificationOutboxService.enqueueEmail(EmailType.ACCOUNT_ACTIVATED, event.email(), variables);
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleAccountDeletion(AccountDeletionEvent event) {
         Map<String, Object> variables = new HashMap<>();
         variables.put("name", event.name());
@@ -74,11 +70,10 @@ public class AccountEventListener {
         variables.put("role", event.role());
         variables.put("uiHost", frontendUrl);
 
-        emailService.getEmailSender(EmailType.ACCOUNT_DELETED).sendEmail(event.email(), variables);
+        notificationOutboxService.enqueueEmail(EmailType.ACCOUNT_DELETED, event.email(), variables);
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleAccountPasswordReset(AccountPasswordResetEvent event) {
         Map<String, Object> variables = new HashMap<>();
         variables.put("name", event.name());
@@ -87,6 +82,6 @@ public class AccountEventListener {
         variables.put("role", event.role());
         variables.put("uiHost", frontendUrl);
 
-        emailService.getEmailSender(EmailType.ACCOUNT_PASSWORD_RESET).sendEmail(event.email(), variables);
+        notificationOutboxService.enqueueEmail(EmailType.ACCOUNT_PASSWORD_RESET, event.email(), variables);
     }
 }
@@ -4,15 +4,14 @@ import com.mytelmed.common.event.appointment.model.AppointmentBookedEvent;
 import com.mytelmed.common.event.appointment.model.AppointmentCancelledEvent;
 import com.mytelmed.common.event.appointment.model.AppointmentConfirmedEvent;
 import com.mytelmed.common.event.appointment.model.AppointmentReminderEvent;
-import com.mytelmed.core.notification.service.PushSubscriptionService;
+import com.mytelmed.core.notification.service.NotificationOutboxService;
 import com.mytelmed.infrastructure.email.constant.EmailType;
-import com.mytelmed.infrastructure.email.factory.EmailSenderFactoryRegistry;
 import com.mytelmed.infrastructure.push.constant.PushNotificationType;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -25,20 +24,16 @@ import java.util.UUID;
 @Slf4j
 @Component
 public class AppointmentEventListener {
-    private final EmailSenderFactoryRegistry emailService;
-    private final PushSubscriptionService pushSubscriptionService;
+    private final NotificationOutboxService notificationOutboxService;
     private final String frontendUrl;
 
-    public AppointmentEventListener(EmailSenderFactoryRegistry emailService,
-            PushSubscriptionService pushSubscriptionService,
+    public AppointmentEventListener(NotificationOutboxService notificationOutboxService,
             @Value("${application.frontend.url}") String frontendUrl) {
-        this.emailService = emailService;
-        this.pushSubscriptionService = pushSubscriptionService;
+        this.notificationOutboxService = notificationOutboxService;
         this.frontendUrl = frontendUrl;
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleAppointmentBooked(AppointmentBookedEvent event) {
         log.info("Handling {} appointment booked event for appointment ID: {}",
                 event.consultationMode(), event.appointmentId());
@@ -65,8 +60,7 @@ public class AppointmentEventListener {
         }
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleAppointmentConfirmed(AppointmentConfirmedEvent event) {
         log.info("Handling appointment confirmed event for appointment ID: {}", event.appointmentId());
 
@@ -92,8 +86,7 @@ public class AppointmentEventListener {
         }
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleAppointmentCancelled(AppointmentCancelledEvent event) {
         log.info("Handling {} appointment cancelled event for appointment ID: {}",
                 event.consultationMode(), event.appointmentId());
@@ -116,8 +109,7 @@ public class AppointmentEventListener {
         }
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleAppointmentReminder(AppointmentReminderEvent event) {
         log.info("Handling appointment reminder event for appointment ID: {}", event.appointmentId());
 
@@ -300,11 +292,9 @@ public class AppointmentEventListener {
             Map<String, Object> patientVariables,
             Map<String, Object> providerVariables) {
         try {
-            emailService.getEmailSender(EmailType.APPOINTMENT_BOOKED_PATIENT)
-                    .sendEmail(event.patient().getEmail(), patientVariables);
+            notificationOutboxService.enqueueEmail(EmailType.APPOINTMENT_BOOKED_PATIENT, event.patient().getEmail(), patientVariables);
 
-            emailService.getEmailSender(EmailType.APPOINTMENT_BOOKED_DOCTOR)
-                    .sendEmail(event.doctor().getEmail(), providerVariables);
+            notificationOutboxService.enqueueEmail(EmailType.APPOINTMENT_BOOKED_DOCTOR, event.doctor().getEmail(), providerVariables);
 
             log.debug("Sent {} appointment booking emails for appointment: {}",
                     event.consultationMode(), event.appointmentId());
@@ -336,11 +326,9 @@ public class AppointmentEventListener {
             Map<String, Object> patientVariables,
             Map<String, Object> providerVariables) {
         try {
-            emailService.getEmailSender(EmailType.APPOINTMENT_CANCEL_PATIENT)
-                    .sendEmail(event.patient().getEmail(), patientVariables);
+            notificationOutboxService.enqueueEmail(EmailType.APPOINTMENT_CANCEL_PATIENT, event.patient().getEmail(), patientVariables);
 
-            emailService.getEmailSender(EmailType.APPOINTMENT_CANCEL_DOCTOR)
-                    .sendEmail(event.doctor().getEmail(), providerVariables);
+            notificationOutboxService.enqueueEmail(EmailType.APPOINTMENT_CANCEL_DOCTOR, event.doctor().getEmail(), providerVariables);
 
             log.debug("Sent {} appointment cancellation emails for appointment: {}",
                     event.consultationMode(), event.appointmentId());
@@ -372,11 +360,9 @@ public class AppointmentEventListener {
             Map<String, Object> patientVariables,
             Map<String, Object> providerVariables) {
         try {
-            emailService.getEmailSender(EmailType.APPOINTMENT_REMINDER_PATIENT)
-                    .sendEmail(event.patient().getEmail(), patientVariables);
+            notificationOutboxService.enqueueEmail(EmailType.APPOINTMENT_REMINDER_PATIENT, event.patient().getEmail(), patientVariables);
 
-            emailService.getEmailSender(EmailType.APPOINTMENT_REMINDER_DOCTOR)
-                    .sendEmail(event.doctor().getEmail(), providerVariables);
+            notificationOutboxService.enqueueEmail(EmailType.APPOINTMENT_REMINDER_DOCTOR, event.doctor().getEmail(), providerVariables);
         } catch (Exception e) {
             log.error("Failed to send reminder email notifications for appointment ID: {}",
                     event.appointmentId(), e);
@@ -407,11 +393,9 @@ public class AppointmentEventListener {
             Map<String, Object> patientVariables,
             Map<String, Object> providerVariables) {
         try {
-            emailService.getEmailSender(EmailType.APPOINTMENT_CONFIRMATION_PATIENT)
-                    .sendEmail(event.patient().getEmail(), patientVariables);
+            notificationOutboxService.enqueueEmail(EmailType.APPOINTMENT_CONFIRMATION_PATIENT, event.patient().getEmail(), patientVariables);
 
-            emailService.getEmailSender(EmailType.APPOINTMENT_CONFIRMATION_DOCTOR)
-                    .sendEmail(event.doctor().getEmail(), providerVariables);
+            notificationOutboxService.enqueueEmail(EmailType.APPOINTMENT_CONFIRMATION_DOCTOR, event.doctor().getEmail(), providerVariables);
         } catch (Exception e) {
             log.error("Failed to send confirmation email notifications for appointment ID: {}",
                     event.appointmentId(), e);
@@ -443,7 +427,7 @@ public class AppointmentEventListener {
             }
 
             log.debug("Sending push notification to account {} for type: {}", accountId, notificationType);
-            pushSubscriptionService.sendNotificationByAccountId(accountId, notificationType, variables);
+            notificationOutboxService.enqueuePush(accountId, notificationType, variables);
 
         } catch (Exception e) {
             log.warn("Failed to send push notification to account {}: {}", accountId, e.getMessage());
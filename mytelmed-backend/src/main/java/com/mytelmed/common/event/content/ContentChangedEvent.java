@@ -0,0 +1,25 @@
+package com.mytelmed.common.event.content;
+
+import com.mytelmed.core.statistics.entity.ContentView;
+import jakarta.validation.constraints.NotNull;
+
+
+/**
+ * Published when an article or tutorial is created, edited or deleted.
+ */
+public record ContentChangedEvent(
+        @NotNull(message = "Content type is required")
+        ContentView.ContentType contentType,
+
+        @NotNull(message = "Content ID is required")
+        String contentId,
+
+        @NotNull(message = "Change is required")
+        Change change
+) {
+    public enum Change {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
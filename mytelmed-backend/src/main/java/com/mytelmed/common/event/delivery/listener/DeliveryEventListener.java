@@ -7,16 +7,15 @@ import com.mytelmed.common.event.delivery.model.DeliveryOutForDeliveryEvent;
 import com.mytelmed.common.event.delivery.model.DeliveryPaymentConfirmedEvent;
 import com.mytelmed.common.event.delivery.model.DeliveryProcessingStartedEvent;
 import com.mytelmed.common.event.delivery.model.DeliveryReadyForPickupEvent;
-import com.mytelmed.core.delivery.entity.MedicationDelivery;
-import com.mytelmed.core.notification.service.PushSubscriptionService;
+import com.mytelmed.common.event.delivery.model.DeliverySnapshot;
+import com.mytelmed.core.notification.service.NotificationOutboxService;
 import com.mytelmed.infrastructure.email.constant.EmailType;
-import com.mytelmed.infrastructure.email.factory.EmailSenderFactoryRegistry;
 import com.mytelmed.infrastructure.push.constant.PushNotificationType;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
@@ -31,128 +30,120 @@ import java.util.UUID;
 @Component
 public class DeliveryEventListener {
 
-    private final EmailSenderFactoryRegistry emailService;
-    private final PushSubscriptionService pushSubscriptionService;
+    private final NotificationOutboxService notificationOutboxService;
     private final String frontendUrl;
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd MMM yyyy, HH:mm");
 
-    public DeliveryEventListener(EmailSenderFactoryRegistry emailService,
-            PushSubscriptionService pushSubscriptionService,
+    public DeliveryEventListener(NotificationOutboxService notificationOutboxService,
             @Value("${application.frontend.url}") String frontendUrl) {
-        this.emailService = emailService;
-        this.pushSubscriptionService = pushSubscriptionService;
+        this.notificationOutboxService = notificationOutboxService;
         this.frontendUrl = frontendUrl;
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleDeliveryCreated(DeliveryCreatedEvent event) {
-        log.info("Handling delivery created event for delivery: {}", event.delivery().getId());
+        log.info("Handling delivery created event for delivery: {}", event.delivery().deliveryId());
 
         try {
             Map<String, Object> emailVariables = buildDeliveryCreatedEmailVariables(event);
             Map<String, Object> pushVariables = buildDeliveryCreatedPushVariables(event);
 
             // Send email notification to patient
-            sendEmailNotification(event.delivery().getPrescription().getPatient().getEmail(),
+            sendEmailNotification(event.delivery().patient().email(),
                     EmailType.DELIVERY_CREATED, emailVariables);
 
             // Send push notification to patient
-            sendPushNotification(event.delivery().getPrescription().getPatient().getAccount().getId(),
+            sendPushNotification(event.delivery().patient().accountId(),
                     PushNotificationType.DELIVERY_CREATED, pushVariables);
 
             log.info("Successfully sent delivery created notifications for delivery: {}",
-                    event.delivery().getId());
+                    event.delivery().deliveryId());
         } catch (Exception e) {
             log.error("Error sending delivery created notifications for delivery: {}",
-                    event.delivery().getId(), e);
+                    event.delivery().deliveryId(), e);
         }
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleDeliveryOutForDelivery(DeliveryOutForDeliveryEvent event) {
-        log.info("Handling delivery out-for-delivery event for delivery: {}", event.delivery().getId());
+        log.info("Handling delivery out-for-delivery event for delivery: {}", event.delivery().deliveryId());
 
         try {
             Map<String, Object> emailVariables = buildOutForDeliveryEmailVariables(event);
             Map<String, Object> pushVariables = buildOutForDeliveryPushVariables(event);
 
             // Send email notification to patient
-            sendEmailNotification(event.delivery().getPrescription().getPatient().getEmail(),
+            sendEmailNotification(event.delivery().patient().email(),
                     EmailType.DELIVERY_OUT, emailVariables);
 
             // Send push notification to patient
-            sendPushNotification(event.delivery().getPrescription().getPatient().getAccount().getId(),
+            sendPushNotification(event.delivery().patient().accountId(),
                     PushNotificationType.DELIVERY_OUT, pushVariables);
 
             log.info("Successfully sent out-for-delivery notifications for delivery: {}",
-                    event.delivery().getId());
+                    event.delivery().deliveryId());
         } catch (Exception e) {
             log.error("Error sending out-for-delivery notifications for delivery: {}",
-                    event.delivery().getId(), e);
+                    event.delivery().deliveryId(), e);
         }
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleDeliveryCompleted(DeliveryCompletedEvent event) {
-        log.info("Handling delivery completed event for delivery: {}", event.delivery().getId());
+        log.info("Handling delivery completed event for delivery: {}", event.delivery().deliveryId());
 
         try {
             Map<String, Object> emailVariables = buildDeliveryCompletedEmailVariables(event);
             Map<String, Object> pushVariables = buildDeliveryCompletedPushVariables(event);
 
             // Send email notification to patient
-            sendEmailNotification(event.delivery().getPrescription().getPatient().getEmail(),
+            sendEmailNotification(event.delivery().patient().email(),
                     EmailType.DELIVERY_COMPLETED, emailVariables);
 
             // Send push notification to patient
-            sendPushNotification(event.delivery().getPrescription().getPatient().getAccount().getId(),
+            sendPushNotification(event.delivery().patient().accountId(),
                     PushNotificationType.DELIVERY_COMPLETED, pushVariables);
 
             log.info("Successfully sent delivery completed notifications for delivery: {}",
-                    event.delivery().getId());
+                    event.delivery().deliveryId());
         } catch (Exception e) {
             log.error("Error sending delivery completed notifications for delivery: {}",
-                    event.delivery().getId(), e);
+                    event.delivery().deliveryId(), e);
         }
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleDeliveryCancelled(DeliveryCancelledEvent event) {
-        log.info("Handling delivery cancelled event for delivery: {}", event.delivery().getId());
+        log.info("Handling delivery cancelled event for delivery: {}", event.delivery().deliveryId());
 
         try {
             Map<String, Object> emailVariables = buildDeliveryCancelledEmailVariables(event);
             Map<String, Object> pushVariables = buildDeliveryCancelledPushVariables(event);
 
             // Send email notification to patient
-            sendEmailNotification(event.delivery().getPrescription().getPatient().getEmail(),
+            sendEmailNotification(event.delivery().patient().email(),
                     EmailType.DELIVERY_CANCELLED, emailVariables);
 
             // Send push notification to patient
-            sendPushNotification(event.delivery().getPrescription().getPatient().getAccount().getId(),
+            sendPushNotification(event.delivery().patient().accountId(),
                     PushNotificationType.DELIVERY_CANCELLED, pushVariables);
 
             log.info("Successfully sent delivery cancelled notifications for delivery: {}",
-                    event.delivery().getId());
+                    event.delivery().deliveryId());
         } catch (Exception e) {
             log.error("Error sending delivery cancelled notifications for delivery: {}",
-                    event.delivery().getId(), e);
+                    event.delivery().deliveryId(), e);
         }
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleDeliveryPaymentConfirmed(DeliveryPaymentConfirmedEvent event) {
-        log.info("Handling delivery payment confirmed event for delivery: {}", event.delivery().getId());
+        log.info("Handling delivery payment confirmed event for delivery: {}", event.delivery().deliveryId());
 
         try {
-            MedicationDelivery delivery = event.delivery();
-            String patientEmail = delivery.getPrescription().getPatient().getEmail();
-            UUID patientAccountId = delivery.getPrescription().getPatient().getAccount().getId();
+            DeliverySnapshot delivery = event.delivery();
+            String patientEmail = delivery.patient().email();
+            UUID patientAccountId = delivery.patient().accountId();
 
             // Send email notification
             Map<String, Object> emailVariables = buildDeliveryPaymentConfirmedEmailVariables(event);
@@ -163,22 +154,21 @@ public class DeliveryEventListener {
             sendPushNotification(patientAccountId, PushNotificationType.DELIVERY_PAYMENT_CONFIRMED, pushVariables);
 
             log.info("Successfully sent delivery payment confirmed notifications for delivery: {}",
-                    event.delivery().getId());
+                    event.delivery().deliveryId());
         } catch (Exception e) {
             log.error("Error sending delivery payment confirmed notifications for delivery: {}",
-                    event.delivery().getId(), e);
+                    event.delivery().deliveryId(), e);
         }
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleDeliveryProcessingStarted(DeliveryProcessingStartedEvent event) {
-        log.info("Handling delivery processing started event for delivery: {}", event.delivery().getId());
+        log.info("Handling delivery processing started event for delivery: {}", event.delivery().deliveryId());
 
         try {
-            MedicationDelivery delivery = event.delivery();
-            String patientEmail = delivery.getPrescription().getPatient().getEmail();
-            UUID patientAccountId = delivery.getPrescription().getPatient().getAccount().getId();
+            DeliverySnapshot delivery = event.delivery();
+            String patientEmail = delivery.patient().email();
+            UUID patientAccountId = delivery.patient().accountId();
 
             // Send email notification
             Map<String, Object> emailVariables = buildDeliveryProcessingStartedEmailVariables(event);
@@ -189,22 +179,21 @@ public class DeliveryEventListener {
             sendPushNotification(patientAccountId, PushNotificationType.DELIVERY_PROCESSING_STARTED, pushVariables);
 
             log.info("Successfully sent delivery processing started notifications for delivery: {}",
-                    event.delivery().getId());
+                    event.delivery().deliveryId());
         } catch (Exception e) {
             log.error("Error sending delivery processing started notifications for delivery: {}",
-                    event.delivery().getId(), e);
+                    event.delivery().deliveryId(), e);
         }
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleDeliveryReadyForPickup(DeliveryReadyForPickupEvent event) {
-        log.info("Handling delivery ready for pickup event for delivery: {}", event.delivery().getId());
+        log.info("Handling delivery ready for pickup event for delivery: {}", event.delivery().deliveryId());
 
         try {
-            MedicationDelivery delivery = event.delivery();
-            String patientEmail = delivery.getPrescription().getPatient().getEmail();
-            UUID patientAccountId = delivery.getPrescription().getPatient().getAccount().getId();
+            DeliverySnapshot delivery = event.delivery();
+            String patientEmail = delivery.patient().email();
+            UUID patientAccountId = delivery.patient().accountId();
 
             // Send email notification
             Map<String, Object> emailVariables = buildDeliveryReadyForPickupEmailVariables(event);
@@ -215,10 +204,10 @@ public class DeliveryEventListener {
             sendPushNotification(patientAccountId, PushNotificationType.DELIVERY_READY_FOR_PICKUP, pushVariables);
 
             log.info("Successfully sent delivery ready for pickup notifications for delivery: {}",
-                    event.delivery().getId());
+                    event.delivery().deliveryId());
         } catch (Exception e) {
             log.error("Error sending delivery ready for pickup notifications for delivery: {}",
-                    event.delivery().getId(), e);
+                    event.delivery().deliveryId(), e);
         }
     }
 
@@ -226,10 +215,10 @@ public class DeliveryEventListener {
 
     private Map<String, Object> buildDeliveryCreatedEmailVariables(DeliveryCreatedEvent event) {
         Map<String, Object> variables = new HashMap<>();
-        variables.put("patientName", event.delivery().getPrescription().getPatient().getName());
-        variables.put("prescriptionNumber", event.delivery().getPrescription().getPrescriptionNumber());
-        variables.put("deliveryMethod", event.delivery().getDeliveryMethod().toString());
-        variables.put("facilityName", event.delivery().getPrescription().getFacility().getName());
+        variables.put("patientName", event.delivery().patient().name());
+        variables.put("prescriptionNumber", event.delivery().prescriptionNumber());
+        variables.put("deliveryMethod", event.delivery().deliveryMethod().toString());
+        variables.put("facilityName", event.delivery().facilityName());
         variables.put("deliveryAddress", buildDeliveryAddress(event.delivery()));
         variables.put("uiHost", frontendUrl);
         return variables;
@@ -237,22 +226,22 @@ public class DeliveryEventListener {
 
     private Map<String, Object> buildDeliveryCreatedPushVariables(DeliveryCreatedEvent event) {
         Map<String, Object> variables = new HashMap<>();
-        variables.put("prescriptionId", event.delivery().getPrescription().getId().toString());
-        variables.put("deliveryMethod", event.delivery().getDeliveryMethod().toString());
-        variables.put("facilityName", event.delivery().getPrescription().getFacility().getName());
+        variables.put("prescriptionId", event.delivery().prescriptionId().toString());
+        variables.put("deliveryMethod", event.delivery().deliveryMethod().toString());
+        variables.put("facilityName", event.delivery().facilityName());
         return variables;
     }
 
     private Map<String, Object> buildOutForDeliveryEmailVariables(DeliveryOutForDeliveryEvent event) {
         Map<String, Object> variables = new HashMap<>();
-        variables.put("patientName", event.delivery().getPrescription().getPatient().getName());
-        variables.put("prescriptionId", event.delivery().getPrescription().getId().toString());
-        variables.put("prescriptionNumber", event.delivery().getPrescription().getPrescriptionNumber());
-        variables.put("trackingReference", event.delivery().getTrackingReference());
-        variables.put("courierName", event.delivery().getCourierName());
+        variables.put("patientName", event.delivery().patient().name());
+        variables.put("prescriptionId", event.delivery().prescriptionId().toString());
+        variables.put("prescriptionNumber", event.delivery().prescriptionNumber());
+        variables.put("trackingReference", event.delivery().trackingReference());
+        variables.put("courierName", event.delivery().courierName());
         variables.put("deliveryAddress", buildDeliveryAddress(event.delivery()));
         variables.put("estimatedDeliveryDate",
-                event.delivery().getEstimatedDeliveryDate() != null ? event.delivery().getEstimatedDeliveryDate()
+                event.delivery().estimatedDeliveryDate() != null ? event.delivery().estimatedDeliveryDate()
                         .atZone(java.time.ZoneId.systemDefault()).format(dateFormatter) : "1-3 business days");
         variables.put("uiHost", frontendUrl);
         return variables;
@@ -260,112 +249,105 @@ public class DeliveryEventListener {
 
     private Map<String, Object> buildOutForDeliveryPushVariables(DeliveryOutForDeliveryEvent event) {
         Map<String, Object> variables = new HashMap<>();
-        variables.put("prescriptionId", event.delivery().getPrescription().getId().toString());
-        variables.put("trackingReference", event.delivery().getTrackingReference());
-        variables.put("courierName", event.delivery().getCourierName());
+        variables.put("prescriptionId", event.delivery().prescriptionId().toString());
+        variables.put("trackingReference", event.delivery().trackingReference());
+        variables.put("courierName", event.delivery().courierName());
         return variables;
     }
 
     private Map<String, Object> buildDeliveryCompletedEmailVariables(DeliveryCompletedEvent event) {
         Map<String, Object> variables = new HashMap<>();
-        variables.put("patientName", event.delivery().getPrescription().getPatient().getName());
-        variables.put("prescriptionNumber", event.delivery().getPrescription().getPrescriptionNumber());
-        variables.put("deliveryMethod", event.delivery().getDeliveryMethod().toString());
+        variables.put("patientName", event.delivery().patient().name());
+        variables.put("prescriptionNumber", event.delivery().prescriptionNumber());
+        variables.put("deliveryMethod", event.delivery().deliveryMethod().toString());
         variables.put("uiHost", frontendUrl);
         return variables;
     }
 
     private Map<String, Object> buildDeliveryCompletedPushVariables(DeliveryCompletedEvent event) {
         Map<String, Object> variables = new HashMap<>();
-        variables.put("prescriptionId", event.delivery().getPrescription().getId().toString());
-        variables.put("deliveryMethod", event.delivery().getDeliveryMethod().toString());
+        variables.put("prescriptionId", event.delivery().prescriptionId().toString());
+        variables.put("deliveryMethod", event.delivery().deliveryMethod().toString());
         return variables;
     }
 
     private Map<String, Object> buildDeliveryCancelledEmailVariables(DeliveryCancelledEvent event) {
         Map<String, Object> variables = new HashMap<>();
-        variables.put("patientName", event.delivery().getPrescription().getPatient().getName());
-        variables.put("prescriptionNumber", event.delivery().getPrescription().getPrescriptionNumber());
-        variables.put("deliveryMethod", event.delivery().getDeliveryMethod().toString());
+        variables.put("patientName", event.delivery().patient().name());
+        variables.put("prescriptionNumber", event.delivery().prescriptionNumber());
+        variables.put("deliveryMethod", event.delivery().deliveryMethod().toString());
         variables.put("cancellationReason", event.reason());
-        variables.put("facilityName", event.delivery().getPrescription().getFacility().getName());
+        variables.put("facilityName", event.delivery().facilityName());
         variables.put("uiHost", frontendUrl);
         return variables;
     }
 
     private Map<String, Object> buildDeliveryCancelledPushVariables(DeliveryCancelledEvent event) {
         Map<String, Object> variables = new HashMap<>();
-        variables.put("prescriptionId", event.delivery().getPrescription().getId().toString());
-        variables.put("deliveryMethod", event.delivery().getDeliveryMethod().toString());
+        variables.put("prescriptionId", event.delivery().prescriptionId().toString());
+        variables.put("deliveryMethod", event.delivery().deliveryMethod().toString());
         variables.put("cancellationReason", event.reason());
         return variables;
     }
 
     private Map<String, Object> buildDeliveryPaymentConfirmedEmailVariables(DeliveryPaymentConfirmedEvent event) {
         Map<String, Object> variables = new HashMap<>();
-        variables.put("patientName", event.delivery().getPrescription().getPatient().getName());
-        variables.put("prescriptionNumber", event.delivery().getPrescription().getPrescriptionNumber());
-        variables.put("deliveryMethod", event.delivery().getDeliveryMethod().toString());
-        variables.put("facilityName", event.delivery().getPrescription().getFacility().getName());
+        variables.put("patientName", event.delivery().patient().name());
+        variables.put("prescriptionNumber", event.delivery().prescriptionNumber());
+        variables.put("deliveryMethod", event.delivery().deliveryMethod().toString());
+        variables.put("facilityName", event.delivery().facilityName());
         variables.put("uiHost", frontendUrl);
         return variables;
     }
 
     private Map<String, Object> buildDeliveryPaymentConfirmedPushVariables(DeliveryPaymentConfirmedEvent event) {
         Map<String, Object> variables = new HashMap<>();
-        variables.put("prescriptionId", event.delivery().getPrescription().getId().toString());
-        variables.put("prescriptionNumber", event.delivery().getPrescription().getPrescriptionNumber());
+        variables.put("prescriptionId", event.delivery().prescriptionId().toString());
+        variables.put("prescriptionNumber", event.delivery().prescriptionNumber());
         return variables;
     }
 
     private Map<String, Object> buildDeliveryProcessingStartedEmailVariables(DeliveryProcessingStartedEvent event) {
         Map<String, Object> variables = new HashMap<>();
-        variables.put("patientName", event.delivery().getPrescription().getPatient().getName());
-        variables.put("prescriptionNumber", event.delivery().getPrescription().getPrescriptionNumber());
-        variables.put("deliveryMethod", event.delivery().getDeliveryMethod().toString());
-        variables.put("facilityName", event.delivery().getPrescription().getFacility().getName());
+        variables.put("patientName", event.delivery().patient().name());
+        variables.put("prescriptionNumber", event.delivery().prescriptionNumber());
+        variables.put("deliveryMethod", event.delivery().deliveryMethod().toString());
+        variables.put("facilityName", event.delivery().facilityName());
         variables.put("uiHost", frontendUrl);
         return variables;
     }
 
     private Map<String, Object> buildDeliveryProcessingStartedPushVariables(DeliveryProcessingStartedEvent event) {
         Map<String, Object> variables = new HashMap<>();
-        variables.put("prescriptionId", event.delivery().getPrescription().getId().toString());
-        variables.put("deliveryMethod", event.delivery().getDeliveryMethod().toString());
+        variables.put("prescriptionId", event.delivery().prescriptionId().toString());
+        variables.put("deliveryMethod", event.delivery().deliveryMethod().toString());
         return variables;
     }
 
     private Map<String, Object> buildDeliveryReadyForPickupEmailVariables(DeliveryReadyForPickupEvent event) {
         Map<String, Object> variables = new HashMap<>();
-        variables.put("patientName", event.delivery().getPrescription().getPatient().getName());
-        variables.put("prescriptionNumber", event.delivery().getPrescription().getPrescriptionNumber());
-        variables.put("facilityName", event.delivery().getPrescription().getFacility().getName());
-        variables.put("facilityAddress", event.delivery().getPrescription().getFacility().getAddress());
+        variables.put("patientName", event.delivery().patient().name());
+        variables.put("prescriptionNumber", event.delivery().prescriptionNumber());
+        variables.put("facilityName", event.delivery().facilityName());
+        variables.put("facilityAddress", event.delivery().facilityAddress());
         variables.put("uiHost", frontendUrl);
         return variables;
     }
 
     private Map<String, Object> buildDeliveryReadyForPickupPushVariables(DeliveryReadyForPickupEvent event) {
         Map<String, Object> variables = new HashMap<>();
-        variables.put("prescriptionId", event.delivery().getPrescription().getId().toString());
-        variables.put("prescriptionNumber", event.delivery().getPrescription().getPrescriptionNumber());
+        variables.put("prescriptionId", event.delivery().prescriptionId().toString());
+        variables.put("prescriptionNumber", event.delivery().prescriptionNumber());
         return variables;
     }
 
-    private String buildDeliveryAddress(MedicationDelivery delivery) {
-        if (delivery.getDeliveryAddress() == null) {
-            return "N/A";
-        }
-        return String.format("%s, %s, %s, %s",
-                delivery.getDeliveryAddress(),
-                delivery.getDeliveryCity(),
-                delivery.getDeliveryState(),
-                delivery.getDeliveryPostcode());
+    private String buildDeliveryAddress(DeliverySnapshot delivery) {
+        return delivery.deliveryAddress() != null ? delivery.deliveryAddress() : "N/A";
     }
 
     private void sendEmailNotification(String recipientEmail, EmailType emailType, Map<String, Object> variables) {
         try {
-            emailService.getEmailSender(emailType).sendEmail(recipientEmail, variables);
+            notificationOutboxService.enqueueEmail(emailType, recipientEmail, variables);
         } catch (Exception e) {
             log.error("Failed to send email notification to: {}", recipientEmail, e);
         }
@@ -380,7 +362,7 @@ public class DeliveryEventListener {
             }
 
             log.debug("Sending push notification to account {} for type: {}", accountId, notificationType);
-            pushSubscriptionService.sendNotificationByAccountId(accountId, notificationType, variables);
+            notificationOutboxService.enqueuePush(accountId, notificationType, variables);
 
         } catch (Exception e) {
             log.warn("Failed to send push notification to account {}: {}", accountId, e.getMessage());
@@ -1,9 +1,7 @@
 package com.mytelmed.common.event.delivery.model;
 
-import com.mytelmed.core.delivery.entity.MedicationDelivery;
-
 /**
  * Event fired when a medication delivery is cancelled.
  */
-public record DeliveryCancelledEvent(MedicationDelivery delivery, String reason) {
+public record DeliveryCancelledEvent(DeliverySnapshot delivery, String reason) {
 }
\ No newline at end of file
@@ -1,10 +1,8 @@
 package com.mytelmed.common.event.delivery.model;
 
-import com.mytelmed.core.delivery.entity.MedicationDelivery;
-
 /**
  * Event fired when a medication delivery is created (patient chooses delivery
  * method).
  */
-public record DeliveryCreatedEvent(MedicationDelivery delivery) {
+public record DeliveryCreatedEvent(DeliverySnapshot delivery) {
 }
\ No newline at end of file
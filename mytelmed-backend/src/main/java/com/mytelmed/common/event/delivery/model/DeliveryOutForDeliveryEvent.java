@@ -1,9 +1,7 @@
 package com.mytelmed.common.event.delivery.model;
 
-import com.mytelmed.core.delivery.entity.MedicationDelivery;
-
 /**
  * Event fired when a medication delivery is marked as out for delivery.
  */
-public record DeliveryOutForDeliveryEvent(MedicationDelivery delivery) {
+public record DeliveryOutForDeliveryEvent(DeliverySnapshot delivery) {
 }
\ No newline at end of file
@@ -1,6 +1,4 @@
 package com.mytelmed.common.event.delivery.model;
 
-import com.mytelmed.core.delivery.entity.MedicationDelivery;
-
-public record DeliveryProcessingStartedEvent(MedicationDelivery delivery) {
+public record DeliveryProcessingStartedEvent(DeliverySnapshot delivery) {
 } 
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.mytelmed.common.event.delivery.model;
+
+import com.mytelmed.common.constant.delivery.DeliveryMethod;
+import com.mytelmed.common.event.NotificationRecipient;
+import com.mytelmed.core.delivery.entity.MedicationDelivery;
+import com.mytelmed.core.facility.entity.Facility;
+import com.mytelmed.core.prescription.entity.Prescription;
+import lombok.Builder;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Immutable copy of the delivery fields used by delivery notifications, built in
+ * the publishing transaction so listeners never touch the entity graph.
+ */
+@Builder
+public record DeliverySnapshot(
+        UUID deliveryId,
+        UUID prescriptionId,
+        String prescriptionNumber,
+        DeliveryMethod deliveryMethod,
+        String facilityName,
+        String facilityAddress,
+        String deliveryAddress,
+        String trackingReference,
+        String courierName,
+        Instant estimatedDeliveryDate,
+        NotificationRecipient patient) {
+
+    public static DeliverySnapshot of(MedicationDelivery delivery) {
+        Prescription prescription = delivery.getPrescription();
+        Facility facility = prescription.getFacility();
+
+        return DeliverySnapshot.builder()
+                .deliveryId(delivery.getId())
+                .prescriptionId(prescription.getId())
+                .prescriptionNumber(prescription.getPrescriptionNumber())
+                .deliveryMethod(delivery.getDeliveryMethod())
+                .facilityName(facility.getName())
+                .facilityAddress(facility.getAddress())
+                .deliveryAddress(formatDeliveryAddress(delivery))
+                .trackingReference(delivery.getTrackingReference())
+                .courierName(delivery.getCourierName())
+                .estimatedDeliveryDate(delivery.getEstimatedDeliveryDate())
+                .patient(NotificationRecipient.of(prescription.getPatient()))
+                .build();
+    }
+
+    private static String formatDeliveryAddress(MedicationDelivery delivery) {
+        if (delivery.getDeliveryAddress() == null) {
+            return null;
+        }
+        return String.format("%s, %s, %s, %s",
+                delivery.getDeliveryAddress(),
+                delivery.getDeliveryCity(),
+                delivery.getDeliveryState(),
+                delivery.getDeliveryPostcode());
+    }
+}
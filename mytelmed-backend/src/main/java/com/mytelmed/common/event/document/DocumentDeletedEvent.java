@@ -1,5 +1,6 @@
 package com.mytelmed.common.event.document;
 
+import com.mytelmed.common.event.DurableDomainEvent;
 import jakarta.validation.constraints.NotNull;
 import java.util.UUID;
 
@@ -10,5 +11,9 @@ public record DocumentDeletedEvent(
 
         @NotNull(message = "Document key is required")
         String documentKey
-) {
+) implements DurableDomainEvent {
+    @Override
+    public String aggregateId() {
+        return entityId.toString();
+    }
 }
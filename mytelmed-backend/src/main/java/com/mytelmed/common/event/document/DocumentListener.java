@@ -1,29 +1,37 @@
 package com.mytelmed.common.event.document;
 
-import com.mytelmed.infrastructure.aws.service.AwsS3Service;
+import com.mytelmed.common.event.DomainEventConsumer;
+import com.mytelmed.core.storage.service.ContentAddressedStorageService;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 
 @Slf4j
 @Component
-public class DocumentListener {
-    private final AwsS3Service awsS3Service;
+public class DocumentListener implements DomainEventConsumer<DocumentDeletedEvent> {
+    private final ContentAddressedStorageService contentAddressedStorageService;
 
-    public DocumentListener(AwsS3Service awsS3Service) {
-        this.awsS3Service = awsS3Service;
+    public DocumentListener(ContentAddressedStorageService contentAddressedStorageService) {
+        this.contentAddressedStorageService = contentAddressedStorageService;
     }
 
-    @Async
-    @EventListener
-    public void handleImageDeletion(DocumentDeletedEvent event) {
-        try {
-            awsS3Service.deleteFile(event.documentKey());
+    @Override
+    public String getConsumerName() {
+        return "document-s3-cleanup";
+    }
+
+    @Override
+    public Class<DocumentDeletedEvent> getEventType() {
+        return DocumentDeletedEvent.class;
+    }
+
+    @Override
+    public void consume(DocumentDeletedEvent event) {
+        // S3 deletes are idempotent, so a failed attempt is simply retried from the event log
+        if (contentAddressedStorageService.deleteIfUnreferenced(event.documentKey())) {
             log.info("Deleted document from S3 for entity with ID: {}", event.entityId());
-        } catch (Exception e) {
-            log.error("Failed to delete document from S3 for entity with ID: {}. Manual intervention is required.", event.entityId(), e);
+        } else {
+            log.info("Kept shared document in S3 for entity with ID: {}", event.entityId());
         }
     }
 }
@@ -3,12 +3,12 @@ package com.mytelmed.common.event.family.listener;
 import com.mytelmed.common.event.family.model.FamilyMemberInviteEvent;
 import com.mytelmed.common.event.family.model.FamilyMemberJoinedEvent;
 import com.mytelmed.common.event.family.model.FamilyMemberRemovedEvent;
+import com.mytelmed.core.notification.service.NotificationOutboxService;
 import com.mytelmed.infrastructure.email.constant.EmailType;
-import com.mytelmed.infrastructure.email.factory.EmailSenderFactoryRegistry;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -16,17 +16,16 @@ import java.util.Map;
 public class FamilyEventListener {
     private static final String UI_HOST_KEY = "uiHost";
 
-    private final EmailSenderFactoryRegistry emailService;
+    private final NotificationOutboxService notificationOutboxService;
     private final String frontendUrl;
 
-    public FamilyEventListener(EmailSenderFactoryRegistry emailService,
+    public FamilyEventListener(NotificationOutboxService notificationOutboxService,
             @Value("${application.frontend.url}") String frontendUrl) {
-        this.emailService = emailService;
+        this.notificationOutboxService = notificationOutboxService;
         this.frontendUrl = frontendUrl;
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleFamilyMemberInvite(FamilyMemberInviteEvent event) {
         Map<String, Object> variables = new HashMap<>();
         variables.put("inviteeName", event.inviteeName());
@@ -35,26 +34,24 @@ public class FamilyEventListener {
         variables.put("inviteUrl", event.invitationUrl());
         variables.put(UI_HOST_KEY, frontendUrl);
 
-        emailService.getEmailSender(EmailType.FAMILY_MEMBER_INVITE).sendEmail(event.memberEmail(), variables);
+        notificationOutboxService.enqueueEmail(EmailType.FAMILY_MEMBER_INVITE, event.memberEmail(), variables);
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleFamilyMemberJoined(FamilyMemberJoinedEvent event) {
         Map<String, Object> variables = new HashMap<>();
         variables.put("memberName", event.memberName());
         variables.put("patientName", event.patientName());
         variables.put(UI_HOST_KEY, frontendUrl);
-        emailService.getEmailSender(EmailType.FAMILY_MEMBER_JOINED).sendEmail(event.memberEmail(), variables);
+        notificationOutboxService.enqueueEmail(EmailType.FAMILY_MEMBER_JOINED, event.memberEmail(), variables);
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleFamilyMemberRemoved(FamilyMemberRemovedEvent event) {
         Map<String, Object> variables = new HashMap<>();
         variables.put("memberName", event.memberName());
         variables.put("patientName", event.patientName());
         variables.put(UI_HOST_KEY, frontendUrl);
-        emailService.getEmailSender(EmailType.FAMILY_MEMBER_REMOVED).sendEmail(event.memberEmail(), variables);
+        notificationOutboxService.enqueueEmail(EmailType.FAMILY_MEMBER_REMOVED, event.memberEmail(), variables);
     }
 }
@@ -1,5 +1,6 @@
 package com.mytelmed.common.event.image;
 
+import com.mytelmed.common.event.DurableDomainEvent;
 import jakarta.validation.constraints.NotNull;
 import java.util.UUID;
 
@@ -10,5 +11,9 @@ public record ImageDeletedEvent(
 
         @NotNull(message = "Image key is required")
         String imageKey
-) {
+) implements DurableDomainEvent {
+    @Override
+    public String aggregateId() {
+        return entityId.toString();
+    }
 }
@@ -1,29 +1,47 @@
 package com.mytelmed.common.event.image;
 
+import com.mytelmed.common.constant.file.ImageSize;
+import com.mytelmed.common.event.DomainEventConsumer;
+import com.mytelmed.core.storage.service.ContentAddressedStorageService;
 import com.mytelmed.infrastructure.aws.service.AwsS3Service;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import java.util.Arrays;
 
 
 @Slf4j
 @Component
-public class ImageListener {
+public class ImageListener implements DomainEventConsumer<ImageDeletedEvent> {
     private final AwsS3Service awsS3Service;
+    private final ContentAddressedStorageService contentAddressedStorageService;
 
-    public ImageListener(AwsS3Service awsS3Service) {
+    public ImageListener(AwsS3Service awsS3Service, ContentAddressedStorageService contentAddressedStorageService) {
         this.awsS3Service = awsS3Service;
+        this.contentAddressedStorageService = contentAddressedStorageService;
     }
 
-    @Async
-    @EventListener
-    public void handleImageDeletion(ImageDeletedEvent event) {
-        try {
-            awsS3Service.deleteFile(event.imageKey());
-            log.info("Deleted image from S3 for entity with ID: {}", event.entityId());
-        } catch (Exception e) {
-            log.error("Failed to delete image from S3 for entity with ID: {}. Manual intervention is required.", event.entityId(), e);
+    @Override
+    public String getConsumerName() {
+        return "image-s3-cleanup";
+    }
+
+    @Override
+    public Class<ImageDeletedEvent> getEventType() {
+        return ImageDeletedEvent.class;
+    }
+
+    @Override
+    public void consume(ImageDeletedEvent event) {
+        // Another image with the same content still uses the object and its derivatives
+        if (!contentAddressedStorageService.deleteIfUnreferenced(event.imageKey())) {
+            log.info("Kept shared image in S3 for entity with ID: {}", event.entityId());
+            return;
         }
+
+        // Derivative keys are derived from the original; deleting a missing one is a no-op
+        awsS3Service.deleteFiles(Arrays.stream(ImageSize.values())
+                .map(size -> size.keyFor(event.imageKey()))
+                .toList());
+        log.info("Deleted image from S3 for entity with ID: {}", event.entityId());
     }
 }
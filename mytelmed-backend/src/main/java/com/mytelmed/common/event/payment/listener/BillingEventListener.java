@@ -2,13 +2,13 @@ package com.mytelmed.common.event.payment.listener;
 
 import com.mytelmed.common.event.payment.model.BillGeneratedEvent;
 import com.mytelmed.common.event.payment.model.PaymentCompletedEvent;
+import com.mytelmed.core.notification.service.NotificationOutboxService;
 import com.mytelmed.infrastructure.email.constant.EmailType;
-import com.mytelmed.infrastructure.email.factory.EmailSenderFactoryRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -21,20 +21,19 @@ import java.util.Map;
 @Component
 public class BillingEventListener {
 
-    private final EmailSenderFactoryRegistry emailService;
+    private final NotificationOutboxService notificationOutboxService;
     private final String frontendUrl;
 
-    public BillingEventListener(EmailSenderFactoryRegistry emailService,
+    public BillingEventListener(NotificationOutboxService notificationOutboxService,
             @Value("${application.frontend.url}") String frontendUrl) {
-        this.emailService = emailService;
+        this.notificationOutboxService = notificationOutboxService;
         this.frontendUrl = frontendUrl;
     }
 
     /**
      * Handles bill generation events and sends invoice emails to patients
      */
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleBillGenerated(BillGeneratedEvent event) {
         log.info("Handling bill generated event for bill: {}", event.bill().getBillNumber());
 
@@ -56,8 +55,7 @@ public class BillingEventListener {
     /**
      * Handles payment completion events and sends receipt emails to patients
      */
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handlePaymentCompleted(PaymentCompletedEvent event) {
         log.info("Handling payment completed event for bill: {} transaction: {}",
                 event.bill().getBillNumber(), event.transaction().getTransactionNumber());
@@ -186,7 +184,7 @@ public class BillingEventListener {
      */
     private void sendEmailNotification(String recipientEmail, EmailType emailType, Map<String, Object> variables) {
         try {
-            emailService.getEmailSender(emailType).sendEmail(recipientEmail, variables);
+            notificationOutboxService.enqueueEmail(emailType, recipientEmail, variables);
         } catch (Exception e) {
             log.error("Failed to send {} email notification to: {}", emailType, recipientEmail, e);
             throw e;
@@ -3,17 +3,16 @@ package com.mytelmed.common.event.payment.listener;
 import com.mytelmed.common.event.payment.model.RefundCompletedEvent;
 import com.mytelmed.core.family.entity.FamilyMember;
 import com.mytelmed.core.family.repository.FamilyMemberRepository;
-import com.mytelmed.core.notification.service.PushSubscriptionService;
+import com.mytelmed.core.notification.service.NotificationOutboxService;
 import com.mytelmed.core.patient.entity.Patient;
 import com.mytelmed.core.patient.service.PatientService;
 import com.mytelmed.infrastructure.email.constant.EmailType;
-import com.mytelmed.infrastructure.email.factory.EmailSenderFactoryRegistry;
 import com.mytelmed.infrastructure.push.constant.PushNotificationType;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,20 +21,17 @@ import java.util.UUID;
 @Slf4j
 @Component
 public class RefundEventListener {
-    private final EmailSenderFactoryRegistry emailFactoryRegistry;
-    private final PushSubscriptionService pushSubscriptionService;
+    private final NotificationOutboxService notificationOutboxService;
     private final FamilyMemberRepository familyMemberRepository;
     private final PatientService patientService;
     private final String frontendUrl;
 
     public RefundEventListener(
-            EmailSenderFactoryRegistry emailFactoryRegistry,
-            PushSubscriptionService pushSubscriptionService,
+            NotificationOutboxService notificationOutboxService,
             FamilyMemberRepository familyMemberRepository,
             PatientService patientService,
             @Value("${application.frontend.url}") String frontendUrl) {
-        this.emailFactoryRegistry = emailFactoryRegistry;
-        this.pushSubscriptionService = pushSubscriptionService;
+        this.notificationOutboxService = notificationOutboxService;
         this.familyMemberRepository = familyMemberRepository;
         this.patientService = patientService;
         this.frontendUrl = frontendUrl;
@@ -45,8 +41,7 @@ public class RefundEventListener {
      * Handles refund completed events and sends notifications to patients and
      * authorized family members
      */
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleRefundCompleted(RefundCompletedEvent event) {
         log.info("Handling refund completed event for bill: {} with Stripe refund ID: {}",
                 event.bill().getBillNumber(), event.stripeRefundId());
@@ -177,9 +172,8 @@ public class RefundEventListener {
      */
     private void sendEmailNotification(String email, EmailType emailType, Map<String, Object> variables) {
         try {
-            var emailSender = emailFactoryRegistry.getEmailSender(emailType);
-            emailSender.sendEmail(email, variables);
-            log.debug("Successfully sent {} email to: {}", emailType, email);
+            notificationOutboxService.enqueueEmail(emailType, email, variables);
+            log.debug("Successfully queued {} email to: {}", emailType, email);
         } catch (Exception e) {
             log.error("Failed to send {} email to {}: {}", emailType, email, e.getMessage());
         }
@@ -191,7 +185,7 @@ public class RefundEventListener {
     private void sendPushNotification(UUID accountId, PushNotificationType notificationType,
             Map<String, Object> variables) {
         try {
-            pushSubscriptionService.sendNotificationByAccountId(accountId, notificationType, variables);
+            notificationOutboxService.enqueuePush(accountId, notificationType, variables);
         } catch (Exception e) {
             log.error("Failed to send {} push notification to account {}: {}",
                     notificationType, accountId, e.getMessage());
@@ -2,16 +2,15 @@ package com.mytelmed.common.event.prescription.listener;
 
 import com.mytelmed.common.event.prescription.model.PrescriptionCreatedEvent;
 import com.mytelmed.common.event.prescription.model.PrescriptionExpiringEvent;
-import com.mytelmed.core.notification.service.PushSubscriptionService;
+import com.mytelmed.core.notification.service.NotificationOutboxService;
 import com.mytelmed.core.prescription.entity.Prescription;
 import com.mytelmed.infrastructure.email.constant.EmailType;
-import com.mytelmed.infrastructure.email.factory.EmailSenderFactoryRegistry;
 import com.mytelmed.infrastructure.push.constant.PushNotificationType;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 import java.time.ZoneId;
 import java.util.HashMap;
 import java.util.Map;
@@ -20,20 +19,16 @@ import java.util.UUID;
 @Slf4j
 @Component
 public class PrescriptionEventListener {
-    private final EmailSenderFactoryRegistry emailService;
-    private final PushSubscriptionService pushSubscriptionService;
+    private final NotificationOutboxService notificationOutboxService;
     private final String frontendUrl;
 
-    public PrescriptionEventListener(EmailSenderFactoryRegistry emailService,
-            PushSubscriptionService pushSubscriptionService,
+    public PrescriptionEventListener(NotificationOutboxService notificationOutboxService,
             @Value("${application.frontend.url}") String frontendUrl) {
-        this.emailService = emailService;
-        this.pushSubscriptionService = pushSubscriptionService;
+        this.notificationOutboxService = notificationOutboxService;
         this.frontendUrl = frontendUrl;
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handlePrescriptionCreated(PrescriptionCreatedEvent event) {
         log.info("Handling prescription created event for prescription: {}", event.prescription().getId());
 
@@ -56,8 +51,7 @@ public class PrescriptionEventListener {
         }
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handlePrescriptionExpiring(PrescriptionExpiringEvent event) {
         log.info("Handling prescription expiring event for prescription: {}", event.prescription().getId());
 
@@ -160,8 +154,7 @@ public class PrescriptionEventListener {
     private void sendEmailNotificationsForCreation(Prescription prescription,
             Map<String, Object> variables) {
         try {
-            emailService.getEmailSender(EmailType.PRESCRIPTION_CREATED)
-                    .sendEmail(prescription.getPatient().getEmail(), variables);
+            notificationOutboxService.enqueueEmail(EmailType.PRESCRIPTION_CREATED, prescription.getPatient().getEmail(), variables);
         } catch (Exception e) {
             log.error("Failed to send prescription creation email notifications for prescription ID: {}",
                     prescription.getId(), e);
@@ -182,8 +175,7 @@ public class PrescriptionEventListener {
     private void sendEmailNotificationsForExpiring(PrescriptionExpiringEvent event,
             Map<String, Object> patientVariables) {
         try {
-            emailService.getEmailSender(EmailType.PRESCRIPTION_EXPIRING)
-                    .sendEmail(event.prescription().getPatient().getEmail(), patientVariables);
+            notificationOutboxService.enqueueEmail(EmailType.PRESCRIPTION_EXPIRING, event.prescription().getPatient().getEmail(), patientVariables);
         } catch (Exception e) {
             log.error("Failed to send prescription expiring email notifications for prescription ID: {}",
                     event.prescription().getId(), e);
@@ -218,7 +210,7 @@ public class PrescriptionEventListener {
             }
 
             log.debug("Sending push notification to account {} for type: {}", accountId, notificationType);
-            pushSubscriptionService.sendNotificationByAccountId(accountId, notificationType, variables);
+            notificationOutboxService.enqueuePush(accountId, notificationType, variables);
 
         } catch (Exception e) {
             log.warn("Failed to send push notification to account {}: {}", accountId, e.getMessage());
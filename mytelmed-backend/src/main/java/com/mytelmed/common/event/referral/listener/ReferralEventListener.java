@@ -1,25 +1,20 @@
 package com.mytelmed.common.event.referral.listener;
 
-import com.mytelmed.common.constant.family.FamilyPermissionType;
-import com.mytelmed.common.event.referral.model.ReferralCreatedEvent;
+import com.mytelmed.common.event.NotificationRecipient;
 import com.mytelmed.common.event.referral.model.ReferralAcceptedEvent;
+import com.mytelmed.common.event.referral.model.ReferralCreatedEvent;
 import com.mytelmed.common.event.referral.model.ReferralRejectedEvent;
 import com.mytelmed.common.event.referral.model.ReferralScheduledEvent;
-import com.mytelmed.core.family.entity.FamilyMember;
-import com.mytelmed.core.family.repository.FamilyMemberRepository;
-import com.mytelmed.core.notification.service.PushSubscriptionService;
-import com.mytelmed.core.patient.entity.Patient;
-import com.mytelmed.core.patient.service.PatientService;
+import com.mytelmed.common.event.referral.model.ReferralSnapshot;
+import com.mytelmed.core.notification.service.NotificationOutboxService;
 import com.mytelmed.infrastructure.email.constant.EmailType;
-import com.mytelmed.infrastructure.email.factory.EmailSenderFactoryRegistry;
 import com.mytelmed.infrastructure.push.constant.PushNotificationType;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -28,63 +23,41 @@ import java.util.UUID;
  * telemedicine.
  * Handles sending of referral notification emails and push notifications to
  * patients and their authorized family members.
+ * <p>
+ * Events carry a {@link ReferralSnapshot} with the recipients already resolved,
+ * so handling them does not touch the database beyond enqueuing notifications.
  */
 @Slf4j
 @Component
 public class ReferralEventListener {
 
-    private final EmailSenderFactoryRegistry emailService;
-    private final PushSubscriptionService pushSubscriptionService;
-    private final FamilyMemberRepository familyMemberRepository;
+    private final NotificationOutboxService notificationOutboxService;
     private final String frontendUrl;
-    private final PatientService patientService;
-
-    public ReferralEventListener(EmailSenderFactoryRegistry emailService,
-            PushSubscriptionService pushSubscriptionService,
-            FamilyMemberRepository familyMemberRepository,
-            @Value("${application.frontend.url}") String frontendUrl,
-            PatientService patientService) {
-        this.emailService = emailService;
-        this.pushSubscriptionService = pushSubscriptionService;
-        this.familyMemberRepository = familyMemberRepository;
+
+    public ReferralEventListener(NotificationOutboxService notificationOutboxService,
+            @Value("${application.frontend.url}") String frontendUrl) {
+        this.notificationOutboxService = notificationOutboxService;
         this.frontendUrl = frontendUrl;
-        this.patientService = patientService;
     }
 
     /**
      * Handles referral creation events and sends notification emails and push
      * notifications to patients and authorized family members
      */
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleReferralCreated(ReferralCreatedEvent event) {
-        log.info("Handling referral created event for referral: {}", event.referral().getReferralNumber());
+        ReferralSnapshot referral = event.referral();
+        log.info("Handling referral created event for referral: {}", referral.referralNumber());
 
         try {
-            // Build specific variables for each strategy
-            Map<String, Object> emailVariables = buildReferralCreatedEmailVariables(event);
-            Map<String, Object> pushVariables = buildReferralCreatedPushVariables(event);
-
-            // Send email to patient
-            String patientEmail = event.referral().getPatient().getEmail();
-            sendEmailNotification(patientEmail, EmailType.REFERRAL_CREATED, emailVariables);
-            log.debug("Sent referral email notification to patient: {}", patientEmail);
-
-            // Send push notification to patient
-            UUID patientAccountId = event.referral().getPatient().getAccount().getId();
-            sendPushNotification(patientAccountId, PushNotificationType.REFERRAL_CREATED, pushVariables);
-            log.debug("Sent referral push notification to patient account: {}", patientAccountId);
-
-            // Send notifications to authorized family members with VIEW_REFERRALS
-            // permission
-            sendNotificationsToAuthorizedFamilyMembers(event.referral().getPatient().getId(),
-                    emailVariables, pushVariables, EmailType.REFERRAL_CREATED, PushNotificationType.REFERRAL_CREATED);
+            notifyRecipients(referral, EmailType.REFERRAL_CREATED, PushNotificationType.REFERRAL_CREATED,
+                    buildReferralCreatedEmailVariables(referral), buildReferralCreatedPushVariables(referral));
 
             log.info("Successfully sent referral created notifications for referral: {}",
-                    event.referral().getReferralNumber());
+                    referral.referralNumber());
         } catch (Exception e) {
             log.error("Error sending referral created notifications for referral: {}",
-                    event.referral().getReferralNumber(), e);
+                    referral.referralNumber(), e);
         }
     }
 
@@ -92,35 +65,20 @@ public class ReferralEventListener {
      * Handles referral accepted events and sends notifications to patients and
      * authorized family members
      */
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleReferralAccepted(ReferralAcceptedEvent event) {
-        log.info("Handling referral accepted event for referral: {}", event.referral().getReferralNumber());
+        ReferralSnapshot referral = event.referral();
+        log.info("Handling referral accepted event for referral: {}", referral.referralNumber());
 
         try {
-            // Build specific variables for each strategy
-            Map<String, Object> emailVariables = buildReferralAcceptedEmailVariables(event);
-            Map<String, Object> pushVariables = buildReferralAcceptedPushVariables(event);
-
-            // Send email to patient
-            String patientEmail = event.referral().getPatient().getEmail();
-            sendEmailNotification(patientEmail, EmailType.REFERRAL_ACCEPTED, emailVariables);
-            log.debug("Sent referral accepted email notification to patient: {}", patientEmail);
-
-            // Send push notification to patient
-            UUID patientAccountId = event.referral().getPatient().getAccount().getId();
-            sendPushNotification(patientAccountId, PushNotificationType.REFERRAL_ACCEPTED, pushVariables);
-            log.debug("Sent referral accepted push notification to patient account: {}", patientAccountId);
-
-            // Send notifications to authorized family members
-            sendNotificationsToAuthorizedFamilyMembers(event.referral().getPatient().getId(),
-                    emailVariables, pushVariables, EmailType.REFERRAL_ACCEPTED, PushNotificationType.REFERRAL_ACCEPTED);
+            notifyRecipients(referral, EmailType.REFERRAL_ACCEPTED, PushNotificationType.REFERRAL_ACCEPTED,
+                    buildReferralAcceptedEmailVariables(referral), buildReferralAcceptedPushVariables(referral));
 
             log.info("Successfully sent referral accepted notifications for referral: {}",
-                    event.referral().getReferralNumber());
+                    referral.referralNumber());
         } catch (Exception e) {
             log.error("Error sending referral accepted notifications for referral: {}",
-                    event.referral().getReferralNumber(), e);
+                    referral.referralNumber(), e);
         }
     }
 
@@ -128,35 +86,20 @@ public class ReferralEventListener {
      * Handles referral rejected events and sends notifications to patients and
      * authorized family members
      */
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleReferralRejected(ReferralRejectedEvent event) {
-        log.info("Handling referral rejected event for referral: {}", event.referral().getReferralNumber());
+        ReferralSnapshot referral = event.referral();
+        log.info("Handling referral rejected event for referral: {}", referral.referralNumber());
 
         try {
-            // Build specific variables for each strategy
-            Map<String, Object> emailVariables = buildReferralRejectedEmailVariables(event);
-            Map<String, Object> pushVariables = buildReferralRejectedPushVariables(event);
-
-            // Send email to patient
-            String patientEmail = event.referral().getPatient().getEmail();
-            sendEmailNotification(patientEmail, EmailType.REFERRAL_REJECTED, emailVariables);
-            log.debug("Sent referral rejected email notification to patient: {}", patientEmail);
-
-            // Send push notification to patient
-            UUID patientAccountId = event.referral().getPatient().getAccount().getId();
-            sendPushNotification(patientAccountId, PushNotificationType.REFERRAL_REJECTED, pushVariables);
-            log.debug("Sent referral rejected push notification to patient account: {}", patientAccountId);
-
-            // Send notifications to authorized family members
-            sendNotificationsToAuthorizedFamilyMembers(event.referral().getPatient().getId(),
-                    emailVariables, pushVariables, EmailType.REFERRAL_REJECTED, PushNotificationType.REFERRAL_REJECTED);
+            notifyRecipients(referral, EmailType.REFERRAL_REJECTED, PushNotificationType.REFERRAL_REJECTED,
+                    buildReferralRejectedEmailVariables(referral), buildReferralRejectedPushVariables(referral));
 
             log.info("Successfully sent referral rejected notifications for referral: {}",
-                    event.referral().getReferralNumber());
+                    referral.referralNumber());
         } catch (Exception e) {
             log.error("Error sending referral rejected notifications for referral: {}",
-                    event.referral().getReferralNumber(), e);
+                    referral.referralNumber(), e);
         }
     }
 
@@ -164,144 +107,73 @@ public class ReferralEventListener {
      * Handles referral scheduled events and sends notifications to patients and
      * authorized family members
      */
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleReferralScheduled(ReferralScheduledEvent event) {
-        log.info("Handling referral scheduled event for referral: {}", event.referral().getReferralNumber());
+        ReferralSnapshot referral = event.referral();
+        log.info("Handling referral scheduled event for referral: {}", referral.referralNumber());
 
         try {
-            // Build specific variables for each strategy
-            Map<String, Object> emailVariables = buildReferralScheduledEmailVariables(event);
-            Map<String, Object> pushVariables = buildReferralScheduledPushVariables(event);
-
-            // Send email to patient
-            String patientEmail = event.referral().getPatient().getEmail();
-            sendEmailNotification(patientEmail, EmailType.REFERRAL_SCHEDULED, emailVariables);
-            log.debug("Sent referral scheduled email notification to patient: {}", patientEmail);
-
-            // Send push notification to patient
-            UUID patientAccountId = event.referral().getPatient().getAccount().getId();
-            sendPushNotification(patientAccountId, PushNotificationType.REFERRAL_SCHEDULED, pushVariables);
-            log.debug("Sent referral scheduled push notification to patient account: {}", patientAccountId);
-
-            // Send notifications to authorized family members
-            sendNotificationsToAuthorizedFamilyMembers(event.referral().getPatient().getId(),
-                    emailVariables, pushVariables, EmailType.REFERRAL_SCHEDULED,
-                    PushNotificationType.REFERRAL_SCHEDULED);
+            notifyRecipients(referral, EmailType.REFERRAL_SCHEDULED, PushNotificationType.REFERRAL_SCHEDULED,
+                    buildReferralScheduledEmailVariables(event), buildReferralScheduledPushVariables(event));
 
             log.info("Successfully sent referral scheduled notifications for referral: {}",
-                    event.referral().getReferralNumber());
+                    referral.referralNumber());
         } catch (Exception e) {
             log.error("Error sending referral scheduled notifications for referral: {}",
-                    event.referral().getReferralNumber(), e);
+                    referral.referralNumber(), e);
         }
     }
 
     /**
      * Builds email variables for referral created notifications
      */
-    private Map<String, Object> buildReferralCreatedEmailVariables(ReferralCreatedEvent event) {
-        Map<String, Object> variables = new HashMap<>();
-
-        // Basic referral information
-        variables.put("referralId", event.referral().getId().toString());
-        variables.put("referralNumber", event.referral().getReferralNumber());
-        variables.put("referralType", event.referral().getReferralType().toString());
-        variables.put("priority", event.referral().getPriority().toString());
-        variables.put("reasonForReferral", event.referral().getReasonForReferral());
-        variables.put("clinicalSummary", event.referral().getClinicalSummary());
-        variables.put("expiryDate", event.referral().getExpiryDate());
-        variables.put("createdAt", event.referral().getCreatedAt());
-
-        // Patient information
-        variables.put("patientName", event.referral().getPatient().getName());
-
-        // Referring doctor information
-        variables.put("referringDoctorName", "Dr. " + event.referral().getReferringDoctor().getName());
-
-        // Optional clinical information
-        if (event.referral().getCurrentMedications() != null
-                && !event.referral().getCurrentMedications().trim().isEmpty()) {
-            variables.put("currentMedications", event.referral().getCurrentMedications());
-        }
-        if (event.referral().getAllergies() != null && !event.referral().getAllergies().trim().isEmpty()) {
-            variables.put("allergies", event.referral().getAllergies());
-        }
-        if (event.referral().getInvestigationsDone() != null
-                && !event.referral().getInvestigationsDone().trim().isEmpty()) {
-            variables.put("investigationsDone", event.referral().getInvestigationsDone());
-        }
-        if (event.referral().getNotes() != null && !event.referral().getNotes().trim().isEmpty()) {
-            variables.put("notes", event.referral().getNotes());
-        }
+    private Map<String, Object> buildReferralCreatedEmailVariables(ReferralSnapshot referral) {
+        Map<String, Object> variables = buildBaseEmailVariables(referral);
 
         // Type-specific information
-        if (event.referral().getReferralType().toString().equals("INTERNAL")) {
+        if (referral.isInternal()) {
             // Internal referral - referred doctor within MyTelmed system
-            if (event.referral().getReferredDoctor() != null) {
-                variables.put("referredDoctorName", "Dr. " + event.referral().getReferredDoctor().getName());
-
-                // Convert List<String> to comma-separated format
-                List<String> specialities = event.referral().getReferredDoctor().getSpecialityList();
-                String formattedSpecialities = String.join(", ", specialities);
-                variables.put("referredDoctorSpeciality", formattedSpecialities);
-
-                variables.put("facilityName", event.referral().getReferredDoctor().getFacility().getName());
+            putReferredDoctor(variables, referral);
+            if (referral.referredDoctorName() != null && referral.facilityName() != null) {
+                variables.put("facilityName", referral.facilityName());
             }
         } else {
             // External referral - outside MyTelmed system
-            if (event.referral().getExternalDoctorName() != null) {
-                variables.put("externalDoctorName", event.referral().getExternalDoctorName());
-            }
-            if (event.referral().getExternalDoctorSpeciality() != null) {
-                variables.put("externalDoctorSpeciality", event.referral().getExternalDoctorSpeciality());
-            }
-            if (event.referral().getExternalFacilityName() != null) {
-                variables.put("externalFacilityName", event.referral().getExternalFacilityName());
-            }
-            if (event.referral().getExternalFacilityAddress() != null) {
-                variables.put("externalFacilityAddress", event.referral().getExternalFacilityAddress());
-            }
-            if (event.referral().getExternalContactNumber() != null) {
-                variables.put("externalContactNumber", event.referral().getExternalContactNumber());
-            }
+            putIfNotNull(variables, "externalDoctorName", referral.externalDoctorName());
+            putIfNotNull(variables, "externalDoctorSpeciality", referral.externalDoctorSpeciality());
+            putIfNotNull(variables, "externalFacilityName", referral.externalFacilityName());
+            putIfNotNull(variables, "externalFacilityAddress", referral.externalFacilityAddress());
+            putIfNotNull(variables, "externalContactNumber", referral.externalContactNumber());
         }
 
-        // UI links
-        variables.put("uiHost", frontendUrl);
-
         return variables;
     }
 
     /**
      * Builds push notification variables for referral created notifications
      */
-    private Map<String, Object> buildReferralCreatedPushVariables(ReferralCreatedEvent event) {
+    private Map<String, Object> buildReferralCreatedPushVariables(ReferralSnapshot referral) {
         Map<String, Object> variables = new HashMap<>();
 
         // Basic referral information for push notifications
-        variables.put("referralId", event.referral().getId().toString());
-        variables.put("referralNumber", event.referral().getReferralNumber());
-        variables.put("referralType", event.referral().getReferralType().toString());
-        variables.put("priority", event.referral().getPriority().toString());
-        variables.put("expiryDate", event.referral().getExpiryDate());
+        variables.put("referralId", referral.referralId().toString());
+        variables.put("referralNumber", referral.referralNumber());
+        variables.put("referralType", referral.referralType().toString());
+        variables.put("priority", referral.priority().toString());
+        variables.put("expiryDate", referral.expiryDate());
 
         // Doctor information
-        variables.put("referringDoctorName", "Dr. " + event.referral().getReferringDoctor().getName());
+        variables.put("referringDoctorName", "Dr. " + referral.referringDoctorName());
 
         // Type-specific information for push notifications
-        if (event.referral().getReferralType().toString().equals("INTERNAL")) {
-            if (event.referral().getReferredDoctor() != null) {
-                variables.put("referredDoctorName", "Dr. " + event.referral().getReferredDoctor().getName());
+        if (referral.isInternal()) {
+            if (referral.referredDoctorName() != null) {
+                variables.put("referredDoctorName", "Dr. " + referral.referredDoctorName());
             }
         } else {
             // External referral information
-            if (event.referral().getExternalDoctorName() != null) {
-                variables.put("externalDoctorName", event.referral().getExternalDoctorName());
-            }
-            if (event.referral().getExternalFacilityName() != null) {
-                variables.put("externalFacilityName", event.referral().getExternalFacilityName());
-            }
+            putIfNotNull(variables, "externalDoctorName", referral.externalDoctorName());
+            putIfNotNull(variables, "externalFacilityName", referral.externalFacilityName());
         }
 
         return variables;
@@ -310,77 +182,32 @@ public class ReferralEventListener {
     /**
      * Builds email variables for referral accepted notifications
      */
-    private Map<String, Object> buildReferralAcceptedEmailVariables(ReferralAcceptedEvent event) {
-        Map<String, Object> variables = new HashMap<>();
-
-        // Basic referral information
-        variables.put("referralId", event.referral().getId().toString());
-        variables.put("referralNumber", event.referral().getReferralNumber());
-        variables.put("referralType", event.referral().getReferralType().toString());
-        variables.put("priority", event.referral().getPriority().toString());
-        variables.put("reasonForReferral", event.referral().getReasonForReferral());
-        variables.put("clinicalSummary", event.referral().getClinicalSummary());
-        variables.put("expiryDate", event.referral().getExpiryDate());
-        variables.put("createdAt", event.referral().getCreatedAt());
-        variables.put("acceptedAt", event.referral().getAcceptedAt());
-
-        // Patient information
-        variables.put("patientName", event.referral().getPatient().getName());
-
-        // Referring doctor information
-        variables.put("referringDoctorName", "Dr. " + event.referral().getReferringDoctor().getName());
-
-        // Optional clinical information
-        if (event.referral().getCurrentMedications() != null
-                && !event.referral().getCurrentMedications().trim().isEmpty()) {
-            variables.put("currentMedications", event.referral().getCurrentMedications());
-        }
-        if (event.referral().getAllergies() != null && !event.referral().getAllergies().trim().isEmpty()) {
-            variables.put("allergies", event.referral().getAllergies());
-        }
-        if (event.referral().getInvestigationsDone() != null
-                && !event.referral().getInvestigationsDone().trim().isEmpty()) {
-            variables.put("investigationsDone", event.referral().getInvestigationsDone());
-        }
-        if (event.referral().getNotes() != null && !event.referral().getNotes().trim().isEmpty()) {
-            variables.put("notes", event.referral().getNotes());
-        }
-
-        // Type-specific information
-        if (event.referral().getReferralType().toString().equals("INTERNAL")) {
-            // Internal referral - referred doctor within MyTelmed system
-            if (event.referral().getReferredDoctor() != null) {
-                variables.put("referredDoctorName", "Dr. " + event.referral().getReferredDoctor().getName());
-
-                // Convert List<String> to comma-separated format
-                List<String> specialities = event.referral().getReferredDoctor().getSpecialityList();
-                String formattedSpecialities = String.join(", ", specialities);
-                variables.put("referredDoctorSpeciality", formattedSpecialities);
-
-                if (event.referral().getReferredDoctor().getFacility() != null) {
-                    variables.put("facilityName", event.referral().getReferredDoctor().getFacility().getName());
-                }
+    private Map<String, Object> buildReferralAcceptedEmailVariables(ReferralSnapshot referral) {
+        Map<String, Object> variables = buildBaseEmailVariables(referral);
+        variables.put("acceptedAt", referral.acceptedAt());
+
+        if (referral.isInternal()) {
+            putReferredDoctor(variables, referral);
+            if (referral.referredDoctorName() != null && referral.facilityName() != null) {
+                variables.put("facilityName", referral.facilityName());
             }
         }
 
-        // UI links
-        variables.put("uiHost", frontendUrl);
-
         return variables;
     }
 
     /**
      * Builds push notification variables for referral accepted notifications
      */
-    private Map<String, Object> buildReferralAcceptedPushVariables(ReferralAcceptedEvent event) {
+    private Map<String, Object> buildReferralAcceptedPushVariables(ReferralSnapshot referral) {
         Map<String, Object> variables = new HashMap<>();
 
-        variables.put("referralId", event.referral().getId().toString());
-        variables.put("referralNumber", event.referral().getReferralNumber());
-        variables.put("referralType", event.referral().getReferralType().toString());
+        variables.put("referralId", referral.referralId().toString());
+        variables.put("referralNumber", referral.referralNumber());
+        variables.put("referralType", referral.referralType().toString());
 
-        if (event.referral().getReferredDoctor() != null) {
-            variables.put("referredDoctorName", "Dr. " + event.referral().getReferredDoctor().getName());
+        if (referral.referredDoctorName() != null) {
+            variables.put("referredDoctorName", "Dr. " + referral.referredDoctorName());
         }
 
         return variables;
@@ -389,83 +216,34 @@ public class ReferralEventListener {
     /**
      * Builds email variables for referral rejected notifications
      */
-    private Map<String, Object> buildReferralRejectedEmailVariables(ReferralRejectedEvent event) {
-        Map<String, Object> variables = new HashMap<>();
-
-        // Basic referral information
-        variables.put("referralId", event.referral().getId().toString());
-        variables.put("referralNumber", event.referral().getReferralNumber());
-        variables.put("referralType", event.referral().getReferralType().toString());
-        variables.put("priority", event.referral().getPriority().toString());
-        variables.put("reasonForReferral", event.referral().getReasonForReferral());
-        variables.put("clinicalSummary", event.referral().getClinicalSummary());
-        variables.put("expiryDate", event.referral().getExpiryDate());
-        variables.put("createdAt", event.referral().getCreatedAt());
-        variables.put("rejectedAt", event.referral().getRejectedAt());
-
-        // Patient information
-        variables.put("patientName", event.referral().getPatient().getName());
-
-        // Referring doctor information
-        variables.put("referringDoctorName", "Dr. " + event.referral().getReferringDoctor().getName());
+    private Map<String, Object> buildReferralRejectedEmailVariables(ReferralSnapshot referral) {
+        Map<String, Object> variables = buildBaseEmailVariables(referral);
+        variables.put("rejectedAt", referral.rejectedAt());
 
         // Rejection-specific information
-        if (event.referral().getRejectionReason() != null) {
-            variables.put("rejectionReason", event.referral().getRejectionReason());
-        }
+        putIfNotNull(variables, "rejectionReason", referral.rejectionReason());
 
-        // Optional clinical information
-        if (event.referral().getCurrentMedications() != null
-                && !event.referral().getCurrentMedications().trim().isEmpty()) {
-            variables.put("currentMedications", event.referral().getCurrentMedications());
-        }
-        if (event.referral().getAllergies() != null && !event.referral().getAllergies().trim().isEmpty()) {
-            variables.put("allergies", event.referral().getAllergies());
-        }
-        if (event.referral().getInvestigationsDone() != null
-                && !event.referral().getInvestigationsDone().trim().isEmpty()) {
-            variables.put("investigationsDone", event.referral().getInvestigationsDone());
-        }
-        if (event.referral().getNotes() != null && !event.referral().getNotes().trim().isEmpty()) {
-            variables.put("notes", event.referral().getNotes());
+        if (referral.isInternal()) {
+            putReferredDoctor(variables, referral);
         }
 
-        // Type-specific information
-        if (event.referral().getReferralType().toString().equals("INTERNAL")) {
-            // Internal referral - referred doctor within MyTelmed system
-            if (event.referral().getReferredDoctor() != null) {
-                variables.put("referredDoctorName", "Dr. " + event.referral().getReferredDoctor().getName());
-
-                // Convert List<String> to comma-separated format
-                List<String> specialities = event.referral().getReferredDoctor().getSpecialityList();
-                String formattedSpecialities = String.join(", ", specialities);
-                variables.put("referredDoctorSpeciality", formattedSpecialities);
-            }
-        }
-
-        // UI links
-        variables.put("uiHost", frontendUrl);
-
         return variables;
     }
 
     /**
      * Builds push notification variables for referral rejected notifications
      */
-    private Map<String, Object> buildReferralRejectedPushVariables(ReferralRejectedEvent event) {
+    private Map<String, Object> buildReferralRejectedPushVariables(ReferralSnapshot referral) {
         Map<String, Object> variables = new HashMap<>();
 
-        variables.put("referralId", event.referral().getId().toString());
-        variables.put("referralNumber", event.referral().getReferralNumber());
-        variables.put("referralType", event.referral().getReferralType().toString());
+        variables.put("referralId", referral.referralId().toString());
+        variables.put("referralNumber", referral.referralNumber());
+        variables.put("referralType", referral.referralType().toString());
 
-        if (event.referral().getReferredDoctor() != null) {
-            variables.put("referredDoctorName", "Dr. " + event.referral().getReferredDoctor().getName());
-        }
-
-        if (event.referral().getRejectionReason() != null) {
-            variables.put("rejectionReason", event.referral().getRejectionReason());
+        if (referral.referredDoctorName() != null) {
+            variables.put("referredDoctorName", "Dr. " + referral.referredDoctorName());
         }
+        putIfNotNull(variables, "rejectionReason", referral.rejectionReason());
 
         return variables;
     }
@@ -474,19 +252,18 @@ public class ReferralEventListener {
      * Builds push notification variables for referral scheduled notifications
      */
     private Map<String, Object> buildReferralScheduledPushVariables(ReferralScheduledEvent event) {
+        ReferralSnapshot referral = event.referral();
         Map<String, Object> variables = new HashMap<>();
 
-        variables.put("referralId", event.referral().getId().toString());
-        variables.put("referralNumber", event.referral().getReferralNumber());
-        variables.put("appointmentId", event.appointment().getId().toString());
-        variables.put("appointmentDateTime", event.appointment().getTimeSlot().getStartTime());
-        variables.put("consultationMode", event.appointment().getConsultationMode().toString());
+        variables.put("referralId", referral.referralId().toString());
+        variables.put("referralNumber", referral.referralNumber());
+        variables.put("appointmentId", event.appointmentId().toString());
+        variables.put("appointmentDateTime", event.appointmentDateTime());
+        variables.put("consultationMode", event.consultationMode().toString());
 
-        if (event.referral().getReferredDoctor() != null) {
-            variables.put("referredDoctorName", "Dr. " + event.referral().getReferredDoctor().getName());
-            if (event.referral().getReferredDoctor().getFacility() != null) {
-                variables.put("facilityName", event.referral().getReferredDoctor().getFacility().getName());
-            }
+        if (referral.referredDoctorName() != null) {
+            variables.put("referredDoctorName", "Dr. " + referral.referredDoctorName());
+            putIfNotNull(variables, "facilityName", referral.facilityName());
         }
 
         return variables;
@@ -496,66 +273,54 @@ public class ReferralEventListener {
      * Builds email variables for referral scheduled notifications
      */
     private Map<String, Object> buildReferralScheduledEmailVariables(ReferralScheduledEvent event) {
-        Map<String, Object> variables = new HashMap<>();
-
-        // Basic referral information
-        variables.put("referralId", event.referral().getId().toString());
-        variables.put("referralNumber", event.referral().getReferralNumber());
-        variables.put("referralType", event.referral().getReferralType().toString());
-        variables.put("priority", event.referral().getPriority().toString());
-        variables.put("reasonForReferral", event.referral().getReasonForReferral());
-        variables.put("clinicalSummary", event.referral().getClinicalSummary());
-        variables.put("expiryDate", event.referral().getExpiryDate());
-        variables.put("createdAt", event.referral().getCreatedAt());
+        ReferralSnapshot referral = event.referral();
+        Map<String, Object> variables = buildBaseEmailVariables(referral);
 
         // Appointment-specific information
-        variables.put("appointmentId", event.appointment().getId().toString());
-        variables.put("appointmentDateTime", event.appointment().getTimeSlot().getStartTime());
-        variables.put("consultationMode", event.appointment().getConsultationMode().toString());
-
-        // Patient information
-        variables.put("patientName", event.referral().getPatient().getName());
-
-        // Referring doctor information
-        variables.put("referringDoctorName", "Dr. " + event.referral().getReferringDoctor().getName());
+        variables.put("appointmentId", event.appointmentId().toString());
+        variables.put("appointmentDateTime", event.appointmentDateTime());
+        variables.put("consultationMode", event.consultationMode().toString());
 
         // Facility information
-        if (event.referral().getReferredDoctor() != null
-                && event.referral().getReferredDoctor().getFacility() != null) {
-            variables.put("facilityName", event.referral().getReferredDoctor().getFacility().getName());
-            if (event.referral().getReferredDoctor().getFacility().getAddress() != null) {
-                variables.put("facilityAddress", event.referral().getReferredDoctor().getFacility().getAddress());
-            }
+        if (referral.referredDoctorName() != null && referral.facilityName() != null) {
+            variables.put("facilityName", referral.facilityName());
+            putIfNotNull(variables, "facilityAddress", referral.facilityAddress());
         }
 
-        // Optional clinical information
-        if (event.referral().getCurrentMedications() != null
-                && !event.referral().getCurrentMedications().trim().isEmpty()) {
-            variables.put("currentMedications", event.referral().getCurrentMedications());
-        }
-        if (event.referral().getAllergies() != null && !event.referral().getAllergies().trim().isEmpty()) {
-            variables.put("allergies", event.referral().getAllergies());
-        }
-        if (event.referral().getInvestigationsDone() != null
-                && !event.referral().getInvestigationsDone().trim().isEmpty()) {
-            variables.put("investigationsDone", event.referral().getInvestigationsDone());
-        }
-        if (event.referral().getNotes() != null && !event.referral().getNotes().trim().isEmpty()) {
-            variables.put("notes", event.referral().getNotes());
+        if (referral.isInternal()) {
+            putReferredDoctor(variables, referral);
         }
 
-        // Type-specific information
-        if (event.referral().getReferralType().toString().equals("INTERNAL")) {
-            // Internal referral - referred doctor within MyTelmed system
-            if (event.referral().getReferredDoctor() != null) {
-                variables.put("referredDoctorName", "Dr. " + event.referral().getReferredDoctor().getName());
+        return variables;
+    }
 
-                // Convert List<String> to comma-separated format
-                List<String> specialities = event.referral().getReferredDoctor().getSpecialityList();
-                String formattedSpecialities = String.join(", ", specialities);
-                variables.put("referredDoctorSpeciality", formattedSpecialities);
-            }
-        }
+    /**
+     * Builds the referral, patient and clinical variables shared by all referral emails
+     */
+    private Map<String, Object> buildBaseEmailVariables(ReferralSnapshot referral) {
+        Map<String, Object> variables = new HashMap<>();
+
+        // Basic referral information
+        variables.put("referralId", referral.referralId().toString());
+        variables.put("referralNumber", referral.referralNumber());
+        variables.put("referralType", referral.referralType().toString());
+        variables.put("priority", referral.priority().toString());
+        variables.put("reasonForReferral", referral.reasonForReferral());
+        variables.put("clinicalSummary", referral.clinicalSummary());
+        variables.put("expiryDate", referral.expiryDate());
+        variables.put("createdAt", referral.createdAt());
+
+        // Patient information
+        variables.put("patientName", referral.patient().name());
+
+        // Referring doctor information
+        variables.put("referringDoctorName", "Dr. " + referral.referringDoctorName());
+
+        // Optional clinical information
+        putIfNotBlank(variables, "currentMedications", referral.currentMedications());
+        putIfNotBlank(variables, "allergies", referral.allergies());
+        putIfNotBlank(variables, "investigationsDone", referral.investigationsDone());
+        putIfNotBlank(variables, "notes", referral.notes());
 
         // UI links
         variables.put("uiHost", frontendUrl);
@@ -563,145 +328,51 @@ public class ReferralEventListener {
         return variables;
     }
 
-    /**
-     * Sends referral notifications to family members with VIEW_REFERRALS permission
-     */
-    private void sendNotificationsToAuthorizedFamilyMembers(UUID patientId,
-            Map<String, Object> emailVariables,
-            Map<String, Object> pushVariables) {
-        try {
-            // Find all family members for this patient
-            List<FamilyMember> familyMembers = familyMemberRepository.findAllByPatientId(patientId);
-
-            int emailsSent = 0;
-            int pushNotificationsSent = 0;
-
-            for (FamilyMember familyMember : familyMembers) {
-                // Skip pending family members
-                if (familyMember.isPending() || familyMember.getMemberAccount() == null) {
-                    log.debug("Skipping pending family member: {}", familyMember.getId());
-                    continue;
-                }
-
-                // Get family member email and account ID
-                String familyMemberEmail;
-                UUID familyMemberAccountId;
-                try {
-                    Patient familyMemberPatient = patientService
-                            .findPatientByAccountId(familyMember.getMemberAccount().getId());
-                    familyMemberEmail = familyMemberPatient.getEmail();
-                    familyMemberAccountId = familyMember.getMemberAccount().getId();
-                } catch (Exception e) {
-                    log.warn("Failed to find patient for family member {}: {}", familyMember.getId(), e.getMessage());
-                    continue;
-                }
-
-                // Check if the family member has VIEW_REFERRALS permission
-                // Since we moved to individual permission fields, check canViewMedicalRecords
-                // for referral access
-                boolean hasPermission = familyMember.isCanViewMedicalRecords();
-
-                if (hasPermission) {
-                    try {
-                        // Send email notification
-                        sendEmailNotification(familyMemberEmail, EmailType.REFERRAL_CREATED, emailVariables);
-                        emailsSent++;
-                        log.debug("Sent referral email notification to authorized family member: {}",
-                                familyMemberEmail);
-
-                        // Send push notification
-                        sendPushNotification(familyMemberAccountId, PushNotificationType.REFERRAL_CREATED,
-                                pushVariables);
-                        pushNotificationsSent++;
-                        log.debug("Sent referral push notification to authorized family member account: {}",
-                                familyMemberAccountId);
-
-                    } catch (Exception e) {
-                        log.warn("Failed to send referral notification to family member {}: {}",
-                                familyMember.getId(), e.getMessage());
-                    }
-                } else {
-                    log.debug("Family member {} does not have VIEW_REFERRALS permission", familyMember.getId());
-                }
-            }
+    private void putReferredDoctor(Map<String, Object> variables, ReferralSnapshot referral) {
+        if (referral.referredDoctorName() != null) {
+            variables.put("referredDoctorName", "Dr. " + referral.referredDoctorName());
+            variables.put("referredDoctorSpeciality", String.join(", ", referral.referredDoctorSpecialities()));
+        }
+    }
 
-            log.info("Sent referral notifications to {} authorized family members (emails: {}, push: {})",
-                    familyMembers.size(), emailsSent, pushNotificationsSent);
-        } catch (Exception e) {
-            log.error("Error sending referral notifications to family members for patient {}: {}", patientId,
-                    e.getMessage());
+    private void putIfNotNull(Map<String, Object> variables, String key, Object value) {
+        if (value != null) {
+            variables.put(key, value);
+        }
+    }
+
+    private void putIfNotBlank(Map<String, Object> variables, String key, String value) {
+        if (value != null && !value.trim().isEmpty()) {
+            variables.put(key, value);
         }
     }
 
     /**
-     * Sends referral notifications to family members with VIEW_REFERRALS permission
+     * Sends the referral notifications to the patient and to family members with
+     * permission to view the patient's medical records
      */
-    private void sendNotificationsToAuthorizedFamilyMembers(UUID patientId,
+    private void notifyRecipients(ReferralSnapshot referral, EmailType emailType,
+            PushNotificationType notificationType,
             Map<String, Object> emailVariables,
-            Map<String, Object> pushVariables,
-            EmailType emailType,
-            PushNotificationType notificationType) {
-        try {
-            // Find all family members for this patient
-            List<FamilyMember> familyMembers = familyMemberRepository.findAllByPatientId(patientId);
-
-            int emailsSent = 0;
-            int pushNotificationsSent = 0;
-
-            for (FamilyMember familyMember : familyMembers) {
-                // Skip pending family members
-                if (familyMember.isPending() || familyMember.getMemberAccount() == null) {
-                    log.debug("Skipping pending family member: {}", familyMember.getId());
-                    continue;
-                }
-
-                // Get family member email and account ID
-                String familyMemberEmail;
-                UUID familyMemberAccountId;
-                try {
-                    Patient familyMemberPatient = patientService
-                            .findPatientByAccountId(familyMember.getMemberAccount().getId());
-                    familyMemberEmail = familyMemberPatient.getEmail();
-                    familyMemberAccountId = familyMember.getMemberAccount().getId();
-                } catch (Exception e) {
-                    log.warn("Failed to find patient for family member {}: {}", familyMember.getId(), e.getMessage());
-                    continue;
-                }
-
-                // Check if the family member has VIEW_REFERRALS permission
-                // Since we moved to individual permission fields, check canViewMedicalRecords
-                // for referral access
-                boolean hasPermission = familyMember.isCanViewMedicalRecords();
-
-                if (hasPermission) {
-                    try {
-                        // Send email notification
-                        sendEmailNotification(familyMemberEmail, emailType, emailVariables);
-                        emailsSent++;
-                        log.debug("Sent referral email notification to authorized family member: {}",
-                                familyMemberEmail);
-
-                        // Send push notification
-                        sendPushNotification(familyMemberAccountId, notificationType, pushVariables);
-                        pushNotificationsSent++;
-                        log.debug("Sent referral push notification to authorized family member account: {}",
-                                familyMemberAccountId);
-
-                    } catch (Exception e) {
-                        log.warn("Failed to send referral notification to family member {}: {}",
-                                familyMember.getId(), e.getMessage());
-                    }
-                } else {
-                    log.debug("Family member {} does not have VIEW_REFERRALS permission", familyMember.getId());
-                }
+            Map<String, Object> pushVariables) {
+        NotificationRecipient patient = referral.patient();
+        sendEmailNotification(patient.email(), emailType, emailVariables);
+        sendPushNotification(patient.accountId(), notificationType, pushVariables);
+        log.debug("Sent {} notifications to patient account: {}", emailType, patient.accountId());
+
+        int familyMembersNotified = 0;
+        for (NotificationRecipient familyMember : referral.familyRecipients()) {
+            try {
+                sendEmailNotification(familyMember.email(), emailType, emailVariables);
+                sendPushNotification(familyMember.accountId(), notificationType, pushVariables);
+                familyMembersNotified++;
+            } catch (Exception e) {
+                log.warn("Failed to send referral notification to family member account {}: {}",
+                        familyMember.accountId(), e.getMessage());
             }
-
-            log.info("Sent referral notifications to {} authorized family members (emails: {}, push: {})",
-                    familyMembers.size(), emailsSent, pushNotificationsSent);
-        } catch (Exception e) {
-            log.error("Error sending referral notifications to family members for patient {}: {}", patientId,
-                    e.getMessage());
         }
+
+        log.info("Sent referral notifications to {} authorized family members", familyMembersNotified);
     }
 
     /**
@@ -709,7 +380,7 @@ public class ReferralEventListener {
      */
     private void sendEmailNotification(String recipientEmail, EmailType emailType, Map<String, Object> variables) {
         try {
-            emailService.getEmailSender(emailType).sendEmail(recipientEmail, variables);
+            notificationOutboxService.enqueueEmail(emailType, recipientEmail, variables);
         } catch (Exception e) {
             log.error("Failed to send {} email notification to: {}", emailType, recipientEmail, e);
             throw e;
@@ -728,10 +399,10 @@ public class ReferralEventListener {
             }
 
             log.debug("Sending push notification to account {} for type: {}", accountId, notificationType);
-            pushSubscriptionService.sendNotificationByAccountId(accountId, notificationType, variables);
+            notificationOutboxService.enqueuePush(accountId, notificationType, variables);
 
         } catch (Exception e) {
             log.warn("Failed to send push notification to account {}: {}", accountId, e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,5 @@
 package com.mytelmed.common.event.referral.model;
 
-import com.mytelmed.core.referral.entity.Referral;
 import jakarta.validation.constraints.NotNull;
 import lombok.Builder;
 
@@ -13,5 +12,5 @@ import lombok.Builder;
  */
 @Builder
 public record ReferralCreatedEvent(
-    @NotNull(message = "Referral is required") Referral referral) {
+    @NotNull(message = "Referral is required") ReferralSnapshot referral) {
 }
\ No newline at end of file
@@ -1,9 +1,10 @@
 package com.mytelmed.common.event.referral.model;
 
-import com.mytelmed.core.appointment.entity.Appointment;
-import com.mytelmed.core.referral.entity.Referral;
+import com.mytelmed.common.constant.appointment.ConsultationMode;
 import jakarta.validation.constraints.NotNull;
 import lombok.Builder;
+import java.time.LocalDateTime;
+import java.util.UUID;
 
 /**
  * Event published when an appointment is scheduled for a referral in the
@@ -13,6 +14,8 @@ import lombok.Builder;
  */
 @Builder
 public record ReferralScheduledEvent(
-        @NotNull(message = "Referral is required") Referral referral,
-        @NotNull(message = "Appointment is required") Appointment appointment) {
+        @NotNull(message = "Referral is required") ReferralSnapshot referral,
+        @NotNull(message = "Appointment ID is required") UUID appointmentId,
+        @NotNull(message = "Appointment date time is required") LocalDateTime appointmentDateTime,
+        @NotNull(message = "Consultation mode is required") ConsultationMode consultationMode) {
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.mytelmed.common.event.referral.model;
+
+import com.mytelmed.common.constant.referral.ReferralPriority;
+import com.mytelmed.common.constant.referral.ReferralType;
+import com.mytelmed.common.event.NotificationRecipient;
+import com.mytelmed.core.doctor.entity.Doctor;
+import com.mytelmed.core.facility.entity.Facility;
+import com.mytelmed.core.referral.entity.Referral;
+import lombok.Builder;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable copy of the referral fields used by referral notifications, built in
+ * the publishing transaction so listeners never touch the entity graph.
+ */
+@Builder
+public record ReferralSnapshot(
+        UUID referralId,
+        String referralNumber,
+        ReferralType referralType,
+        ReferralPriority priority,
+        String reasonForReferral,
+        String clinicalSummary,
+        String currentMedications,
+        String allergies,
+        String investigationsDone,
+        String notes,
+        LocalDate expiryDate,
+        Instant createdAt,
+        Instant acceptedAt,
+        Instant rejectedAt,
+        String rejectionReason,
+        String referringDoctorName,
+        String referredDoctorName,
+        List<String> referredDoctorSpecialities,
+        String facilityName,
+        String facilityAddress,
+        String externalDoctorName,
+        String externalDoctorSpeciality,
+        String externalFacilityName,
+        String externalFacilityAddress,
+        String externalContactNumber,
+        NotificationRecipient patient,
+        List<NotificationRecipient> familyRecipients) {
+
+    public static ReferralSnapshot of(Referral referral, List<NotificationRecipient> familyRecipients) {
+        Doctor referredDoctor = referral.getReferredDoctor();
+        Facility facility = referredDoctor != null ? referredDoctor.getFacility() : null;
+
+        return ReferralSnapshot.builder()
+                .referralId(referral.getId())
+                .referralNumber(referral.getReferralNumber())
+                .referralType(referral.getReferralType())
+                .priority(referral.getPriority())
+                .reasonForReferral(referral.getReasonForReferral())
+                .clinicalSummary(referral.getClinicalSummary())
+                .currentMedications(referral.getCurrentMedications())
+                .allergies(referral.getAllergies())
+                .investigationsDone(referral.getInvestigationsDone())
+                .notes(referral.getNotes())
+                .expiryDate(referral.getExpiryDate())
+                .createdAt(referral.getCreatedAt())
+                .acceptedAt(referral.getAcceptedAt())
+                .rejectedAt(referral.getRejectedAt())
+                .rejectionReason(referral.getRejectionReason())
+                .referringDoctorName(referral.getReferringDoctor().getName())
+                .referredDoctorName(referredDoctor != null ? referredDoctor.getName() : null)
+                .referredDoctorSpecialities(referredDoctor != null && referredDoctor.getSpecialityList() != null
+                        ? List.copyOf(referredDoctor.getSpecialityList())
+                        : List.of())
+                .facilityName(facility != null ? facility.getName() : null)
+                .facilityAddress(facility != null ? facility.getAddress() : null)
+                .externalDoctorName(referral.getExternalDoctorName())
+                .externalDoctorSpeciality(referral.getExternalDoctorSpeciality())
+                .externalFacilityName(referral.getExternalFacilityName())
+                .externalFacilityAddress(referral.getExternalFacilityAddress())
+                .externalContactNumber(referral.getExternalContactNumber())
+                .patient(NotificationRecipient.of(referral.getPatient()))
+                .familyRecipients(List.copyOf(familyRecipients))
+                .build();
+    }
+
+    public boolean isInternal() {
+        return referralType == ReferralType.INTERNAL;
+    }
+}
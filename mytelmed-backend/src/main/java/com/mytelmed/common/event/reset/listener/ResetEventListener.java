@@ -2,13 +2,13 @@ package com.mytelmed.common.event.reset.listener;
 
 import com.mytelmed.common.event.reset.model.EmailResetEvent;
 import com.mytelmed.common.event.reset.model.PasswordResetEvent;
+import com.mytelmed.core.notification.service.NotificationOutboxService;
 import com.mytelmed.infrastructure.email.constant.EmailType;
-import com.mytelmed.infrastructure.email.factory.EmailSenderFactoryRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -16,17 +16,16 @@ import java.util.Map;
 @Slf4j
 @Component
 public class ResetEventListener {
-    private final EmailSenderFactoryRegistry emailService;
+    private final NotificationOutboxService notificationOutboxService;
     private final String frontendUrl;
 
-    public ResetEventListener(EmailSenderFactoryRegistry emailService,
+    public ResetEventListener(NotificationOutboxService notificationOutboxService,
                               @Value("${application.frontend.url}") String frontendUrl) {
-        this.emailService = emailService;
+        this.notificationOutboxService = notificationOutboxService;
         this.frontendUrl = frontendUrl;
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handlePasswordReset(PasswordResetEvent event) {
         log.debug("Handling password reset event for: {}", event.email());
 
@@ -35,13 +34,12 @@ public class ResetEventListener {
         variables.put("resetToken", event.resetToken());
         variables.put("uiHost", frontendUrl);
 
-        emailService.getEmailSender(EmailType.PASSWORD_RESET).sendEmail(event.email(), variables);
+        notificationOutboxService.enqueueEmail(EmailType.PASSWORD_RESET, event.email(), variables);
 
         log.info("Password reset email sent successfully to: {}", event.email());
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleEmailReset(EmailResetEvent event) {
         log.debug("Handling email reset event for: {}", event.email());
 
@@ -50,7 +48,7 @@ public class ResetEventListener {
         variables.put("resetToken", event.resetToken());
         variables.put("uiHost", frontendUrl);
 
-        emailService.getEmailSender(EmailType.EMAIL_RESET).sendEmail(event.email(), variables);
+        notificationOutboxService.enqueueEmail(EmailType.EMAIL_RESET, event.email(), variables);
 
         log.info("Email reset email sent successfully to: {}", event.email());
     }
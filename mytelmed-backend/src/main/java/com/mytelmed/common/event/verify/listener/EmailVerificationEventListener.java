@@ -1,13 +1,13 @@
 package com.mytelmed.common.event.verify.listener;
 
 import com.mytelmed.common.event.verify.model.EmailVerificationEvent;
+import com.mytelmed.core.notification.service.NotificationOutboxService;
 import com.mytelmed.infrastructure.email.constant.EmailType;
-import com.mytelmed.infrastructure.email.factory.EmailSenderFactoryRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -15,17 +15,16 @@ import java.util.Map;
 @Slf4j
 @Component
 public class EmailVerificationEventListener {
-    private final EmailSenderFactoryRegistry emailService;
+    private final NotificationOutboxService notificationOutboxService;
     private final String frontendUrl;
 
-    public EmailVerificationEventListener(EmailSenderFactoryRegistry emailService,
+    public EmailVerificationEventListener(NotificationOutboxService notificationOutboxService,
                                           @Value("${application.frontend.url}") String frontendUrl) {
-        this.emailService = emailService;
+        this.notificationOutboxService = notificationOutboxService;
         this.frontendUrl = frontendUrl;
     }
 
-    @Async
-    @EventListener
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
     public void handleEmailVerification(EmailVerificationEvent event) {
         log.debug("Handling email verification event for: {}", event.email());
 
@@ -33,7 +32,7 @@ public class EmailVerificationEventListener {
         variables.put("verificationToken", event.token());
         variables.put("uiHost", frontendUrl);
 
-        emailService.getEmailSender(EmailType.EMAIL_VERIFICATION).sendEmail(event.email(), variables);
+        notificationOutboxService.enqueueEmail(EmailType.EMAIL_VERIFICATION, event.email(), variables);
 
         log.info("Email verification email sent successfully to: {}", event.email());
     }
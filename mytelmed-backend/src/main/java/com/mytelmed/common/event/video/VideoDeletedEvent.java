@@ -1,5 +1,6 @@
 package com.mytelmed.common.event.video;
 
+import com.mytelmed.common.event.DurableDomainEvent;
 import jakarta.validation.constraints.NotNull;
 import java.util.UUID;
 
@@ -9,6 +10,13 @@ public record VideoDeletedEvent(
         UUID entityId,
 
         @NotNull(message = "Video key is required")
-        String videoKey
-) {
+        String videoKey,
+
+        // Folder holding the HLS renditions, if the video was transcoded
+        String hlsKeyPrefix
+) implements DurableDomainEvent {
+    @Override
+    public String aggregateId() {
+        return entityId.toString();
+    }
 }
@@ -1,5 +1,6 @@
 package com.mytelmed.common.event.videocall;
 
+import com.mytelmed.common.event.DurableDomainEvent;
 import java.util.UUID;
 
 /**
@@ -9,5 +10,9 @@ public record VideoCallEndedEvent(
         UUID appointmentId,
         String transcriptionText,
         String callDuration,
-        boolean hasTranscription) {
+        boolean hasTranscription) implements DurableDomainEvent {
+    @Override
+    public String aggregateId() {
+        return appointmentId.toString();
+    }
 }
\ No newline at end of file
@@ -1,10 +1,9 @@
 package com.mytelmed.common.event.videocall.listener;
 
+import com.mytelmed.common.event.DomainEventConsumer;
 import com.mytelmed.common.event.videocall.VideoCallEndedEvent;
 import com.mytelmed.core.transcription.service.TranscriptionService;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 /**
@@ -12,7 +11,7 @@ import org.springframework.stereotype.Component;
  */
 @Slf4j
 @Component
-public class VideoCallEventListener {
+public class VideoCallEventListener implements DomainEventConsumer<VideoCallEndedEvent> {
 
     private final TranscriptionService transcriptionService;
 
@@ -20,9 +19,18 @@ public class VideoCallEventListener {
         this.transcriptionService = transcriptionService;
     }
 
-    @Async
-    @EventListener
-    public void handleVideoCallEnded(VideoCallEndedEvent event) {
+    @Override
+    public String getConsumerName() {
+        return "video-call-transcription";
+    }
+
+    @Override
+    public Class<VideoCallEndedEvent> getEventType() {
+        return VideoCallEndedEvent.class;
+    }
+
+    @Override
+    public void consume(VideoCallEndedEvent event) {
         log.info("Video call ended for appointment: {}, has transcription: {}",
                 event.appointmentId(), event.hasTranscription());
 
@@ -281,8 +281,9 @@ public class AppointmentSchedulerService {
      * Send appointment reminders:
      * - 6 hours before appointment (for both virtual and physical)
      * - 1 hour before appointment (for virtual appointments)
+     * Read-write, since the reminder listeners write to the notification outbox before commit.
      */
-    @Transactional(readOnly = true)
+    @Transactional
     public void processAppointmentReminders() {
         log.debug("Processing appointment reminders");
 
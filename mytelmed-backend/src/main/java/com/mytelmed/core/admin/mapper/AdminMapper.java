@@ -1,5 +1,6 @@
 package com.mytelmed.core.admin.mapper;
 
+import com.mytelmed.common.constant.file.ImageSize;
 import com.mytelmed.core.admin.dto.AdminDto;
 import com.mytelmed.core.admin.entity.Admin;
 import com.mytelmed.infrastructure.aws.service.AwsS3Service;
@@ -24,7 +25,7 @@ public interface AdminMapper {
 
     default String mapProfileImageUrl(Admin admin, @Context AwsS3Service awsS3Service) {
         if (admin.getProfileImage() != null && admin.getProfileImage().getImageKey() != null) {
-            return awsS3Service.generatePresignedViewUrl(admin.getProfileImage().getImageKey());
+            return awsS3Service.generatePresignedViewUrl(admin.getProfileImage().getKeyFor(ImageSize.MEDIUM));
         }
         return null;
     }
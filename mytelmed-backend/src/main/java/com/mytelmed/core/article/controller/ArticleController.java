@@ -12,6 +12,8 @@ import com.mytelmed.core.image.service.ImageService;
 import com.mytelmed.core.statistics.entity.ContentView;
 import com.mytelmed.core.statistics.service.StatisticsService;
 import com.mytelmed.infrastructure.aws.service.AwsS3Service;
+import com.mytelmed.infrastructure.cache.dto.CachedContent;
+import com.mytelmed.infrastructure.cache.service.ConditionalResponseFactory;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
@@ -42,14 +44,17 @@ public class ArticleController {
     private final StatisticsService statisticsService;
     private final AwsS3Service awsS3Service;
     private final ImageService imageService;
+    private final ConditionalResponseFactory conditionalResponseFactory;
 
     public ArticleController(ArticleService articleService, ArticleMapper articleMapper,
-                             StatisticsService statisticsService, AwsS3Service awsS3Service, ImageService imageService) {
+                             StatisticsService statisticsService, AwsS3Service awsS3Service, ImageService imageService,
+                             ConditionalResponseFactory conditionalResponseFactory) {
         this.articleService = articleService;
         this.articleMapper = articleMapper;
         this.statisticsService = statisticsService;
         this.awsS3Service = awsS3Service;
         this.imageService = imageService;
+        this.conditionalResponseFactory = conditionalResponseFactory;
     }
 
     // Open endpoint
@@ -73,27 +78,25 @@ public class ArticleController {
                 request.getHeader("User-Agent")
         );
 
-        return ResponseEntity.ok(ApiResponse.success(articleDto));
+        return conditionalResponseFactory.ok(ApiResponse.success(articleDto), article.getUpdatedAt());
     }
 
     // Open endpoint
     @GetMapping
     public ResponseEntity<ApiResponse<List<ArticleDto>>> getAllArticles(@RequestParam(required = false) String subject) {
+        CachedContent<List<Article>> articles;
         if (subject != null && !subject.trim().isEmpty()) {
             log.debug("Received request to get articles by subject: {}", subject);
-            List<Article> articleList = articleService.findArticlesBySubject(subject);
-            List<ArticleDto> articleDtoList = articleList.stream()
-                    .map((article) -> articleMapper.toDto(article, imageService, awsS3Service))
-                    .toList();
-            return ResponseEntity.ok(ApiResponse.success(articleDtoList));
+            articles = articleService.findArticlesBySubject(subject);
         } else {
             log.debug("Received request to get all articles");
-            List<Article> articleList = articleService.findAllArticles();
-            List<ArticleDto> articleDtoList = articleList.stream()
-                    .map((article) -> articleMapper.toDto(article, imageService, awsS3Service))
-                    .toList();
-            return ResponseEntity.ok(ApiResponse.success(articleDtoList));
+            articles = articleService.findAllArticles();
         }
+
+        List<ArticleDto> articleDtoList = articles.value().stream()
+                .map((article) -> articleMapper.toDto(article, imageService, awsS3Service))
+                .toList();
+        return conditionalResponseFactory.ok(ApiResponse.success(articleDtoList), articles.lastModified());
     }
 
     @PostMapping
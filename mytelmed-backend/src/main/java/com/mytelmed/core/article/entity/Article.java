@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
 import java.time.Instant;
 
@@ -16,6 +17,9 @@ import java.time.Instant;
 @NoArgsConstructor
 @AllArgsConstructor
 public class Article {
+    // Keys-only global secondary index for reading an article by id alone
+    public static final String ID_INDEX = "id-index";
+
     private String id;
     private String title;
     private String subject;
@@ -25,6 +29,7 @@ public class Article {
     private Instant updatedAt;
 
     @DynamoDbSortKey
+    @DynamoDbSecondaryPartitionKey(indexNames = ID_INDEX)
     @DynamoDbAttribute("id")
     public String getId() {
         return id;
@@ -1,5 +1,6 @@
 package com.mytelmed.core.article.mapper;
 
+import com.mytelmed.common.constant.file.ImageSize;
 import com.mytelmed.core.article.dto.ArticleDto;
 import com.mytelmed.core.article.entity.Article;
 import com.mytelmed.core.image.entity.Image;
@@ -20,7 +21,7 @@ public abstract class ArticleMapper {
         if (article.getImageId() == null) return null;
         try {
             Image image = imageService.getImageById(UUID.fromString(article.getImageId()));
-            return awsS3Service.generatePresignedViewUrl(image.getImageKey());
+            return awsS3Service.generatePresignedViewUrl(image.getKeyFor(ImageSize.LARGE));
         } catch (Exception e) {
             return null;
         }
@@ -0,0 +1,152 @@
+package com.mytelmed.core.article.service;
+
+import com.mytelmed.core.article.entity.Article;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeDefinition;
+import software.amazon.awssdk.services.dynamodb.model.BillingMode;
+import software.amazon.awssdk.services.dynamodb.model.BillingModeSummary;
+import software.amazon.awssdk.services.dynamodb.model.CreateGlobalSecondaryIndexAction;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.GlobalSecondaryIndexDescription;
+import software.amazon.awssdk.services.dynamodb.model.GlobalSecondaryIndexUpdate;
+import software.amazon.awssdk.services.dynamodb.model.IndexStatus;
+import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
+import software.amazon.awssdk.services.dynamodb.model.KeyType;
+import software.amazon.awssdk.services.dynamodb.model.Projection;
+import software.amazon.awssdk.services.dynamodb.model.ProjectionType;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughput;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputDescription;
+import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
+import software.amazon.awssdk.services.dynamodb.model.TableDescription;
+import software.amazon.awssdk.services.dynamodb.model.UpdateTableRequest;
+import java.util.Optional;
+
+/**
+ * Migrates the articles table to the {@link Article#ID_INDEX} global secondary index
+ * and tracks whether it can serve reads.
+ * <p>
+ * On startup the index is created if the table does not have it. Every article
+ * already has an {@code id} attribute, so DynamoDB backfills the new index from the
+ * existing items by itself; until the backfill finishes, lookups by id fall back to
+ * a scan. The index projects keys only, which keeps it small, and the full item is
+ * then read with a consistent {@code GetItem}.
+ */
+@Slf4j
+@Component
+public class ArticleIdIndexManager {
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+    private final boolean autoCreate;
+    private volatile boolean active;
+
+    public ArticleIdIndexManager(DynamoDbClient dynamoDbClient, DynamoDbTable<Article> articleTable,
+                                 @Value("${aws.dynamodb.article.id-index.auto-create:true}") boolean autoCreate) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = articleTable.tableName();
+        this.autoCreate = autoCreate;
+    }
+
+    /**
+     * Whether the index exists and has finished backfilling.
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndex() {
+        try {
+            TableDescription table = describeTable();
+            Optional<GlobalSecondaryIndexDescription> index = findIndex(table);
+
+            if (index.isPresent()) {
+                updateStatus(index.get());
+            } else if (autoCreate) {
+                createIndex(table);
+            } else {
+                log.warn("Articles table {} has no {} index; lookups by id will scan the table",
+                        tableName, Article.ID_INDEX);
+            }
+        } catch (DynamoDbException e) {
+            log.error("Failed to verify the {} index on articles table {}; lookups by id will scan the table",
+                    Article.ID_INDEX, tableName, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${aws.dynamodb.article.id-index.poll-interval-ms:60000}")
+    public void refreshStatus() {
+        if (active) {
+            return;
+        }
+
+        try {
+            findIndex(describeTable()).ifPresent(this::updateStatus);
+        } catch (DynamoDbException e) {
+            log.warn("Failed to check the {} index status on articles table {}", Article.ID_INDEX, tableName, e);
+        }
+    }
+
+    private void createIndex(TableDescription table) {
+        CreateGlobalSecondaryIndexAction.Builder index = CreateGlobalSecondaryIndexAction.builder()
+                .indexName(Article.ID_INDEX)
+                .keySchema(KeySchemaElement.builder()
+                        .attributeName("id")
+                        .keyType(KeyType.HASH)
+                        .build())
+                .projection(Projection.builder()
+                        .projectionType(ProjectionType.KEYS_ONLY)
+                        .build());
+
+        // Provisioned tables need capacity for the index as well; on-demand tables reject it
+        BillingModeSummary billingMode = table.billingModeSummary();
+        if (billingMode == null || billingMode.billingMode() != BillingMode.PAY_PER_REQUEST) {
+            ProvisionedThroughputDescription throughput = table.provisionedThroughput();
+            index.provisionedThroughput(ProvisionedThroughput.builder()
+                    .readCapacityUnits(throughput.readCapacityUnits())
+                    .writeCapacityUnits(throughput.writeCapacityUnits())
+                    .build());
+        }
+
+        dynamoDbClient.updateTable(UpdateTableRequest.builder()
+                .tableName(tableName)
+                .attributeDefinitions(AttributeDefinition.builder()
+                        .attributeName("id")
+                        .attributeType(ScalarAttributeType.S)
+                        .build())
+                .globalSecondaryIndexUpdates(GlobalSecondaryIndexUpdate.builder()
+                        .create(index.build())
+                        .build())
+                .build());
+        log.info("Creating {} index on articles table {}; lookups by id will scan until it is backfilled",
+                Article.ID_INDEX, tableName);
+    }
+
+    private void updateStatus(GlobalSecondaryIndexDescription index) {
+        boolean ready = index.indexStatus() == IndexStatus.ACTIVE && !Boolean.TRUE.equals(index.backfilling());
+        if (ready && !active) {
+            log.info("Articles table {} index {} is active; lookups by id now use it", tableName, Article.ID_INDEX);
+        }
+        active = ready;
+    }
+
+    private TableDescription describeTable() {
+        return dynamoDbClient.describeTable(DescribeTableRequest.builder()
+                        .tableName(tableName)
+                        .build())
+                .table();
+    }
+
+    private Optional<GlobalSecondaryIndexDescription> findIndex(TableDescription table) {
+        return table.globalSecondaryIndexes().stream()
+                .filter(index -> Article.ID_INDEX.equals(index.indexName()))
+                .findFirst();
+    }
+}
@@ -4,29 +4,41 @@ import com.mytelmed.common.advice.AppException;
 import com.mytelmed.common.advice.exception.InvalidInputException;
 import com.mytelmed.common.advice.exception.ResourceNotFoundException;
 import com.mytelmed.common.constant.file.ImageType;
+import com.mytelmed.common.event.content.ContentChangedEvent;
 import com.mytelmed.common.event.image.ImageDeletedEvent;
 import com.mytelmed.core.article.dto.CreateArticleRequestDto;
 import com.mytelmed.core.article.dto.UpdateArticleRequestDto;
 import com.mytelmed.core.article.entity.Article;
 import com.mytelmed.core.image.entity.Image;
 import com.mytelmed.core.image.service.ImageService;
+import com.mytelmed.core.statistics.entity.ContentView;
+import com.mytelmed.infrastructure.cache.dto.CachedContent;
+import com.mytelmed.infrastructure.cache.service.ContentCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbIndex;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Expression;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.PageIterable;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.Select;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -34,17 +46,69 @@ import java.util.stream.Collectors;
 @Slf4j
 @Service
 public class ArticleService {
+    private final DynamoDbClient dynamoDbClient;
     private final DynamoDbTable<Article> articleTable;
+    private final DynamoDbIndex<Article> articleIdIndex;
+    private final ArticleIdIndexManager articleIdIndexManager;
     private final ImageService imageService;
+    private final ContentCache contentCache;
     private final ApplicationEventPublisher applicationEventPublisher;
 
-    public ArticleService(DynamoDbTable<Article> articleTable, ImageService imageService, ApplicationEventPublisher applicationEventPublisher) {
+    public ArticleService(DynamoDbClient dynamoDbClient, DynamoDbTable<Article> articleTable,
+                          ArticleIdIndexManager articleIdIndexManager, ImageService imageService,
+                          ContentCache contentCache, ApplicationEventPublisher applicationEventPublisher) {
+        this.dynamoDbClient = dynamoDbClient;
         this.articleTable = articleTable;
+        this.articleIdIndex = articleTable.index(Article.ID_INDEX);
+        this.articleIdIndexManager = articleIdIndexManager;
         this.imageService = imageService;
+        this.contentCache = contentCache;
         this.applicationEventPublisher = applicationEventPublisher;
     }
 
+    /**
+     * Reads an article by id: the keys-only id index yields its subject, and the item
+     * itself is read with a consistent {@code GetItem}. Falls back to a scan while the
+     * index is missing or still backfilling, and when the index has no entry yet, e.g.
+     * for an article created moments ago.
+     */
     public Article findArticleById(UUID id) throws ResourceNotFoundException {
+        if (!articleIdIndexManager.isActive()) {
+            return scanArticleById(id);
+        }
+
+        QueryEnhancedRequest indexRequest = QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.keyEqualTo(Key.builder()
+                        .partitionValue(id.toString())
+                        .build()))
+                .limit(1)
+                .build();
+
+        Optional<Article> indexEntry = articleIdIndex.query(indexRequest).stream()
+                .flatMap(page -> page.items().stream())
+                .findFirst();
+
+        if (indexEntry.isEmpty()) {
+            // The index is eventually consistent, so a new article may not have reached it yet
+            log.debug("Article {} not found in the id index, falling back to a scan", id);
+            return scanArticleById(id);
+        }
+
+        // The item read is consistent, so updates never start from stale content
+        Article article = articleTable.getItem(GetItemEnhancedRequest.builder()
+                .key(Key.builder()
+                        .partitionValue(indexEntry.get().getSubject())
+                        .sortValue(indexEntry.get().getId())
+                        .build())
+                .consistentRead(true)
+                .build());
+        if (article == null) {
+            throw new ResourceNotFoundException("Article not found");
+        }
+        return article;
+    }
+
+    private Article scanArticleById(UUID id) throws ResourceNotFoundException {
         Map<String, AttributeValue> expressionValues = new HashMap<>();
         expressionValues.put(":id", AttributeValue.builder().s(id.toString()).build());
 
@@ -55,6 +119,7 @@ public class ArticleService {
 
         ScanEnhancedRequest request = ScanEnhancedRequest.builder()
                 .filterExpression(filterExpression)
+                .consistentRead(true)
                 .build();
 
         return articleTable.scan(request).items().stream()
@@ -62,7 +127,31 @@ public class ArticleService {
                 .orElseThrow(() -> new ResourceNotFoundException("Article not found"));
     }
 
-    public List<Article> findAllArticles() {
+    public CachedContent<List<Article>> findAllArticles() {
+        return contentCache.get(ContentCache.Region.ARTICLE, "all", this::scanAllArticles, this::latestUpdate);
+    }
+
+    public CachedContent<List<Article>> findArticlesBySubject(String subject) {
+        return contentCache.get(ContentCache.Region.ARTICLE, "subject:" + subject,
+                () -> queryArticlesBySubject(subject), this::latestUpdate);
+    }
+
+    /**
+     * Counts articles with a {@code COUNT} scan, which returns no items, so nothing is
+     * read into heap. The scan still consumes read capacity for the whole table.
+     */
+    public long countArticles() {
+        ScanRequest request = ScanRequest.builder()
+                .tableName(articleTable.tableName())
+                .select(Select.COUNT)
+                .build();
+
+        return dynamoDbClient.scanPaginator(request).stream()
+                .mapToLong(page -> page.count())
+                .sum();
+    }
+
+    private List<Article> scanAllArticles() {
         // Create a scan request without any filters (retrieves everything)
         ScanEnhancedRequest request = ScanEnhancedRequest.builder().build();
 
@@ -72,10 +161,10 @@ public class ArticleService {
         // Flatten all pages into a single list of items
         return pages.stream()
                 .flatMap(page -> page.items().stream())
-                .collect(Collectors.toList());
+                .collect(Collectors.toUnmodifiableList());
     }
 
-    public List<Article> findArticlesBySubject(String subject) {
+    private List<Article> queryArticlesBySubject(String subject) {
         Key key = Key.builder()
                 .partitionValue(subject)
                 .build();
@@ -89,7 +178,15 @@ public class ArticleService {
         List<Article> allArticles = new ArrayList<>();
         pages.stream().forEach(page -> allArticles.addAll(page.items()));
 
-        return allArticles;
+        return List.copyOf(allArticles);
+    }
+
+    private Instant latestUpdate(List<Article> articles) {
+        return articles.stream()
+                .map(Article::getUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
     }
 
     public void createArticle(CreateArticleRequestDto request) throws ResourceNotFoundException {
@@ -103,6 +200,9 @@ public class ArticleService {
                 .build();
 
         articleTable.putItem(article);
+        contentCache.invalidate(ContentCache.Region.ARTICLE);
+        applicationEventPublisher.publishEvent(new ContentChangedEvent(ContentView.ContentType.ARTICLE,
+                article.getId(), ContentChangedEvent.Change.CREATED));
     }
 
     public void uploadThumbnail(UUID articleId, MultipartFile thumbnailImageFile) throws AppException {
@@ -119,6 +219,7 @@ public class ArticleService {
             article.setImageId(image.getId().toString());
 
             articleTable.updateItem(article);
+            contentCache.invalidate(ContentCache.Region.ARTICLE);
 
             log.info("Uploaded thumbnail for article with ID: {}", articleId);
         } catch (Exception e) {
@@ -138,6 +239,9 @@ public class ArticleService {
         article.setUpdatedAt(Instant.now());
 
         articleTable.updateItem(article);
+        contentCache.invalidate(ContentCache.Region.ARTICLE);
+        applicationEventPublisher.publishEvent(new ContentChangedEvent(ContentView.ContentType.ARTICLE,
+                article.getId(), ContentChangedEvent.Change.UPDATED));
     }
 
     public void deleteArticle(UUID id) throws ResourceNotFoundException {
@@ -149,6 +253,9 @@ public class ArticleService {
                 .build();
 
         articleTable.deleteItem(key);
+        contentCache.invalidate(ContentCache.Region.ARTICLE);
+        applicationEventPublisher.publishEvent(new ContentChangedEvent(ContentView.ContentType.ARTICLE,
+                article.getId(), ContentChangedEvent.Change.DELETED));
 
         if (article.getImageId() == null) {
             return;
@@ -9,6 +9,7 @@ import com.mytelmed.core.auth.dto.UpdateAccountPasswordRequestDto;
 import com.mytelmed.core.auth.dto.UpdateAccountUsernameRequestDto;
 import com.mytelmed.core.auth.entity.Account;
 import com.mytelmed.core.auth.repository.AccountRepository;
+import com.mytelmed.core.statistics.service.DashboardCounters;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -22,14 +23,17 @@ public class AccountService {
     private final PasswordEncoder passwordEncoder;
     private final AccountRepository accountRepository;
     private final AccountFactoryProducer factoryProducer;
+    private final DashboardCounters dashboardCounters;
 
     public AccountService(AccountRepository accountRepository,
                           PasswordEncoder passwordEncoder,
-                          AccountFactoryProducer factoryProducer
+                          AccountFactoryProducer factoryProducer,
+                          DashboardCounters dashboardCounters
     ) {
         this.accountRepository = accountRepository;
         this.passwordEncoder = passwordEncoder;
         this.factoryProducer = factoryProducer;
+        this.dashboardCounters = dashboardCounters;
     }
 
     @Transactional(readOnly = true)
@@ -111,6 +115,7 @@ public class AccountService {
 
             Account account = factoryProducer.getFactory(AccountType.DOCTOR).createAccount(email, name);
             account = accountRepository.save(account);
+            dashboardCounters.accountCreated();
 
             log.info("Created doctor account with name: {}", email);
             return account;
@@ -134,6 +139,7 @@ public class AccountService {
 
             Account account = factoryProducer.getFactory(AccountType.PHARMACIST).createAccount(email, name);
             account = accountRepository.save(account);
+            dashboardCounters.accountCreated();
 
             log.info("Created pharmacist account with name: {}", email);
             return account;
@@ -158,6 +164,7 @@ public class AccountService {
             Account account = factoryProducer.getFactory(AccountType.ADMIN).createAccount(email, name);
 
             account = accountRepository.save(account);
+            dashboardCounters.accountCreated();
             log.info("Created admin account with name: {}", email);
 
             return account;
@@ -181,6 +188,7 @@ public class AccountService {
 
             Account account = factoryProducer.getFactory(AccountType.PATIENT).createAccount(nric, password, name);
             account = accountRepository.save(account);
+            dashboardCounters.accountCreated();
 
             log.info("Created patient account with name: {}", nric);
 
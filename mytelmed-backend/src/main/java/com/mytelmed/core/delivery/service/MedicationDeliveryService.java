@@ -13,6 +13,7 @@ import com.mytelmed.common.event.delivery.model.DeliveryOutForDeliveryEvent;
 import com.mytelmed.common.event.delivery.model.DeliveryPaymentConfirmedEvent;
 import com.mytelmed.common.event.delivery.model.DeliveryProcessingStartedEvent;
 import com.mytelmed.common.event.delivery.model.DeliveryReadyForPickupEvent;
+import com.mytelmed.common.event.delivery.model.DeliverySnapshot;
 import com.mytelmed.core.address.entity.Address;
 import com.mytelmed.core.address.service.AddressService;
 import com.mytelmed.core.auth.entity.Account;
@@ -149,7 +150,7 @@ public class MedicationDeliveryService {
         MedicationDelivery delivery = initializeDelivery(prescriptionId, patientAccount, DeliveryMethod.PICKUP, null);
 
         // Publish delivery created event
-        DeliveryCreatedEvent event = new DeliveryCreatedEvent(delivery);
+        DeliveryCreatedEvent event = new DeliveryCreatedEvent(DeliverySnapshot.of(delivery));
         applicationEventPublisher.publishEvent(event);
 
         return delivery;
@@ -164,7 +165,7 @@ public class MedicationDeliveryService {
                 deliveryAddress);
 
         // Publish delivery created event
-        DeliveryCreatedEvent event = new DeliveryCreatedEvent(delivery);
+        DeliveryCreatedEvent event = new DeliveryCreatedEvent(DeliverySnapshot.of(delivery));
         applicationEventPublisher.publishEvent(event);
 
         return delivery;
@@ -203,7 +204,7 @@ public class MedicationDeliveryService {
         deliveryRepository.save(delivery);
 
         // Publish payment confirmed event
-        DeliveryPaymentConfirmedEvent event = new DeliveryPaymentConfirmedEvent(delivery);
+        DeliveryPaymentConfirmedEvent event = new DeliveryPaymentConfirmedEvent(DeliverySnapshot.of(delivery));
         applicationEventPublisher.publishEvent(event);
 
         log.info("Payment processed successfully for delivery: {}", deliveryId);
@@ -227,7 +228,8 @@ public class MedicationDeliveryService {
         deliveryRepository.save(delivery);
 
         // Publish delivery processing started event
-        DeliveryProcessingStartedEvent processingEvent = new DeliveryProcessingStartedEvent(delivery);
+        DeliveryProcessingStartedEvent processingEvent =
+                new DeliveryProcessingStartedEvent(DeliverySnapshot.of(delivery));
         applicationEventPublisher.publishEvent(processingEvent);
 
         log.info("Delivery {} processed by pharmacist", deliveryId);
@@ -258,7 +260,7 @@ public class MedicationDeliveryService {
         deliveryRepository.save(delivery);
 
         // Publish ready for pickup event
-        DeliveryReadyForPickupEvent readyEvent = new DeliveryReadyForPickupEvent(delivery);
+        DeliveryReadyForPickupEvent readyEvent = new DeliveryReadyForPickupEvent(DeliverySnapshot.of(delivery));
         applicationEventPublisher.publishEvent(readyEvent);
 
         log.info("Pickup delivery {} marked as ready for pickup", deliveryId);
@@ -293,7 +295,7 @@ public class MedicationDeliveryService {
         deliveryRepository.save(delivery);
 
         // Publish delivery completed event
-        DeliveryCompletedEvent event = new DeliveryCompletedEvent(delivery);
+        DeliveryCompletedEvent event = new DeliveryCompletedEvent(DeliverySnapshot.of(delivery));
         applicationEventPublisher.publishEvent(event);
 
         log.info("Pickup delivery {} marked as delivered by pharmacist", deliveryId);
@@ -322,7 +324,7 @@ public class MedicationDeliveryService {
         deliveryRepository.save(delivery);
 
         // Publish out for delivery event
-        DeliveryOutForDeliveryEvent event = new DeliveryOutForDeliveryEvent(delivery);
+        DeliveryOutForDeliveryEvent event = new DeliveryOutForDeliveryEvent(DeliverySnapshot.of(delivery));
         applicationEventPublisher.publishEvent(event);
 
         log.info("Delivery {} marked as out for delivery", deliveryId);
@@ -358,7 +360,7 @@ public class MedicationDeliveryService {
         deliveryRepository.save(delivery);
 
         // Publish delivery completed event
-        DeliveryCompletedEvent event = new DeliveryCompletedEvent(delivery);
+        DeliveryCompletedEvent event = new DeliveryCompletedEvent(DeliverySnapshot.of(delivery));
         applicationEventPublisher.publishEvent(event);
 
         log.info("Delivery {} marked as completed", deliveryId);
@@ -411,7 +413,7 @@ public class MedicationDeliveryService {
         deliveryRepository.save(delivery);
 
         // Publish delivery cancelled event
-        DeliveryCancelledEvent event = new DeliveryCancelledEvent(delivery, reason);
+        DeliveryCancelledEvent event = new DeliveryCancelledEvent(DeliverySnapshot.of(delivery), reason);
         applicationEventPublisher.publishEvent(event);
 
         log.info("Delivery {} cancelled by pharmacist, prescription {} reset to CREATED status",
@@ -479,7 +481,7 @@ public class MedicationDeliveryService {
         deliveryRepository.save(delivery);
 
         // Publish delivery cancelled event
-        DeliveryCancelledEvent event = new DeliveryCancelledEvent(delivery, reason);
+        DeliveryCancelledEvent event = new DeliveryCancelledEvent(DeliverySnapshot.of(delivery), reason);
         applicationEventPublisher.publishEvent(event);
 
         log.info("Delivery {} cancelled by patient, prescription {} reset to CREATED status",
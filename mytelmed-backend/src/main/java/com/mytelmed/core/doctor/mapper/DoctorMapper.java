@@ -1,6 +1,7 @@
 package com.mytelmed.core.doctor.mapper;
 
 import com.mytelmed.common.constant.Language;
+import com.mytelmed.common.constant.file.ImageSize;
 import com.mytelmed.common.utils.DateTimeUtil;
 import com.mytelmed.core.doctor.dto.DoctorDto;
 import com.mytelmed.core.doctor.entity.Doctor;
@@ -45,7 +46,7 @@ public interface DoctorMapper {
 
     default String mapProfileImageUrl(Doctor doctor, @Context AwsS3Service awsS3Service) {
         if (doctor.getProfileImage() != null && doctor.getProfileImage().getImageKey() != null) {
-            return awsS3Service.generatePresignedViewUrl(doctor.getProfileImage().getImageKey());
+            return awsS3Service.generatePresignedViewUrl(doctor.getProfileImage().getKeyFor(ImageSize.MEDIUM));
         }
         return null;
     }
@@ -8,6 +8,9 @@ import com.mytelmed.core.document.dto.UpdateDocumentRequestDto;
 import com.mytelmed.core.document.entity.Document;
 import com.mytelmed.core.document.mapper.DocumentMapper;
 import com.mytelmed.core.document.service.DocumentService;
+import com.mytelmed.core.upload.dto.CreateDirectUploadRequestDto;
+import com.mytelmed.core.upload.dto.DirectUploadDto;
+import com.mytelmed.core.upload.dto.FinalizeDirectUploadRequestDto;
 import com.mytelmed.infrastructure.aws.service.AwsS3Service;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -113,6 +116,34 @@ public class DocumentController {
         return ResponseEntity.ok(ApiResponse.success("Document uploaded successfully"));
     }
 
+    @PostMapping("/{documentId}/upload-url")
+    @PreAuthorize("hasRole('PATIENT')")
+    public ResponseEntity<ApiResponse<DirectUploadDto>> createDirectDocumentUpload(
+            @PathVariable UUID documentId,
+            @Valid @RequestBody CreateDirectUploadRequestDto request,
+            @AuthenticationPrincipal Account account
+    ) {
+        log.info("Received request to create direct upload for patient with account ID: {} and document ID: {}",
+                account.getId(), documentId);
+
+        DirectUploadDto upload = documentService.createDirectUpload(account, documentId, request);
+        return ResponseEntity.ok(ApiResponse.success(upload));
+    }
+
+    @PostMapping("/{documentId}/finalize")
+    @PreAuthorize("hasRole('PATIENT')")
+    public ResponseEntity<ApiResponse<Void>> finalizeDirectDocumentUpload(
+            @PathVariable UUID documentId,
+            @Valid @RequestBody FinalizeDirectUploadRequestDto request,
+            @AuthenticationPrincipal Account account
+    ) {
+        log.info("Received request to finalize direct upload {} for patient with account ID: {} and document ID: {}",
+                request.uploadId(), account.getId(), documentId);
+
+        documentService.finalizeDirectUpload(account, documentId, request.uploadId());
+        return ResponseEntity.ok(ApiResponse.success("Document uploaded successfully"));
+    }
+
     @PatchMapping(value = "/{documentId}")
     @PreAuthorize("hasRole('PATIENT')")
     public ResponseEntity<ApiResponse<Void>> updateDocument(
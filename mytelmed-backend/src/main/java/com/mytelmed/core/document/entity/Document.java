@@ -49,7 +49,7 @@ public class Document {
     private DocumentType documentType;
 
     @Convert(converter = EncryptionConverter.class)
-    @Column(name = "key", unique = true)
+    @Column(name = "key")
     private String documentKey;
 
     @Column(name = "size")
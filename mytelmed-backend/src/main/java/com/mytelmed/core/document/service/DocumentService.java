@@ -16,6 +16,12 @@ import com.mytelmed.core.document.repository.DocumentRepository;
 import com.mytelmed.core.family.service.FamilyMemberPermissionService;
 import com.mytelmed.core.patient.entity.Patient;
 import com.mytelmed.core.patient.service.PatientService;
+import com.mytelmed.core.storage.dto.StoredContent;
+import com.mytelmed.core.storage.service.ContentAddressedStorageService;
+import com.mytelmed.core.upload.dto.CreateDirectUploadRequestDto;
+import com.mytelmed.core.upload.dto.DirectUploadDto;
+import com.mytelmed.core.upload.entity.PendingUpload;
+import com.mytelmed.core.upload.service.DirectUploadService;
 import com.mytelmed.infrastructure.aws.dto.S3StorageOptions;
 import com.mytelmed.infrastructure.aws.service.AwsS3Service;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +33,7 @@ import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 import java.io.IOException;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 
@@ -38,14 +45,19 @@ public class DocumentService {
     private final PatientService patientService;
     private final ApplicationEventPublisher applicationEventPublisher;
     private final FamilyMemberPermissionService familyMemberPermissionService;
+    private final DirectUploadService directUploadService;
+    private final ContentAddressedStorageService contentAddressedStorageService;
 
     public DocumentService(DocumentRepository documentRepository, AwsS3Service awsS3Service,
-                           PatientService patientService, ApplicationEventPublisher applicationEventPublisher, FamilyMemberPermissionService familyMemberPermissionService) {
+                           PatientService patientService, ApplicationEventPublisher applicationEventPublisher, FamilyMemberPermissionService familyMemberPermissionService,
+                           DirectUploadService directUploadService, ContentAddressedStorageService contentAddressedStorageService) {
         this.documentRepository = documentRepository;
         this.awsS3Service = awsS3Service;
         this.patientService = patientService;
         this.applicationEventPublisher = applicationEventPublisher;
         this.familyMemberPermissionService = familyMemberPermissionService;
+        this.directUploadService = directUploadService;
+        this.contentAddressedStorageService = contentAddressedStorageService;
     }
 
     public Document findById(UUID documentId) throws ResourceNotFoundException {
@@ -131,34 +143,19 @@ public class DocumentService {
             throw new InvalidInputException("Missing document file");
         }
 
+        if (!Objects.requireNonNull(documentFile.getOriginalFilename()).endsWith(".pdf")) {
+            throw new InvalidInputException("File must be a PDF");
+        }
+
         String documentKey = null;
 
         // Find patient by account ID
         Patient patient = patientService.findPatientByAccountId(account.getId());
 
-        // Find document by document ID
-        Document document = findById(documentId);
-
-        // Verify if the document belongs to the patient
-        if (document.getPatient().getId() != patient.getId()) {
-            log.warn("Account {} attempted to upload document {} they don't own", account.getId(), documentId);
-            throw new AppException("Unauthorized to upload document");
-        }
+        // Find document by document ID and verify it belongs to the patient
+        Document document = findOwnedDocument(patient, documentId, account);
 
         try {
-            if (document.getDocumentKey() != null) {
-                log.debug("Updating document for entity: {} of type: {}", patient.getId(), document.getDocumentType().name().toLowerCase());
-                String imageKey = awsS3Service.updateFile(document.getDocumentKey(), documentFile);
-                document.setDocumentKey(imageKey);
-                document.setDocumentSize(documentFile.getSize());
-
-                log.debug("Updating document entry to database for entity: {}", patient.getId());
-                documentRepository.save(document);
-
-                log.info("Updated document entry to database for entity: {}", patient.getId());
-                return;
-            }
-
             // Build the S3 storage options
             S3StorageOptions storageOptions = S3StorageOptions.builder()
                     .fileType(FileType.DOCUMENT)
@@ -166,17 +163,27 @@ public class DocumentService {
                     .entityId(patient.getId().toString())
                     .build();
 
-            // Upload document to S3 and get Key
+            // Upload document to S3, or reuse the patient's existing copy of the same file
             log.debug("Uploading document for patient: {} of type: {}", patient.getId(), document.getDocumentType().name().toLowerCase());
-            documentKey = awsS3Service.uploadFileAndGetKey(storageOptions, documentFile);
+            StoredContent storedContent = contentAddressedStorageService.store(storageOptions,
+                    documentFile.getOriginalFilename(), documentFile, documentFile.getSize(), "application/pdf");
+
+            // Only roll back objects this upload created; reused content belongs to other documents too
+            documentKey = storedContent.uploaded() ? storedContent.key() : null;
+            String previousKey = document.getDocumentKey();
 
             // Update document with new key
-            document.setDocumentKey(documentKey);
+            document.setDocumentKey(storedContent.key());
             document.setDocumentSize(documentFile.getSize());
 
             log.debug("Saving document entry to database for patient: {}", patient.getId());
             documentRepository.save(document);
 
+            // Releases the replaced file, which is deleted once no document references it
+            if (previousKey != null) {
+                applicationEventPublisher.publishEvent(new DocumentDeletedEvent(documentId, previousKey));
+            }
+
             log.info("Saved document entry to database for patient: {}", patient.getId());
         } catch (IOException e) {
             log.error("Failed to read document file data for patient: {}", patient.getId(), e);
@@ -202,6 +209,42 @@ public class DocumentService {
         }
     }
 
+    @Transactional
+    public DirectUploadDto createDirectUpload(Account account, UUID documentId, CreateDirectUploadRequestDto request)
+            throws AppException {
+        Patient patient = patientService.findPatientByAccountId(account.getId());
+        Document document = findOwnedDocument(patient, documentId, account);
+
+        S3StorageOptions storageOptions = S3StorageOptions.builder()
+                .fileType(FileType.DOCUMENT)
+                .folderName(document.getDocumentType().name().toLowerCase())
+                .entityId(patient.getId().toString())
+                .build();
+
+        log.debug("Issuing direct document upload for patient: {} and document: {}", patient.getId(), documentId);
+        return directUploadService.initiate(storageOptions, documentId, account.getId(), request);
+    }
+
+    @Transactional
+    public void finalizeDirectUpload(Account account, UUID documentId, UUID uploadId) throws AppException {
+        Patient patient = patientService.findPatientByAccountId(account.getId());
+        Document document = findOwnedDocument(patient, documentId, account);
+
+        PendingUpload upload = directUploadService.complete(uploadId, documentId, account.getId());
+        String previousKey = document.getDocumentKey();
+
+        document.setDocumentKey(upload.getObjectKey());
+        document.setDocumentSize(upload.getContentLength());
+        documentRepository.save(document);
+
+        // Direct uploads always get a fresh key, so the replaced file is cleaned up like a deleted document
+        if (previousKey != null) {
+            applicationEventPublisher.publishEvent(new DocumentDeletedEvent(documentId, previousKey));
+        }
+
+        log.info("Finalized direct document upload for patient: {} and document: {}", patient.getId(), documentId);
+    }
+
     @Transactional
     public void update(UpdateDocumentRequestDto request, UUID documentId) throws AppException {
         log.debug("Updating document with ID {}", documentId);
@@ -244,4 +287,14 @@ public class DocumentService {
             throw new AppException("Failed to delete document");
         }
     }
+
+    private Document findOwnedDocument(Patient patient, UUID documentId, Account account) throws AppException {
+        Document document = findById(documentId);
+
+        if (!document.getPatient().getId().equals(patient.getId())) {
+            log.warn("Account {} attempted to upload document {} they don't own", account.getId(), documentId);
+            throw new AppException("Unauthorized to upload document");
+        }
+        return document;
+    }
 }
@@ -0,0 +1,93 @@
+package com.mytelmed.core.eventlog.controller;
+
+import com.mytelmed.common.dto.ApiResponse;
+import com.mytelmed.core.eventlog.dto.DomainEventConsumerOffsetDto;
+import com.mytelmed.core.eventlog.dto.DomainEventFailureDto;
+import com.mytelmed.core.eventlog.service.DomainEventLogService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.List;
+import java.util.UUID;
+
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/admin/event-log")
+public class DomainEventLogController {
+    private final DomainEventLogService eventLogService;
+
+    public DomainEventLogController(DomainEventLogService eventLogService) {
+        this.eventLogService = eventLogService;
+    }
+
+    @GetMapping("/consumers")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<DomainEventConsumerOffsetDto>>> getConsumerOffsets() {
+        log.info("Received request to get domain event consumer offsets");
+
+        List<DomainEventConsumerOffsetDto> offsets = eventLogService.findAllOffsets().stream()
+                .map(offset -> new DomainEventConsumerOffsetDto(
+                        offset.getConsumerName(), offset.getLastTransactionId(), offset.getLastOffset(),
+                        offset.getUpdatedAt()))
+                .toList();
+
+        return ResponseEntity.ok(ApiResponse.success(offsets));
+    }
+
+    @PostMapping("/consumers/{consumerName}/replay")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Void>> replayConsumer(
+            @PathVariable String consumerName,
+            @RequestParam(required = false, defaultValue = "1") Long fromOffset) {
+        log.info("Received request to replay domain event consumer {} from offset {}", consumerName, fromOffset);
+
+        eventLogService.replay(consumerName, fromOffset);
+        return ResponseEntity.ok(ApiResponse.success("Domain event consumer replay scheduled successfully"));
+    }
+
+    @GetMapping("/parked")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Page<DomainEventFailureDto>>> getParkedEvents(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("Received request to get parked domain events");
+
+        Page<DomainEventFailureDto> parked = eventLogService
+                .findParkedEvents(PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "updatedAt")))
+                .map(failure -> new DomainEventFailureDto(
+                        failure.getId(), failure.getConsumerName(), failure.getEventId(), failure.getEventType(),
+                        failure.getAggregateId(), failure.getAttempts(), failure.getLastError(),
+                        failure.getCreatedAt(), failure.getUpdatedAt()));
+
+        return ResponseEntity.ok(ApiResponse.success(parked));
+    }
+
+    @PostMapping("/parked/{failureId}/retry")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Void>> retryParkedEvent(@PathVariable UUID failureId) {
+        log.info("Received request to retry parked domain event {}", failureId);
+
+        eventLogService.retryParkedEvent(failureId);
+        return ResponseEntity.ok(ApiResponse.success("Parked domain event scheduled for retry"));
+    }
+
+    @DeleteMapping("/parked/{failureId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Void>> discardParkedEvent(@PathVariable UUID failureId) {
+        log.info("Received request to discard parked domain event {}", failureId);
+
+        eventLogService.discardParkedEvent(failureId);
+        return ResponseEntity.ok(ApiResponse.success("Parked domain event discarded successfully"));
+    }
+}
@@ -0,0 +1,10 @@
+package com.mytelmed.core.eventlog.dto;
+
+import java.time.Instant;
+
+public record DomainEventConsumerOffsetDto(
+        String consumerName,
+        Long lastTransactionId,
+        Long lastOffset,
+        Instant updatedAt) {
+}
@@ -0,0 +1,16 @@
+package com.mytelmed.core.eventlog.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record DomainEventFailureDto(
+        UUID id,
+        String consumerName,
+        Long eventId,
+        String eventType,
+        String aggregateId,
+        Integer attempts,
+        String lastError,
+        Instant createdAt,
+        Instant updatedAt) {
+}
@@ -0,0 +1,47 @@
+package com.mytelmed.core.eventlog.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The position up to which a consumer has processed the domain event log, and the
+ * lease of the node currently processing it.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "domain_event_consumer_offsets")
+public class DomainEventConsumerOffset {
+    @Id
+    @Column(name = "consumer_name", nullable = false)
+    private String consumerName;
+
+    @Column(name = "last_transaction_id", nullable = false, columnDefinition = "bigint not null default 0")
+    private Long lastTransactionId;
+
+    @Column(name = "last_offset", nullable = false)
+    private Long lastOffset;
+
+    @Column(name = "lease_token")
+    private UUID leaseToken;
+
+    @Column(name = "leased_until")
+    private Instant leasedUntil;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
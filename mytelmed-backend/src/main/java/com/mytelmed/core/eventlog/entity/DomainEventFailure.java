@@ -0,0 +1,78 @@
+package com.mytelmed.core.eventlog.entity;
+
+import com.mytelmed.common.constant.eventlog.DomainEventFailureStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A logged event a consumer has not processed yet, although its offset has moved
+ * past it: either the event failed, or an earlier event of the same aggregate did
+ * and this one waits behind it. Retries happen from here with backoff.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "domain_event_failures", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_domain_event_failures_consumer_event", columnNames = {"consumer_name", "event_id"})
+}, indexes = {
+        @Index(name = "idx_domain_event_failures_consumer_aggregate", columnList = "consumer_name, aggregate_id, event_id"),
+        @Index(name = "idx_domain_event_failures_status", columnList = "status, updated_at")
+})
+public class DomainEventFailure {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "consumer_name", nullable = false)
+    private String consumerName;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private String aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private DomainEventFailureStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,59 @@
+package com.mytelmed.core.eventlog.entity;
+
+import com.mytelmed.common.utils.conveter.EncryptionConverter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import java.time.Instant;
+
+/**
+ * An entry in the append-only domain event log. Consumers track their position
+ * as the inserting transaction's ID together with the generated event ID.
+ * <p>
+ * The payload is encrypted, since events such as a finished consultation carry
+ * patient data and are kept for the retention period.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "domain_event_log", indexes = {
+        @Index(name = "idx_domain_event_log_type_transaction_id", columnList = "event_type, transaction_id, id")
+})
+public class DomainEventRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    // Assigned by the database, so consumers can tell when every earlier transaction has finished
+    @Column(name = "transaction_id", insertable = false, updatable = false,
+            columnDefinition = "bigint not null default (pg_current_xact_id()::text::bigint)")
+    private Long transactionId;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private String aggregateId;
+
+    @Convert(converter = EncryptionConverter.class)
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,64 @@
+package com.mytelmed.core.eventlog.repository;
+
+import com.mytelmed.core.eventlog.entity.DomainEventConsumerOffset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+
+@Repository
+public interface DomainEventConsumerOffsetRepository extends JpaRepository<DomainEventConsumerOffset, String> {
+    /**
+     * Leases the consumer to the caller, so only one node processes a consumer at a time.
+     * Updates nothing if another node holds a lease that has not expired.
+     */
+    @Modifying
+    @Query("UPDATE DomainEventConsumerOffset o SET o.leaseToken = :leaseToken, o.leasedUntil = :leasedUntil " +
+            "WHERE o.consumerName = :consumerName AND (o.leasedUntil IS NULL OR o.leasedUntil < :now)")
+    int acquireLease(@Param("consumerName") String consumerName,
+                     @Param("leaseToken") UUID leaseToken,
+                     @Param("now") Instant now,
+                     @Param("leasedUntil") Instant leasedUntil);
+
+    /**
+     * Extends the caller's lease. Updates nothing if the lease expired and was taken over.
+     */
+    @Modifying
+    @Query("UPDATE DomainEventConsumerOffset o SET o.leasedUntil = :leasedUntil " +
+            "WHERE o.consumerName = :consumerName AND o.leaseToken = :leaseToken")
+    int renewLease(@Param("consumerName") String consumerName,
+                   @Param("leaseToken") UUID leaseToken,
+                   @Param("leasedUntil") Instant leasedUntil);
+
+    /**
+     * Moves the consumer's position forward. Updates nothing if the caller no longer holds the lease.
+     */
+    @Modifying
+    @Query("UPDATE DomainEventConsumerOffset o SET o.lastTransactionId = :lastTransactionId, " +
+            "o.lastOffset = :lastOffset, o.updatedAt = :now " +
+            "WHERE o.consumerName = :consumerName AND o.leaseToken = :leaseToken")
+    int advance(@Param("consumerName") String consumerName,
+                @Param("leaseToken") UUID leaseToken,
+                @Param("lastTransactionId") Long lastTransactionId,
+                @Param("lastOffset") Long lastOffset,
+                @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE DomainEventConsumerOffset o SET o.leaseToken = null, o.leasedUntil = null " +
+            "WHERE o.consumerName = :consumerName AND o.leaseToken = :leaseToken")
+    int releaseLease(@Param("consumerName") String consumerName, @Param("leaseToken") UUID leaseToken);
+
+    @Modifying
+    @Query(value = "INSERT INTO domain_event_consumer_offsets " +
+            "(consumer_name, last_transaction_id, last_offset, updated_at) " +
+            "VALUES (:consumerName, 0, 0, now()) ON CONFLICT (consumer_name) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("consumerName") String consumerName);
+
+    @Query("SELECT MIN(o.lastTransactionId) FROM DomainEventConsumerOffset o")
+    Optional<Long> findMinimumTransactionId();
+}
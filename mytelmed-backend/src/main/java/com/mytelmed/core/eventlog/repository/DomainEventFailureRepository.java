@@ -0,0 +1,43 @@
+package com.mytelmed.core.eventlog.repository;
+
+import com.mytelmed.common.constant.eventlog.DomainEventFailureStatus;
+import com.mytelmed.core.eventlog.entity.DomainEventFailure;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+
+@Repository
+public interface DomainEventFailureRepository extends JpaRepository<DomainEventFailure, UUID> {
+    @Query("SELECT DISTINCT f.aggregateId FROM DomainEventFailure f " +
+            "WHERE f.consumerName = :consumerName AND f.aggregateId IN :aggregateIds")
+    Set<String> findAggregateIdsWithFailures(@Param("consumerName") String consumerName,
+                                             @Param("aggregateIds") Collection<String> aggregateIds);
+
+    /**
+     * Finds the consumer's waiting events of every aggregate whose earliest waiting
+     * event is due for a retry, in log order. Aggregates headed by a parked event are
+     * left alone until it is retried or discarded.
+     */
+    @Query(value = "SELECT f.* FROM domain_event_failures f " +
+            "WHERE f.consumer_name = :consumerName AND f.status = 'RETRYING' AND f.aggregate_id IN (" +
+            "  SELECT h.aggregate_id FROM domain_event_failures h " +
+            "  WHERE h.consumer_name = :consumerName AND h.status = 'RETRYING' AND h.next_attempt_at <= :now " +
+            "  AND h.event_id = (SELECT MIN(m.event_id) FROM domain_event_failures m " +
+            "                    WHERE m.consumer_name = :consumerName AND m.aggregate_id = h.aggregate_id)) " +
+            "ORDER BY f.event_id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<DomainEventFailure> findDueForRetry(@Param("consumerName") String consumerName,
+                                             @Param("now") Instant now,
+                                             @Param("limit") int limit);
+
+    Page<DomainEventFailure> findByStatus(DomainEventFailureStatus status, Pageable pageable);
+}
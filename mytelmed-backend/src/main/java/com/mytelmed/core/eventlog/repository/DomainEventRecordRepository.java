@@ -0,0 +1,41 @@
+package com.mytelmed.core.eventlog.repository;
+
+import com.mytelmed.core.eventlog.entity.DomainEventRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+
+@Repository
+public interface DomainEventRecordRepository extends JpaRepository<DomainEventRecord, Long> {
+    /**
+     * Finds the events of the type after the given position, in position order. Only
+     * events of transactions older than every running transaction are read, so no event
+     * can still commit behind the position once a consumer has moved past it.
+     */
+    @Query(value = "SELECT * FROM domain_event_log " +
+            "WHERE event_type = :eventType " +
+            "AND (transaction_id, id) > (:lastTransactionId, :lastOffset) " +
+            "AND transaction_id < pg_snapshot_xmin(pg_current_snapshot())::text::bigint " +
+            "ORDER BY transaction_id, id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<DomainEventRecord> findCommittedAfter(@Param("eventType") String eventType,
+                                               @Param("lastTransactionId") long lastTransactionId,
+                                               @Param("lastOffset") long lastOffset,
+                                               @Param("limit") int limit);
+
+    Optional<DomainEventRecord> findFirstByIdGreaterThanEqualOrderByIdAsc(Long id);
+
+    /**
+     * Deletes old events every consumer has moved past, keeping those a consumer still has to retry.
+     */
+    @Modifying
+    @Query("DELETE FROM DomainEventRecord e WHERE e.createdAt < :before AND e.transactionId < :minTransactionId " +
+            "AND e.id NOT IN (SELECT f.eventId FROM DomainEventFailure f)")
+    int deleteConsumedBefore(@Param("before") Instant before, @Param("minTransactionId") Long minTransactionId);
+}
@@ -0,0 +1,65 @@
+package com.mytelmed.core.eventlog.service;
+
+import com.mytelmed.common.event.DomainEventConsumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Polls the domain event log and feeds each registered consumer from its own offset.
+ */
+@Slf4j
+@Component
+public class DomainEventDispatcher {
+    private final DomainEventLogService eventLogService;
+    private final List<DomainEventConsumer<?>> consumers;
+    private final Duration retention;
+    private final AtomicBoolean ready = new AtomicBoolean(false);
+
+    public DomainEventDispatcher(DomainEventLogService eventLogService,
+                                 List<DomainEventConsumer<?>> consumers,
+                                 @Value("${domain-events.retention-days:30}") long retentionDays) {
+        this.eventLogService = eventLogService;
+        this.consumers = consumers;
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerConsumers() {
+        consumers.forEach(consumer -> eventLogService.registerConsumer(consumer.getConsumerName()));
+        ready.set(true);
+        log.info("Domain event dispatcher started with {} consumers", consumers.size());
+    }
+
+    @Scheduled(fixedDelayString = "${domain-events.poll-interval-ms:1000}")
+    public void dispatchDomainEvents() {
+        if (!ready.get()) {
+            return;
+        }
+
+        for (DomainEventConsumer<?> consumer : consumers) {
+            try {
+                // Drain a backlog in full batches, then retry failed events that are due
+                while (eventLogService.processNextBatch(consumer)) {
+                    log.trace("Consumer {} has more domain events to process", consumer.getConsumerName());
+                }
+                eventLogService.retryFailedEvents(consumer);
+            } catch (Exception e) {
+                log.error("Error while dispatching domain events to consumer: {}", consumer.getConsumerName(), e);
+            }
+        }
+    }
+
+    @Scheduled(cron = "0 45 3 * * *")
+    public void purgeConsumedEvents() {
+        int purged = eventLogService.purgeConsumedBefore(Instant.now().minus(retention));
+        log.info("Purged {} consumed events from the domain event log", purged);
+    }
+}
@@ -0,0 +1,469 @@
+package com.mytelmed.core.eventlog.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mytelmed.common.advice.exception.InvalidInputException;
+import com.mytelmed.common.advice.exception.ResourceNotFoundException;
+import com.mytelmed.common.constant.eventlog.DomainEventFailureStatus;
+import com.mytelmed.common.event.DomainEventConsumer;
+import com.mytelmed.common.event.DurableDomainEvent;
+import com.mytelmed.core.eventlog.entity.DomainEventConsumerOffset;
+import com.mytelmed.core.eventlog.entity.DomainEventFailure;
+import com.mytelmed.core.eventlog.entity.DomainEventRecord;
+import com.mytelmed.core.eventlog.repository.DomainEventConsumerOffsetRepository;
+import com.mytelmed.core.eventlog.repository.DomainEventFailureRepository;
+import com.mytelmed.core.eventlog.repository.DomainEventRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only log of {@link DurableDomainEvent}s with per-consumer offsets.
+ * <p>
+ * Events are written in the publishing transaction, so they exist only if it
+ * commits, and survive restarts. Consumers read the log in order of the inserting
+ * transaction's ID and then the event ID, and only read events of transactions older
+ * than every running one. A transaction that commits late therefore holds consumers
+ * back instead of being skipped. A batch is split into partitions by aggregate ID and
+ * the partitions run in parallel, which keeps events for one aggregate in order.
+ * <p>
+ * A consumer is leased to one node at a time. The lease is taken and the position
+ * moved in short transactions of their own, so no transaction or row lock is held
+ * while consumers call out to other services. A node whose lease expired mid-batch
+ * cannot move the position, and the next holder processes the batch again.
+ * <p>
+ * An event that fails is recorded as a failure and the offset moves on. Failed
+ * events are retried with exponential backoff, and later events of the same
+ * aggregate wait behind them, so per-aggregate order still holds. Attempts and
+ * due times are stored, so they survive restarts. An event that runs out of
+ * attempts is parked and holds its aggregate until an admin retries or discards it.
+ */
+@Slf4j
+@Service
+public class DomainEventLogService {
+    private static final String WAITING_ERROR = "Waiting for an earlier event of the same aggregate";
+
+    private final DomainEventRecordRepository eventRepository;
+    private final DomainEventConsumerOffsetRepository offsetRepository;
+    private final DomainEventFailureRepository failureRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Executor domainEventExecutor;
+    private final int batchSize;
+    private final int partitions;
+    private final int maxAttempts;
+    private final Duration leaseDuration;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public DomainEventLogService(DomainEventRecordRepository eventRepository,
+                                 DomainEventConsumerOffsetRepository offsetRepository,
+                                 DomainEventFailureRepository failureRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 @Qualifier("domainEventExecutor") Executor domainEventExecutor,
+                                 @Value("${domain-events.batch-size:200}") int batchSize,
+                                 @Value("${domain-events.partitions:4}") int partitions,
+                                 @Value("${domain-events.max-attempts:10}") int maxAttempts,
+                                 @Value("${domain-events.lease-seconds:300}") long leaseSeconds,
+                                 @Value("${domain-events.initial-backoff-seconds:5}") long initialBackoffSeconds,
+                                 @Value("${domain-events.max-backoff-seconds:3600}") long maxBackoffSeconds) {
+        this.eventRepository = eventRepository;
+        this.offsetRepository = offsetRepository;
+        this.failureRepository = failureRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.domainEventExecutor = domainEventExecutor;
+        this.batchSize = batchSize;
+        this.partitions = partitions;
+        this.maxAttempts = maxAttempts;
+        this.leaseDuration = Duration.ofSeconds(leaseSeconds);
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void append(DurableDomainEvent event) {
+        try {
+            DomainEventRecord record = DomainEventRecord.builder()
+                    .eventType(event.getClass().getName())
+                    .aggregateId(event.aggregateId())
+                    .payload(objectMapper.writeValueAsString(event))
+                    .build();
+
+            eventRepository.save(record);
+            log.debug("Appended {} for aggregate {} to the domain event log",
+                    event.getClass().getSimpleName(), event.aggregateId());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize domain event " + event.getClass().getName(), e);
+        }
+    }
+
+    @Transactional
+    public void registerConsumer(String consumerName) {
+        if (offsetRepository.insertIfAbsent(consumerName) > 0) {
+            log.info("Registered domain event consumer: {}", consumerName);
+        }
+    }
+
+    /**
+     * Processes the next batch of events for the consumer under a lease, so each
+     * consumer runs on one node at a time.
+     *
+     * @return whether a full batch was read, i.e. more events are likely waiting
+     */
+    public <E extends DurableDomainEvent> boolean processNextBatch(DomainEventConsumer<E> consumer) {
+        String consumerName = consumer.getConsumerName();
+        UUID leaseToken = acquireLease(consumerName);
+        if (leaseToken == null) {
+            return false;
+        }
+
+        try {
+            DomainEventConsumerOffset offset = offsetRepository.findById(consumerName).orElseThrow();
+            List<DomainEventRecord> batch = eventRepository.findCommittedAfter(consumer.getEventType().getName(),
+                    offset.getLastTransactionId(), offset.getLastOffset(), batchSize);
+            if (batch.isEmpty()) {
+                return false;
+            }
+
+            // Aggregates with an earlier event still waiting must not overtake it
+            Set<String> waitingAggregates = failureRepository.findAggregateIdsWithFailures(consumerName,
+                    batch.stream().map(DomainEventRecord::getAggregateId).collect(Collectors.toSet()));
+
+            List<EventOutcome> outcomes = runPartitioned(batch, DomainEventRecord::getAggregateId,
+                    records -> processPartition(consumer, records, waitingAggregates));
+
+            DomainEventRecord last = batch.getLast();
+            boolean advanced = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (offsetRepository.advance(consumerName, leaseToken, last.getTransactionId(), last.getId(),
+                        Instant.now()) == 0) {
+                    return false;
+                }
+                saveOutcomes(consumer, outcomes);
+                return true;
+            }));
+            if (!advanced) {
+                log.warn("Consumer {} lost its lease while processing {} domain events; they will be processed again",
+                        consumerName, batch.size());
+                return false;
+            }
+
+            log.debug("Consumer {} processed {} events up to offset {}", consumerName, batch.size(), last.getId());
+            return batch.size() == batchSize;
+        } finally {
+            releaseLease(consumerName, leaseToken);
+        }
+    }
+
+    /**
+     * Retries the consumer's failed events that are due, along with the events waiting
+     * behind them. Runs under the consumer's lease, like {@link #processNextBatch}.
+     */
+    public <E extends DurableDomainEvent> void retryFailedEvents(DomainEventConsumer<E> consumer) {
+        String consumerName = consumer.getConsumerName();
+        UUID leaseToken = acquireLease(consumerName);
+        if (leaseToken == null) {
+            return;
+        }
+
+        try {
+            List<DomainEventFailure> due = failureRepository.findDueForRetry(consumerName, Instant.now(), batchSize);
+            if (due.isEmpty()) {
+                return;
+            }
+
+            Map<Long, DomainEventRecord> records = eventRepository
+                    .findAllById(due.stream().map(DomainEventFailure::getEventId).toList()).stream()
+                    .collect(Collectors.toMap(DomainEventRecord::getId, Function.identity()));
+
+            List<RetryOutcome> outcomes = runPartitioned(due, DomainEventFailure::getAggregateId,
+                    failures -> retryPartition(consumer, failures, records));
+
+            boolean recorded = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (offsetRepository.renewLease(consumerName, leaseToken, Instant.now().plus(leaseDuration)) == 0) {
+                    return false;
+                }
+                for (RetryOutcome outcome : outcomes) {
+                    DomainEventFailure failure = outcome.failure();
+                    if (outcome.error() == null) {
+                        failureRepository.delete(failure);
+                    } else {
+                        recordFailedAttempt(consumer, failure, outcome.error(), Instant.now());
+                        failureRepository.save(failure);
+                    }
+                }
+                return true;
+            }));
+            if (!recorded) {
+                log.warn("Consumer {} lost its lease while retrying {} domain events; they will be retried again",
+                        consumerName, outcomes.size());
+                return;
+            }
+            log.debug("Consumer {} retried {} failed domain events", consumerName, outcomes.size());
+        } finally {
+            releaseLease(consumerName, leaseToken);
+        }
+    }
+
+    /**
+     * Moves a consumer back to replay the log from the given event, e.g. for a backfill.
+     * An offset of 1 or less replays the whole log.
+     */
+    @Transactional
+    public void replay(String consumerName, long fromOffset) {
+        DomainEventConsumerOffset offset = offsetRepository.findById(consumerName)
+                .orElseThrow(() -> new ResourceNotFoundException("Domain event consumer not found: " + consumerName));
+
+        if (fromOffset <= 1) {
+            offset.setLastTransactionId(0L);
+            offset.setLastOffset(0L);
+        } else {
+            DomainEventRecord from = eventRepository.findFirstByIdGreaterThanEqualOrderByIdAsc(fromOffset).orElseThrow(
+                    () -> new ResourceNotFoundException("No domain event at or after offset " + fromOffset));
+            offset.setLastTransactionId(from.getTransactionId());
+            offset.setLastOffset(from.getId() - 1);
+        }
+        log.info("Domain event consumer {} will replay the log from offset {}", consumerName, fromOffset);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DomainEventConsumerOffset> findAllOffsets() {
+        return offsetRepository.findAll();
+    }
+
+    @Transactional(readOnly = true)
+    public Page<DomainEventFailure> findParkedEvents(Pageable pageable) {
+        return failureRepository.findByStatus(DomainEventFailureStatus.PARKED, pageable);
+    }
+
+    /**
+     * Gives a parked event a fresh set of attempts, starting on the next poll.
+     */
+    @Transactional
+    public void retryParkedEvent(UUID failureId) {
+        DomainEventFailure failure = findParkedEvent(failureId);
+        failure.setStatus(DomainEventFailureStatus.RETRYING);
+        failure.setAttempts(0);
+        failure.setNextAttemptAt(Instant.now());
+        log.info("Parked domain event {} for consumer {} will be retried",
+                failure.getEventId(), failure.getConsumerName());
+    }
+
+    /**
+     * Drops a parked event without processing it, releasing the events of its aggregate
+     * that wait behind it.
+     */
+    @Transactional
+    public void discardParkedEvent(UUID failureId) {
+        DomainEventFailure failure = findParkedEvent(failureId);
+        failureRepository.delete(failure);
+        log.warn("Discarded parked domain event {} for consumer {}", failure.getEventId(), failure.getConsumerName());
+    }
+
+    /**
+     * Deletes events older than the cutoff that every consumer has already processed.
+     */
+    @Transactional
+    public int purgeConsumedBefore(Instant before) {
+        return offsetRepository.findMinimumTransactionId()
+                .map(minimumTransactionId -> eventRepository.deleteConsumedBefore(before, minimumTransactionId))
+                .orElse(0);
+    }
+
+    private UUID acquireLease(String consumerName) {
+        UUID leaseToken = UUID.randomUUID();
+        Instant now = Instant.now();
+        Integer leased = transactionTemplate.execute(status ->
+                offsetRepository.acquireLease(consumerName, leaseToken, now, now.plus(leaseDuration)));
+        return leased != null && leased > 0 ? leaseToken : null;
+    }
+
+    private void releaseLease(String consumerName, UUID leaseToken) {
+        transactionTemplate.executeWithoutResult(status -> offsetRepository.releaseLease(consumerName, leaseToken));
+    }
+
+    /**
+     * Records every event of a batch that did not succeed: failed events with their first
+     * failed attempt, and events waiting behind an earlier one as due at once.
+     */
+    private void saveOutcomes(DomainEventConsumer<?> consumer, List<EventOutcome> outcomes) {
+        Instant now = Instant.now();
+        for (EventOutcome outcome : outcomes) {
+            DomainEventRecord record = outcome.record();
+            DomainEventFailure failure = DomainEventFailure.builder()
+                    .consumerName(consumer.getConsumerName())
+                    .eventId(record.getId())
+                    .eventType(record.getEventType())
+                    .aggregateId(record.getAggregateId())
+                    .status(DomainEventFailureStatus.RETRYING)
+                    .attempts(0)
+                    .nextAttemptAt(now)
+                    .lastError(WAITING_ERROR)
+                    .build();
+            if (outcome.error() != null) {
+                recordFailedAttempt(consumer, failure, outcome.error(), now);
+            }
+            failureRepository.save(failure);
+        }
+    }
+
+    private DomainEventFailure findParkedEvent(UUID failureId) {
+        DomainEventFailure failure = failureRepository.findById(failureId)
+                .orElseThrow(() -> new ResourceNotFoundException("Parked domain event not found: " + failureId));
+        if (failure.getStatus() != DomainEventFailureStatus.PARKED) {
+            throw new InvalidInputException("Domain event " + failure.getEventId() + " is not parked");
+        }
+        return failure;
+    }
+
+    /**
+     * Counts a failed attempt and schedules the next one with exponential backoff, or
+     * parks the event once attempts are exhausted.
+     */
+    private void recordFailedAttempt(DomainEventConsumer<?> consumer, DomainEventFailure failure,
+                                     Exception error, Instant now) {
+        int attempts = failure.getAttempts() + 1;
+        String message = String.valueOf(error.getMessage());
+
+        failure.setAttempts(attempts);
+        failure.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+
+        if (attempts >= maxAttempts) {
+            failure.setStatus(DomainEventFailureStatus.PARKED);
+            log.error("Consumer {} parked domain event {} after {} attempts; retry or discard it through the admin API",
+                    consumer.getConsumerName(), failure.getEventId(), attempts, error);
+            return;
+        }
+
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        failure.setStatus(DomainEventFailureStatus.RETRYING);
+        failure.setNextAttemptAt(now.plus(backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff));
+        log.warn("Consumer {} failed to process domain event {} (attempt {}), will retry",
+                consumer.getConsumerName(), failure.getEventId(), attempts, error);
+    }
+
+    /**
+     * Processes the partition's events in order. After a failure, later events of the
+     * same aggregate are not attempted but reported as waiting.
+     *
+     * @return the outcome of every event that did not succeed
+     */
+    private <E extends DurableDomainEvent> List<EventOutcome> processPartition(DomainEventConsumer<E> consumer,
+                                                                               List<DomainEventRecord> records,
+                                                                               Set<String> waitingAggregates) {
+        Set<String> blocked = new HashSet<>(waitingAggregates);
+        List<EventOutcome> outcomes = new ArrayList<>();
+
+        for (DomainEventRecord record : records) {
+            if (blocked.contains(record.getAggregateId())) {
+                outcomes.add(new EventOutcome(record, null));
+                continue;
+            }
+
+            Exception error = consume(consumer, record);
+            if (error != null) {
+                blocked.add(record.getAggregateId());
+                outcomes.add(new EventOutcome(record, error));
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * Retries the partition's waiting events in log order, stopping within an aggregate
+     * at the first event that is not yet due or fails again.
+     */
+    private <E extends DurableDomainEvent> List<RetryOutcome> retryPartition(DomainEventConsumer<E> consumer,
+                                                                             List<DomainEventFailure> failures,
+                                                                             Map<Long, DomainEventRecord> records) {
+        Instant now = Instant.now();
+        Set<String> stopped = new HashSet<>();
+        List<RetryOutcome> outcomes = new ArrayList<>();
+
+        for (DomainEventFailure failure : failures) {
+            if (stopped.contains(failure.getAggregateId())) {
+                continue;
+            }
+            if (failure.getNextAttemptAt().isAfter(now)) {
+                stopped.add(failure.getAggregateId());
+                continue;
+            }
+
+            DomainEventRecord record = records.get(failure.getEventId());
+            Exception error = record != null
+                    ? consume(consumer, record)
+                    : new IllegalStateException("Domain event " + failure.getEventId() + " is missing from the log");
+
+            outcomes.add(new RetryOutcome(failure, error));
+            if (error != null) {
+                stopped.add(failure.getAggregateId());
+            }
+        }
+        return outcomes;
+    }
+
+    private <E extends DurableDomainEvent> Exception consume(DomainEventConsumer<E> consumer, DomainEventRecord record) {
+        try {
+            consumer.consume(objectMapper.readValue(record.getPayload(), consumer.getEventType()));
+            return null;
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    /**
+     * Splits the items into partitions by aggregate ID, keeping their order within each
+     * partition, and processes the partitions in parallel on the domain event executor.
+     */
+    private <T, R> List<R> runPartitioned(List<T> items, Function<T, String> aggregateId,
+                                          Function<List<T>, List<R>> processor) {
+        Map<Integer, List<T>> byPartition = new LinkedHashMap<>();
+        items.forEach(item -> byPartition
+                .computeIfAbsent(Math.floorMod(aggregateId.apply(item).hashCode(), partitions),
+                        partition -> new ArrayList<>())
+                .add(item));
+
+        // Start every partition before waiting on any
+        List<CompletableFuture<List<R>>> results = byPartition.values().stream()
+                .map(partition -> CompletableFuture.supplyAsync(() -> processor.apply(partition), domainEventExecutor))
+                .toList();
+
+        return results.stream()
+                .map(CompletableFuture::join)
+                .flatMap(Collection::stream)
+                .toList();
+    }
+
+    /**
+     * An event that did not succeed: it failed with {@code error}, or waits behind an
+     * earlier event of its aggregate if {@code error} is {@code null}.
+     */
+    private record EventOutcome(DomainEventRecord record, Exception error) {
+    }
+
+    private record RetryOutcome(DomainEventFailure failure, Exception error) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.mytelmed.core.facility.mapper;
 
+import com.mytelmed.common.constant.file.ImageSize;
 import com.mytelmed.core.facility.dto.CreateFacilityRequestDto;
 import com.mytelmed.core.facility.dto.FacilityDto;
 import com.mytelmed.core.facility.dto.UpdateFacilityRequestDto;
@@ -38,7 +39,7 @@ public interface FacilityMapper {
 
     default String mapThumbnailUrl(Facility facility, @Context AwsS3Service awsS3Service) {
         if (facility.getThumbnailImage() != null && facility.getThumbnailImage().getImageKey() != null) {
-            return awsS3Service.generatePresignedViewUrl(facility.getThumbnailImage().getImageKey());
+            return awsS3Service.generatePresignedViewUrl(facility.getThumbnailImage().getKeyFor(ImageSize.LARGE));
         }
         return null;
     }
@@ -2,6 +2,7 @@ package com.mytelmed.core.family.repository;
 
 import com.mytelmed.core.auth.entity.Account;
 import com.mytelmed.core.family.entity.FamilyMember;
+import com.mytelmed.core.patient.entity.Patient;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -25,4 +26,8 @@ public interface FamilyMemberRepository extends JpaRepository<FamilyMember, UUID
     List<FamilyMember> findAllByHashedNricAndPendingTrue(String hashedNric);
 
     List<FamilyMember> findByPatientIdAndCanManageBillingTrueAndPendingFalse(UUID patientId);
+
+    @Query("SELECT p FROM FamilyMember fm JOIN Patient p ON p.account = fm.memberAccount " +
+            "WHERE fm.patient.id = :patientId AND fm.pending = false AND fm.canViewMedicalRecords = true")
+    List<Patient> findMedicalRecordViewersByPatientId(@Param("patientId") UUID patientId);
 }
@@ -3,6 +3,7 @@ package com.mytelmed.core.family.service;
 import com.mytelmed.common.advice.AppException;
 import com.mytelmed.common.advice.exception.InvalidInputException;
 import com.mytelmed.common.advice.exception.ResourceNotFoundException;
+import com.mytelmed.common.event.NotificationRecipient;
 import com.mytelmed.common.event.family.model.FamilyMemberInviteEvent;
 import com.mytelmed.common.event.family.model.FamilyMemberJoinedEvent;
 import com.mytelmed.common.event.family.model.FamilyMemberRemovedEvent;
@@ -64,6 +65,18 @@ public class FamilyMemberService {
         return familyMemberRepository.findAllByPatientId(patientId);
     }
 
+    /**
+     * Returns the joined family members allowed to view the patient's medical records,
+     * as notification recipients, in a single query.
+     */
+    @Transactional(readOnly = true)
+    public List<NotificationRecipient> findMedicalRecordRecipientsByPatientId(UUID patientId) {
+        log.debug("Finding medical record notification recipients for patient ID: {}", patientId);
+        return familyMemberRepository.findMedicalRecordViewersByPatientId(patientId).stream()
+                .map(NotificationRecipient::of)
+                .toList();
+    }
+
     @Transactional(readOnly = true)
     public List<FamilyMember> findAllByMemberAccount(Account account) {
         log.debug("Finding all family members with member account ID: {}", account.getId());
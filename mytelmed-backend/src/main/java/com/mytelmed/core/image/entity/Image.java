@@ -1,5 +1,6 @@
 package com.mytelmed.core.image.entity;
 
+import com.mytelmed.common.constant.file.ImageSize;
 import com.mytelmed.common.constant.file.ImageType;
 import com.mytelmed.common.utils.conveter.EncryptionConverter;
 import jakarta.persistence.Column;
@@ -33,9 +34,22 @@ public class Image {
     private UUID id;
 
     @Convert(converter = EncryptionConverter.class)
-    @Column(name = "key", nullable = false, unique = true)
+    @Column(name = "key", nullable = false)
     private String imageKey;
 
+    // Resized JPEG derivatives; null for images uploaded before derivatives existed or that could not be decoded
+    @Convert(converter = EncryptionConverter.class)
+    @Column(name = "small_key")
+    private String smallKey;
+
+    @Convert(converter = EncryptionConverter.class)
+    @Column(name = "medium_key")
+    private String mediumKey;
+
+    @Convert(converter = EncryptionConverter.class)
+    @Column(name = "large_key")
+    private String largeKey;
+
     @Column(name = "type")
     @Enumerated(EnumType.STRING)
     private ImageType imageType;
@@ -50,4 +64,24 @@ public class Image {
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
+
+    /**
+     * Returns the key of the derivative for the given size, falling back to the original.
+     */
+    public String getKeyFor(ImageSize size) {
+        String key = switch (size) {
+            case SMALL -> smallKey;
+            case MEDIUM -> mediumKey;
+            case LARGE -> largeKey;
+        };
+        return key != null ? key : imageKey;
+    }
+
+    public void setKeyFor(ImageSize size, String key) {
+        switch (size) {
+            case SMALL -> smallKey = key;
+            case MEDIUM -> mediumKey = key;
+            case LARGE -> largeKey = key;
+        }
+    }
 }
@@ -4,20 +4,30 @@ import com.mytelmed.common.advice.AppException;
 import com.mytelmed.common.advice.exception.InvalidInputException;
 import com.mytelmed.common.advice.exception.ResourceNotFoundException;
 import com.mytelmed.common.constant.file.FileType;
+import com.mytelmed.common.constant.file.ImageSize;
 import com.mytelmed.common.constant.file.ImageType;
+import com.mytelmed.common.event.image.ImageDeletedEvent;
 import com.mytelmed.core.image.entity.Image;
 import com.mytelmed.core.image.repository.ImageRepository;
+import com.mytelmed.core.storage.dto.StoredContent;
+import com.mytelmed.core.storage.service.ContentAddressedStorageService;
 import com.mytelmed.infrastructure.aws.dto.S3StorageOptions;
 import com.mytelmed.infrastructure.aws.service.AwsS3Service;
+import com.mytelmed.infrastructure.media.service.ImageDerivativeGenerator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 
 @Slf4j
@@ -25,10 +35,19 @@ import java.util.UUID;
 public class ImageService {
     private final ImageRepository imageRepository;
     private final AwsS3Service awsS3Service;
-
-    public ImageService(ImageRepository imageRepository, AwsS3Service awsS3Service) {
+    private final ImageDerivativeGenerator imageDerivativeGenerator;
+    private final ContentAddressedStorageService contentAddressedStorageService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ImageService(ImageRepository imageRepository, AwsS3Service awsS3Service,
+                        ImageDerivativeGenerator imageDerivativeGenerator,
+                        ContentAddressedStorageService contentAddressedStorageService,
+                        ApplicationEventPublisher eventPublisher) {
         this.imageRepository = imageRepository;
         this.awsS3Service = awsS3Service;
+        this.imageDerivativeGenerator = imageDerivativeGenerator;
+        this.contentAddressedStorageService = contentAddressedStorageService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
@@ -60,14 +79,20 @@ public class ImageService {
             }
 
             Image image = imageOpt.get();
+            String previousKey = image.getImageKey();
 
             log.debug("Updating image for entity: {} of type: {}", entityId, imageType);
-            String imageKey = awsS3Service.updateFile(image.getImageKey(), imageFile);
-            image.setImageKey(imageKey);
+            StoredContent storedContent = contentAddressedStorageService.store(buildStorageOptions(imageType, entityId),
+                    imageFile.getOriginalFilename(), imageFile, imageFile.getSize(), null);
+            image.setImageKey(storedContent.key());
+            storeDerivatives(image, imageFile, storedContent.uploaded());
 
             log.debug("Updating image metadata to database for entity: {}", entityId);
             image = imageRepository.save(image);
 
+            // Releases the previous content, which is deleted once no image references it
+            eventPublisher.publishEvent(new ImageDeletedEvent(entityId, previousKey));
+
             log.info("Updated image metadata to database for entity: {}", entityId);
 
             return image;
@@ -94,20 +119,19 @@ public class ImageService {
         }
 
         try {
-            S3StorageOptions storageOptions = S3StorageOptions.builder()
-                    .fileType(FileType.IMAGE)
-                    .folderName(imageType.name().toLowerCase())
-                    .entityId(entityId.toString())
-                    .build();
-
             log.debug("Uploading image for entity: {} of type: {}", entityId, imageType);
-            imageKey = awsS3Service.uploadFileAndGetKey(storageOptions, imageFile);
+            StoredContent storedContent = contentAddressedStorageService.store(buildStorageOptions(imageType, entityId),
+                    imageFile.getOriginalFilename(), imageFile, imageFile.getSize(), null);
+
+            // Only roll back objects this upload created; reused content belongs to other images too
+            imageKey = storedContent.uploaded() ? storedContent.key() : null;
 
             Image image = Image.builder()
-                    .imageKey(imageKey)
+                    .imageKey(storedContent.key())
                     .imageType(imageType)
                     .entityId(entityId)
                     .build();
+            storeDerivatives(image, imageFile, storedContent.uploaded());
 
             image = imageRepository.save(image);
             log.info("Saved image to database for entity: {}", entityId);
@@ -120,7 +144,12 @@ public class ImageService {
             if (imageKey != null) {
                 try {
                     log.info("Rolling back S3 upload for entity: {} due to database failure", entityId);
-                    awsS3Service.deleteFile(imageKey);
+                    List<String> keys = new ArrayList<>();
+                    keys.add(imageKey);
+                    for (ImageSize size : ImageSize.values()) {
+                        keys.add(size.keyFor(imageKey));
+                    }
+                    awsS3Service.deleteFiles(keys);
                 } catch (Exception rollbackEx) {
                     log.error("Failed to roll back S3 upload for entity: {} (key: {})", entityId, imageKey, rollbackEx);
                 }
@@ -130,4 +159,51 @@ public class ImageService {
             throw e;
         }
     }
+
+    private S3StorageOptions buildStorageOptions(ImageType imageType, UUID entityId) {
+        return S3StorageOptions.builder()
+                .fileType(FileType.IMAGE)
+                .folderName(imageType.name().toLowerCase())
+                .entityId(entityId.toString())
+                .build();
+    }
+
+    /**
+     * Uploads resized copies next to the original for list pages and avatars. An image
+     * that ImageIO cannot decode is kept without derivatives and served at full size.
+     */
+    private void storeDerivatives(Image image, MultipartFile imageFile, boolean uploaded)
+            throws IOException, S3Exception {
+        // Reused content already has its derivatives, unless they could not be generated the first time
+        if (!uploaded && awsS3Service.headFile(ImageSize.LARGE.keyFor(image.getImageKey())).isPresent()) {
+            for (ImageSize size : ImageSize.values()) {
+                image.setKeyFor(size, size.keyFor(image.getImageKey()));
+            }
+            return;
+        }
+
+        Map<ImageSize, byte[]> derivatives;
+        try {
+            derivatives = imageDerivativeGenerator.generate(imageFile);
+        } catch (IOException e) {
+            log.warn("Could not generate derivatives for image of entity: {}, the original will be served",
+                    image.getEntityId(), e);
+            for (ImageSize size : ImageSize.values()) {
+                image.setKeyFor(size, null);
+            }
+            return;
+        }
+
+        List<CompletableFuture<Void>> uploads = new ArrayList<>();
+        for (Map.Entry<ImageSize, byte[]> derivative : derivatives.entrySet()) {
+            String key = derivative.getKey().keyFor(image.getImageKey());
+            uploads.add(awsS3Service.uploadFileAsync(key, derivative.getValue(), "image/jpeg"));
+        }
+        awsS3Service.awaitAll(uploads);
+
+        for (ImageSize size : derivatives.keySet()) {
+            image.setKeyFor(size, size.keyFor(image.getImageKey()));
+        }
+        log.debug("Stored {} derivatives for image of entity: {}", derivatives.size(), image.getEntityId());
+    }
 }
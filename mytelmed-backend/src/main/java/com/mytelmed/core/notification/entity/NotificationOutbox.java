@@ -0,0 +1,98 @@
+package com.mytelmed.core.notification.entity;
+
+import com.mytelmed.common.constant.notification.NotificationChannel;
+import com.mytelmed.common.constant.notification.NotificationOutboxStatus;
+import com.mytelmed.common.utils.conveter.EncryptionConverter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A notification written in the same transaction as the business change that
+ * triggered it. Rows are picked up by the outbox dispatcher, delivered at least
+ * once and then marked as sent.
+ * <p>
+ * The recipient and the template variables, which may carry passwords and tokens,
+ * are encrypted; lookups by recipient go through its hash. Variables are cleared
+ * once the notification is sent.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "notification_outbox", indexes = {
+        @Index(name = "idx_notification_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_notification_outbox_recipient_status", columnList = "hashed_recipient, status")
+})
+public class NotificationOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel", nullable = false)
+    private NotificationChannel channel;
+
+    @Column(name = "notification_type", nullable = false)
+    private String notificationType;
+
+    @Convert(converter = EncryptionConverter.class)
+    @Column(name = "recipient", nullable = false)
+    private String recipient;
+
+    @Column(name = "hashed_recipient", nullable = false, length = 64)
+    private String hashedRecipient;
+
+    @Column(name = "entity_id")
+    private String entityId;
+
+    @Convert(converter = EncryptionConverter.class)
+    @Column(name = "variables", columnDefinition = "TEXT")
+    private String variables;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    @Builder.Default
+    private NotificationOutboxStatus status = NotificationOutboxStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "locked_at")
+    private Instant lockedAt;
+
+    // Identifies the current claim, so the outcome of a claim that went stale and was reclaimed is ignored
+    @Column(name = "claim_token")
+    private UUID claimToken;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "processed_at")
+    private Instant processedAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,105 @@
+package com.mytelmed.core.notification.repository;
+
+import com.mytelmed.common.constant.notification.NotificationChannel;
+import com.mytelmed.common.constant.notification.NotificationOutboxStatus;
+import com.mytelmed.core.notification.entity.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, UUID> {
+    /**
+     * Locks the next batch of due notifications, including rows whose previous claim went stale.
+     * Rows locked by another dispatcher are skipped rather than waited on.
+     */
+    @Query(value = "SELECT * FROM notification_outbox " +
+            "WHERE (status = 'PENDING' AND next_attempt_at <= :now) " +
+            "OR (status = 'PROCESSING' AND locked_at < :staleBefore) " +
+            "ORDER BY next_attempt_at " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<NotificationOutbox> lockNextBatch(@Param("now") Instant now,
+                                           @Param("staleBefore") Instant staleBefore,
+                                           @Param("limit") int limit);
+
+    boolean existsByChannelAndNotificationTypeAndHashedRecipientAndEntityIdAndStatus(NotificationChannel channel,
+                                                                                    String notificationType,
+                                                                                    String hashedRecipient,
+                                                                                    String entityId,
+                                                                                    NotificationOutboxStatus status);
+
+    /**
+     * Inserts a pending notification unless one is already pending for the same channel,
+     * type, recipient and entity. The conflict is resolved by the pending dedup index, so
+     * concurrent enqueues cannot both insert, and a duplicate does not abort the caller's
+     * transaction the way a unique violation would.
+     *
+     * @return 1 if the notification was inserted, 0 if it was already queued
+     */
+    @Modifying
+    @Query(value = "INSERT INTO notification_outbox (id, channel, notification_type, recipient, hashed_recipient, " +
+            "entity_id, variables, status, attempts, next_attempt_at, created_at) " +
+            "VALUES (:id, :channel, :notificationType, :recipient, :hashedRecipient, :entityId, :variables, " +
+            "'PENDING', 0, :nextAttemptAt, now()) " +
+            "ON CONFLICT (channel, notification_type, hashed_recipient, entity_id) WHERE status = 'PENDING' " +
+            "DO NOTHING", nativeQuery = true)
+    int insertIfNotPending(@Param("id") UUID id,
+                           @Param("channel") String channel,
+                           @Param("notificationType") String notificationType,
+                           @Param("recipient") String recipient,
+                           @Param("hashedRecipient") String hashedRecipient,
+                           @Param("entityId") String entityId,
+                           @Param("variables") String variables,
+                           @Param("nextAttemptAt") Instant nextAttemptAt);
+
+    /**
+     * Deletes all but the oldest of pending notifications that share a channel, type,
+     * recipient and entity, so the pending dedup index can be built on an existing table.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM notification_outbox a USING notification_outbox b " +
+            "WHERE a.status = 'PENDING' AND b.status = 'PENDING' AND a.entity_id IS NOT NULL " +
+            "AND a.channel = b.channel AND a.notification_type = b.notification_type " +
+            "AND a.hashed_recipient = b.hashed_recipient AND a.entity_id = b.entity_id " +
+            "AND (a.created_at, a.id) > (b.created_at, b.id)", nativeQuery = true)
+    int deletePendingDuplicates();
+
+    /**
+     * Partial unique index behind {@link #insertIfNotPending}. Hibernate's schema update
+     * cannot express a partial index, so it is created on startup.
+     */
+    @Modifying
+    @Query(value = "CREATE UNIQUE INDEX IF NOT EXISTS idx_notification_outbox_pending_dedup " +
+            "ON notification_outbox (channel, notification_type, hashed_recipient, entity_id) " +
+            "WHERE status = 'PENDING'", nativeQuery = true)
+    void createPendingDedupIndex();
+
+    Optional<NotificationOutbox> findFirstByChannelAndHashedRecipientAndStatusAndNextAttemptAtAfterOrderByNextAttemptAtAsc(
+            NotificationChannel channel, String hashedRecipient, NotificationOutboxStatus status, Instant after);
+
+    /**
+     * Updates the status of the notifications still held by the given claim and drops
+     * their variables, which are only kept while a notification may still be delivered.
+     */
+    @Modifying
+    @Query("UPDATE NotificationOutbox n SET n.status = :status, n.processedAt = :processedAt, n.lockedAt = null, " +
+            "n.claimToken = null, n.variables = null WHERE n.id IN :ids AND n.claimToken = :claimToken")
+    int updateStatusAndClearVariablesByIdInAndClaimToken(@Param("ids") Collection<UUID> ids,
+                                                         @Param("claimToken") UUID claimToken,
+                                                         @Param("status") NotificationOutboxStatus status,
+                                                         @Param("processedAt") Instant processedAt);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox n WHERE n.status = :status AND n.processedAt < :before")
+    int deleteByStatusAndProcessedAtBefore(@Param("status") NotificationOutboxStatus status,
+                                           @Param("before") Instant before);
+}
@@ -6,7 +6,9 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -25,12 +27,14 @@ public interface PushSubscriptionRepository extends JpaRepository<PushSubscripti
     int deactivateAllSubscriptionsByAccountId(@Param("accountId") UUID accountId);
 
     @Modifying
+    @Transactional
     @Query("UPDATE PushSubscription p SET p.isActive = false WHERE p.endpoint = :endpoint")
     void deactivateSubscriptionByEndpoint(@Param("endpoint") String endpoint);
 
     @Modifying
-    @Query("UPDATE PushSubscription p SET p.lastUsedAt = :lastUsedAt WHERE p.id = :id")
-    void updateLastUsedAtById(@Param("id") UUID id, @Param("lastUsedAt") Instant lastUsedAt);
+    @Transactional
+    @Query("UPDATE PushSubscription p SET p.lastUsedAt = :lastUsedAt WHERE p.id IN :ids AND p.isActive = true")
+    int updateLastUsedAtByIdIn(@Param("ids") Collection<UUID> ids, @Param("lastUsedAt") Instant lastUsedAt);
 
     @Query("SELECT COUNT(p) FROM PushSubscription p WHERE p.account.id = :accountId AND p.isActive = true")
     long countActiveSubscriptionsByAccountId(@Param("accountId") UUID accountId);
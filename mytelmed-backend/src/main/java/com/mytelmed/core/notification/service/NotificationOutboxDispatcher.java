@@ -0,0 +1,349 @@
+package com.mytelmed.core.notification.service;
+
+import com.mytelmed.common.constant.notification.NotificationChannel;
+import com.mytelmed.core.notification.entity.NotificationOutbox;
+import com.mytelmed.infrastructure.email.constant.EmailType;
+import com.mytelmed.infrastructure.email.factory.EmailSenderFactoryRegistry;
+import com.mytelmed.infrastructure.push.constant.PushNotificationType;
+import com.mytelmed.infrastructure.push.factory.PushNotificationFactoryRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Polls the notification outbox in batches and delivers the claimed rows.
+ * <p>
+ * Each poll first records the outcomes of previously dispatched notifications in
+ * bulk, then claims as many new rows as the in-flight limit allows, groups them by
+ * channel and hands them to the email pipeline or the push executor.
+ * <p>
+ * When several coalescable notifications for the same recipient are claimed
+ * together, they are merged into one digest email or push notification.
+ */
+@Slf4j
+@Component
+public class NotificationOutboxDispatcher {
+    // Template variables listed under each digest entry, with their labels, in display order
+    private static final Map<String, String> DIGEST_DETAIL_VARIABLES = createDigestDetailVariables();
+
+    private final NotificationOutboxService outboxService;
+    private final EmailSenderFactoryRegistry emailSenderRegistry;
+    private final PushNotificationFactoryRegistry pushNotificationRegistry;
+    private final PushSubscriptionService pushSubscriptionService;
+    private final Executor notificationExecutor;
+    private final String frontendUrl;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final Duration staleAfter;
+    private final Duration retention;
+    private final Duration failedRetention;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Queue<ClaimedNotification> sent = new ConcurrentLinkedQueue<>();
+    private final Queue<FailedDelivery> failures = new ConcurrentLinkedQueue<>();
+
+    public NotificationOutboxDispatcher(NotificationOutboxService outboxService,
+                                        EmailSenderFactoryRegistry emailSenderRegistry,
+                                        PushNotificationFactoryRegistry pushNotificationRegistry,
+                                        PushSubscriptionService pushSubscriptionService,
+                                        @Qualifier("notificationExecutor") Executor notificationExecutor,
+                                        @Value("${application.frontend.url}") String frontendUrl,
+                                        @Value("${notification.outbox.batch-size:100}") int batchSize,
+                                        @Value("${notification.outbox.max-in-flight:500}") int maxInFlight,
+                                        @Value("${notification.outbox.stale-after-seconds:300}") long staleAfterSeconds,
+                                        @Value("${notification.outbox.retention-days:7}") long retentionDays,
+                                        @Value("${notification.outbox.failed-retention-days:30}") long failedRetentionDays) {
+        this.outboxService = outboxService;
+        this.emailSenderRegistry = emailSenderRegistry;
+        this.pushNotificationRegistry = pushNotificationRegistry;
+        this.pushSubscriptionService = pushSubscriptionService;
+        this.notificationExecutor = notificationExecutor;
+        this.frontendUrl = frontendUrl;
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+        this.staleAfter = Duration.ofSeconds(staleAfterSeconds);
+        this.retention = Duration.ofDays(retentionDays);
+        this.failedRetention = Duration.ofDays(failedRetentionDays);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms:1000}")
+    public void dispatchPendingNotifications() {
+        try {
+            recordOutcomes();
+
+            int capacity = Math.min(batchSize, maxInFlight - inFlight.get());
+            if (capacity <= 0) {
+                log.debug("Notification outbox dispatcher saturated ({} in flight), skipping poll", inFlight.get());
+                return;
+            }
+
+            List<NotificationOutbox> batch = outboxService.claimBatch(capacity, staleAfter);
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            Map<NotificationChannel, List<NotificationOutbox>> byChannel = new EnumMap<>(NotificationChannel.class);
+            batch.forEach(notification -> byChannel
+                    .computeIfAbsent(notification.getChannel(), channel -> new ArrayList<>())
+                    .add(notification));
+
+            log.debug("Dispatching {} outbox notifications: {}", batch.size(), byChannel.keySet());
+
+            byChannel.forEach(this::dispatchChannel);
+        } catch (Exception e) {
+            log.error("Error while dispatching notification outbox", e);
+        }
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeSentNotifications() {
+        int purged = outboxService.purgeSentBefore(Instant.now().minus(retention));
+        int purgedFailed = outboxService.purgeFailedBefore(Instant.now().minus(failedRetention));
+        log.info("Purged {} sent and {} failed notifications from the outbox", purged, purgedFailed);
+    }
+
+    private void dispatchChannel(NotificationChannel channel, List<NotificationOutbox> notifications) {
+        Map<String, List<NotificationOutbox>> digests = new LinkedHashMap<>();
+
+        for (NotificationOutbox notification : notifications) {
+            if (outboxService.isCoalescable(channel, notification.getNotificationType())) {
+                digests.computeIfAbsent(notification.getRecipient(), recipient -> new ArrayList<>()).add(notification);
+            } else {
+                dispatchSingle(notification);
+            }
+        }
+
+        digests.forEach((recipient, group) -> {
+            if (group.size() == 1) {
+                dispatchSingle(group.getFirst());
+            } else if (channel == NotificationChannel.EMAIL) {
+                dispatchEmailDigest(recipient, group);
+            } else {
+                dispatchPushDigest(recipient, group);
+            }
+        });
+    }
+
+    private void dispatchSingle(NotificationOutbox notification) {
+        if (notification.getChannel() == NotificationChannel.EMAIL) {
+            dispatchEmail(notification);
+        } else {
+            dispatchPush(notification);
+        }
+    }
+
+    private void dispatchEmailDigest(String recipient, List<NotificationOutbox> group) {
+        Map<NotificationOutbox, Map<String, Object>> entries = new LinkedHashMap<>();
+        for (NotificationOutbox notification : group) {
+            try {
+                EmailType emailType = EmailType.valueOf(notification.getNotificationType());
+                Map<String, Object> notificationVariables = outboxService.readVariables(notification);
+                entries.put(notification, Map.of(
+                        "subject", emailSenderRegistry.getEmailSender(emailType).getSubject(notificationVariables),
+                        "details", digestDetails(notificationVariables)));
+            } catch (Exception e) {
+                // Let the notification fail (or succeed) on its own instead of failing the whole digest
+                dispatchSingle(notification);
+            }
+        }
+
+        if (entries.size() < 2) {
+            entries.keySet().forEach(this::dispatchSingle);
+            return;
+        }
+
+        List<ClaimedNotification> claimed = entries.keySet().stream().map(ClaimedNotification::of).toList();
+        inFlight.addAndGet(claimed.size());
+
+        try {
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("notifications", List.copyOf(entries.values()));
+            variables.put("notificationCount", entries.size());
+            variables.put("uiHost", frontendUrl);
+
+            log.debug("Coalesced {} emails into a digest for: {}", entries.size(), recipient);
+            emailSenderRegistry.getEmailSender(EmailType.NOTIFICATION_DIGEST)
+                    .sendEmail(recipient, variables)
+                    .whenComplete((ignored, throwable) ->
+                            claimed.forEach(notification -> onComplete(notification, throwable)));
+        } catch (Exception e) {
+            claimed.forEach(notification -> onComplete(notification, e));
+        }
+    }
+
+    private void dispatchPushDigest(String recipient, List<NotificationOutbox> group) {
+        Map<NotificationOutbox, String> titles = new LinkedHashMap<>();
+        for (NotificationOutbox notification : group) {
+            try {
+                PushNotificationType notificationType = PushNotificationType.valueOf(notification.getNotificationType());
+                titles.put(notification, pushNotificationRegistry.getNotificationSender(notificationType)
+                        .getTitle(outboxService.readVariables(notification)));
+            } catch (Exception e) {
+                dispatchSingle(notification);
+            }
+        }
+
+        if (titles.size() < 2) {
+            titles.keySet().forEach(this::dispatchSingle);
+            return;
+        }
+
+        List<ClaimedNotification> claimed = titles.keySet().stream().map(ClaimedNotification::of).toList();
+        inFlight.addAndGet(claimed.size());
+
+        try {
+            UUID accountId = UUID.fromString(recipient);
+
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("titles", List.copyOf(titles.values()));
+            variables.put("notificationCount", titles.size());
+
+            log.debug("Coalesced {} push notifications into a digest for account: {}", titles.size(), accountId);
+            CompletableFuture.supplyAsync(() -> pushSubscriptionService.sendNotificationByAccountId(
+                            accountId, PushNotificationType.NOTIFICATION_DIGEST, variables), notificationExecutor)
+                    .thenCompose(delivery -> delivery)
+                    .whenComplete((ignored, throwable) ->
+                            claimed.forEach(notification -> onComplete(notification, throwable)));
+        } catch (Exception e) {
+            claimed.forEach(notification -> onComplete(notification, e));
+        }
+    }
+
+    private void dispatchEmail(NotificationOutbox notification) {
+        inFlight.incrementAndGet();
+
+        try {
+            EmailType emailType = EmailType.valueOf(notification.getNotificationType());
+            Map<String, Object> variables = outboxService.readVariables(notification);
+
+            emailSenderRegistry.getEmailSender(emailType)
+                    .sendEmail(notification.getRecipient(), variables)
+                    .whenComplete((ignored, throwable) -> onComplete(ClaimedNotification.of(notification), throwable));
+        } catch (Exception e) {
+            onComplete(ClaimedNotification.of(notification), e);
+        }
+    }
+
+    private void dispatchPush(NotificationOutbox notification) {
+        inFlight.incrementAndGet();
+
+        try {
+            PushNotificationType notificationType = PushNotificationType.valueOf(notification.getNotificationType());
+            UUID accountId = UUID.fromString(notification.getRecipient());
+            Map<String, Object> variables = outboxService.readVariables(notification);
+
+            CompletableFuture.supplyAsync(() -> pushSubscriptionService
+                            .sendNotificationByAccountId(accountId, notificationType, variables), notificationExecutor)
+                    .thenCompose(delivery -> delivery)
+                    .whenComplete((ignored, throwable) -> onComplete(ClaimedNotification.of(notification), throwable));
+        } catch (Exception e) {
+            onComplete(ClaimedNotification.of(notification), e);
+        }
+    }
+
+    private void onComplete(ClaimedNotification notification, Throwable throwable) {
+        inFlight.decrementAndGet();
+
+        if (throwable == null) {
+            sent.add(notification);
+            return;
+        }
+
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
+        failures.add(new FailedDelivery(notification, cause.getMessage(), isRetryable(cause)));
+    }
+
+    private void recordOutcomes() {
+        // Rows of a claim that went stale and was reclaimed are left to the newer claim
+        Map<UUID, List<UUID>> sentByClaim = new HashMap<>();
+        ClaimedNotification notification;
+        while ((notification = sent.poll()) != null) {
+            sentByClaim.computeIfAbsent(notification.claimToken(), claimToken -> new ArrayList<>())
+                    .add(notification.id());
+        }
+
+        sentByClaim.forEach((claimToken, ids) -> {
+            int updated = outboxService.markSent(claimToken, ids);
+            log.debug("Marked {} of {} outbox notifications as sent", updated, ids.size());
+        });
+
+        FailedDelivery failure;
+        while ((failure = failures.poll()) != null) {
+            ClaimedNotification failed = failure.notification();
+            try {
+                outboxService.markFailed(failed.id(), failed.claimToken(), failure.error(), failure.retryable());
+            } catch (Exception e) {
+                log.error("Failed to record delivery failure for notification: {}", failed.id(), e);
+            }
+        }
+    }
+
+    /**
+     * The label and value of each detail variable the notification has, so a digest
+     * entry says what happened and not just which notification it replaced.
+     */
+    private List<Map<String, Object>> digestDetails(Map<String, Object> variables) {
+        List<Map<String, Object>> details = new ArrayList<>();
+        DIGEST_DETAIL_VARIABLES.forEach((name, label) -> {
+            Object value = variables.get(name);
+            if (value != null && !value.toString().isBlank()) {
+                details.add(Map.of("label", label, "value", value.toString()));
+            }
+        });
+        return details;
+    }
+
+    private static Map<String, String> createDigestDetailVariables() {
+        Map<String, String> details = new LinkedHashMap<>();
+        details.put("prescriptionNumber", "Prescription");
+        details.put("deliveryMethod", "Delivery method");
+        details.put("facilityName", "Facility");
+        details.put("courierName", "Courier");
+        details.put("trackingReference", "Tracking reference");
+        details.put("estimatedDeliveryDate", "Estimated delivery");
+        details.put("deliveryAddress", "Delivery address");
+        return details;
+    }
+
+    /**
+     * Invalid input (unknown type, missing template variables, malformed recipient) will
+     * not succeed on retry; everything else is treated as transient.
+     */
+    private boolean isRetryable(Throwable throwable) {
+        Throwable current = throwable;
+        while (current != null) {
+            if (current instanceof IllegalArgumentException) {
+                return false;
+            }
+            current = current.getCause();
+        }
+        return true;
+    }
+
+    private record ClaimedNotification(UUID id, UUID claimToken) {
+        static ClaimedNotification of(NotificationOutbox notification) {
+            return new ClaimedNotification(notification.getId(), notification.getClaimToken());
+        }
+    }
+
+    private record FailedDelivery(ClaimedNotification notification, String error, boolean retryable) {
+    }
+}
@@ -0,0 +1,330 @@
+package com.mytelmed.core.notification.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.mytelmed.common.constant.notification.NotificationChannel;
+import com.mytelmed.common.constant.notification.NotificationOutboxStatus;
+import com.mytelmed.common.utils.HashUtil;
+import com.mytelmed.common.utils.conveter.EncryptionConverter;
+import com.mytelmed.core.notification.entity.NotificationOutbox;
+import com.mytelmed.core.notification.repository.NotificationOutboxRepository;
+import com.mytelmed.infrastructure.email.constant.EmailType;
+import com.mytelmed.infrastructure.push.constant.PushNotificationType;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Writes notifications to the outbox table and manages their delivery state.
+ * <p>
+ * The enqueue methods join the caller's transaction, so a notification is only
+ * persisted if the business change that triggered it commits. A read-only caller's
+ * transaction cannot write the row, so there it is written and committed in a
+ * transaction of its own: that notification is sent even if the caller's transaction
+ * later rolls back. Read-only callers should only enqueue notifications that do not
+ * depend on the outcome of their transaction.
+ * <p>
+ * A notification that is already pending for the same recipient, type and entity
+ * is dropped as a duplicate; a partial unique index over pending rows makes this hold
+ * for concurrent enqueues too. Purely informational notifications are held for a short
+ * coalescing window, and later ones for a recipient who already has one waiting join
+ * its window, so the dispatcher can merge them into a single digest. Everything else,
+ * including account, billing, appointment and reminder notifications, is sent on its
+ * own and without delay.
+ */
+@Slf4j
+@Service
+public class NotificationOutboxService {
+    private static final TypeReference<Map<String, Object>> VARIABLES_TYPE = new TypeReference<>() {
+    };
+
+    // Variables identifying the entity a notification is about, in order of precedence
+    private static final List<String> ENTITY_ID_VARIABLES = List.of(
+            "appointmentId", "referralId", "prescriptionId", "billId", "transactionId", "stripeRefundId");
+
+    // Delivery progress updates carry nothing the recipient must act on;
+    // new types are sent on their own unless added here
+    private static final Set<EmailType> COALESCABLE_EMAIL_TYPES = EnumSet.of(
+            EmailType.DELIVERY_CREATED, EmailType.DELIVERY_PROCESSING_STARTED,
+            EmailType.DELIVERY_OUT, EmailType.DELIVERY_COMPLETED);
+    private static final Set<PushNotificationType> COALESCABLE_PUSH_TYPES = EnumSet.of(
+            PushNotificationType.DELIVERY_CREATED, PushNotificationType.DELIVERY_PROCESSING_STARTED,
+            PushNotificationType.DELIVERY_OUT, PushNotificationType.DELIVERY_COMPLETED);
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final EncryptionConverter encryptionConverter;
+    private final TransactionTemplate separateTransaction;
+    private final ObjectMapper variablesMapper;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final boolean coalescingEnabled;
+    private final Duration coalescingWindow;
+
+    public NotificationOutboxService(NotificationOutboxRepository outboxRepository,
+                                     EncryptionConverter encryptionConverter,
+                                     PlatformTransactionManager transactionManager,
+                                     ObjectMapper objectMapper,
+                                     @Value("${notification.outbox.max-attempts:5}") int maxAttempts,
+                                     @Value("${notification.outbox.initial-backoff-seconds:30}") long initialBackoffSeconds,
+                                     @Value("${notification.coalescing.enabled:true}") boolean coalescingEnabled,
+                                     @Value("${notification.coalescing.window-seconds:30}") long coalescingWindowSeconds) {
+        this.outboxRepository = outboxRepository;
+        this.encryptionConverter = encryptionConverter;
+        this.separateTransaction = new TransactionTemplate(transactionManager);
+        this.separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+        this.coalescingEnabled = coalescingEnabled;
+        this.coalescingWindow = Duration.ofSeconds(coalescingWindowSeconds);
+
+        // Template variables hold dates, UUIDs and enums; keep their Java types across the JSON round-trip
+        this.variablesMapper = objectMapper.copy().activateDefaultTyping(
+                BasicPolymorphicTypeValidator.builder()
+                        .allowIfSubType("java.")
+                        .allowIfSubType("com.mytelmed.")
+                        .build(),
+                ObjectMapper.DefaultTyping.JAVA_LANG_OBJECT);
+    }
+
+    /**
+     * Builds the partial unique index over pending notifications, first dropping any
+     * duplicates that were queued before it existed.
+     */
+    @PostConstruct
+    public void createPendingDedupIndex() {
+        try {
+            separateTransaction.executeWithoutResult(status -> {
+                int removed = outboxRepository.deletePendingDuplicates();
+                if (removed > 0) {
+                    log.info("Removed {} duplicate pending notifications", removed);
+                }
+                outboxRepository.createPendingDedupIndex();
+            });
+        } catch (Exception e) {
+            // Another node starting at the same time may be building the same index
+            log.warn("Unable to create the pending notification dedup index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Queues an email in the caller's transaction. From a read-only transaction the email
+     * is committed separately and is sent even if the caller rolls back.
+     */
+    @Transactional
+    public void enqueueEmail(EmailType emailType, String recipientEmail, Map<String, Object> variables) {
+        if (recipientEmail == null || recipientEmail.isBlank()) {
+            log.warn("Cannot enqueue {} email: recipient is empty", emailType);
+            return;
+        }
+
+        enqueue(NotificationChannel.EMAIL, emailType.name(), recipientEmail, variables);
+        log.debug("Enqueued {} email for: {}", emailType, recipientEmail);
+    }
+
+    /**
+     * Queues a push notification in the caller's transaction. From a read-only transaction
+     * the notification is committed separately and is sent even if the caller rolls back.
+     */
+    @Transactional
+    public void enqueuePush(UUID accountId, PushNotificationType notificationType, Map<String, Object> variables) {
+        if (accountId == null) {
+            log.warn("Cannot enqueue push notification: account ID is null for type: {}", notificationType);
+            return;
+        }
+
+        enqueue(NotificationChannel.PUSH, notificationType.name(), accountId.toString(), variables);
+        log.debug("Enqueued {} push notification for account: {}", notificationType, accountId);
+    }
+
+    /**
+     * Claims up to {@code limit} due notifications for this node by marking them as
+     * PROCESSING under a new claim token. Rows stuck in PROCESSING longer than
+     * {@code staleAfter} (e.g. after a crash) are reclaimed, which makes delivery
+     * at-least-once.
+     */
+    @Transactional
+    public List<NotificationOutbox> claimBatch(int limit, Duration staleAfter) {
+        Instant now = Instant.now();
+        UUID claimToken = UUID.randomUUID();
+        List<NotificationOutbox> batch = outboxRepository.lockNextBatch(now, now.minus(staleAfter), limit);
+
+        batch.forEach(notification -> {
+            notification.setStatus(NotificationOutboxStatus.PROCESSING);
+            notification.setLockedAt(now);
+            notification.setClaimToken(claimToken);
+            notification.setAttempts(notification.getAttempts() + 1);
+        });
+
+        return batch;
+    }
+
+    /**
+     * Marks notifications as sent, skipping those reclaimed since this claim was made;
+     * their outcome is recorded by the claim that now holds them.
+     */
+    @Transactional
+    public int markSent(UUID claimToken, Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return outboxRepository.updateStatusAndClearVariablesByIdInAndClaimToken(
+                ids, claimToken, NotificationOutboxStatus.SENT, Instant.now());
+    }
+
+    /**
+     * Schedules a failed notification for another attempt with exponential backoff, or
+     * marks it FAILED when the error is permanent or attempts are exhausted. Ignored if
+     * the notification was reclaimed since this claim was made.
+     */
+    @Transactional
+    public void markFailed(UUID id, UUID claimToken, String error, boolean retryable) {
+        outboxRepository.findById(id).ifPresent(notification -> {
+            if (!claimToken.equals(notification.getClaimToken())) {
+                log.debug("Ignoring failure of notification {} from a claim that was since reclaimed", id);
+                return;
+            }
+
+            notification.setLockedAt(null);
+            notification.setClaimToken(null);
+            notification.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+
+            if (retryable && notification.getEntityId() != null
+                    && outboxRepository.existsByChannelAndNotificationTypeAndHashedRecipientAndEntityIdAndStatus(
+                    notification.getChannel(), notification.getNotificationType(),
+                    notification.getHashedRecipient(), notification.getEntityId(), NotificationOutboxStatus.PENDING)) {
+                // The same notification was queued again while this one was being sent; that one takes over
+                notification.setStatus(NotificationOutboxStatus.FAILED);
+                notification.setProcessedAt(Instant.now());
+                log.debug("Notification {} failed and is superseded by a pending duplicate: {}", id, error);
+            } else if (retryable && notification.getAttempts() < maxAttempts) {
+                Duration backoff = initialBackoff.multipliedBy(1L << Math.min(notification.getAttempts() - 1, 10));
+                notification.setStatus(NotificationOutboxStatus.PENDING);
+                notification.setNextAttemptAt(Instant.now().plus(backoff));
+            } else {
+                notification.setStatus(NotificationOutboxStatus.FAILED);
+                notification.setProcessedAt(Instant.now());
+                log.error("Notification {} ({} {}) permanently failed after {} attempt(s): {}",
+                        id, notification.getChannel(), notification.getNotificationType(),
+                        notification.getAttempts(), error);
+            }
+        });
+    }
+
+    @Transactional
+    public int purgeSentBefore(Instant before) {
+        return outboxRepository.deleteByStatusAndProcessedAtBefore(NotificationOutboxStatus.SENT, before);
+    }
+
+    /**
+     * Deletes permanently failed notifications, which keep their variables for
+     * investigation until then.
+     */
+    @Transactional
+    public int purgeFailedBefore(Instant before) {
+        return outboxRepository.deleteByStatusAndProcessedAtBefore(NotificationOutboxStatus.FAILED, before);
+    }
+
+    public boolean isCoalescingEnabled() {
+        return coalescingEnabled;
+    }
+
+    /**
+     * Whether notifications of this type may be held back and merged into a digest.
+     */
+    public boolean isCoalescable(NotificationChannel channel, String notificationType) {
+        if (!coalescingEnabled) {
+            return false;
+        }
+
+        return switch (channel) {
+            case EMAIL -> COALESCABLE_EMAIL_TYPES.contains(EmailType.valueOf(notificationType));
+            case PUSH -> COALESCABLE_PUSH_TYPES.contains(PushNotificationType.valueOf(notificationType));
+        };
+    }
+
+    public Map<String, Object> readVariables(NotificationOutbox notification) {
+        if (notification.getVariables() == null) {
+            throw new IllegalArgumentException("Variables of notification " + notification.getId() + " were cleared");
+        }
+
+        try {
+            return variablesMapper.readValue(notification.getVariables(), VARIABLES_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unreadable variables for notification " + notification.getId(), e);
+        }
+    }
+
+    private void enqueue(NotificationChannel channel, String type, String recipient, Map<String, Object> variables) {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            log.warn("Enqueuing {} {} notification from a read-only transaction; writing it separately", channel, type);
+            separateTransaction.executeWithoutResult(status -> insert(channel, type, recipient, variables));
+            return;
+        }
+        insert(channel, type, recipient, variables);
+    }
+
+    private void insert(NotificationChannel channel, String type, String recipient, Map<String, Object> variables) {
+        String entityId = resolveEntityId(variables);
+        String hashedRecipient = HashUtil.sha256(recipient);
+
+        try {
+            // Written natively so a duplicate is skipped by the database instead of failing the caller's transaction
+            int inserted = outboxRepository.insertIfNotPending(
+                    UUID.randomUUID(),
+                    channel.name(),
+                    type,
+                    encryptionConverter.convertToDatabaseColumn(recipient),
+                    hashedRecipient,
+                    entityId,
+                    encryptionConverter.convertToDatabaseColumn(variablesMapper.writeValueAsString(variables)),
+                    resolveNextAttemptAt(channel, type, hashedRecipient));
+
+            if (inserted == 0) {
+                log.debug("Skipping duplicate {} {} notification for entity {} to: {}",
+                        channel, type, entityId, recipient);
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize variables for " + channel + " " + type, e);
+        }
+    }
+
+    private Instant resolveNextAttemptAt(NotificationChannel channel, String type, String hashedRecipient) {
+        Instant now = Instant.now();
+        if (!isCoalescable(channel, type)) {
+            return now;
+        }
+
+        // Join the open window of a notification already waiting for this recipient, or open a new one
+        return outboxRepository
+                .findFirstByChannelAndHashedRecipientAndStatusAndNextAttemptAtAfterOrderByNextAttemptAtAsc(
+                        channel, hashedRecipient, NotificationOutboxStatus.PENDING, now)
+                .map(NotificationOutbox::getNextAttemptAt)
+                .orElse(now.plus(coalescingWindow));
+    }
+
+    private String resolveEntityId(Map<String, Object> variables) {
+        for (String key : ENTITY_ID_VARIABLES) {
+            Object value = variables.get(key);
+            if (value != null) {
+                return key + ":" + value;
+            }
+        }
+        return null;
+    }
+}
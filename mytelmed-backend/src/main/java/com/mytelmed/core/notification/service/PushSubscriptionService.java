@@ -1,43 +1,80 @@
 package com.mytelmed.core.notification.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.mytelmed.common.advice.AppException;
+import com.mytelmed.common.advice.exception.PushNotificationException;
 import com.mytelmed.common.advice.exception.ResourceNotFoundException;
 import com.mytelmed.core.auth.entity.Account;
 import com.mytelmed.core.notification.dto.PushSubscriptionRequestDto;
 import com.mytelmed.core.notification.entity.PushSubscription;
 import com.mytelmed.core.notification.repository.PushSubscriptionRepository;
+import com.mytelmed.infrastructure.push.constant.PushDeliveryOutcome;
 import com.mytelmed.infrastructure.push.constant.PushNotificationType;
+import com.mytelmed.infrastructure.push.dto.PushDeliveryResult;
+import com.mytelmed.infrastructure.push.dto.PushEndpoint;
 import com.mytelmed.infrastructure.push.factory.PushNotificationFactoryRegistry;
 import com.mytelmed.infrastructure.push.strategy.PushNotificationStrategy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Service
 public class PushSubscriptionService {
     private final PushSubscriptionRepository subscriptionRepository;
     private final PushNotificationFactoryRegistry notificationRegistry;
+    private final Counter prunedSubscriptions;
     private final static int MAX_SUBSCRIPTIONS_PER_USER = 10;
 
+    // Decoded key material per subscription, so keys are validated and parsed once rather than on every send.
+    // Bounded and expired after disuse, so devices that stop receiving notifications do not stay in memory
+    private final Cache<UUID, PushEndpoint> endpointCache;
+
+    // Successful sends since the last flush; written back in one UPDATE instead of one per send
+    private final Map<UUID, Instant> pendingLastUsed = new ConcurrentHashMap<>();
+
     public PushSubscriptionService(PushSubscriptionRepository subscriptionRepository,
-            PushNotificationFactoryRegistry notificationRegistry) {
+            PushNotificationFactoryRegistry notificationRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${application.push.endpoint-cache.max-entries:10000}") long endpointCacheMaxEntries,
+            @Value("${application.push.endpoint-cache.expiry-minutes:60}") long endpointCacheExpiryMinutes) {
         this.subscriptionRepository = subscriptionRepository;
         this.notificationRegistry = notificationRegistry;
+        this.endpointCache = Caffeine.newBuilder()
+                .maximumSize(endpointCacheMaxEntries)
+                .expireAfterAccess(Duration.ofMinutes(endpointCacheExpiryMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, endpointCache, "pushEndpoints");
+        this.prunedSubscriptions = Counter.builder("mytelmed.push.subscriptions.pruned")
+                .description("Push subscriptions deactivated because the push service reported them gone")
+                .register(meterRegistry);
     }
 
     @Transactional
     public void subscribe(Account account, PushSubscriptionRequestDto request) throws AppException {
         log.info("Creating push subscription for account: {} ({})", account.getId(), account.getPermission().getType());
 
-        // Validate subscription keys
-        validateSubscriptionKeys(request.p256dh(), request.auth());
+        // Validate and normalize subscription keys
+        String p256dh = normalizeSubscriptionKey(request.p256dh(), "P256DH");
+        String auth = normalizeSubscriptionKey(request.auth(), "Auth");
 
         // Check if a subscription already exists
         if (subscriptionRepository.existsByAccountIdAndEndpointAndIsActiveTrue(account.getId(), request.endpoint())) {
@@ -51,8 +88,9 @@ public class PushSubscriptionService {
             existing.setDeviceInfo(request.deviceInfo());
 
             // Update keys in case they changed
-            existing.setP256dh(request.p256dh());
-            existing.setAuth(request.auth());
+            existing.setP256dh(p256dh);
+            existing.setAuth(auth);
+            cacheEndpoint(existing);
             return;
         }
 
@@ -69,8 +107,8 @@ public class PushSubscriptionService {
             PushSubscription subscription = PushSubscription.builder()
                     .account(account)
                     .endpoint(request.endpoint())
-                    .p256dh(request.p256dh())
-                    .auth(request.auth())
+                    .p256dh(p256dh)
+                    .auth(auth)
                     .userAgent(request.userAgent())
                     .deviceInfo(request.deviceInfo())
                     .lastUsedAt(Instant.now())
@@ -78,6 +116,7 @@ public class PushSubscriptionService {
 
             // Save the new subscription
             subscriptionRepository.save(subscription);
+            cacheEndpoint(subscription);
 
             log.info("Successfully created push subscription for account: {}", account.getId());
         } catch (Exception e) {
@@ -87,28 +126,12 @@ public class PushSubscriptionService {
         }
     }
 
-    private void validateSubscriptionKeys(String p256dh, String auth) throws AppException {
-        if (p256dh == null || p256dh.trim().isEmpty()) {
-            throw new AppException("P256DH key cannot be null or empty");
-        }
-
-        if (auth == null || auth.trim().isEmpty()) {
-            throw new AppException("Auth key cannot be null or empty");
-        }
-
-        // Validate that keys are properly base64 encoded
+    private String normalizeSubscriptionKey(String key, String keyType) throws AppException {
         try {
-            java.util.Base64.getDecoder().decode(p256dh);
+            return PushEndpoint.normalizeKey(key, keyType);
         } catch (IllegalArgumentException e) {
-            log.error("Invalid P256DH key format: {}", e.getMessage());
-            throw new AppException("P256DH key is not valid base64 format");
-        }
-
-        try {
-            java.util.Base64.getDecoder().decode(auth);
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid Auth key format: {}", e.getMessage());
-            throw new AppException("Auth key is not valid base64 format");
+            log.error("Invalid {} key format: {}", keyType, e.getMessage());
+            throw new AppException(e.getMessage());
         }
     }
 
@@ -126,6 +149,7 @@ public class PushSubscriptionService {
 
         // Soft delete subscription
         subscription.setIsActive(false);
+        endpointCache.invalidate(subscription.getId());
 
         // Save subscription
         subscriptionRepository.save(subscription);
@@ -136,134 +160,151 @@ public class PushSubscriptionService {
     @Transactional
     public void unsubscribeAllByAccountId(UUID accountId) throws AppException {
         log.info("Unsubscribing all subscriptions for account: {}", accountId);
+        subscriptionRepository.findByAccountIdAndIsActiveTrue(accountId)
+                .forEach(subscription -> endpointCache.invalidate(subscription.getId()));
         int deactivationCount = subscriptionRepository.deactivateAllSubscriptionsByAccountId(accountId);
         log.info("Deactivated {} subscriptions for user: {}", deactivationCount, accountId);
     }
 
-    @Async
-    @Transactional
-    public void sendNotificationByAccountId(UUID accountId, PushNotificationType notificationType,
+    /**
+     * Sends a notification to every active device of the account in parallel. The
+     * returned future completes once all devices have answered. It fails with a
+     * {@link PushNotificationException} if any device was rate limited or hit a
+     * transient error, so the caller can retry; gone and rejected subscriptions are
+     * handled here and do not fail the future.
+     */
+    @Transactional(readOnly = true)
+    public CompletableFuture<Void> sendNotificationByAccountId(UUID accountId, PushNotificationType notificationType,
             Map<String, Object> variables) {
-        try {
-            // Validate inputs
-            if (accountId == null) {
-                log.warn("Cannot send push notification: account ID is null for type: {}", notificationType);
-                return;
-            }
+        // Validate inputs
+        if (accountId == null) {
+            log.warn("Cannot send push notification: account ID is null for type: {}", notificationType);
+            return CompletableFuture.completedFuture(null);
+        }
 
-            if (notificationType == null) {
-                log.warn("Cannot send push notification: notification type is null for account: {}", accountId);
-                return;
-            }
+        if (notificationType == null) {
+            log.warn("Cannot send push notification: notification type is null for account: {}", accountId);
+            return CompletableFuture.completedFuture(null);
+        }
 
-            if (variables == null) {
-                log.warn("Cannot send push notification: variables are null for account: {} and type: {}",
-                        accountId, notificationType);
-                return;
-            }
+        if (variables == null) {
+            log.warn("Cannot send push notification: variables are null for account: {} and type: {}",
+                    accountId, notificationType);
+            return CompletableFuture.completedFuture(null);
+        }
 
-            // Find all active subscriptions by account ID
-            List<PushSubscription> subscriptions = subscriptionRepository.findByAccountIdAndIsActiveTrue(accountId);
+        // Find all active subscriptions by account ID
+        List<PushSubscription> subscriptions = subscriptionRepository.findByAccountIdAndIsActiveTrue(accountId);
 
-            // Verify if there are any active subscriptions
-            if (subscriptions.isEmpty()) {
-                log.debug("No active push subscriptions found for account: {}", accountId);
-                return;
-            }
+        // Verify if there are any active subscriptions
+        if (subscriptions.isEmpty()) {
+            log.debug("No active push subscriptions found for account: {}", accountId);
+            return CompletableFuture.completedFuture(null);
+        }
 
-            log.info("Sending {} push notification to {} subscriptions for account: {}",
-                    notificationType, subscriptions.size(), accountId);
-
-            // Send notification for each active subscriptions
-            subscriptions.forEach(subscription -> {
-                try {
-                    // Send notification
-                    sendNotificationToSubscription(subscription, notificationType, variables);
-
-                    // Update last used timestamp in a separate transaction
-                    updateSubscriptionLastUsed(subscription.getId());
-                } catch (Exception e) {
-                    log.error("Failed to send push notification to subscription: {}",
-                            subscription.getId(), e);
-
-                    // Deactivate invalid subscriptions
-                    if (isSubscriptionInvalid(e)) {
-                        deactivateInvalidSubscription(subscription.getEndpoint());
-                        log.info("Deactivated invalid subscription: {}", subscription.getId());
-                    }
-                }
-            });
-        } catch (Exception e) {
-            log.error("Failed to send push notifications to account: {}", accountId, e);
+        List<PushEndpoint> endpoints = new ArrayList<>(subscriptions.size());
+        for (PushSubscription subscription : subscriptions) {
+            try {
+                endpoints.add(endpointCache.get(subscription.getId(), id -> toEndpoint(subscription)));
+            } catch (IllegalArgumentException e) {
+                log.error("Skipping subscription {} with invalid keys: {}", subscription.getId(), e.getMessage());
+            }
         }
-    }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void updateSubscriptionLastUsed(UUID subscriptionId) {
-        try {
-            subscriptionRepository.updateLastUsedAtById(subscriptionId, Instant.now());
-        } catch (Exception e) {
-            log.error("Failed to update last used timestamp for subscription: {}", subscriptionId, e);
+        if (endpoints.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
         }
+
+        log.info("Sending {} push notification to {} subscriptions for account: {}",
+                notificationType, endpoints.size(), accountId);
+
+        // Get the correct notification strategy and fan out to all devices
+        PushNotificationStrategy strategy = notificationRegistry.getNotificationSender(notificationType);
+        return strategy.sendNotification(endpoints, variables)
+                .thenAccept(results -> {
+                    long retryable = results.stream().filter(this::handleDeliveryResult).count();
+                    if (retryable > 0) {
+                        throw new PushNotificationException(String.format(
+                                "%d of %d push deliveries for account %s failed temporarily",
+                                retryable, results.size(), accountId));
+                    }
+                });
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void deactivateInvalidSubscription(String endpoint) {
-        try {
-            subscriptionRepository.deactivateSubscriptionByEndpoint(endpoint);
-        } catch (Exception e) {
-            log.error("Failed to deactivate subscription with endpoint: {}", endpoint, e);
+    /**
+     * Writes buffered last-used timestamps back to the database. Timestamps are truncated
+     * to the second and written with one UPDATE per distinct second, so a flush costs at
+     * most about one statement per second of its interval. The timestamp is only
+     * informational, so losing up to one interval on a crash is acceptable.
+     */
+    @Scheduled(fixedDelayString = "${application.push.last-used.flush-interval-ms:5000}")
+    @PreDestroy
+    public void flushLastUsed() {
+        if (pendingLastUsed.isEmpty()) {
+            return;
         }
-    }
 
-    private void sendNotificationToSubscription(PushSubscription subscription, PushNotificationType notificationType,
-            Map<String, Object> variables) {
-        log.debug("Sending {} notification to subscription: {}", notificationType, subscription.getId());
+        Map<Instant, List<UUID>> subscriptionIdsByLastUsed = new TreeMap<>();
 
-        try {
-            // Validate subscription keys before sending
-            if (subscription.getP256dh() == null || subscription.getP256dh().trim().isEmpty()) {
-                log.error("Subscription {} has null or empty P256DH key", subscription.getId());
-                throw new IllegalArgumentException(
-                        "P256DH key is null or empty for subscription " + subscription.getId());
+        for (Map.Entry<UUID, Instant> entry : pendingLastUsed.entrySet()) {
+            // Conditional remove, so a send recorded while flushing is kept for the next flush
+            if (pendingLastUsed.remove(entry.getKey(), entry.getValue())) {
+                subscriptionIdsByLastUsed
+                        .computeIfAbsent(entry.getValue().truncatedTo(ChronoUnit.SECONDS), second -> new ArrayList<>())
+                        .add(entry.getKey());
             }
+        }
 
-            if (subscription.getAuth() == null || subscription.getAuth().trim().isEmpty()) {
-                log.error("Subscription {} has null or empty Auth key", subscription.getId());
-                throw new IllegalArgumentException(
-                        "Auth key is null or empty for subscription " + subscription.getId());
+        subscriptionIdsByLastUsed.forEach((lastUsedAt, subscriptionIds) -> {
+            try {
+                int updated = subscriptionRepository.updateLastUsedAtByIdIn(subscriptionIds, lastUsedAt);
+                log.debug("Flushed last used timestamp {} for {} push subscriptions", lastUsedAt, updated);
+            } catch (Exception e) {
+                log.error("Failed to flush last used timestamp for {} push subscriptions", subscriptionIds.size(), e);
             }
+        });
+    }
 
-            log.debug("Sending notification to endpoint: {} with P256DH length: {}, Auth length: {}",
-                    subscription.getEndpoint().substring(0, Math.min(50, subscription.getEndpoint().length())) + "...",
-                    subscription.getP256dh().length(),
-                    subscription.getAuth().length());
+    /**
+     * Records the result of one delivery.
+     *
+     * @return whether the delivery failed in a way that may succeed on retry
+     */
+    private boolean handleDeliveryResult(PushDeliveryResult result) {
+        PushDeliveryOutcome outcome = result.outcome();
 
-            // Get the correct notification strategy
-            PushNotificationStrategy strategy = notificationRegistry.getNotificationSender(notificationType);
+        if (outcome == PushDeliveryOutcome.DELIVERED) {
+            pendingLastUsed.put(result.subscriptionId(), Instant.now());
+            return false;
+        }
 
-            // Send notification
-            strategy.sendNotification(
-                    subscription.getEndpoint(),
-                    subscription.getP256dh(),
-                    subscription.getAuth(),
-                    variables);
+        log.error("Failed to send push notification to subscription: {} ({}). Error: {}",
+                result.subscriptionId(), outcome, result.error());
+
+        // The push service will never accept this subscription again, so stop sending to it
+        if (outcome == PushDeliveryOutcome.GONE) {
+            try {
+                subscriptionRepository.deactivateSubscriptionByEndpoint(result.endpoint());
+                endpointCache.invalidate(result.subscriptionId());
+                pendingLastUsed.remove(result.subscriptionId());
+                prunedSubscriptions.increment();
+                log.info("Deactivated gone subscription: {}", result.subscriptionId());
+            } catch (Exception e) {
+                log.error("Failed to deactivate subscription: {}", result.subscriptionId(), e);
+            }
+        }
 
-            log.debug("Successfully sent {} notification to subscription: {}", notificationType, subscription.getId());
-        } catch (Exception e) {
-            log.error("Failed to send notification {} to subscription: {}", notificationType, subscription.getId(), e);
-            throw e;
+        return outcome == PushDeliveryOutcome.RATE_LIMITED || outcome == PushDeliveryOutcome.TRANSIENT_ERROR;
+    }
+
+    private void cacheEndpoint(PushSubscription subscription) {
+        if (subscription.getId() != null) {
+            endpointCache.put(subscription.getId(), toEndpoint(subscription));
         }
     }
 
-    /**
-     * Check if the exception indicates an invalid subscription (410 Gone, etc.)
-     */
-    private boolean isSubscriptionInvalid(Exception e) {
-        String message = e.getMessage();
-        return message != null && (message.contains("410") ||
-                message.contains("Gone") ||
-                message.contains("invalid") ||
-                message.contains("expired"));
+    private PushEndpoint toEndpoint(PushSubscription subscription) {
+        return PushEndpoint.of(subscription.getId(), subscription.getEndpoint(),
+                subscription.getP256dh(), subscription.getAuth());
     }
 }
@@ -1,6 +1,7 @@
 package com.mytelmed.core.patient.mapper;
 
 import com.mytelmed.common.constant.Gender;
+import com.mytelmed.common.constant.file.ImageSize;
 import com.mytelmed.common.utils.DateTimeUtil;
 import com.mytelmed.core.patient.dto.PatientDto;
 import com.mytelmed.core.patient.entity.Patient;
@@ -39,7 +40,7 @@ public interface PatientMapper {
 
     default String mapProfileImageUrl(Patient patient, @Context AwsS3Service awsS3Service) {
         if (patient.getProfileImage() != null && patient.getProfileImage().getImageKey() != null) {
-            return awsS3Service.generatePresignedViewUrl(patient.getProfileImage().getImageKey());
+            return awsS3Service.generatePresignedViewUrl(patient.getProfileImage().getKeyFor(ImageSize.MEDIUM));
         }
         return null;
     }
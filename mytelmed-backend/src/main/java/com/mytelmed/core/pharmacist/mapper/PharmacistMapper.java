@@ -1,6 +1,7 @@
 package com.mytelmed.core.pharmacist.mapper;
 
 import com.mytelmed.common.constant.Gender;
+import com.mytelmed.common.constant.file.ImageSize;
 import com.mytelmed.common.utils.DateTimeUtil;
 import com.mytelmed.core.facility.mapper.FacilityMapper;
 import com.mytelmed.core.image.entity.Image;
@@ -35,7 +36,7 @@ public interface PharmacistMapper {
 
     default String mapProfileImageUrl(Image image, @Context AwsS3Service awsS3Service) {
         if (image != null && image.getImageKey() != null) {
-            return awsS3Service.generatePresignedViewUrl(image.getImageKey());
+            return awsS3Service.generatePresignedViewUrl(image.getKeyFor(ImageSize.MEDIUM));
         }
         return null;
     }
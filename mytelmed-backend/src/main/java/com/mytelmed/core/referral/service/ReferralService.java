@@ -11,6 +11,7 @@ import com.mytelmed.common.event.referral.model.ReferralAcceptedEvent;
 import com.mytelmed.common.event.referral.model.ReferralCreatedEvent;
 import com.mytelmed.common.event.referral.model.ReferralRejectedEvent;
 import com.mytelmed.common.event.referral.model.ReferralScheduledEvent;
+import com.mytelmed.common.event.referral.model.ReferralSnapshot;
 import com.mytelmed.common.utils.DateTimeUtil;
 import com.mytelmed.core.appointment.entity.Appointment;
 import com.mytelmed.core.appointment.repository.AppointmentRepository;
@@ -19,6 +20,7 @@ import com.mytelmed.core.auth.entity.Account;
 import com.mytelmed.core.doctor.entity.Doctor;
 import com.mytelmed.core.doctor.service.DoctorService;
 import com.mytelmed.core.family.service.FamilyMemberPermissionService;
+import com.mytelmed.core.family.service.FamilyMemberService;
 import com.mytelmed.core.patient.entity.Patient;
 import com.mytelmed.core.patient.service.PatientService;
 import com.mytelmed.core.referral.dto.CreateReferralRequestDto;
@@ -48,6 +50,7 @@ public class ReferralService {
     private final AppointmentRepository appointmentRepository;
     private final TimeSlotService timeSlotService;
     private final FamilyMemberPermissionService familyPermissionService;
+    private final FamilyMemberService familyMemberService;
     private final ApplicationEventPublisher eventPublisher;
     private final ApplicationEventPublisher applicationEventPublisher;
 
@@ -58,6 +61,7 @@ public class ReferralService {
             AppointmentRepository appointmentRepository,
             TimeSlotService timeSlotService,
             FamilyMemberPermissionService familyPermissionService,
+            FamilyMemberService familyMemberService,
             ApplicationEventPublisher eventPublisher, ApplicationEventPublisher applicationEventPublisher) {
         this.referralRepository = referralRepository;
         this.patientService = patientService;
@@ -65,6 +69,7 @@ public class ReferralService {
         this.appointmentRepository = appointmentRepository;
         this.timeSlotService = timeSlotService;
         this.familyPermissionService = familyPermissionService;
+        this.familyMemberService = familyMemberService;
         this.eventPublisher = eventPublisher;
         this.applicationEventPublisher = applicationEventPublisher;
     }
@@ -198,17 +203,9 @@ public class ReferralService {
         // Save referral
         Referral referral = referralRepository.save(referralBuilder.build());
 
-        // Eagerly fetch lazy collections before publishing async event
-        // This ensures all required data is loaded while Hibernate session is active
-        if (referral.getReferredDoctor() != null && referral.getReferredDoctor().getSpecialityList() != null) {
-            // Access the lazy collection to trigger loading
-            referral.getReferredDoctor().getSpecialityList().size();
-            log.debug("Eagerly loaded specialityList for referral created event: {}", referral.getId());
-        }
-
         // Publish referral created event for notification emails
         ReferralCreatedEvent referralEvent = ReferralCreatedEvent.builder()
-                .referral(referral)
+                .referral(toSnapshot(referral))
                 .build();
         eventPublisher.publishEvent(referralEvent);
 
@@ -318,17 +315,12 @@ public class ReferralService {
             referral.setScheduledAppointment(savedAppointment);
             referralRepository.save(referral);
 
-            // Eagerly fetch lazy collections before publishing async event
-            if (referral.getReferredDoctor() != null && referral.getReferredDoctor().getSpecialityList() != null) {
-                // Access the lazy collection to trigger loading
-                referral.getReferredDoctor().getSpecialityList().size();
-                log.debug("Eagerly loaded specialityList for referral scheduled event: {}", referral.getId());
-            }
-
             // Publish referral scheduled event
             ReferralScheduledEvent scheduledEvent = ReferralScheduledEvent.builder()
-                    .referral(referral)
-                    .appointment(savedAppointment)
+                    .referral(toSnapshot(referral))
+                    .appointmentId(savedAppointment.getId())
+                    .appointmentDateTime(timeSlot.getStartTime())
+                    .consultationMode(savedAppointment.getConsultationMode())
                     .build();
             eventPublisher.publishEvent(scheduledEvent);
 
@@ -388,6 +380,15 @@ public class ReferralService {
         }
     }
 
+    /**
+     * Captures everything referral notifications need, including the family members
+     * to notify, while the referral is still attached to the session
+     */
+    private ReferralSnapshot toSnapshot(Referral referral) {
+        return ReferralSnapshot.of(referral,
+                familyMemberService.findMedicalRecordRecipientsByPatientId(referral.getPatient().getId()));
+    }
+
     /**
      * Publishes events for referral status changes that require notifications
      */
@@ -395,32 +396,15 @@ public class ReferralService {
         try {
             switch (newStatus) {
                 case ACCEPTED -> {
-                    // Eagerly fetch lazy collections before publishing async event
-                    // This ensures all required data is loaded while Hibernate session is active
-                    if (referral.getReferredDoctor() != null
-                            && referral.getReferredDoctor().getSpecialityList() != null) {
-                        // Access the lazy collection to trigger loading
-                        referral.getReferredDoctor().getSpecialityList().size();
-                        log.debug("Eagerly loaded specialityList for referral accepted event: {}", referral.getId());
-                    }
-
                     ReferralAcceptedEvent acceptedEvent = ReferralAcceptedEvent.builder()
-                            .referral(referral)
+                            .referral(toSnapshot(referral))
                             .build();
                     eventPublisher.publishEvent(acceptedEvent);
                     log.debug("Published ReferralAcceptedEvent for referral: {}", referral.getId());
                 }
                 case REJECTED -> {
-                    // Eagerly fetch lazy collections before publishing async event
-                    if (referral.getReferredDoctor() != null
-                            && referral.getReferredDoctor().getSpecialityList() != null) {
-                        // Access the lazy collection to trigger loading
-                        referral.getReferredDoctor().getSpecialityList().size();
-                        log.debug("Eagerly loaded specialityList for referral rejected event: {}", referral.getId());
-                    }
-
                     ReferralRejectedEvent rejectedEvent = ReferralRejectedEvent.builder()
-                            .referral(referral)
+                            .referral(toSnapshot(referral))
                             .build();
                     eventPublisher.publishEvent(rejectedEvent);
                     log.debug("Published ReferralRejectedEvent for referral: {}", referral.getId());
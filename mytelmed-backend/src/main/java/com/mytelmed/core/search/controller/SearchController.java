@@ -0,0 +1,39 @@
+package com.mytelmed.core.search.controller;
+
+import com.mytelmed.common.dto.ApiResponse;
+import com.mytelmed.core.search.dto.SearchHitDto;
+import com.mytelmed.core.search.service.ContentSearchIndex;
+import com.mytelmed.core.statistics.entity.ContentView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/search")
+public class SearchController {
+    private final ContentSearchIndex contentSearchIndex;
+
+    public SearchController(ContentSearchIndex contentSearchIndex) {
+        this.contentSearchIndex = contentSearchIndex;
+    }
+
+    // Open endpoint
+    @GetMapping
+    public ResponseEntity<ApiResponse<Page<SearchHitDto>>> searchContent(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) ContentView.ContentType type,
+            @RequestParam(defaultValue = "0") Integer page,
+            @RequestParam(defaultValue = "10") Integer size
+    ) {
+        log.debug("Received request to search content of type {} for: {}", type, query);
+
+        Page<SearchHitDto> results = contentSearchIndex.search(query, type, page, size);
+        return ResponseEntity.ok(ApiResponse.success(results));
+    }
+}
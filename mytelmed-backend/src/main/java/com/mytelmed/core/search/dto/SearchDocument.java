@@ -0,0 +1,19 @@
+package com.mytelmed.core.search.dto;
+
+import com.mytelmed.core.statistics.entity.ContentView;
+import lombok.Builder;
+
+
+/**
+ * The searchable text of one article or tutorial. {@code category} is the article
+ * subject or the tutorial category.
+ */
+@Builder
+public record SearchDocument(
+        ContentView.ContentType contentType,
+        String contentId,
+        String title,
+        String category,
+        String body
+) {
+}
@@ -0,0 +1,16 @@
+package com.mytelmed.core.search.dto;
+
+import com.mytelmed.core.statistics.entity.ContentView;
+import lombok.Builder;
+
+
+@Builder
+public record SearchHitDto(
+        ContentView.ContentType contentType,
+        String contentId,
+        String title,
+        String category,
+        String snippet,
+        double score
+) {
+}
@@ -0,0 +1,320 @@
+package com.mytelmed.core.search.service;
+
+import com.mytelmed.common.advice.exception.InvalidInputException;
+import com.mytelmed.core.search.dto.SearchDocument;
+import com.mytelmed.core.search.dto.SearchHitDto;
+import com.mytelmed.core.statistics.entity.ContentView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over article and tutorial text, ranked with BM25.
+ * <p>
+ * Title words count three times and the subject or category twice, so a query that
+ * names a topic ranks the content about it above content that mentions it in passing.
+ * The last query word also matches as a prefix of indexed words, for search-as-you-type.
+ * The whole corpus is a few thousand documents at most, so a query is a handful of
+ * map lookups under a read lock and never leaves the process.
+ */
+@Component
+public class ContentSearchIndex {
+    private static final String METRIC_PREFIX = "mytelmed.search";
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int BODY_WEIGHT = 1;
+    // A word the user is still typing should not outrank one they finished
+    private static final double PREFIX_MATCH_WEIGHT = 0.6;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_QUERY_LENGTH = 200;
+    private static final int SNIPPET_LENGTH = 200;
+
+    private final int maxPrefixExpansions;
+    private final int maxPageSize;
+    private final Timer queryTimer;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, IndexedDocument> documents = new HashMap<>();
+    // Stem -> document key -> weighted term frequency
+    private final Map<String, Map<String, Integer>> postings = new HashMap<>();
+    // Unstemmed word -> number of documents containing it, for prefix matching
+    private final NavigableMap<String, Integer> vocabulary = new TreeMap<>();
+    private long totalLength;
+
+    public ContentSearchIndex(MeterRegistry meterRegistry,
+                              @Value("${search.content.max-prefix-expansions:50}") int maxPrefixExpansions,
+                              @Value("${search.content.max-page-size:50}") int maxPageSize) {
+        this.maxPrefixExpansions = maxPrefixExpansions;
+        this.maxPageSize = maxPageSize;
+
+        this.queryTimer = Timer.builder(METRIC_PREFIX + ".query.duration")
+                .description("Time to rank a content search query")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".index.documents", this, ContentSearchIndex::size)
+                .description("Articles and tutorials in the search index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds the document, replacing any earlier version of it.
+     */
+    public void index(SearchDocument document) {
+        IndexedDocument indexed = analyze(document);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(indexed.key());
+            addLocked(indexed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(ContentView.ContentType contentType, String contentId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key(contentType, contentId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole index. Documents are analyzed before the write lock is taken,
+     * so queries only wait for the swap.
+     */
+    public void replaceAll(Collection<SearchDocument> replacement) {
+        List<IndexedDocument> analyzed = replacement.stream()
+                .map(this::analyze)
+                .toList();
+
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            vocabulary.clear();
+            totalLength = 0;
+            analyzed.forEach(this::addLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks the indexed content against the query.
+     *
+     * @param query       the words to search for; the last one also matches as a prefix
+     * @param contentType restricts results to articles or tutorials, or {@code null} for both
+     * @param page        the zero-based page
+     * @param size        the page size, at most {@code search.content.max-page-size}
+     * @return the matching content, best first
+     * @throws InvalidInputException if the query is blank or too long, or the page is out of range
+     */
+    public Page<SearchHitDto> search(String query, ContentView.ContentType contentType, int page, int size)
+            throws InvalidInputException {
+        if (query == null || query.isBlank()) {
+            throw new InvalidInputException("Search query is required");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new InvalidInputException("Search query must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (page < 0 || size < 1 || size > maxPageSize) {
+            throw new InvalidInputException("Page must be non-negative and size between 1 and " + maxPageSize);
+        }
+
+        Pageable pageable = PageRequest.of(page, size);
+        List<String> words = SearchTextAnalyzer.words(query);
+        if (words.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        return queryTimer.record(() -> {
+            lock.readLock().lock();
+            try {
+                return rankLocked(words, contentType, pageable);
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    private Page<SearchHitDto> rankLocked(List<String> words, ContentView.ContentType contentType, Pageable pageable) {
+        int documentCount = documents.size();
+        if (documentCount == 0) {
+            return Page.empty(pageable);
+        }
+        double averageLength = (double) totalLength / documentCount;
+
+        Map<String, Double> scores = new HashMap<>();
+        for (int i = 0; i < words.size(); i++) {
+            // Each query word scores its best matching term, so a prefix with many completions is not favoured
+            Map<String, Double> wordScores = new HashMap<>();
+
+            queryTerms(words.get(i), i == words.size() - 1).forEach((term, weight) -> {
+                Map<String, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    return;
+                }
+
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((key, frequency) -> {
+                    IndexedDocument document = documents.get(key);
+                    if (contentType != null && document.contentType() != contentType) {
+                        return;
+                    }
+
+                    double normalization = K1 * (1 - B + B * document.length() / averageLength);
+                    double score = weight * idf * frequency * (K1 + 1) / (frequency + normalization);
+                    wordScores.merge(key, score, Math::max);
+                });
+            });
+
+            wordScores.forEach((key, score) -> scores.merge(key, score, Double::sum));
+        }
+
+        List<Map.Entry<String, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry::getKey));
+
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        List<SearchHitDto> hits = ranked.subList(from, to).stream()
+                .map(entry -> documents.get(entry.getKey()).toHit(entry.getValue()))
+                .toList();
+
+        return new PageImpl<>(hits, pageable, ranked.size());
+    }
+
+    /**
+     * @return the stems to look up for the word, with the weight of a match on each
+     */
+    private Map<String, Double> queryTerms(String word, boolean matchPrefix) {
+        Map<String, Double> terms = new HashMap<>();
+        terms.put(SearchTextAnalyzer.stem(word), 1.0);
+
+        if (matchPrefix && word.length() >= MIN_PREFIX_LENGTH) {
+            int expansions = 0;
+            for (String candidate : vocabulary.subMap(word, false, word + Character.MAX_VALUE, false).keySet()) {
+                if (expansions++ >= maxPrefixExpansions) {
+                    break;
+                }
+                terms.putIfAbsent(SearchTextAnalyzer.stem(candidate), PREFIX_MATCH_WEIGHT);
+            }
+        }
+        return terms;
+    }
+
+    private IndexedDocument analyze(SearchDocument document) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        Set<String> words = new HashSet<>();
+
+        int length = addField(document.title(), TITLE_WEIGHT, frequencies, words)
+                + addField(document.category(), CATEGORY_WEIGHT, frequencies, words)
+                + addField(document.body(), BODY_WEIGHT, frequencies, words);
+
+        return new IndexedDocument(key(document.contentType(), document.contentId()), document.contentType(),
+                document.contentId(), document.title(), document.category(), snippet(document.body()),
+                Map.copyOf(frequencies), Set.copyOf(words), length);
+    }
+
+    private int addField(String text, int weight, Map<String, Integer> frequencies, Set<String> words) {
+        int length = 0;
+        for (String word : SearchTextAnalyzer.words(text)) {
+            words.add(word);
+            frequencies.merge(SearchTextAnalyzer.stem(word), weight, Integer::sum);
+            length += weight;
+        }
+        return length;
+    }
+
+    private void addLocked(IndexedDocument document) {
+        documents.put(document.key(), document);
+        document.frequencies().forEach((term, frequency) ->
+                postings.computeIfAbsent(term, ignored -> new HashMap<>()).put(document.key(), frequency));
+        document.words().forEach(word -> vocabulary.merge(word, 1, Integer::sum));
+        totalLength += document.length();
+    }
+
+    private void removeLocked(String key) {
+        IndexedDocument document = documents.remove(key);
+        if (document == null) {
+            return;
+        }
+
+        document.frequencies().keySet().forEach(term -> {
+            Map<String, Integer> posting = postings.get(term);
+            posting.remove(key);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        });
+        document.words().forEach(word -> vocabulary.computeIfPresent(word, (ignored, count) -> count > 1 ? count - 1 : null));
+        totalLength -= document.length();
+    }
+
+    private String snippet(String body) {
+        String text = SearchTextAnalyzer.plainText(body);
+        if (text.length() <= SNIPPET_LENGTH) {
+            return text;
+        }
+
+        int end = text.lastIndexOf(' ', SNIPPET_LENGTH);
+        return text.substring(0, end > 0 ? end : SNIPPET_LENGTH) + "...";
+    }
+
+    private static String key(ContentView.ContentType contentType, String contentId) {
+        return contentType.name() + ":" + contentId;
+    }
+
+    private record IndexedDocument(
+            String key,
+            ContentView.ContentType contentType,
+            String contentId,
+            String title,
+            String category,
+            String snippet,
+            Map<String, Integer> frequencies,
+            Set<String> words,
+            int length) {
+
+        private SearchHitDto toHit(double score) {
+            return SearchHitDto.builder()
+                    .contentType(contentType)
+                    .contentId(contentId)
+                    .title(title)
+                    .category(category)
+                    .snippet(snippet)
+                    .score(score)
+                    .build();
+        }
+    }
+}
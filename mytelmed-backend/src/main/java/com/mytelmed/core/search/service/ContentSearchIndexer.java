@@ -0,0 +1,147 @@
+package com.mytelmed.core.search.service;
+
+import com.mytelmed.common.advice.exception.ResourceNotFoundException;
+import com.mytelmed.common.event.content.ContentChangedEvent;
+import com.mytelmed.core.article.entity.Article;
+import com.mytelmed.core.article.service.ArticleService;
+import com.mytelmed.core.search.dto.SearchDocument;
+import com.mytelmed.core.statistics.entity.ContentView;
+import com.mytelmed.core.tutorial.dto.TutorialSearchView;
+import com.mytelmed.core.tutorial.repository.TutorialRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps {@link ContentSearchIndex} in step with the article table and the tutorial rows.
+ * <p>
+ * The index is built when the application starts and rebuilt periodically, which picks
+ * up edits made through other instances. Edits made through this instance are applied
+ * once they commit, and replayed after a rebuild that might have loaded them too early.
+ */
+@Slf4j
+@Component
+public class ContentSearchIndexer {
+    private static final int TUTORIAL_PAGE_SIZE = 500;
+
+    private final ContentSearchIndex contentSearchIndex;
+    private final ArticleService articleService;
+    private final TutorialRepository tutorialRepository;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Set<ContentChangedEvent> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    public ContentSearchIndexer(ContentSearchIndex contentSearchIndex, ArticleService articleService,
+                                TutorialRepository tutorialRepository) {
+        this.contentSearchIndex = contentSearchIndex;
+        this.articleService = articleService;
+        this.tutorialRepository = tutorialRepository;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${search.content.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            changedDuringRebuild.clear();
+
+            List<SearchDocument> documents = new ArrayList<>();
+            articleService.findAllArticles().value().forEach(article -> documents.add(toDocument(article)));
+
+            Pageable pageable = PageRequest.of(0, TUTORIAL_PAGE_SIZE, Sort.by("id"));
+            Slice<TutorialSearchView> slice;
+            do {
+                slice = tutorialRepository.findSearchViews(pageable);
+                slice.forEach(tutorial -> documents.add(toDocument(tutorial)));
+                pageable = slice.nextPageable();
+            } while (slice.hasNext());
+
+            contentSearchIndex.replaceAll(documents);
+            log.info("Rebuilt content search index with {} documents in {} ms", documents.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            log.error("Failed to rebuild content search index", e);
+        } finally {
+            rebuilding.set(false);
+            replayChangesDuringRebuild();
+        }
+    }
+
+    /**
+     * Applies an edit once it is committed, so the index never shows content that was rolled back.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        if (rebuilding.get()) {
+            changedDuringRebuild.add(event);
+        }
+        apply(event);
+    }
+
+    private void replayChangesDuringRebuild() {
+        Iterator<ContentChangedEvent> iterator = changedDuringRebuild.iterator();
+        while (iterator.hasNext()) {
+            ContentChangedEvent event = iterator.next();
+            iterator.remove();
+            apply(event);
+        }
+    }
+
+    private void apply(ContentChangedEvent event) {
+        try {
+            if (event.change() == ContentChangedEvent.Change.DELETED) {
+                contentSearchIndex.remove(event.contentType(), event.contentId());
+                return;
+            }
+
+            UUID contentId = UUID.fromString(event.contentId());
+            switch (event.contentType()) {
+                case ARTICLE -> contentSearchIndex.index(toDocument(articleService.findArticleById(contentId)));
+                case TUTORIAL -> tutorialRepository.findSearchViewById(contentId).ifPresentOrElse(
+                        tutorial -> contentSearchIndex.index(toDocument(tutorial)),
+                        () -> contentSearchIndex.remove(ContentView.ContentType.TUTORIAL, event.contentId()));
+            }
+        } catch (ResourceNotFoundException e) {
+            contentSearchIndex.remove(event.contentType(), event.contentId());
+        } catch (Exception e) {
+            // The next rebuild corrects the index, so the edit itself must not fail
+            log.warn("Failed to update search index for {} {}", event.contentType(), event.contentId(), e);
+        }
+    }
+
+    private SearchDocument toDocument(Article article) {
+        return SearchDocument.builder()
+                .contentType(ContentView.ContentType.ARTICLE)
+                .contentId(article.getId())
+                .title(article.getTitle())
+                .category(article.getSubject())
+                .body(article.getContent())
+                .build();
+    }
+
+    private SearchDocument toDocument(TutorialSearchView tutorial) {
+        return SearchDocument.builder()
+                .contentType(ContentView.ContentType.TUTORIAL)
+                .contentId(tutorial.getId().toString())
+                .title(tutorial.getTitle())
+                .category(tutorial.getCategory())
+                .body(tutorial.getDescription())
+                .build();
+    }
+}
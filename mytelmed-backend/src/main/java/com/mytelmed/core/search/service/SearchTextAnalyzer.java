@@ -0,0 +1,135 @@
+package com.mytelmed.core.search.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Splits text into searchable words and reduces them to stems.
+ * <p>
+ * Content is written in English and Malay without a language tag, so both rule sets
+ * run on every word. They only strip common affixes and keep at least four letters,
+ * which is enough for "doctors" to find "doctor" and "rawatan" to find "rawat"
+ * without a dictionary. The same rules run on queries and content, so a stem that is
+ * not a real word still matches.
+ */
+final class SearchTextAnalyzer {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKUP = Pattern.compile("<[^>]*>");
+    private static final int MIN_STEM_LENGTH = 4;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            // English
+            "a", "an", "and", "are", "as", "at", "be", "by", "can", "do", "for", "from", "how", "in", "is", "it",
+            "of", "on", "or", "that", "the", "this", "to", "was", "what", "when", "with", "you", "your",
+            // Malay
+            "ada", "adalah", "akan", "anda", "atau", "bagi", "boleh", "dalam", "dan", "dari", "dengan", "di",
+            "ini", "itu", "juga", "ke", "kepada", "oleh", "pada", "tidak", "untuk", "yang");
+
+    private static final String[] MALAY_SUFFIXES = {"nya", "lah", "kah", "kan", "an"};
+    private static final String[] MALAY_PREFIXES = {"memper", "meng", "meny", "peng", "mem", "men", "pem", "pen",
+            "ber", "ter"};
+
+    private SearchTextAnalyzer() {
+    }
+
+    /**
+     * @return the normalized words of the text, in order, without stop words
+     */
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return words;
+        }
+
+        String plain = MARKUP.matcher(text).replaceAll(" ");
+        String folded = DIACRITICS.matcher(Normalizer.normalize(plain, Normalizer.Form.NFKD)).replaceAll("");
+
+        for (String word : NON_WORD.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty() && !STOP_WORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Strips markup and collapses whitespace, for showing content as a snippet.
+     */
+    static String plainText(String text) {
+        if (text == null) {
+            return "";
+        }
+        return MARKUP.matcher(text).replaceAll(" ").replaceAll("\\s+", " ").trim();
+    }
+
+    static String stem(String word) {
+        if (word.length() <= MIN_STEM_LENGTH || !isAlphabetic(word)) {
+            return word;
+        }
+
+        String stem = stripMalaySuffix(word);
+        stem = stripMalayPrefix(stem);
+        return stripEnglishSuffix(stem);
+    }
+
+    private static String stripMalaySuffix(String word) {
+        for (String suffix : MALAY_SUFFIXES) {
+            if (word.endsWith(suffix) && word.length() - suffix.length() >= MIN_STEM_LENGTH) {
+                return word.substring(0, word.length() - suffix.length());
+            }
+        }
+        return word;
+    }
+
+    private static String stripMalayPrefix(String word) {
+        for (String prefix : MALAY_PREFIXES) {
+            if (!word.startsWith(prefix)) {
+                continue;
+            }
+
+            // meny- replaces an initial s: menyusu -> susu
+            String stem = prefix.equals("meny") ? "s" + word.substring(prefix.length()) : word.substring(prefix.length());
+            if (stem.length() >= MIN_STEM_LENGTH) {
+                return stem;
+            }
+        }
+        return word;
+    }
+
+    private static String stripEnglishSuffix(String word) {
+        int length = word.length();
+        if (word.endsWith("ies") && length > MIN_STEM_LENGTH + 1) {
+            return word.substring(0, length - 3) + "y";
+        }
+        if (word.endsWith("sses")) {
+            return word.substring(0, length - 2);
+        }
+        if (word.endsWith("ing") && length - 3 >= MIN_STEM_LENGTH) {
+            return word.substring(0, length - 3);
+        }
+        if (word.endsWith("ed") && length - 2 >= MIN_STEM_LENGTH) {
+            return word.substring(0, length - 2);
+        }
+        if (word.endsWith("ly") && length - 2 >= MIN_STEM_LENGTH) {
+            return word.substring(0, length - 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            return word.substring(0, length - 1);
+        }
+        return word;
+    }
+
+    private static boolean isAlphabetic(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (!Character.isLetter(word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,200 @@
+package com.mytelmed.core.statistics.service;
+
+import com.mytelmed.common.event.content.ContentChangedEvent;
+import com.mytelmed.core.article.service.ArticleService;
+import com.mytelmed.core.auth.repository.AccountRepository;
+import com.mytelmed.core.statistics.entity.ContentView;
+import com.mytelmed.core.statistics.repository.ContentViewRepository;
+import com.mytelmed.core.tutorial.repository.TutorialRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Dashboard totals kept in memory, so loading the admin dashboard runs no queries.
+ * <p>
+ * Accounts, articles, tutorials and views created or deleted through this instance
+ * adjust the counts once they commit. Every count is also re-read from its store
+ * periodically and when a new month starts, which corrects writes made through other
+ * instances and deletes without a hook, such as cascades. A write that commits while
+ * its count is being re-read may be counted twice until the next reconciliation.
+ */
+@Slf4j
+@Component
+public class DashboardCounters {
+    private final AccountRepository accountRepository;
+    private final ArticleService articleService;
+    private final TutorialRepository tutorialRepository;
+    private final ContentViewRepository contentViewRepository;
+
+    private final MaintainedCount users = new MaintainedCount();
+    private final MaintainedCount usersThisMonth = new MaintainedCount();
+    private final MaintainedCount articles = new MaintainedCount();
+    private final MaintainedCount tutorials = new MaintainedCount();
+    private final MaintainedCount views = new MaintainedCount();
+    private final MaintainedCount viewsThisMonth = new MaintainedCount();
+    private volatile long usersPreviousMonth;
+    private volatile long viewsPreviousMonth;
+    // The month the monthly counts belong to; null until the first reconciliation succeeds
+    private volatile YearMonth countedMonth;
+
+    public DashboardCounters(AccountRepository accountRepository, ArticleService articleService,
+                             TutorialRepository tutorialRepository, ContentViewRepository contentViewRepository) {
+        this.accountRepository = accountRepository;
+        this.articleService = articleService;
+        this.tutorialRepository = tutorialRepository;
+        this.contentViewRepository = contentViewRepository;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${statistics.counters.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        try {
+            reconcileNow();
+        } catch (Exception e) {
+            log.error("Failed to reconcile dashboard counters", e);
+        }
+    }
+
+    /**
+     * Reconciles first if the counts have never been read or belong to an earlier month.
+     */
+    public void ensureCurrent() {
+        if (!YearMonth.now().equals(countedMonth)) {
+            reconcileNow();
+        }
+    }
+
+    public void accountCreated() {
+        afterCommit(() -> {
+            users.add(1);
+            usersThisMonth.add(1);
+        });
+    }
+
+    public void contentViewed() {
+        afterCommit(() -> {
+            views.add(1);
+            viewsThisMonth.add(1);
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        long delta = switch (event.change()) {
+            case CREATED -> 1;
+            case DELETED -> -1;
+            case UPDATED -> 0;
+        };
+        if (delta == 0) {
+            return;
+        }
+
+        (event.contentType() == ContentView.ContentType.ARTICLE ? articles : tutorials).add(delta);
+    }
+
+    public long users() {
+        return users.get();
+    }
+
+    public long usersThisMonth() {
+        return usersThisMonth.get();
+    }
+
+    public long usersPreviousMonth() {
+        return usersPreviousMonth;
+    }
+
+    public long articles() {
+        return articles.get();
+    }
+
+    public long tutorials() {
+        return tutorials.get();
+    }
+
+    public long views() {
+        return views.get();
+    }
+
+    public long viewsThisMonth() {
+        return viewsThisMonth.get();
+    }
+
+    public long viewsPreviousMonth() {
+        return viewsPreviousMonth;
+    }
+
+    private synchronized void reconcileNow() {
+        long start = System.nanoTime();
+
+        YearMonth month = YearMonth.now();
+        Instant currentMonthStart = month.atDay(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        Instant previousMonthStart = month.minusMonths(1).atDay(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
+
+        users.reconcile(accountRepository::count);
+        usersThisMonth.reconcile(() -> accountRepository.countByCreatedAtBetween(currentMonthStart, Instant.now()));
+        usersPreviousMonth = accountRepository.countByCreatedAtBetween(previousMonthStart, currentMonthStart);
+        articles.reconcile(articleService::countArticles);
+        tutorials.reconcile(tutorialRepository::count);
+        views.reconcile(contentViewRepository::countTotalViews);
+        viewsThisMonth.reconcile(() -> contentViewRepository.countViewsBetweenDates(currentMonthStart, Instant.now()));
+        viewsPreviousMonth = contentViewRepository.countViewsBetweenDates(previousMonthStart, currentMonthStart);
+        countedMonth = month;
+
+        log.debug("Reconciled dashboard counters in {} ms - Users: {}, Articles: {}, Tutorials: {}, Views: {}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                users.get(), articles.get(), tutorials.get(), views.get());
+    }
+
+    private void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+            return;
+        }
+        update.run();
+    }
+
+    /**
+     * A count that is adjusted in place and periodically replaced by a fresh read.
+     * Adjustments made while the read runs are added on top of its result.
+     */
+    private static final class MaintainedCount {
+        private long value;
+        private long adjustedDuringRead;
+
+        synchronized void add(long delta) {
+            value += delta;
+            adjustedDuringRead += delta;
+        }
+
+        synchronized long get() {
+            return value;
+        }
+
+        void reconcile(LongSupplier read) {
+            synchronized (this) {
+                adjustedDuringRead = 0;
+            }
+
+            long counted = read.getAsLong();
+
+            synchronized (this) {
+                value = counted + adjustedDuringRead;
+            }
+        }
+    }
+}
@@ -1,17 +1,11 @@
 package com.mytelmed.core.statistics.service;
 
-import com.mytelmed.core.article.service.ArticleService;
-import com.mytelmed.core.auth.repository.AccountRepository;
 import com.mytelmed.core.statistics.dto.DashboardStatsDto;
 import com.mytelmed.core.statistics.entity.ContentView;
 import com.mytelmed.core.statistics.repository.ContentViewRepository;
-import com.mytelmed.core.tutorial.repository.TutorialRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.UUID;
 
 
@@ -23,46 +17,31 @@ import java.util.UUID;
 @Service
 @Transactional(readOnly = true)
 public class StatisticsService {
-    private final AccountRepository accountRepository;
-    private final ArticleService articleService;
-    private final TutorialRepository tutorialRepository;
     private final ContentViewRepository contentViewRepository;
+    private final DashboardCounters dashboardCounters;
 
-    public StatisticsService(AccountRepository accountRepository,
-                           ArticleService articleService,
-                           TutorialRepository tutorialRepository,
-                           ContentViewRepository contentViewRepository) {
-        this.accountRepository = accountRepository;
-        this.articleService = articleService;
-        this.tutorialRepository = tutorialRepository;
+    public StatisticsService(ContentViewRepository contentViewRepository, DashboardCounters dashboardCounters) {
         this.contentViewRepository = contentViewRepository;
+        this.dashboardCounters = dashboardCounters;
     }
 
     /**
-     * Get comprehensive dashboard statistics including growth percentages.
+     * Get comprehensive dashboard statistics including growth percentages, from the
+     * maintained counters.
      */
     public DashboardStatsDto getDashboardStats() {
-        log.info("Calculating dashboard statistics");
+        dashboardCounters.ensureCurrent();
 
-        // Calculate current month boundaries
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime startOfCurrentMonth = now.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
-        LocalDateTime startOfPreviousMonth = startOfCurrentMonth.minusMonths(1);
-        
-        Instant currentMonthStart = startOfCurrentMonth.atZone(ZoneId.systemDefault()).toInstant();
-        Instant previousMonthStart = startOfPreviousMonth.atZone(ZoneId.systemDefault()).toInstant();
-
-        // Total counts
-        long totalUsers = accountRepository.count();
-        long totalArticles = articleService.findAllArticles().size(); // DynamoDB count
-        long totalTutorials = tutorialRepository.count();
-        long totalContentViews = contentViewRepository.countTotalViews();
+        long totalUsers = dashboardCounters.users();
+        long totalArticles = dashboardCounters.articles();
+        long totalTutorials = dashboardCounters.tutorials();
+        long totalContentViews = dashboardCounters.views();
 
         // Growth calculations
-        double userGrowth = calculateUserGrowth(currentMonthStart, previousMonthStart);
-        double contentGrowth = calculateContentViewGrowth(currentMonthStart, previousMonthStart);
+        double userGrowth = calculateGrowth(dashboardCounters.usersThisMonth(), dashboardCounters.usersPreviousMonth());
+        double contentGrowth = calculateGrowth(dashboardCounters.viewsThisMonth(), dashboardCounters.viewsPreviousMonth());
 
-        log.info("Dashboard stats calculated - Users: {}, Articles: {}, Tutorials: {}, Views: {}", 
+        log.debug("Dashboard stats - Users: {}, Articles: {}, Tutorials: {}, Views: {}",
                 totalUsers, totalArticles, totalTutorials, totalContentViews);
 
         return new DashboardStatsDto(
@@ -76,41 +55,14 @@ public class StatisticsService {
     }
 
     /**
-     * Calculate user growth percentage by comparing current month to previous month.
+     * Calculate growth percentage by comparing the current month to the previous month.
      */
-    private double calculateUserGrowth(Instant currentMonthStart, Instant previousMonthStart) {
-        try {
-            long usersThisMonth = accountRepository.countByCreatedAtBetween(currentMonthStart, Instant.now());
-            long usersPreviousMonth = accountRepository.countByCreatedAtBetween(previousMonthStart, currentMonthStart);
-
-            if (usersPreviousMonth == 0) {
-                return usersThisMonth > 0 ? 100.0 : 0.0;
-            }
-
-            return ((double) (usersThisMonth - usersPreviousMonth) / usersPreviousMonth) * 100.0;
-        } catch (Exception e) {
-            log.warn("Error calculating user growth: {}", e.getMessage());
-            return 0.0;
+    private double calculateGrowth(long thisMonth, long previousMonth) {
+        if (previousMonth == 0) {
+            return thisMonth > 0 ? 100.0 : 0.0;
         }
-    }
 
-    /**
-     * Calculate content view growth percentage by comparing current month to previous month.
-     */
-    private double calculateContentViewGrowth(Instant currentMonthStart, Instant previousMonthStart) {
-        try {
-            long viewsThisMonth = contentViewRepository.countViewsBetweenDates(currentMonthStart, Instant.now());
-            long viewsPreviousMonth = contentViewRepository.countViewsBetweenDates(previousMonthStart, currentMonthStart);
-
-            if (viewsPreviousMonth == 0) {
-                return viewsThisMonth > 0 ? 100.0 : 0.0;
-            }
-
-            return ((double) (viewsThisMonth - viewsPreviousMonth) / viewsPreviousMonth) * 100.0;
-        } catch (Exception e) {
-            log.warn("Error calculating content view growth: {}", e.getMessage());
-            return 0.0;
-        }
+        return ((double) (thisMonth - previousMonth) / previousMonth) * 100.0;
     }
 
     /**
@@ -135,6 +87,7 @@ public class StatisticsService {
                     .build();
 
             contentViewRepository.save(contentView);
+            dashboardCounters.contentViewed();
             log.debug("Tracked view for {} content ID: {}", contentType, contentId);
         } catch (Exception e) {
             log.error("Error tracking content view for {} {}: {}", contentType, contentId, e.getMessage());
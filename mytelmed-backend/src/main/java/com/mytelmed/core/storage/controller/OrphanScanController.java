@@ -0,0 +1,65 @@
+package com.mytelmed.core.storage.controller;
+
+import com.mytelmed.common.advice.exception.ResourceNotFoundException;
+import com.mytelmed.common.dto.ApiResponse;
+import com.mytelmed.core.storage.dto.OrphanScanReportDto;
+import com.mytelmed.core.storage.entity.OrphanScanRun;
+import com.mytelmed.core.storage.service.OrphanObjectCollector;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.List;
+
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/admin/storage/orphan-scans")
+public class OrphanScanController {
+    private final OrphanObjectCollector orphanObjectCollector;
+
+    public OrphanScanController(OrphanObjectCollector orphanObjectCollector) {
+        this.orphanObjectCollector = orphanObjectCollector;
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<OrphanScanReportDto>> startScan(
+            @RequestParam(required = false, defaultValue = "true") boolean dryRun) {
+        log.info("Received request to start an orphaned S3 object scan (dry run: {})", dryRun);
+
+        OrphanScanRun run = orphanObjectCollector.start(dryRun);
+        return ResponseEntity.ok(ApiResponse.success(toReportDto(run), "Orphan scan started successfully"));
+    }
+
+    @GetMapping("/latest")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<OrphanScanReportDto>> getLatestScan() {
+        log.info("Received request to get the latest orphaned S3 object scan");
+
+        OrphanScanRun run = orphanObjectCollector.findLatest()
+                .orElseThrow(() -> new ResourceNotFoundException("No orphan scan has run yet"));
+        return ResponseEntity.ok(ApiResponse.success(toReportDto(run)));
+    }
+
+    private OrphanScanReportDto toReportDto(OrphanScanRun run) {
+        return new OrphanScanReportDto(
+                run.getId().toString(),
+                run.isDryRun(),
+                run.getStatus().name(),
+                run.getScannedObjects(),
+                run.getOrphanedObjects(),
+                run.getOrphanedBytes(),
+                run.getDeletedObjects(),
+                run.getSampleKeys() != null ? List.of(run.getSampleKeys().split("\n")) : List.of(),
+                run.getLastKey(),
+                run.getLastError(),
+                run.getStartedAt(),
+                run.getUpdatedAt(),
+                run.getCompletedAt());
+    }
+}
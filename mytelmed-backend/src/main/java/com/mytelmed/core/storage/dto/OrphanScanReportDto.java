@@ -0,0 +1,20 @@
+package com.mytelmed.core.storage.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record OrphanScanReportDto(
+        String id,
+        boolean dryRun,
+        String status,
+        Long scannedObjects,
+        Long orphanedObjects,
+        Long orphanedBytes,
+        Long deletedObjects,
+        List<String> sampleKeys,
+        String lastKey,
+        String lastError,
+        Instant startedAt,
+        Instant updatedAt,
+        Instant completedAt) {
+}
@@ -0,0 +1,10 @@
+package com.mytelmed.core.storage.dto;
+
+/**
+ * The result of storing content under its content-addressed key.
+ *
+ * @param key      the object key, shared by every upload of the same content in the same scope
+ * @param uploaded whether this call uploaded the object, as opposed to reusing an existing copy
+ */
+public record StoredContent(String key, boolean uploaded) {
+}
@@ -0,0 +1,85 @@
+package com.mytelmed.core.storage.entity;
+
+import com.mytelmed.common.constant.file.OrphanScanStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One pass of the orphaned S3 object scan. The last fully handled key is saved as
+ * the scan goes, so a scan interrupted by a restart resumes where it stopped.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "orphan_scan_run", indexes = {
+        @Index(name = "idx_orphan_scan_run_status_started", columnList = "status, started_at")
+})
+public class OrphanScanRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "dry_run", nullable = false)
+    private boolean dryRun;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    @Builder.Default
+    private OrphanScanStatus status = OrphanScanStatus.RUNNING;
+
+    @Column(name = "last_key", length = 1024)
+    private String lastKey;
+
+    @Column(name = "scanned_objects", nullable = false)
+    @Builder.Default
+    private Long scannedObjects = 0L;
+
+    @Column(name = "orphaned_objects", nullable = false)
+    @Builder.Default
+    private Long orphanedObjects = 0L;
+
+    @Column(name = "orphaned_bytes", nullable = false)
+    @Builder.Default
+    private Long orphanedBytes = 0L;
+
+    @Column(name = "deleted_objects", nullable = false)
+    @Builder.Default
+    private Long deletedObjects = 0L;
+
+    // Newline-separated; the first orphans found, for reviewing a dry run
+    @Column(name = "sample_keys", columnDefinition = "TEXT")
+    private String sampleKeys;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private Instant startedAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+}
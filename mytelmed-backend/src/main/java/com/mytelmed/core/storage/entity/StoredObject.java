@@ -0,0 +1,53 @@
+package com.mytelmed.core.storage.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+import java.time.Instant;
+
+/**
+ * A content-addressed S3 object and the number of entities referencing it. The
+ * object is only deleted from S3 once the count has dropped to zero and no upload
+ * has reserved it.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "stored_object")
+public class StoredObject {
+    @Id
+    @Column(name = "object_key", nullable = false, updatable = false)
+    private String objectKey;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "content_length", nullable = false)
+    private Long contentLength;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+
+    // Set by an upload before it takes its reference; the object is not deleted until then
+    @Column(name = "reserved_until")
+    private Instant reservedUntil;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
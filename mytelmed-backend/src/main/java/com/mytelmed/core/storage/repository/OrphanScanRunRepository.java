@@ -0,0 +1,13 @@
+package com.mytelmed.core.storage.repository;
+
+import com.mytelmed.core.storage.entity.OrphanScanRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+import java.util.UUID;
+
+
+@Repository
+public interface OrphanScanRunRepository extends JpaRepository<OrphanScanRun, UUID> {
+    Optional<OrphanScanRun> findFirstByOrderByStartedAtDesc();
+}
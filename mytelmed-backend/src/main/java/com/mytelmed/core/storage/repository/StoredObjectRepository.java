@@ -0,0 +1,51 @@
+package com.mytelmed.core.storage.repository;
+
+import com.mytelmed.core.storage.entity.StoredObject;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Optional;
+
+
+@Repository
+public interface StoredObjectRepository extends JpaRepository<StoredObject, String> {
+    /**
+     * Creates an unreferenced row for the key so it can be locked even by the first uploader.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stored_object (object_key, content_hash, content_length, ref_count, created_at, updated_at) " +
+            "VALUES (:objectKey, :contentHash, :contentLength, 0, now(), now()) " +
+            "ON CONFLICT (object_key) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("objectKey") String objectKey,
+                       @Param("contentHash") String contentHash,
+                       @Param("contentLength") long contentLength);
+
+    /**
+     * Locks the row for the rest of the transaction, serializing uploads, releases and
+     * deletion of the same object.
+     */
+    @Query(value = "SELECT * FROM stored_object WHERE object_key = :objectKey FOR UPDATE", nativeQuery = true)
+    Optional<StoredObject> lockByObjectKey(@Param("objectKey") String objectKey);
+
+    /**
+     * Adds a reference in the caller's transaction.
+     *
+     * @return 0 if the row no longer exists
+     */
+    @Modifying
+    @Query("UPDATE StoredObject o SET o.refCount = o.refCount + 1, o.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE o.objectKey = :objectKey")
+    int incrementRefCount(@Param("objectKey") String objectKey);
+
+    /**
+     * Joins the caller's transaction, or runs in its own for events published outside one.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE StoredObject o SET o.refCount = o.refCount - 1, o.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE o.objectKey = :objectKey AND o.refCount > 0")
+    int decrementRefCount(@Param("objectKey") String objectKey);
+}
@@ -0,0 +1,205 @@
+package com.mytelmed.core.storage.service;
+
+import com.mytelmed.common.event.document.DocumentDeletedEvent;
+import com.mytelmed.common.event.image.ImageDeletedEvent;
+import com.mytelmed.core.storage.dto.StoredContent;
+import com.mytelmed.core.storage.entity.StoredObject;
+import com.mytelmed.core.storage.repository.StoredObjectRepository;
+import com.mytelmed.infrastructure.aws.dto.S3StorageOptions;
+import com.mytelmed.infrastructure.aws.service.AwsS3Service;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Stores uploads under keys derived from their SHA-256, with a reference count per object.
+ * <p>
+ * Uploading content that the same entity already stored only increments the count,
+ * so a re-uploaded lab result costs a row update instead of another PUT and another
+ * copy in the bucket. Removing a reference decrements the count in the removing
+ * transaction, and the S3 cleanup consumers only delete objects whose count is zero.
+ * All changes to one object serialize on its row lock, so a concurrent upload can
+ * never reuse an object that is being deleted.
+ * <p>
+ * The S3 upload itself runs without the row lock. Before uploading, a short
+ * transaction of its own reserves the object for {@code reservation-minutes},
+ * and deletion leaves reserved objects alone. The reference is then taken in the
+ * caller's transaction. Concurrent uploads of the same new content each PUT the
+ * same bytes to the same key, which is harmless.
+ */
+@Slf4j
+@Service
+public class ContentAddressedStorageService {
+    private static final String METRIC_PREFIX = "mytelmed.storage.cas";
+
+    private final StoredObjectRepository storedObjectRepository;
+    private final AwsS3Service awsS3Service;
+    private final TransactionTemplate separateTransaction;
+    private final Duration uploadReservation;
+    private final Counter uploads;
+    private final Counter deduplicatedUploads;
+    private final Counter deduplicatedBytes;
+
+    public ContentAddressedStorageService(StoredObjectRepository storedObjectRepository, AwsS3Service awsS3Service,
+                                          PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                          @Value("${storage.cas.reservation-minutes:30}") long reservationMinutes) {
+        this.storedObjectRepository = storedObjectRepository;
+        this.awsS3Service = awsS3Service;
+        this.separateTransaction = new TransactionTemplate(transactionManager);
+        this.separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.uploadReservation = Duration.ofMinutes(reservationMinutes);
+
+        this.uploads = Counter.builder(METRIC_PREFIX + ".uploads")
+                .description("Uploads by whether the content was already stored")
+                .tag("result", "stored")
+                .register(meterRegistry);
+        this.deduplicatedUploads = Counter.builder(METRIC_PREFIX + ".uploads")
+                .description("Uploads by whether the content was already stored")
+                .tag("result", "deduplicated")
+                .register(meterRegistry);
+        this.deduplicatedBytes = Counter.builder(METRIC_PREFIX + ".deduplicated.bytes")
+                .description("Bytes not uploaded to S3 because the content was already stored")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stores the content under its content-addressed key and adds a reference to it.
+     * The caller must publish the matching deleted event when it drops the reference.
+     * The reference is counted in the caller's transaction, which must not already hold
+     * the object's row lock, e.g. by storing the same content twice.
+     *
+     * @param storageOptions   the folder and owning entity, which scope deduplication
+     * @param originalFileName the client's file name, used for the key extension
+     * @param content          the content; read twice, once to hash and once to upload
+     * @param contentLength    the content length in bytes
+     * @param contentType      the content type to store, or {@code null}
+     * @return the key and whether the content was uploaded by this call
+     * @throws IOException if the content cannot be read
+     * @throws S3Exception if the content cannot be uploaded to S3
+     */
+    @Transactional
+    public StoredContent store(S3StorageOptions storageOptions, String originalFileName, InputStreamSource content,
+                               long contentLength, String contentType) throws IOException, S3Exception {
+        String contentHash = sha256(content);
+        String key = awsS3Service.buildContentAddressedKey(storageOptions, originalFileName, contentHash);
+
+        boolean upload = Boolean.TRUE.equals(
+                separateTransaction.execute(status -> reserve(key, contentHash, contentLength)));
+        if (upload) {
+            awsS3Service.uploadFile(key, content, contentLength, contentType);
+            uploads.increment();
+        } else {
+            deduplicatedUploads.increment();
+            deduplicatedBytes.increment(contentLength);
+            log.debug("Reusing stored object {}", key);
+        }
+
+        if (storedObjectRepository.incrementRefCount(key) == 0) {
+            throw new IllegalStateException("Stored object " + key + " was deleted after its reservation expired");
+        }
+        return new StoredContent(key, upload);
+    }
+
+    /**
+     * Reserves the object against deletion for the duration of an upload.
+     *
+     * @return whether the content must be uploaded, i.e. the object is unreferenced and
+     * may be new or already deleted from S3
+     */
+    private boolean reserve(String key, String contentHash, long contentLength) {
+        storedObjectRepository.insertIfAbsent(key, contentHash, contentLength);
+        StoredObject storedObject = storedObjectRepository.lockByObjectKey(key)
+                .orElseThrow(() -> new IllegalStateException("Stored object row missing for key: " + key));
+
+        storedObject.setReservedUntil(Instant.now().plus(uploadReservation));
+        return storedObject.getRefCount() == 0;
+    }
+
+    /**
+     * Drops one reference to the object. Keys that were not stored through this
+     * service are ignored.
+     */
+    public void release(String key) {
+        if (key != null && storedObjectRepository.decrementRefCount(key) > 0) {
+            log.debug("Released a reference to stored object {}", key);
+        }
+    }
+
+    /**
+     * Deletes the object from S3 unless it is still referenced or reserved by an upload.
+     * Keys that were not stored through this service are always deleted.
+     *
+     * @return whether the object was deleted
+     * @throws S3Exception if the object cannot be deleted from S3
+     */
+    @Transactional
+    public boolean deleteIfUnreferenced(String key) throws S3Exception {
+        Optional<StoredObject> storedObject = storedObjectRepository.lockByObjectKey(key);
+        if (storedObject.isPresent() && storedObject.get().getRefCount() > 0) {
+            log.debug("Keeping stored object {} with {} references", key, storedObject.get().getRefCount());
+            return false;
+        }
+
+        Instant reservedUntil = storedObject.map(StoredObject::getReservedUntil).orElse(null);
+        if (reservedUntil != null && reservedUntil.isAfter(Instant.now())) {
+            log.debug("Keeping stored object {} reserved by an upload until {}", key, reservedUntil);
+            return false;
+        }
+
+        awsS3Service.deleteFile(key);
+        storedObject.ifPresent(storedObjectRepository::delete);
+        return true;
+    }
+
+    /**
+     * Releases the document's object in the deleting transaction, so the count only
+     * drops if the document is really gone.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onDocumentDeleted(DocumentDeletedEvent event) {
+        release(event.documentKey());
+    }
+
+    /**
+     * Releases the image's object in the deleting transaction.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onImageDeleted(ImageDeletedEvent event) {
+        release(event.imageKey());
+    }
+
+    private String sha256(InputStreamSource content) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        try (InputStream inputStream = new DigestInputStream(content.getInputStream(), digest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,396 @@
+package com.mytelmed.core.storage.service;
+
+import com.mytelmed.common.advice.AppException;
+import com.mytelmed.common.constant.file.DocumentType;
+import com.mytelmed.common.constant.file.FileType;
+import com.mytelmed.common.constant.file.ImageSize;
+import com.mytelmed.common.constant.file.ImageType;
+import com.mytelmed.common.constant.file.OrphanScanStatus;
+import com.mytelmed.common.constant.file.VideoType;
+import com.mytelmed.core.document.entity.Document;
+import com.mytelmed.core.document.repository.DocumentRepository;
+import com.mytelmed.core.image.repository.ImageRepository;
+import com.mytelmed.core.storage.entity.OrphanScanRun;
+import com.mytelmed.core.storage.entity.StoredObject;
+import com.mytelmed.core.storage.repository.OrphanScanRunRepository;
+import com.mytelmed.core.storage.repository.StoredObjectRepository;
+import com.mytelmed.core.upload.repository.PendingUploadRepository;
+import com.mytelmed.core.video.repository.VideoRepository;
+import com.mytelmed.infrastructure.aws.service.AwsS3Service;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Finds S3 objects that no image, document or video references any more and deletes them.
+ * <p>
+ * The deleted-event consumers normally remove objects, but one is orphaned whenever a
+ * consumer gives up or a rollback fails to delete an upload. The scan lists each file
+ * type prefix in key order. Keys are grouped as {@code <type>/<folder>/<entityId>/}, so
+ * it loads one entity's references at a time and merges them against that entity's
+ * listed keys, holding no more than one entity in memory. Orphans are deleted with
+ * DeleteObjects in batches of up to 1000. The last handled key is saved after each
+ * batch, so an interrupted scan resumes where it stopped.
+ * <p>
+ * Objects newer than {@code min-age}, pending direct uploads, objects the
+ * content-addressed store still counts references for and keys outside the known
+ * layout are never deleted.
+ */
+@Slf4j
+@Service
+public class OrphanObjectCollector {
+    private static final int BATCH_SIZE = 1000;
+    private static final int SAMPLE_SIZE = 100;
+
+    // S3 lists keys in UTF-8 byte order, which is code point order rather than String's UTF-16 order
+    private static final Comparator<String> S3_KEY_ORDER = (a, b) -> Arrays.compare(
+            a.codePoints().toArray(), b.codePoints().toArray());
+
+    private final OrphanScanRunRepository orphanScanRunRepository;
+    private final ImageRepository imageRepository;
+    private final VideoRepository videoRepository;
+    private final DocumentRepository documentRepository;
+    private final StoredObjectRepository storedObjectRepository;
+    private final PendingUploadRepository pendingUploadRepository;
+    private final ContentAddressedStorageService contentAddressedStorageService;
+    private final AwsS3Service awsS3Service;
+    private final Executor schedulerExecutor;
+    private final boolean scheduledEnabled;
+    private final boolean scheduledDryRun;
+    private final Duration minAge;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public OrphanObjectCollector(OrphanScanRunRepository orphanScanRunRepository,
+                                 ImageRepository imageRepository,
+                                 VideoRepository videoRepository,
+                                 DocumentRepository documentRepository,
+                                 StoredObjectRepository storedObjectRepository,
+                                 PendingUploadRepository pendingUploadRepository,
+                                 ContentAddressedStorageService contentAddressedStorageService,
+                                 AwsS3Service awsS3Service,
+                                 @Qualifier("schedulerExecutor") Executor schedulerExecutor,
+                                 @Value("${storage.orphan-gc.enabled:true}") boolean scheduledEnabled,
+                                 @Value("${storage.orphan-gc.dry-run:true}") boolean scheduledDryRun,
+                                 @Value("${storage.orphan-gc.min-age-hours:24}") long minAgeHours) {
+        this.orphanScanRunRepository = orphanScanRunRepository;
+        this.imageRepository = imageRepository;
+        this.videoRepository = videoRepository;
+        this.documentRepository = documentRepository;
+        this.storedObjectRepository = storedObjectRepository;
+        this.pendingUploadRepository = pendingUploadRepository;
+        this.contentAddressedStorageService = contentAddressedStorageService;
+        this.awsS3Service = awsS3Service;
+        this.schedulerExecutor = schedulerExecutor;
+        this.scheduledEnabled = scheduledEnabled;
+        this.scheduledDryRun = scheduledDryRun;
+        this.minAge = Duration.ofHours(minAgeHours);
+    }
+
+    /**
+     * Starts a scan in the background, resuming the latest scan if it did not complete
+     * and runs in the same mode.
+     *
+     * @param dryRun whether to only report orphans instead of deleting them
+     * @return the started or resumed scan
+     * @throws AppException if a scan is already running
+     */
+    public OrphanScanRun start(boolean dryRun) throws AppException {
+        if (!running.compareAndSet(false, true)) {
+            throw new AppException("An orphan scan is already running");
+        }
+
+        try {
+            OrphanScanRun run = startOrResume(dryRun);
+            schedulerExecutor.execute(() -> {
+                try {
+                    scan(run);
+                } finally {
+                    running.set(false);
+                }
+            });
+            return run;
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    public Optional<OrphanScanRun> findLatest() {
+        return orphanScanRunRepository.findFirstByOrderByStartedAtDesc();
+    }
+
+    @Scheduled(cron = "${storage.orphan-gc.cron:0 0 4 * * SUN}")
+    public void scheduledScan() {
+        if (!scheduledEnabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            scan(startOrResume(scheduledDryRun));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private OrphanScanRun startOrResume(boolean dryRun) {
+        Optional<OrphanScanRun> latest = orphanScanRunRepository.findFirstByOrderByStartedAtDesc();
+        if (latest.isPresent() && latest.get().getStatus() != OrphanScanStatus.COMPLETED) {
+            OrphanScanRun run = latest.get();
+            if (run.isDryRun() == dryRun) {
+                log.info("Resuming orphan scan {} after key: {}", run.getId(), run.getLastKey());
+                run.setStatus(OrphanScanStatus.RUNNING);
+                run.setLastError(null);
+                return orphanScanRunRepository.save(run);
+            }
+
+            if (run.getStatus() == OrphanScanStatus.RUNNING) {
+                run.setStatus(OrphanScanStatus.FAILED);
+                run.setLastError("Interrupted and superseded by a scan in another mode");
+                run.setCompletedAt(Instant.now());
+                orphanScanRunRepository.save(run);
+            }
+        }
+
+        OrphanScanRun run = orphanScanRunRepository.save(OrphanScanRun.builder().dryRun(dryRun).build());
+        log.info("Started {} orphan scan {}", dryRun ? "dry-run" : "deleting", run.getId());
+        return run;
+    }
+
+    private void scan(OrphanScanRun run) {
+        ScanState state = new ScanState(run);
+        Instant cutoff = Instant.now().minus(minAge);
+
+        try {
+            // Prefixes in key order, so the checkpoint only ever moves forward
+            List<String> prefixes = Arrays.stream(FileType.values())
+                    .map(fileType -> fileType.name().toLowerCase(Locale.ROOT) + "/")
+                    .sorted(S3_KEY_ORDER)
+                    .toList();
+
+            for (String prefix : prefixes) {
+                for (S3Object object : awsS3Service.listFiles(prefix, state.lastKey)) {
+                    inspect(state, object, cutoff);
+                    if (state.pendingCount() >= BATCH_SIZE || state.sinceCheckpoint >= BATCH_SIZE) {
+                        checkpoint(state);
+                    }
+                }
+            }
+            checkpoint(state);
+
+            state.run.setStatus(OrphanScanStatus.COMPLETED);
+            state.run.setCompletedAt(Instant.now());
+            state.run = orphanScanRunRepository.save(state.run);
+            log.info("Completed orphan scan {}: {} objects scanned, {} orphaned ({} bytes), {} deleted",
+                    state.run.getId(), state.run.getScannedObjects(), state.run.getOrphanedObjects(),
+                    state.run.getOrphanedBytes(), state.run.getDeletedObjects());
+        } catch (Exception e) {
+            log.error("Orphan scan {} failed after key: {}", state.run.getId(), state.run.getLastKey(), e);
+            state.run.setStatus(OrphanScanStatus.FAILED);
+            state.run.setLastError(e.getMessage() != null && e.getMessage().length() > 1000
+                    ? e.getMessage().substring(0, 1000)
+                    : e.getMessage());
+            orphanScanRunRepository.save(state.run);
+        }
+    }
+
+    private void inspect(ScanState state, S3Object object, Instant cutoff) {
+        String key = object.key();
+        String group = groupOf(key);
+        if (!Objects.equals(group, state.group)) {
+            state.group = group;
+            state.references = group != null ? loadReferences(group) : null;
+        }
+
+        state.lastKey = key;
+        state.sinceCheckpoint++;
+        state.run.setScannedObjects(state.run.getScannedObjects() + 1);
+
+        // Unknown layouts are kept, and recent objects may belong to a transaction that has not committed yet
+        if (state.references == null || object.lastModified().isAfter(cutoff) || state.references.references(key)) {
+            return;
+        }
+        if (pendingUploadRepository.existsByObjectKey(key)) {
+            return;
+        }
+
+        Optional<StoredObject> storedObject = storedObjectRepository.findById(key);
+        if (storedObject.isPresent() && storedObject.get().getRefCount() > 0) {
+            log.warn("Stored object {} has {} references but no owning row", key, storedObject.get().getRefCount());
+            return;
+        }
+
+        log.debug("Found orphaned object {} ({} bytes)", key, object.size());
+        state.run.setOrphanedObjects(state.run.getOrphanedObjects() + 1);
+        state.run.setOrphanedBytes(state.run.getOrphanedBytes() + (object.size() != null ? object.size() : 0));
+        state.addSample(key);
+
+        if (storedObject.isPresent()) {
+            state.contentAddressedOrphans.add(key);
+        } else {
+            state.orphans.add(key);
+        }
+    }
+
+    /**
+     * Deletes the orphans found since the last checkpoint, then records the last key,
+     * so a resumed scan never skips an orphan it did not delete.
+     */
+    private void checkpoint(ScanState state) {
+        if (!state.run.isDryRun()) {
+            long deleted = 0;
+            if (!state.orphans.isEmpty()) {
+                awsS3Service.deleteFiles(state.orphans);
+                deleted += state.orphans.size();
+            }
+            // The content-addressed store must lock the row, so a concurrent upload cannot reuse the object
+            for (String key : state.contentAddressedOrphans) {
+                if (contentAddressedStorageService.deleteIfUnreferenced(key)) {
+                    deleted++;
+                }
+            }
+            state.run.setDeletedObjects(state.run.getDeletedObjects() + deleted);
+        }
+
+        state.orphans.clear();
+        state.contentAddressedOrphans.clear();
+        state.sinceCheckpoint = 0;
+        state.run.setLastKey(state.lastKey);
+        state.run.setSampleKeys(state.samples.isEmpty() ? null : String.join("\n", state.samples));
+        state.run = orphanScanRunRepository.save(state.run);
+    }
+
+    /**
+     * Returns the {@code <type>/<folder>/<entityId>/} prefix of a key, or {@code null}
+     * if the key does not follow that layout.
+     */
+    private String groupOf(String key) {
+        String[] parts = key.split("/", 4);
+        if (parts.length < 4 || parts[3].isEmpty()) {
+            return null;
+        }
+        return parts[0] + "/" + parts[1] + "/" + parts[2] + "/";
+    }
+
+    private ReferenceCursor loadReferences(String group) {
+        String[] parts = group.split("/");
+        String folder = parts[1].toUpperCase(Locale.ROOT);
+
+        try {
+            UUID entityId = UUID.fromString(parts[2]);
+            return switch (parts[0]) {
+                case "image" -> imageReferences(ImageType.valueOf(folder), entityId);
+                case "video" -> videoReferences(VideoType.valueOf(folder), entityId);
+                case "document" -> documentReferences(DocumentType.valueOf(folder), entityId);
+                default -> null;
+            };
+        } catch (IllegalArgumentException e) {
+            log.warn("Skipping objects under unrecognized prefix: {}", group);
+            return null;
+        }
+    }
+
+    private ReferenceCursor imageReferences(ImageType imageType, UUID entityId) {
+        List<String> keys = new ArrayList<>();
+        imageRepository.findByImageTypeAndEntityId(imageType, entityId).ifPresent(image -> {
+            keys.add(image.getImageKey());
+            for (ImageSize size : ImageSize.values()) {
+                keys.add(image.getKeyFor(size));
+                keys.add(size.keyFor(image.getImageKey()));
+            }
+        });
+        return new ReferenceCursor(keys, List.of());
+    }
+
+    private ReferenceCursor videoReferences(VideoType videoType, UUID entityId) {
+        List<String> keys = new ArrayList<>();
+        List<String> prefixes = new ArrayList<>();
+        videoRepository.findByVideoTypeAndEntityId(videoType, entityId).ifPresent(video -> {
+            keys.add(video.getVideoKey());
+            keys.add(video.getHlsMasterPlaylistKey());
+            if (video.getHlsKeyPrefix() != null) {
+                prefixes.add(video.getHlsKeyPrefix());
+            }
+        });
+        return new ReferenceCursor(keys, prefixes);
+    }
+
+    private ReferenceCursor documentReferences(DocumentType documentType, UUID patientId) {
+        List<String> keys = documentRepository.findByPatientIdOrderByCreatedAtDesc(patientId).stream()
+                .filter(document -> document.getDocumentType() == documentType)
+                .map(Document::getDocumentKey)
+                .toList();
+        return new ReferenceCursor(keys, List.of());
+    }
+
+    /**
+     * The keys one entity references, walked in the same ascending order S3 lists the
+     * entity's objects in. Keys are decrypted by JPA, so they cannot be sorted by the database.
+     */
+    private static final class ReferenceCursor {
+        private final Iterator<String> keys;
+        private final List<String> prefixes;
+        private String next;
+
+        ReferenceCursor(Collection<String> keys, List<String> prefixes) {
+            TreeSet<String> sorted = new TreeSet<>(S3_KEY_ORDER);
+            keys.stream().filter(Objects::nonNull).forEach(sorted::add);
+            this.keys = sorted.iterator();
+            this.prefixes = prefixes;
+            this.next = this.keys.hasNext() ? this.keys.next() : null;
+        }
+
+        boolean references(String key) {
+            while (next != null && S3_KEY_ORDER.compare(next, key) < 0) {
+                next = keys.hasNext() ? keys.next() : null;
+            }
+            return key.equals(next) || prefixes.stream().anyMatch(key::startsWith);
+        }
+    }
+
+    private static final class ScanState {
+        private OrphanScanRun run;
+        private String group;
+        private ReferenceCursor references;
+        private String lastKey;
+        private int sinceCheckpoint;
+        private final List<String> orphans = new ArrayList<>();
+        private final List<String> contentAddressedOrphans = new ArrayList<>();
+        private final List<String> samples = new ArrayList<>();
+
+        ScanState(OrphanScanRun run) {
+            this.run = run;
+            this.lastKey = run.getLastKey();
+            if (run.getSampleKeys() != null) {
+                samples.addAll(Arrays.asList(run.getSampleKeys().split("\n")));
+            }
+        }
+
+        int pendingCount() {
+            return orphans.size() + contentAddressedOrphans.size();
+        }
+
+        void addSample(String key) {
+            if (samples.size() < SAMPLE_SIZE) {
+                samples.add(key);
+            }
+        }
+    }
+}
@@ -10,10 +10,12 @@ import com.mytelmed.core.transcription.entity.TranscriptionSummary;
 import com.mytelmed.core.transcription.mapper.TranscriptionSummaryMapper;
 import com.mytelmed.core.transcription.service.TranscriptionService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -58,6 +60,19 @@ public class TranscriptionController {
         return ResponseEntity.ok(ApiResponse.success(summaryDto));
     }
 
+    @GetMapping(value = "/appointment/{appointmentId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('DOCTOR')")
+    public SseEmitter streamTranscriptionSummary(
+            @PathVariable UUID appointmentId,
+            @AuthenticationPrincipal Account account) {
+        log.debug("Streaming transcription summary for appointment: {} to user: {}", appointmentId, account.getId());
+
+        // Validate user has access to this appointment
+        validateUserAccessToAppointment(appointmentId, account);
+
+        return transcriptionService.streamTranscriptionSummary(appointmentId);
+    }
+
     @GetMapping("/appointment/{appointmentId}/exists")
     @PreAuthorize("hasAnyRole('DOCTOR', 'PATIENT')")
     public ResponseEntity<ApiResponse<Boolean>> hasTranscriptionSummary(
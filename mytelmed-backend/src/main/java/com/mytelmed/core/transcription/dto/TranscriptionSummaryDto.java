@@ -17,6 +17,7 @@ public record TranscriptionSummaryDto(
                 List<String> keyPoints,
                 List<String> actionItems,
                 String processingStatus,
+                String partialSummary,
                 String aiModel,
                 Instant createdAt,
                 Instant updatedAt,
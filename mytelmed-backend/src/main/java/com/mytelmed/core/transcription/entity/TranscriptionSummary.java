@@ -31,6 +31,7 @@ public class TranscriptionSummary {
     private List<String> keyPoints;
     private List<String> actionItems;
     private String processingStatus;
+    private String partialSummary;
     private String aiModel;
     private Instant createdAt;
     private Instant updatedAt;
@@ -78,6 +79,11 @@ public class TranscriptionSummary {
         return processingStatus;
     }
 
+    @DynamoDbAttribute("partial_summary")
+    public String getPartialSummary() {
+        return partialSummary;
+    }
+
     @DynamoDbAttribute("ai_model")
     public String getAiModel() {
         return aiModel;
@@ -24,6 +24,7 @@ public class TranscriptionSummaryMapper {
                 .keyPoints(entity.getKeyPoints())
                 .actionItems(entity.getActionItems())
                 .processingStatus(entity.getProcessingStatus())
+                .partialSummary(entity.getPartialSummary())
                 .aiModel(entity.getAiModel())
                 .createdAt(entity.getCreatedAt())
                 .updatedAt(entity.getUpdatedAt())
@@ -0,0 +1,123 @@
+package com.mytelmed.core.transcription.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Relays summary text to server-sent event subscribers while this instance generates it.
+ * <p>
+ * A subscriber that joins mid-stream first receives a {@code snapshot} of the text so
+ * far, then a {@code delta} event per piece; both are sent under the stream's lock, so
+ * no piece is missed or sent twice. The stream ends with a {@code completed} or
+ * {@code failed} event. Streams only exist on the instance generating the summary.
+ */
+@Slf4j
+@Component
+public class SummaryStreamBroadcaster {
+    public static final String SNAPSHOT_EVENT = "snapshot";
+    public static final String DELTA_EVENT = "delta";
+    public static final String COMPLETED_EVENT = "completed";
+    public static final String FAILED_EVENT = "failed";
+
+    private final Map<UUID, SummaryStream> streams = new ConcurrentHashMap<>();
+
+    public void start(UUID appointmentId) {
+        streams.put(appointmentId, new SummaryStream());
+    }
+
+    public void publish(UUID appointmentId, String delta) {
+        SummaryStream stream = streams.get(appointmentId);
+        if (stream == null) {
+            return;
+        }
+
+        synchronized (stream) {
+            stream.text.append(delta);
+            stream.subscribers.removeIf(emitter -> !send(emitter, DELTA_EVENT, delta));
+        }
+    }
+
+    /**
+     * Sends the final summary and closes every subscriber. Call after the summary is
+     * persisted, so a subscriber arriving afterwards finds it in the table.
+     */
+    public void complete(UUID appointmentId, Object summary) {
+        finish(appointmentId, COMPLETED_EVENT, summary);
+    }
+
+    public void fail(UUID appointmentId, String errorMessage) {
+        finish(appointmentId, FAILED_EVENT, Map.of("errorMessage", errorMessage != null ? errorMessage : ""));
+    }
+
+    /**
+     * Subscribes the emitter to the summary being generated on this instance.
+     *
+     * @return {@code false} if no summary for the appointment is being generated here
+     */
+    public boolean subscribe(UUID appointmentId, SseEmitter emitter) {
+        SummaryStream stream = streams.get(appointmentId);
+        if (stream == null) {
+            return false;
+        }
+
+        Runnable unsubscribe = () -> {
+            synchronized (stream) {
+                stream.subscribers.remove(emitter);
+            }
+        };
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+
+        synchronized (stream) {
+            if (stream.finished) {
+                return false;
+            }
+            if (send(emitter, SNAPSHOT_EVENT, stream.text.toString())) {
+                stream.subscribers.add(emitter);
+            }
+        }
+        return true;
+    }
+
+    private void finish(UUID appointmentId, String eventName, Object data) {
+        SummaryStream stream = streams.remove(appointmentId);
+        if (stream == null) {
+            return;
+        }
+
+        synchronized (stream) {
+            stream.finished = true;
+            for (SseEmitter emitter : stream.subscribers) {
+                if (send(emitter, eventName, data)) {
+                    emitter.complete();
+                }
+            }
+            stream.subscribers.clear();
+        }
+    }
+
+    private boolean send(SseEmitter emitter, String eventName, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(data));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the container completes the emitter
+            log.debug("Dropping summary stream subscriber: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static final class SummaryStream {
+        private final StringBuilder text = new StringBuilder();
+        private final List<SseEmitter> subscribers = new ArrayList<>();
+        private boolean finished;
+    }
+}
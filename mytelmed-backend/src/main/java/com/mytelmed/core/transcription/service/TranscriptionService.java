@@ -6,20 +6,27 @@ import com.mytelmed.common.constant.transcription.TranscriptProcessingStatus;
 import com.mytelmed.core.appointment.entity.Appointment;
 import com.mytelmed.core.appointment.repository.AppointmentRepository;
 import com.mytelmed.core.transcription.entity.TranscriptionSummary;
+import com.mytelmed.core.transcription.mapper.TranscriptionSummaryMapper;
 import com.mytelmed.infrastructure.ai.dto.TranscriptionSummaryRequest;
 import com.mytelmed.infrastructure.ai.dto.TranscriptionSummaryResponse;
-import com.mytelmed.infrastructure.ai.service.AiServiceStrategy;
+import com.mytelmed.infrastructure.ai.service.TranscriptionSummarizer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import java.io.IOException;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Service for managing transcription summaries
@@ -28,21 +35,39 @@ import java.util.UUID;
 @Service
 public class TranscriptionService {
     private final DynamoDbTable<TranscriptionSummary> transcriptionTable;
-    private final AiServiceStrategy aiService;
+    private final TranscriptionSummarizer transcriptionSummarizer;
     private final AppointmentRepository appointmentRepository;
+    private final SummaryStreamBroadcaster summaryStreamBroadcaster;
+    private final TranscriptionSummaryMapper mapper;
+    private final boolean streamingEnabled;
+    private final long persistIntervalNanos;
+    private final long emitterTimeoutMs;
+    private final long reconnectMs;
 
     public TranscriptionService(DynamoDbTable<TranscriptionSummary> transcriptionTable,
-            AiServiceStrategy aiService,
-            AppointmentRepository appointmentRepository) {
+            TranscriptionSummarizer transcriptionSummarizer,
+            AppointmentRepository appointmentRepository,
+            SummaryStreamBroadcaster summaryStreamBroadcaster,
+            TranscriptionSummaryMapper mapper,
+            @Value("${ai.summary.streaming.enabled:true}") boolean streamingEnabled,
+            @Value("${ai.summary.streaming.persist-interval-ms:1000}") long persistIntervalMs,
+            @Value("${ai.summary.streaming.emitter-timeout-ms:300000}") long emitterTimeoutMs,
+            @Value("${ai.summary.streaming.reconnect-ms:2000}") long reconnectMs) {
         this.transcriptionTable = transcriptionTable;
-        this.aiService = aiService;
+        this.transcriptionSummarizer = transcriptionSummarizer;
         this.appointmentRepository = appointmentRepository;
+        this.summaryStreamBroadcaster = summaryStreamBroadcaster;
+        this.mapper = mapper;
+        this.streamingEnabled = streamingEnabled;
+        this.persistIntervalNanos = TimeUnit.MILLISECONDS.toNanos(persistIntervalMs);
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.reconnectMs = reconnectMs;
     }
 
     /**
      * Process transcription asynchronously when video call ends
      */
-    @Async
+    @Async("transcriptionExecutor")
     public void processTranscriptionAsync(UUID appointmentId, String transcriptionText) {
         try {
             log.info("Starting async transcription processing for appointment: {}", appointmentId);
@@ -68,8 +93,15 @@ public class TranscriptionService {
                     .reasonForVisit(appointment.getReasonForVisit())
                     .build();
 
-            // Generate summary using AI service
-            TranscriptionSummaryResponse aiResponse = aiService.generateTranscriptionSummary(aiRequest);
+            // Generate summary using AI service, streaming the text to subscribed doctors if enabled
+            TranscriptionSummaryResponse aiResponse;
+            if (streamingEnabled) {
+                summaryStreamBroadcaster.start(appointmentId);
+                aiResponse = transcriptionSummarizer.summarize(aiRequest,
+                        new PartialSummaryWriter(appointmentId, pendingSummary));
+            } else {
+                aiResponse = transcriptionSummarizer.summarize(aiRequest);
+            }
 
             if (aiResponse.success()) {
                 // Save successful summary
@@ -78,21 +110,25 @@ public class TranscriptionService {
                 pendingSummary.setDoctorSummary(aiResponse.doctorSummary());
                 pendingSummary.setKeyPoints(aiResponse.keyPoints());
                 pendingSummary.setActionItems(aiResponse.actionItems());
+                pendingSummary.setPartialSummary(null);
                 pendingSummary.setProcessingStatus(TranscriptProcessingStatus.COMPLETED.getStatus());
-                pendingSummary.setAiModel(aiService.getModelIdentifier());
+                pendingSummary.setAiModel(transcriptionSummarizer.getModelIdentifier());
                 pendingSummary.setUpdatedAt(Instant.now());
 
                 transcriptionTable.putItem(pendingSummary);
+                summaryStreamBroadcaster.complete(appointmentId, mapper.toDto(pendingSummary));
                 log.info("Successfully processed transcription summary for appointment: {}", appointmentId);
             } else {
                 // Save failed summary
                 updateFailedTranscription(appointmentId, pendingSummary.getSummaryId(), aiResponse.errorMessage());
+                summaryStreamBroadcaster.fail(appointmentId, aiResponse.errorMessage());
                 log.error("Failed to generate AI summary for appointment: {} - {}", appointmentId,
                         aiResponse.errorMessage());
             }
 
         } catch (Exception e) {
             log.error("Error processing transcription for appointment: {}", appointmentId, e);
+            summaryStreamBroadcaster.fail(appointmentId, e.getMessage());
             // Try to update status to failed if possible
             try {
                 String summaryId = generateSummaryId(appointmentId);
@@ -128,6 +164,44 @@ public class TranscriptionService {
         }
     }
 
+    /**
+     * Opens a server-sent event stream of the appointment's summary. While this instance
+     * generates the summary, the stream carries a snapshot of the text so far and then
+     * every new piece; otherwise it answers from the stored record and, if the summary
+     * is still being generated elsewhere, closes with a reconnect delay so the client polls.
+     */
+    public SseEmitter streamTranscriptionSummary(UUID appointmentId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        if (summaryStreamBroadcaster.subscribe(appointmentId, emitter)) {
+            return emitter;
+        }
+
+        Optional<TranscriptionSummary> summary = getTranscriptionSummary(appointmentId);
+        String status = summary.map(TranscriptionSummary::getProcessingStatus).orElse(null);
+        try {
+            if (TranscriptProcessingStatus.COMPLETED.getStatus().equals(status)) {
+                emitter.send(SseEmitter.event()
+                        .name(SummaryStreamBroadcaster.COMPLETED_EVENT)
+                        .data(mapper.toDto(summary.get())));
+            } else if (TranscriptProcessingStatus.FAILED.getStatus().equals(status)) {
+                String errorMessage = summary.get().getErrorMessage();
+                emitter.send(SseEmitter.event()
+                        .name(SummaryStreamBroadcaster.FAILED_EVENT)
+                        .data(Map.of("errorMessage", errorMessage != null ? errorMessage : "")));
+            } else {
+                String partialSummary = summary.map(TranscriptionSummary::getPartialSummary).orElse(null);
+                emitter.send(SseEmitter.event()
+                        .name(SummaryStreamBroadcaster.SNAPSHOT_EVENT)
+                        .reconnectTime(reconnectMs)
+                        .data(partialSummary != null ? partialSummary : ""));
+            }
+            emitter.complete();
+        } catch (IOException e) {
+            log.debug("Summary stream client for appointment {} disconnected: {}", appointmentId, e.getMessage());
+        }
+        return emitter;
+    }
+
     /**
      * Check if transcription summary exists for appointment
      */
@@ -206,4 +280,43 @@ public class TranscriptionService {
     private String generateSummaryId(UUID appointmentId) {
         return appointmentId.toString() + "-" + Instant.now().toEpochMilli();
     }
+
+    /**
+     * Relays streamed summary text to subscribers and writes the text so far to the
+     * summary record at most once per persist interval, so other instances and a
+     * reloaded page can show progress.
+     */
+    private final class PartialSummaryWriter implements Consumer<String> {
+        private final UUID appointmentId;
+        private final TranscriptionSummary summary;
+        private final StringBuilder text = new StringBuilder();
+        private long lastPersistedAt = System.nanoTime();
+
+        private PartialSummaryWriter(UUID appointmentId, TranscriptionSummary summary) {
+            this.appointmentId = appointmentId;
+            this.summary = summary;
+            // The record was moved to processing through a separate copy
+            summary.setProcessingStatus(TranscriptProcessingStatus.PROCESSING.getStatus());
+        }
+
+        @Override
+        public void accept(String delta) {
+            summaryStreamBroadcaster.publish(appointmentId, delta);
+            text.append(delta);
+
+            long now = System.nanoTime();
+            if (now - lastPersistedAt < persistIntervalNanos) {
+                return;
+            }
+            lastPersistedAt = now;
+
+            try {
+                summary.setPartialSummary(text.toString());
+                summary.setUpdatedAt(Instant.now());
+                transcriptionTable.putItem(summary);
+            } catch (Exception e) {
+                log.warn("Failed to persist partial summary for appointment: {}", appointmentId, e);
+            }
+        }
+    }
 }
\ No newline at end of file
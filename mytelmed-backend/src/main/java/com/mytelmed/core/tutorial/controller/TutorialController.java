@@ -10,7 +10,14 @@ import com.mytelmed.core.tutorial.dto.UpdateTutorialRequestDto;
 import com.mytelmed.core.tutorial.entity.Tutorial;
 import com.mytelmed.core.tutorial.mapper.TutorialMapper;
 import com.mytelmed.core.tutorial.service.TutorialService;
+import com.mytelmed.core.upload.dto.CreateDirectUploadRequestDto;
+import com.mytelmed.core.upload.dto.DirectUploadDto;
+import com.mytelmed.core.upload.dto.FinalizeDirectUploadRequestDto;
+import com.mytelmed.core.video.dto.VideoTranscodingJobDto;
+import com.mytelmed.core.video.entity.VideoTranscodingJob;
 import com.mytelmed.infrastructure.aws.service.AwsS3Service;
+import com.mytelmed.infrastructure.cache.dto.CachedContent;
+import com.mytelmed.infrastructure.cache.service.ConditionalResponseFactory;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -30,7 +37,11 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 
 @Slf4j
@@ -41,12 +52,15 @@ public class TutorialController {
     private final AwsS3Service awsS3Service;
     private final TutorialMapper tutorialMapper;
     private final StatisticsService statisticsService;
+    private final ConditionalResponseFactory conditionalResponseFactory;
 
-    public TutorialController(TutorialService tutorialService, AwsS3Service awsS3Service, TutorialMapper tutorialMapper, StatisticsService statisticsService) {
+    public TutorialController(TutorialService tutorialService, AwsS3Service awsS3Service, TutorialMapper tutorialMapper,
+                              StatisticsService statisticsService, ConditionalResponseFactory conditionalResponseFactory) {
         this.awsS3Service = awsS3Service;
         this.tutorialMapper = tutorialMapper;
         this.tutorialService = tutorialService;
         this.statisticsService = statisticsService;
+        this.conditionalResponseFactory = conditionalResponseFactory;
     }
 
     @GetMapping("/{tutorialId}")
@@ -69,7 +83,7 @@ public class TutorialController {
                 request.getHeader("User-Agent")
         );
         
-        return ResponseEntity.ok(ApiResponse.success(tutorialDto));
+        return conditionalResponseFactory.ok(ApiResponse.success(tutorialDto), lastModifiedOf(tutorial));
     }
 
     @GetMapping
@@ -80,10 +94,10 @@ public class TutorialController {
     ) {
         log.info("Received request to get tutorials by category: {}, page: {}, size: {}", category, page, size);
 
-        Page<Tutorial> tutorialPage = tutorialService.findByCategory(category, page, size);
-        Page<TutorialDto> tutorialDtoPage = tutorialPage
+        CachedContent<Page<Tutorial>> tutorialPage = tutorialService.findByCategory(category, page, size);
+        Page<TutorialDto> tutorialDtoPage = tutorialPage.value()
                 .map((tutorial) -> tutorialMapper.toDto(tutorial, awsS3Service));
-        return ResponseEntity.ok(ApiResponse.success(tutorialDtoPage));
+        return conditionalResponseFactory.ok(ApiResponse.success(tutorialDtoPage), tutorialPage.lastModified());
     }
 
     @PostMapping
@@ -105,6 +119,48 @@ public class TutorialController {
         return ResponseEntity.ok(ApiResponse.success("Tutorial video uploaded successfully"));
     }
 
+    @PostMapping("/{tutorialId}/video/upload-url")
+    public ResponseEntity<ApiResponse<DirectUploadDto>> createTutorialVideoUpload(
+            @PathVariable UUID tutorialId,
+            @Valid @RequestBody CreateDirectUploadRequestDto request,
+            @AuthenticationPrincipal Account account) {
+        log.info("Received request to create direct video upload for tutorial with ID: {}", tutorialId);
+
+        DirectUploadDto upload = tutorialService.createVideoUpload(tutorialId,
+                account != null ? account.getId() : null, request);
+        return ResponseEntity.ok(ApiResponse.success(upload));
+    }
+
+    @PostMapping("/{tutorialId}/video/finalize")
+    public ResponseEntity<ApiResponse<Void>> finalizeTutorialVideoUpload(
+            @PathVariable UUID tutorialId,
+            @Valid @RequestBody FinalizeDirectUploadRequestDto request,
+            @AuthenticationPrincipal Account account) {
+        log.info("Received request to finalize direct video upload {} for tutorial with ID: {}",
+                request.uploadId(), tutorialId);
+
+        tutorialService.finalizeVideoUpload(tutorialId, account != null ? account.getId() : null, request.uploadId());
+        return ResponseEntity.ok(ApiResponse.success("Tutorial video uploaded successfully"));
+    }
+
+    @GetMapping("/{tutorialId}/video/transcoding")
+    public ResponseEntity<ApiResponse<VideoTranscodingJobDto>> getTutorialVideoTranscodingStatus(
+            @PathVariable UUID tutorialId) {
+        log.info("Received request to get video transcoding status for tutorial with ID: {}", tutorialId);
+
+        VideoTranscodingJob job = tutorialService.findVideoTranscodingJob(tutorialId);
+        VideoTranscodingJobDto jobDto = new VideoTranscodingJobDto(
+                job.getId().toString(),
+                job.getVideoId().toString(),
+                job.getStatus().name(),
+                job.getProgressPercent(),
+                job.getAttempts(),
+                job.getLastError(),
+                job.getCreatedAt(),
+                job.getCompletedAt());
+        return ResponseEntity.ok(ApiResponse.success(jobDto));
+    }
+
     @PostMapping(value = "/{tutorialId}/thumbnail", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ApiResponse<Void>> uploadTutorialThumbnail(
             @PathVariable UUID tutorialId,
@@ -130,4 +186,17 @@ public class TutorialController {
         tutorialService.deleteById(tutorialId);
         return ResponseEntity.ok(ApiResponse.success("Tutorial deleted successfully"));
     }
+
+    /**
+     * The video and thumbnail are separate rows, and replacing them does not touch the tutorial.
+     */
+    private Instant lastModifiedOf(Tutorial tutorial) {
+        return Stream.of(
+                        tutorial.getUpdatedAt(),
+                        tutorial.getVideo() != null ? tutorial.getVideo().getUpdatedAt() : null,
+                        tutorial.getThumbnail() != null ? tutorial.getThumbnail().getUpdatedAt() : null)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+    }
 }
@@ -10,6 +10,7 @@ public record TutorialDto(
         String category,
         Integer duration,
         String videoUrl,
+        String hlsUrl,
         String thumbnailUrl,
         Instant createdAt,
         Instant updatedAt
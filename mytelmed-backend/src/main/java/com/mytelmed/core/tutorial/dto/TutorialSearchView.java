@@ -0,0 +1,17 @@
+package com.mytelmed.core.tutorial.dto;
+
+import java.util.UUID;
+
+
+/**
+ * The searchable columns of a tutorial, read without its video and thumbnail.
+ */
+public interface TutorialSearchView {
+    UUID getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    String getCategory();
+}
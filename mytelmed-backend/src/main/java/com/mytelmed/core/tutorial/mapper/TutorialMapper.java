@@ -1,5 +1,6 @@
 package com.mytelmed.core.tutorial.mapper;
 
+import com.mytelmed.common.constant.file.ImageSize;
 import com.mytelmed.core.tutorial.dto.TutorialDto;
 import com.mytelmed.core.tutorial.entity.Tutorial;
 import com.mytelmed.core.video.entity.Video;
@@ -17,6 +18,7 @@ public interface TutorialMapper {
     @Mapping(target = "duration", source = "tutorial.video", qualifiedByName = "mapDuration")
     @Mapping(target = "thumbnailUrl", expression = "java(mapThumbnailUrl(tutorial, awsS3Service))")
     @Mapping(target = "videoUrl", expression = "java(mapVideoUrl(tutorial, awsS3Service))")
+    @Mapping(target = "hlsUrl", expression = "java(mapHlsUrl(tutorial, awsS3Service))")
     TutorialDto toDto(Tutorial tutorial, @Context AwsS3Service awsS3Service);
 
     @Named("mapUUID")
@@ -34,7 +36,7 @@ public interface TutorialMapper {
 
     default String mapThumbnailUrl(Tutorial tutorial, @Context AwsS3Service awsS3Service) {
         if (tutorial.getThumbnail() != null && tutorial.getThumbnail().getImageKey() != null) {
-            return awsS3Service.generatePresignedViewUrl(tutorial.getThumbnail().getImageKey());
+            return awsS3Service.generatePresignedViewUrl(tutorial.getThumbnail().getKeyFor(ImageSize.LARGE));
         }
         return null;
     }
@@ -45,4 +47,11 @@ public interface TutorialMapper {
         }
         return null;
     }
+
+    default String mapHlsUrl(Tutorial tutorial, @Context AwsS3Service awsS3Service) {
+        if (tutorial.getVideo() != null && tutorial.getVideo().getHlsMasterPlaylistKey() != null) {
+            return awsS3Service.generateVideoUrl(tutorial.getVideo().getHlsMasterPlaylistKey());
+        }
+        return null;
+    }
 }
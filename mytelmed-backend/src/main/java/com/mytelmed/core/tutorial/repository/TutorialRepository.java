@@ -1,15 +1,28 @@
 package com.mytelmed.core.tutorial.repository;
 
+import com.mytelmed.core.tutorial.dto.TutorialSearchView;
 import com.mytelmed.core.tutorial.entity.Tutorial;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
 import java.util.UUID;
 
 
 @Repository
 public interface TutorialRepository extends JpaRepository<Tutorial, UUID> {
     Page<Tutorial> findByCategory(String category, Pageable pageable);
+
+    @Query("SELECT t.id AS id, t.title AS title, t.description AS description, t.category AS category " +
+            "FROM Tutorial t")
+    Slice<TutorialSearchView> findSearchViews(Pageable pageable);
+
+    @Query("SELECT t.id AS id, t.title AS title, t.description AS description, t.category AS category " +
+            "FROM Tutorial t WHERE t.id = :id")
+    Optional<TutorialSearchView> findSearchViewById(@Param("id") UUID id);
 }
@@ -3,18 +3,30 @@ package com.mytelmed.core.tutorial.service;
 import com.mytelmed.common.advice.AppException;
 import com.mytelmed.common.advice.exception.InvalidInputException;
 import com.mytelmed.common.advice.exception.ResourceNotFoundException;
+import com.mytelmed.common.constant.file.FileType;
 import com.mytelmed.common.constant.file.ImageType;
 import com.mytelmed.common.constant.file.VideoType;
+import com.mytelmed.common.event.content.ContentChangedEvent;
 import com.mytelmed.common.event.image.ImageDeletedEvent;
 import com.mytelmed.common.event.video.VideoDeletedEvent;
 import com.mytelmed.core.image.entity.Image;
 import com.mytelmed.core.image.service.ImageService;
+import com.mytelmed.core.statistics.entity.ContentView;
 import com.mytelmed.core.tutorial.dto.CreateTutorialRequestDto;
 import com.mytelmed.core.tutorial.dto.UpdateTutorialRequestDto;
 import com.mytelmed.core.tutorial.entity.Tutorial;
 import com.mytelmed.core.tutorial.repository.TutorialRepository;
+import com.mytelmed.core.upload.dto.CreateDirectUploadRequestDto;
+import com.mytelmed.core.upload.dto.DirectUploadDto;
+import com.mytelmed.core.upload.entity.PendingUpload;
+import com.mytelmed.core.upload.service.DirectUploadService;
 import com.mytelmed.core.video.entity.Video;
+import com.mytelmed.core.video.entity.VideoTranscodingJob;
 import com.mytelmed.core.video.service.VideoService;
+import com.mytelmed.core.video.service.VideoTranscodingService;
+import com.mytelmed.infrastructure.aws.dto.S3StorageOptions;
+import com.mytelmed.infrastructure.cache.dto.CachedContent;
+import com.mytelmed.infrastructure.cache.service.ContentCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
@@ -23,6 +35,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import java.util.Comparator;
+import java.util.Objects;
 import java.util.UUID;
 
 
@@ -32,13 +46,20 @@ public class TutorialService {
     private final TutorialRepository tutorialRepository;
     private final ImageService imageService;
     private final VideoService videoService;
+    private final VideoTranscodingService videoTranscodingService;
+    private final DirectUploadService directUploadService;
+    private final ContentCache contentCache;
     private final ApplicationEventPublisher eventPublisher;
 
     public TutorialService(TutorialRepository tutorialRepository, ImageService imageService, VideoService videoService,
-                           ApplicationEventPublisher eventPublisher) {
+                           VideoTranscodingService videoTranscodingService, DirectUploadService directUploadService,
+                           ContentCache contentCache, ApplicationEventPublisher eventPublisher) {
         this.tutorialRepository = tutorialRepository;
         this.imageService = imageService;
         this.videoService = videoService;
+        this.videoTranscodingService = videoTranscodingService;
+        this.directUploadService = directUploadService;
+        this.contentCache = contentCache;
         this.eventPublisher = eventPublisher;
     }
 
@@ -57,16 +78,33 @@ public class TutorialService {
     }
 
     @Transactional(readOnly = true)
-    public Page<Tutorial> findByCategory(String category, int page, int size) {
-        log.debug("Finding tutorial with category {} with page {} and size {}", category, page, size);
-
-        Pageable pageable = PageRequest.of(page, size);
+    public VideoTranscodingJob findVideoTranscodingJob(UUID tutorialId) throws ResourceNotFoundException {
+        Tutorial tutorial = findById(tutorialId);
 
-        if (category == null || category.isBlank()) {
-            return tutorialRepository.findAll(pageable);
+        if (tutorial.getVideo() == null) {
+            throw new ResourceNotFoundException("Tutorial has no video");
         }
 
-        return tutorialRepository.findByCategory(category, pageable);
+        return videoTranscodingService.findLatestJobByVideoId(tutorial.getVideo().getId());
+    }
+
+    @Transactional(readOnly = true)
+    public CachedContent<Page<Tutorial>> findByCategory(String category, int page, int size) {
+        log.debug("Finding tutorial with category {} with page {} and size {}", category, page, size);
+
+        Pageable pageable = PageRequest.of(page, size);
+        boolean allCategories = category == null || category.isBlank();
+        String cacheKey = (allCategories ? "" : category) + ":" + page + ":" + size;
+
+        return contentCache.get(ContentCache.Region.TUTORIAL, cacheKey,
+                () -> allCategories
+                        ? tutorialRepository.findAll(pageable)
+                        : tutorialRepository.findByCategory(category, pageable),
+                tutorials -> tutorials.stream()
+                        .map(Tutorial::getUpdatedAt)
+                        .filter(Objects::nonNull)
+                        .max(Comparator.naturalOrder())
+                        .orElse(null));
     }
 
     @Transactional
@@ -81,6 +119,9 @@ public class TutorialService {
                     .build();
 
             tutorial = tutorialRepository.save(tutorial);
+            contentCache.invalidate(ContentCache.Region.TUTORIAL);
+            eventPublisher.publishEvent(new ContentChangedEvent(ContentView.ContentType.TUTORIAL,
+                    tutorial.getId().toString(), ContentChangedEvent.Change.CREATED));
 
             log.info("Created tutorial with ID: {}", tutorial.getId());
         } catch (Exception e) {
@@ -104,6 +145,7 @@ public class TutorialService {
             tutorial.setVideo(video);
 
             tutorialRepository.save(tutorial);
+            contentCache.invalidate(ContentCache.Region.TUTORIAL);
 
             log.info("Uploaded video for tutorial with ID: {}", tutorialId);
         } catch (Exception e) {
@@ -115,6 +157,37 @@ public class TutorialService {
         }
     }
 
+    @Transactional
+    public DirectUploadDto createVideoUpload(UUID tutorialId, UUID accountId, CreateDirectUploadRequestDto request)
+            throws AppException {
+        log.debug("Issuing direct video upload for tutorial with ID: {}", tutorialId);
+
+        Tutorial tutorial = findById(tutorialId);
+
+        S3StorageOptions storageOptions = S3StorageOptions.builder()
+                .fileType(FileType.VIDEO)
+                .folderName(VideoType.TUTORIAL.name().toLowerCase())
+                .entityId(tutorial.getId().toString())
+                .build();
+
+        return directUploadService.initiate(storageOptions, tutorial.getId(), accountId, request);
+    }
+
+    @Transactional
+    public void finalizeVideoUpload(UUID tutorialId, UUID accountId, UUID uploadId) throws AppException {
+        log.debug("Finalizing direct video upload {} for tutorial with ID: {}", uploadId, tutorialId);
+
+        Tutorial tutorial = findById(tutorialId);
+        PendingUpload upload = directUploadService.complete(uploadId, tutorial.getId(), accountId);
+
+        Video video = videoService.saveUploadedVideo(VideoType.TUTORIAL, tutorial.getId(), upload);
+        tutorial.setVideo(video);
+
+        tutorialRepository.save(tutorial);
+        contentCache.invalidate(ContentCache.Region.TUTORIAL);
+        log.info("Finalized direct video upload for tutorial with ID: {}", tutorialId);
+    }
+
     @Transactional
     public void uploadThumbnail(UUID tutorialId, MultipartFile thumbnailImageFile) throws AppException {
         log.debug("Uploading thumbnail for tutorial with ID: {}", tutorialId);
@@ -130,6 +203,7 @@ public class TutorialService {
             tutorial.setThumbnail(image);
 
             tutorialRepository.save(tutorial);
+            contentCache.invalidate(ContentCache.Region.TUTORIAL);
 
             log.info("Uploaded thumbnail for tutorial with ID: {}", tutorialId);
         } catch (Exception e) {
@@ -153,6 +227,9 @@ public class TutorialService {
             tutorial.setCategory(request.category());
 
             tutorialRepository.save(tutorial);
+            contentCache.invalidate(ContentCache.Region.TUTORIAL);
+            eventPublisher.publishEvent(new ContentChangedEvent(ContentView.ContentType.TUTORIAL,
+                    tutorial.getId().toString(), ContentChangedEvent.Change.UPDATED));
 
             log.info("Updated tutorial with ID: {}", tutorial.getId());
         } catch (Exception e) {
@@ -171,12 +248,16 @@ public class TutorialService {
         try {
             Tutorial tutorial = findById(tutorialId);
             String videoKey = tutorial.getVideo() != null ? tutorial.getVideo().getVideoKey() : null;
+            String hlsKeyPrefix = tutorial.getVideo() != null ? tutorial.getVideo().getHlsKeyPrefix() : null;
             String imageKey = tutorial.getThumbnail() != null ? tutorial.getThumbnail().getImageKey() : null;
 
             tutorialRepository.delete(tutorial);
+            contentCache.invalidate(ContentCache.Region.TUTORIAL);
+            eventPublisher.publishEvent(new ContentChangedEvent(ContentView.ContentType.TUTORIAL,
+                    tutorialId.toString(), ContentChangedEvent.Change.DELETED));
 
             if (videoKey != null) {
-                eventPublisher.publishEvent(new VideoDeletedEvent(tutorialId, videoKey));
+                eventPublisher.publishEvent(new VideoDeletedEvent(tutorialId, videoKey, hlsKeyPrefix));
             }
 
             if (imageKey != null) {
@@ -0,0 +1,14 @@
+package com.mytelmed.core.upload.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+
+public record DirectUploadDto(
+        String uploadId,
+        String url,
+        String method,
+        Map<String, String> headers,
+        Instant expiresAt
+) {
+}
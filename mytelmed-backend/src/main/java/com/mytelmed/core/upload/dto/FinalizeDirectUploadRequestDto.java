@@ -0,0 +1,11 @@
+package com.mytelmed.core.upload.dto;
+
+import jakarta.validation.constraints.NotNull;
+import java.util.UUID;
+
+
+public record FinalizeDirectUploadRequestDto(
+        @NotNull(message = "Upload ID is required")
+        UUID uploadId
+) {
+}
@@ -0,0 +1,17 @@
+package com.mytelmed.core.upload.repository;
+
+import com.mytelmed.core.upload.entity.PendingUpload;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+
+@Repository
+public interface PendingUploadRepository extends JpaRepository<PendingUpload, UUID> {
+    List<PendingUpload> findByExpiresAtBeforeOrderByExpiresAtAsc(Instant before, Limit limit);
+
+    boolean existsByObjectKey(String objectKey);
+}
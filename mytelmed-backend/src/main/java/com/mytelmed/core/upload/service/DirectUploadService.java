@@ -0,0 +1,193 @@
+package com.mytelmed.core.upload.service;
+
+import com.mytelmed.common.advice.exception.InvalidInputException;
+import com.mytelmed.common.advice.exception.ResourceNotFoundException;
+import com.mytelmed.common.constant.file.FileType;
+import com.mytelmed.core.upload.dto.CreateDirectUploadRequestDto;
+import com.mytelmed.core.upload.dto.DirectUploadDto;
+import com.mytelmed.core.upload.entity.PendingUpload;
+import com.mytelmed.core.upload.repository.PendingUploadRepository;
+import com.mytelmed.infrastructure.aws.dto.PresignedUpload;
+import com.mytelmed.infrastructure.aws.dto.S3StorageOptions;
+import com.mytelmed.infrastructure.aws.service.AwsS3Service;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Lets clients upload files straight to S3 instead of streaming them through the backend.
+ * <p>
+ * {@link #initiate} validates the declared file and returns a presigned PUT bound to
+ * its content type and size. After the client has uploaded, {@link #complete} checks
+ * the stored object with a HEAD request and hands the key to the owning service,
+ * which records it. Uploads that are never finalized are deleted once they expire.
+ */
+@Slf4j
+@Service
+public class DirectUploadService {
+    private static final int PURGE_BATCH_SIZE = 100;
+
+    private final PendingUploadRepository pendingUploadRepository;
+    private final AwsS3Service awsS3Service;
+    private final Duration urlExpiry;
+    private final Duration finalizeWindow;
+    private final long maxImageBytes;
+    private final long maxDocumentBytes;
+    private final long maxVideoBytes;
+
+    public DirectUploadService(PendingUploadRepository pendingUploadRepository, AwsS3Service awsS3Service,
+                               @Value("${aws.s3.direct-upload.url-expiry-seconds:900}") long urlExpirySeconds,
+                               @Value("${aws.s3.direct-upload.finalize-window-seconds:3600}") long finalizeWindowSeconds,
+                               @Value("${aws.s3.direct-upload.max-image-bytes:10485760}") long maxImageBytes,
+                               @Value("${aws.s3.direct-upload.max-document-bytes:52428800}") long maxDocumentBytes,
+                               @Value("${aws.s3.direct-upload.max-video-bytes:524288000}") long maxVideoBytes) {
+        this.pendingUploadRepository = pendingUploadRepository;
+        this.awsS3Service = awsS3Service;
+        this.urlExpiry = Duration.ofSeconds(urlExpirySeconds);
+        this.finalizeWindow = Duration.ofSeconds(finalizeWindowSeconds);
+        this.maxImageBytes = maxImageBytes;
+        this.maxDocumentBytes = maxDocumentBytes;
+        this.maxVideoBytes = maxVideoBytes;
+    }
+
+    /**
+     * Issues a presigned upload for a new object under the given storage options.
+     *
+     * @param storageOptions where the object is stored
+     * @param targetId       the entity the upload is for; finalize must name the same entity
+     * @param accountId      the account that may finalize the upload, or {@code null} for any caller
+     * @param request        the declared file name, content type and size
+     * @return the presigned request the client sends the file with
+     * @throws InvalidInputException if the declared file is not accepted for the file type
+     */
+    @Transactional
+    public DirectUploadDto initiate(S3StorageOptions storageOptions, UUID targetId, UUID accountId,
+                                    CreateDirectUploadRequestDto request) throws InvalidInputException {
+        String contentType = request.contentType().toLowerCase(Locale.ROOT);
+        validateDeclaredFile(storageOptions.fileType(), request.fileName(), contentType, request.fileSize());
+
+        PresignedUpload presignedUpload = awsS3Service.generatePresignedUpload(storageOptions, request.fileName(),
+                contentType, request.fileSize(), urlExpiry);
+
+        PendingUpload pendingUpload = pendingUploadRepository.save(PendingUpload.builder()
+                .objectKey(presignedUpload.key())
+                .fileType(storageOptions.fileType())
+                .contentType(contentType)
+                .contentLength(request.fileSize())
+                .targetId(targetId)
+                .accountId(accountId)
+                .expiresAt(presignedUpload.expiresAt().plus(finalizeWindow))
+                .build());
+
+        log.info("Issued direct {} upload {} for entity: {}", storageOptions.fileType(), pendingUpload.getId(), targetId);
+        return new DirectUploadDto(
+                pendingUpload.getId().toString(),
+                presignedUpload.url(),
+                presignedUpload.method(),
+                presignedUpload.headers(),
+                presignedUpload.expiresAt());
+    }
+
+    /**
+     * Verifies that the client uploaded the declared file and removes the pending upload.
+     * The caller records the returned object key in the same transaction, so the upload
+     * is only consumed if the owning entity is saved.
+     *
+     * @param uploadId  the upload returned by {@link #initiate}
+     * @param targetId  the entity the upload is finalized for
+     * @param accountId the finalizing account
+     * @return the verified upload
+     * @throws ResourceNotFoundException if the upload does not exist or was issued for another entity or account
+     * @throws InvalidInputException     if the object is missing, expired or differs from what was declared
+     */
+    @Transactional
+    public PendingUpload complete(UUID uploadId, UUID targetId, UUID accountId)
+            throws ResourceNotFoundException, InvalidInputException {
+        PendingUpload upload = pendingUploadRepository.findById(uploadId)
+                .filter(pending -> pending.getTargetId().equals(targetId))
+                .filter(pending -> pending.getAccountId() == null || pending.getAccountId().equals(accountId))
+                .orElseThrow(() -> {
+                    log.warn("Pending upload {} not found for entity: {}", uploadId, targetId);
+                    return new ResourceNotFoundException("Upload not found");
+                });
+
+        if (upload.getExpiresAt().isBefore(Instant.now())) {
+            throw new InvalidInputException("Upload has expired");
+        }
+
+        HeadObjectResponse object = awsS3Service.headFile(upload.getObjectKey())
+                .orElseThrow(() -> new InvalidInputException("File has not been uploaded yet"));
+
+        // The signature already pins both headers; this guards against a misconfigured signer or bucket policy
+        if (!Objects.equals(object.contentLength(), upload.getContentLength())
+                || !upload.getContentType().equalsIgnoreCase(object.contentType())) {
+            log.warn("Upload {} does not match its declaration (size: {}, type: {})",
+                    uploadId, object.contentLength(), object.contentType());
+            awsS3Service.deleteFile(upload.getObjectKey());
+            throw new InvalidInputException("Uploaded file does not match the declared file");
+        }
+
+        pendingUploadRepository.delete(upload);
+        log.info("Verified direct upload {} for entity: {}", uploadId, targetId);
+        return upload;
+    }
+
+    @Scheduled(cron = "0 15 * * * *")
+    public void purgeExpiredUploads() {
+        List<PendingUpload> expired;
+        int purged = 0;
+
+        do {
+            expired = pendingUploadRepository.findByExpiresAtBeforeOrderByExpiresAtAsc(Instant.now(),
+                    Limit.of(PURGE_BATCH_SIZE));
+
+            for (PendingUpload upload : expired) {
+                try {
+                    awsS3Service.deleteFile(upload.getObjectKey());
+                    pendingUploadRepository.delete(upload);
+                    purged++;
+                } catch (Exception e) {
+                    log.error("Failed to purge expired upload {} (key: {})", upload.getId(), upload.getObjectKey(), e);
+                    return;
+                }
+            }
+        } while (expired.size() == PURGE_BATCH_SIZE);
+
+        if (purged > 0) {
+            log.info("Purged {} expired direct uploads", purged);
+        }
+    }
+
+    private void validateDeclaredFile(FileType fileType, String fileName, String contentType, long fileSize)
+            throws InvalidInputException {
+        long maxBytes = switch (fileType) {
+            case IMAGE -> maxImageBytes;
+            case DOCUMENT -> maxDocumentBytes;
+            case VIDEO -> maxVideoBytes;
+        };
+        if (fileSize > maxBytes) {
+            throw new InvalidInputException("File exceeds the maximum size of " + maxBytes + " bytes");
+        }
+
+        boolean acceptedType = switch (fileType) {
+            case IMAGE -> contentType.startsWith("image/");
+            case DOCUMENT -> contentType.equals("application/pdf") && fileName.toLowerCase(Locale.ROOT).endsWith(".pdf");
+            case VIDEO -> contentType.startsWith("video/");
+        };
+        if (!acceptedType) {
+            throw new InvalidInputException(fileType == FileType.DOCUMENT
+                    ? "File must be a PDF"
+                    : "File must be " + (fileType == FileType.IMAGE ? "an image" : "a video"));
+        }
+    }
+}
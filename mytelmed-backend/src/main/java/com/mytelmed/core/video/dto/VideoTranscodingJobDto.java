@@ -0,0 +1,16 @@
+package com.mytelmed.core.video.dto;
+
+import java.time.Instant;
+
+
+public record VideoTranscodingJobDto(
+        String id,
+        String videoId,
+        String status,
+        Integer progressPercent,
+        Integer attempts,
+        String lastError,
+        Instant createdAt,
+        Instant completedAt
+) {
+}
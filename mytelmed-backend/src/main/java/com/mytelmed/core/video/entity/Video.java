@@ -49,6 +49,13 @@ public class Video {
     @Column(name = "file_size")
     private Long fileSize;
 
+    // Adaptive streaming renditions; all segment and playlist keys live under the prefix
+    @Column(name = "hls_master_playlist_key")
+    private String hlsMasterPlaylistKey;
+
+    @Column(name = "hls_key_prefix")
+    private String hlsKeyPrefix;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
@@ -0,0 +1,78 @@
+package com.mytelmed.core.video.entity;
+
+import com.mytelmed.common.constant.file.VideoTranscodingStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A queued request to transcode a video into HLS renditions. Jobs are claimed by
+ * the transcoding worker and report their progress as they run. Each claim writes
+ * its renditions under a prefix of its own.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "video_transcoding_job", indexes = {
+        @Index(name = "idx_video_transcoding_job_status_created", columnList = "status, created_at"),
+        @Index(name = "idx_video_transcoding_job_video", columnList = "video_id")
+})
+public class VideoTranscodingJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "video_id", nullable = false)
+    private UUID videoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    @Builder.Default
+    private VideoTranscodingStatus status = VideoTranscodingStatus.PENDING;
+
+    @Column(name = "progress_percent", nullable = false)
+    @Builder.Default
+    private Integer progressPercent = 0;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "locked_at")
+    private Instant lockedAt;
+
+    // Identifies the current claim; a worker whose claim went stale and was reclaimed cannot report back
+    @Column(name = "claim_token")
+    private UUID claimToken;
+
+    // The upload the current claim transcodes
+    @Column(name = "source_video_key")
+    private String sourceVideoKey;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
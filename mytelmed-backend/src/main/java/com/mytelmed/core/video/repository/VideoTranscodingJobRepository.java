@@ -0,0 +1,49 @@
+package com.mytelmed.core.video.repository;
+
+import com.mytelmed.common.constant.file.VideoTranscodingStatus;
+import com.mytelmed.core.video.entity.VideoTranscodingJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+
+@Repository
+public interface VideoTranscodingJobRepository extends JpaRepository<VideoTranscodingJob, UUID> {
+    /**
+     * Locks the oldest pending job, or a job whose worker stopped reporting progress.
+     * Jobs locked by another worker are skipped rather than waited on.
+     */
+    @Query(value = "SELECT * FROM video_transcoding_job " +
+            "WHERE status = 'PENDING' " +
+            "OR (status = 'PROCESSING' AND locked_at < :staleBefore) " +
+            "ORDER BY created_at " +
+            "LIMIT 1 " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<VideoTranscodingJob> lockNextJob(@Param("staleBefore") Instant staleBefore);
+
+    Optional<VideoTranscodingJob> findFirstByVideoIdOrderByCreatedAtDesc(UUID videoId);
+
+    boolean existsByVideoIdAndStatus(UUID videoId, VideoTranscodingStatus status);
+
+    boolean existsByVideoIdAndCreatedAtAfter(UUID videoId, Instant createdAt);
+
+    /**
+     * Records progress and refreshes the lock, so a running job is not reclaimed as stale.
+     * Updates nothing once the claim has been taken over.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE VideoTranscodingJob j SET j.progressPercent = :progress, j.lockedAt = :now " +
+            "WHERE j.id = :id AND j.claimToken = :claimToken " +
+            "AND j.status = com.mytelmed.common.constant.file.VideoTranscodingStatus.PROCESSING")
+    int updateProgress(@Param("id") UUID id,
+                       @Param("claimToken") UUID claimToken,
+                       @Param("progress") int progress,
+                       @Param("now") Instant now);
+}
@@ -4,23 +4,29 @@ import com.mytelmed.common.advice.AppException;
 import com.mytelmed.common.advice.exception.InvalidInputException;
 import com.mytelmed.common.constant.file.FileType;
 import com.mytelmed.common.constant.file.VideoType;
+import com.mytelmed.common.event.video.VideoDeletedEvent;
+import com.mytelmed.core.upload.entity.PendingUpload;
 import com.mytelmed.core.video.entity.Video;
 import com.mytelmed.core.video.repository.VideoRepository;
 import com.mytelmed.infrastructure.aws.dto.S3StorageOptions;
 import com.mytelmed.infrastructure.aws.service.AwsS3Service;
+import com.mytelmed.infrastructure.media.dto.SpooledMedia;
+import com.mytelmed.infrastructure.media.service.MediaIngestService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 import ws.schild.jave.EncoderException;
-import ws.schild.jave.MultimediaObject;
-import ws.schild.jave.info.MultimediaInfo;
-import java.io.File;
 import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 
 @Slf4j
@@ -28,10 +34,18 @@ import java.util.UUID;
 public class VideoService {
     private final VideoRepository videoRepository;
     private final AwsS3Service awsS3Service;
+    private final MediaIngestService mediaIngestService;
+    private final VideoTranscodingService videoTranscodingService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public VideoService(VideoRepository videoRepository, AwsS3Service awsS3Service) {
+    public VideoService(VideoRepository videoRepository, AwsS3Service awsS3Service,
+                        MediaIngestService mediaIngestService, VideoTranscodingService videoTranscodingService,
+                        ApplicationEventPublisher eventPublisher) {
         this.videoRepository = videoRepository;
         this.awsS3Service = awsS3Service;
+        this.mediaIngestService = mediaIngestService;
+        this.videoTranscodingService = videoTranscodingService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -44,7 +58,10 @@ public class VideoService {
             throw new InvalidInputException("Video file cannot be empty");
         }
 
-        try {
+        // Spool once: the duration probe and the S3 upload both read the same local file
+        try (SpooledMedia media = mediaIngestService.spool(videoFile)) {
+            long videoDuration = mediaIngestService.probeDurationSeconds(media);
+
             S3StorageOptions storageOptions = S3StorageOptions.builder()
                 .fileType(FileType.VIDEO)
                 .folderName(videoType.name().toLowerCase())
@@ -52,20 +69,21 @@ public class VideoService {
                 .build();
 
             log.debug("Uploading video for entity: {} of type: {}", entityId, videoType);
-            videoKey = awsS3Service.uploadFileAndGetKey(storageOptions, videoFile);
-
-            long videoDuration = getVideoDurationSeconds(videoFile);
+            videoKey = awsS3Service.uploadFileAndGetKey(storageOptions, media.originalFilename(),
+                media.content(), media.size());
 
             Video video = Video.builder()
                 .videoKey(videoKey)
                 .videoType(videoType)
                 .entityId(entityId)
-                .fileSize(videoFile.getSize())
+                .fileSize(media.size())
                 .durationSeconds(videoDuration)
                 .build();
 
             video = videoRepository.save(video);
             log.info("Saved video to database for entity: {}", entityId);
+
+            enqueueTranscodingIfStreamed(video);
             return video;
         } catch (IOException | S3Exception e) {
             throw e;
@@ -102,19 +120,28 @@ public class VideoService {
 
             Video video = videoOpt.get();
 
-            log.debug("Updating video for entity: {} of type: {}", entityId, videoType);
-            String videoKey = awsS3Service.updateFile(video.getVideoKey(), videoFile);
+            // Check the existing object while the upload is spooled and probed
+            CompletableFuture<Optional<HeadObjectResponse>> existingVideo =
+                    awsS3Service.headFileAsync(video.getVideoKey());
 
-            video.setVideoKey(videoKey);
-            video.setFileSize(videoFile.getSize());
+            try (SpooledMedia media = mediaIngestService.spool(videoFile)) {
+                long videoDuration = mediaIngestService.probeDurationSeconds(media);
 
-            long videoDuration = getVideoDurationSeconds(videoFile);
-            video.setDurationSeconds(videoDuration);
+                log.debug("Updating video for entity: {} of type: {}", entityId, videoType);
+                String videoKey = awsS3Service.updateFile(video.getVideoKey(), existingVideo, media.content(),
+                        media.size());
+
+                video.setVideoKey(videoKey);
+                video.setFileSize(media.size());
+                video.setDurationSeconds(videoDuration);
+            }
 
             log.debug("Updating video metadata to database for entity: {}", entityId);
             video = videoRepository.save(video);
 
             log.info("Updated video metadata to database for entity: {}", entityId);
+
+            enqueueTranscodingIfStreamed(video);
             return video;
         } catch (IOException e) {
             log.error("Failed to read video file data for entity: {}", entityId, e);
@@ -128,16 +155,53 @@ public class VideoService {
         }
     }
 
-    private long getVideoDurationSeconds(MultipartFile videoFile) throws IOException, EncoderException {
-        File tempFile = File.createTempFile("uploaded_video", null);
-        videoFile.transferTo(tempFile);
-
+    /**
+     * Records a video that the client uploaded directly to S3. The duration is probed
+     * from S3 through a presigned URL, so the file never passes through the backend.
+     * A previous video's object is deleted once the new one is committed.
+     */
+    @Transactional
+    public Video saveUploadedVideo(VideoType videoType, UUID entityId, PendingUpload upload) throws AppException {
         try {
-            MultimediaObject multimediaObject = new MultimediaObject(tempFile);
-            MultimediaInfo info = multimediaObject.getInfo();
-            return info.getDuration() / 1000L;
-        } finally {
-            tempFile.delete();
+            long videoDuration = mediaIngestService.probeDurationSeconds(
+                URI.create(awsS3Service.generatePresignedVideoUrl(upload.getObjectKey())).toURL());
+
+            Video video = videoRepository.findByVideoTypeAndEntityId(videoType, entityId).orElse(null);
+            if (video == null) {
+                video = Video.builder()
+                    .videoType(videoType)
+                    .entityId(entityId)
+                    .build();
+            } else {
+                // The HLS renditions stay until the new video's transcoding replaces them
+                eventPublisher.publishEvent(new VideoDeletedEvent(entityId, video.getVideoKey(), null));
+            }
+
+            video.setVideoKey(upload.getObjectKey());
+            video.setFileSize(upload.getContentLength());
+            video.setDurationSeconds(videoDuration);
+
+            video = videoRepository.save(video);
+            log.info("Saved directly uploaded video for entity: {}", entityId);
+
+            enqueueTranscodingIfStreamed(video);
+            return video;
+        } catch (EncoderException e) {
+            log.warn("Directly uploaded file for entity: {} is not a readable video", entityId, e);
+            awsS3Service.deleteFile(upload.getObjectKey());
+            throw new InvalidInputException("Uploaded file is not a readable video");
+        } catch (MalformedURLException e) {
+            log.error("Failed to build probe URL for video upload of entity: {}", entityId, e);
+            throw new AppException("Failed to save uploaded video");
+        }
+    }
+
+    /**
+     * Tutorial videos are streamed to patients, so they get adaptive HLS renditions.
+     */
+    private void enqueueTranscodingIfStreamed(Video video) {
+        if (video.getVideoType() == VideoType.TUTORIAL) {
+            videoTranscodingService.enqueue(video.getId());
         }
     }
 }
@@ -0,0 +1,180 @@
+package com.mytelmed.core.video.service;
+
+import com.mytelmed.common.advice.exception.ResourceNotFoundException;
+import com.mytelmed.common.constant.file.VideoTranscodingStatus;
+import com.mytelmed.common.constant.file.VideoType;
+import com.mytelmed.core.video.entity.Video;
+import com.mytelmed.core.video.entity.VideoTranscodingJob;
+import com.mytelmed.core.video.repository.VideoRepository;
+import com.mytelmed.core.video.repository.VideoTranscodingJobRepository;
+import com.mytelmed.infrastructure.cache.service.ContentCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Queue of HLS transcoding jobs. Jobs are enqueued in the transaction that saves
+ * the video, claimed one at a time by {@link VideoTranscodingWorker}, and retried
+ * a limited number of times when transcoding fails.
+ */
+@Slf4j
+@Service
+public class VideoTranscodingService {
+    private final VideoTranscodingJobRepository jobRepository;
+    private final VideoRepository videoRepository;
+    private final ContentCache contentCache;
+    private final boolean enabled;
+    private final int maxAttempts;
+
+    public VideoTranscodingService(VideoTranscodingJobRepository jobRepository,
+                                   VideoRepository videoRepository,
+                                   ContentCache contentCache,
+                                   @Value("${video.transcoding.enabled:true}") boolean enabled,
+                                   @Value("${video.transcoding.max-attempts:3}") int maxAttempts) {
+        this.jobRepository = jobRepository;
+        this.videoRepository = videoRepository;
+        this.contentCache = contentCache;
+        this.enabled = enabled;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Queues the video for transcoding unless a job for it is already waiting. A job
+     * that is already running finishes with the old content and is then superseded.
+     */
+    @Transactional
+    public void enqueue(UUID videoId) {
+        if (!enabled) {
+            return;
+        }
+
+        if (jobRepository.existsByVideoIdAndStatus(videoId, VideoTranscodingStatus.PENDING)) {
+            log.debug("Transcoding job already pending for video: {}", videoId);
+            return;
+        }
+
+        VideoTranscodingJob job = jobRepository.save(VideoTranscodingJob.builder()
+                .videoId(videoId)
+                .build());
+        log.info("Queued transcoding job {} for video: {}", job.getId(), videoId);
+    }
+
+    /**
+     * Claims the next job by marking it PROCESSING under a new claim token, and records
+     * the upload it transcodes. Jobs that stopped reporting progress for longer than
+     * {@code staleAfter} are reclaimed.
+     */
+    @Transactional
+    public Optional<VideoTranscodingJob> claimNextJob(Duration staleAfter) {
+        Instant now = Instant.now();
+        return jobRepository.lockNextJob(now.minus(staleAfter))
+                .map(job -> {
+                    job.setStatus(VideoTranscodingStatus.PROCESSING);
+                    job.setLockedAt(now);
+                    job.setClaimToken(UUID.randomUUID());
+                    job.setAttempts(job.getAttempts() + 1);
+                    job.setProgressPercent(0);
+                    videoRepository.findById(job.getVideoId())
+                            .ifPresent(video -> job.setSourceVideoKey(video.getVideoKey()));
+                    return job;
+                });
+    }
+
+    public void updateProgress(VideoTranscodingJob job, int progressPercent) {
+        jobRepository.updateProgress(job.getId(), job.getClaimToken(), progressPercent, Instant.now());
+    }
+
+    /**
+     * Points the video at the claim's renditions and completes the job. The renditions
+     * are discarded instead if the claim was taken over, or if the video was replaced
+     * since the job was queued; the newer job then provides the renditions.
+     *
+     * @return the key prefix of the renditions no longer in use, or {@code null}
+     */
+    @Transactional
+    public String markCompleted(VideoTranscodingJob claimed, String masterPlaylistKey, String keyPrefix) {
+        VideoTranscodingJob job = jobRepository.findById(claimed.getId()).orElse(null);
+        if (job == null || job.getStatus() != VideoTranscodingStatus.PROCESSING
+                || !claimed.getClaimToken().equals(job.getClaimToken())) {
+            log.warn("Transcoding job {} was reclaimed before it completed; discarding its renditions",
+                    claimed.getId());
+            return keyPrefix;
+        }
+
+        UUID jobId = job.getId();
+        UUID videoId = job.getVideoId();
+        Video video = videoRepository.findById(videoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Video not found"));
+
+        if (!video.getVideoKey().equals(claimed.getSourceVideoKey())
+                || jobRepository.existsByVideoIdAndCreatedAtAfter(videoId, job.getCreatedAt())) {
+            completeJob(job);
+            log.info("Transcoding job {} for video {} was superseded by a newer upload; discarding its renditions",
+                    jobId, videoId);
+            return keyPrefix;
+        }
+
+        String previousKeyPrefix = video.getHlsKeyPrefix();
+
+        video.setHlsMasterPlaylistKey(masterPlaylistKey);
+        video.setHlsKeyPrefix(keyPrefix);
+
+        // Tutorial listings embed the HLS URL
+        if (video.getVideoType() == VideoType.TUTORIAL) {
+            contentCache.invalidate(ContentCache.Region.TUTORIAL);
+        }
+
+        completeJob(job);
+        log.info("Transcoding job {} completed for video: {}", jobId, videoId);
+        return previousKeyPrefix;
+    }
+
+    /**
+     * Puts a failed job back in the queue, or marks it FAILED once attempts are exhausted.
+     * Ignored if the claim was taken over.
+     */
+    @Transactional
+    public void markFailed(VideoTranscodingJob claimed, String error) {
+        UUID jobId = claimed.getId();
+        jobRepository.findById(jobId).ifPresent(job -> {
+            if (!claimed.getClaimToken().equals(job.getClaimToken())) {
+                log.debug("Ignoring failure of transcoding job {} from a claim that was since reclaimed", jobId);
+                return;
+            }
+
+            job.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+            job.setLockedAt(null);
+            job.setClaimToken(null);
+
+            if (job.getAttempts() >= maxAttempts) {
+                job.setStatus(VideoTranscodingStatus.FAILED);
+                log.error("Transcoding job {} for video {} failed permanently after {} attempts: {}",
+                        jobId, job.getVideoId(), job.getAttempts(), error);
+            } else {
+                job.setStatus(VideoTranscodingStatus.PENDING);
+                log.warn("Transcoding job {} for video {} failed (attempt {}), will retry: {}",
+                        jobId, job.getVideoId(), job.getAttempts(), error);
+            }
+        });
+    }
+
+    private void completeJob(VideoTranscodingJob job) {
+        job.setStatus(VideoTranscodingStatus.COMPLETED);
+        job.setProgressPercent(100);
+        job.setLastError(null);
+        job.setLockedAt(null);
+        job.setClaimToken(null);
+        job.setCompletedAt(Instant.now());
+    }
+
+    @Transactional(readOnly = true)
+    public VideoTranscodingJob findLatestJobByVideoId(UUID videoId) throws ResourceNotFoundException {
+        return jobRepository.findFirstByVideoIdOrderByCreatedAtDesc(videoId)
+                .orElseThrow(() -> new ResourceNotFoundException("No transcoding job found for video"));
+    }
+}
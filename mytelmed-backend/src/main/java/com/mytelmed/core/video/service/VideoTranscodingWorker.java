@@ -0,0 +1,179 @@
+package com.mytelmed.core.video.service;
+
+import com.mytelmed.core.video.entity.Video;
+import com.mytelmed.core.video.entity.VideoTranscodingJob;
+import com.mytelmed.core.video.repository.VideoRepository;
+import com.mytelmed.infrastructure.aws.service.AwsS3Service;
+import com.mytelmed.infrastructure.media.service.HlsTranscoder;
+import com.mytelmed.infrastructure.media.service.MediaIngestService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Runs queued transcoding jobs in the background: downloads the source video,
+ * encodes the HLS renditions, uploads them next to the original and points the
+ * video at the new master playlist.
+ */
+@Slf4j
+@Component
+public class VideoTranscodingWorker {
+    private static final String PLAYLIST_CONTENT_TYPE = "application/vnd.apple.mpegurl";
+    private static final String SEGMENT_CONTENT_TYPE = "video/mp2t";
+
+    // Bounds the uploads queued on the async S3 client by one job; the client caps actual connections
+    private static final int UPLOAD_WINDOW = 256;
+
+    private final VideoTranscodingService transcodingService;
+    private final VideoRepository videoRepository;
+    private final AwsS3Service awsS3Service;
+    private final MediaIngestService mediaIngestService;
+    private final HlsTranscoder hlsTranscoder;
+    private final Executor transcodingExecutor;
+    private final Semaphore slots;
+    private final Duration staleAfter;
+
+    public VideoTranscodingWorker(VideoTranscodingService transcodingService,
+                                  VideoRepository videoRepository,
+                                  AwsS3Service awsS3Service,
+                                  MediaIngestService mediaIngestService,
+                                  HlsTranscoder hlsTranscoder,
+                                  @Qualifier("videoTranscodingExecutor") Executor transcodingExecutor,
+                                  @Value("${video.transcoding.concurrency:1}") int concurrency,
+                                  @Value("${video.transcoding.stale-after-seconds:600}") long staleAfterSeconds) {
+        this.transcodingService = transcodingService;
+        this.videoRepository = videoRepository;
+        this.awsS3Service = awsS3Service;
+        this.mediaIngestService = mediaIngestService;
+        this.hlsTranscoder = hlsTranscoder;
+        this.transcodingExecutor = transcodingExecutor;
+        this.slots = new Semaphore(concurrency);
+        this.staleAfter = Duration.ofSeconds(staleAfterSeconds);
+    }
+
+    @Scheduled(fixedDelayString = "${video.transcoding.poll-interval-ms:5000}")
+    public void pollJobs() {
+        // Only claim as many jobs as there are free slots, so queued jobs stay claimable by other nodes
+        while (slots.tryAcquire()) {
+            Optional<VideoTranscodingJob> job;
+            try {
+                job = transcodingService.claimNextJob(staleAfter);
+            } catch (Exception e) {
+                slots.release();
+                log.error("Failed to claim a transcoding job", e);
+                return;
+            }
+
+            if (job.isEmpty()) {
+                slots.release();
+                return;
+            }
+
+            transcodingExecutor.execute(() -> {
+                try {
+                    process(job.get());
+                } finally {
+                    slots.release();
+                }
+            });
+        }
+    }
+
+    private void process(VideoTranscodingJob job) {
+        Path workDirectory = null;
+
+        try {
+            Video video = videoRepository.findById(job.getVideoId())
+                    .orElseThrow(() -> new IllegalStateException("Video no longer exists"));
+            log.info("Transcoding video {} (job {}, attempt {})", video.getId(), job.getId(), job.getAttempts());
+
+            workDirectory = mediaIngestService.createWorkDirectory("hls-" + job.getId() + "-");
+            Path source = workDirectory.resolve("source" + extensionOf(job.getSourceVideoKey()));
+            Path output = Files.createDirectories(workDirectory.resolve("hls"));
+
+            awsS3Service.downloadFile(job.getSourceVideoKey(), source);
+            hlsTranscoder.transcode(source, output, progress -> transcodingService.updateProgress(job, progress));
+
+            String keyPrefix = keyPrefixFor(job);
+            uploadRenditions(output, keyPrefix);
+
+            String unusedKeyPrefix = transcodingService.markCompleted(job,
+                    keyPrefix + HlsTranscoder.MASTER_PLAYLIST, keyPrefix);
+            if (unusedKeyPrefix != null) {
+                deleteQuietly(unusedKeyPrefix);
+            }
+        } catch (Exception e) {
+            log.error("Transcoding job {} failed for video: {}", job.getId(), job.getVideoId(), e);
+            transcodingService.markFailed(job, e.getMessage());
+        } finally {
+            if (workDirectory != null) {
+                try {
+                    FileSystemUtils.deleteRecursively(workDirectory);
+                } catch (IOException e) {
+                    log.warn("Failed to delete transcoding work directory: {}", workDirectory, e);
+                }
+            }
+        }
+    }
+
+    private void uploadRenditions(Path output, String keyPrefix) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(output)) {
+            files = walk.filter(Files::isRegularFile).toList();
+        }
+
+        // Segments are small, so sending them concurrently rather than one PUT at a time dominates upload time
+        List<CompletableFuture<Void>> uploads = new ArrayList<>();
+        for (Path file : files) {
+            String relativeKey = output.relativize(file).toString().replace('\\', '/');
+            String contentType = relativeKey.endsWith(".m3u8") ? PLAYLIST_CONTENT_TYPE : SEGMENT_CONTENT_TYPE;
+            uploads.add(awsS3Service.uploadFileAsync(keyPrefix + relativeKey, file, contentType));
+
+            if (uploads.size() == UPLOAD_WINDOW) {
+                awsS3Service.awaitAll(uploads);
+                uploads.clear();
+            }
+        }
+        awsS3Service.awaitAll(uploads);
+        log.debug("Uploaded {} HLS files under prefix: {}", files.size(), keyPrefix);
+    }
+
+    private void deleteQuietly(String keyPrefix) {
+        try {
+            awsS3Service.deleteFilesByPrefix(keyPrefix);
+        } catch (Exception e) {
+            log.warn("Failed to delete superseded HLS renditions under prefix: {}", keyPrefix, e);
+        }
+    }
+
+    /**
+     * Renditions live next to the original upload, e.g.
+     * {@code video/tutorial/<entityId>/hls/<claimToken>/}, so they share its CloudFront
+     * behaviour. A reclaimed job's late worker therefore never writes over the new claim's files.
+     */
+    private String keyPrefixFor(VideoTranscodingJob job) {
+        String videoKey = job.getSourceVideoKey();
+        String folder = videoKey.contains("/") ? videoKey.substring(0, videoKey.lastIndexOf('/') + 1) : "";
+        return folder + "hls/" + job.getClaimToken() + "/";
+    }
+
+    private String extensionOf(String key) {
+        String extension = StringUtils.getFilenameExtension(key);
+        return extension != null ? "." + extension : "";
+    }
+}
@@ -1,20 +1,38 @@
 package com.mytelmed.infrastructure.ai.service;
 
-import com.mytelmed.infrastructure.ai.dto.TranscriptionSummaryRequest;
-import com.mytelmed.infrastructure.ai.dto.TranscriptionSummaryResponse;
+import java.util.function.Consumer;
 
 /**
- * Interface for AI service to generate transcription summaries
+ * Interface for the language model behind transcription summaries. Prompting and
+ * parsing live in {@link TranscriptionSummarizer}, so a strategy only runs completions.
  */
 public interface AiServiceStrategy {
 
     /**
-     * Generate summary from video call transcription
-     * 
-     * @param request the transcription summary request
-     * @return the generated summary response
+     * Run a single completion
+     *
+     * @param prompt          the prompt
+     * @param maxOutputTokens the most tokens the model may generate
+     * @return the generated text
+     * @throws RuntimeException if the model cannot be invoked or returns no text
+     */
+    String generateText(String prompt, int maxOutputTokens);
+
+    /**
+     * Run a single completion, passing the text on as the model generates it. Models
+     * that cannot stream pass the whole text on once it is complete.
+     *
+     * @param prompt          the prompt
+     * @param maxOutputTokens the most tokens the model may generate
+     * @param onDelta         receives each piece of generated text, in order, on the calling thread
+     * @return the generated text
+     * @throws RuntimeException if the model cannot be invoked or returns no text
      */
-    TranscriptionSummaryResponse generateTranscriptionSummary(TranscriptionSummaryRequest request);
+    default String generateText(String prompt, int maxOutputTokens, Consumer<String> onDelta) {
+        String text = generateText(prompt, maxOutputTokens);
+        onDelta.accept(text);
+        return text;
+    }
 
     /**
      * Get the AI model identifier
@@ -22,4 +40,4 @@ public interface AiServiceStrategy {
      * @return the model identifier
      */
     String getModelIdentifier();
-}
\ No newline at end of file
+}
@@ -5,29 +5,43 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.mytelmed.infrastructure.ai.dto.TranscriptionSummaryRequest;
-import com.mytelmed.infrastructure.ai.dto.TranscriptionSummaryResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.SdkBytes;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeAsyncClient;
 import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeClient;
 import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelRequest;
 import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelResponse;
-import java.util.ArrayList;
-import java.util.List;
+import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelWithResponseStreamRequest;
+import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelWithResponseStreamResponseHandler;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * AWS Bedrock implementation of AI service for transcription summarization
  * using Amazon Nova Micro
+ * <p>
+ * Streaming completions use the response-streaming API, which the SDK only offers on
+ * the async client. Its chunks arrive on Netty event loop threads and are handed to
+ * the calling thread, so consumers may block without stalling the connection.
  */
 @Slf4j
 @Service
+@ConditionalOnProperty(name = "ai.provider", havingValue = "bedrock", matchIfMissing = true)
 public class BedrockAiService implements AiServiceStrategy {
+    private static final long DELTA_POLL_MILLIS = 100;
+
     private final BedrockRuntimeClient bedrockClient;
+    private final BedrockRuntimeAsyncClient bedrockAsyncClient;
     private final ObjectMapper objectMapper;
     private final String modelId;
 
@@ -43,40 +57,87 @@ public class BedrockAiService implements AiServiceStrategy {
                 .credentialsProvider(StaticCredentialsProvider.create(credentials))
                 .region(Region.of(region))
                 .build();
+        this.bedrockAsyncClient = BedrockRuntimeAsyncClient.builder()
+                .credentialsProvider(StaticCredentialsProvider.create(credentials))
+                .region(Region.of(region))
+                .build();
     }
 
     @Override
-    public TranscriptionSummaryResponse generateTranscriptionSummary(TranscriptionSummaryRequest request) {
+    public String generateText(String prompt, int maxOutputTokens) {
         try {
-            log.info("Generating transcription summary for appointment: {}", request.appointmentId());
-
-            String prompt = buildPrompt(request);
-            String requestBody = buildNovaRequest(prompt);
-
             InvokeModelRequest invokeRequest = InvokeModelRequest.builder()
                     .modelId(modelId)
-                    .body(SdkBytes.fromUtf8String(requestBody))
+                    .body(SdkBytes.fromUtf8String(buildNovaRequest(prompt, maxOutputTokens)))
                     .build();
 
             InvokeModelResponse response = bedrockClient.invokeModel(invokeRequest);
+            String text = parseNovaResponse(response.body().asUtf8String());
 
-            log.info("Bedrock response: {}", response);
+            log.debug("Bedrock returned {} characters for a {} character prompt", text.length(), prompt.length());
+            return text;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to process Nova request or response", e);
+        }
+    }
 
-            String responseBody = response.body().asUtf8String();
+    @Override
+    public String generateText(String prompt, int maxOutputTokens, Consumer<String> onDelta) {
+        InvokeModelWithResponseStreamRequest streamRequest;
+        try {
+            streamRequest = InvokeModelWithResponseStreamRequest.builder()
+                    .modelId(modelId)
+                    .body(SdkBytes.fromUtf8String(buildNovaRequest(prompt, maxOutputTokens)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to build Nova request", e);
+        }
 
-            log.info("Bedrock response body: {}", responseBody);
+        BlockingQueue<String> deltas = new LinkedBlockingQueue<>();
+        InvokeModelWithResponseStreamResponseHandler handler = InvokeModelWithResponseStreamResponseHandler.builder()
+                .subscriber(InvokeModelWithResponseStreamResponseHandler.Visitor.builder()
+                        .onChunk(chunk -> {
+                            String delta = parseNovaDelta(chunk.bytes().asUtf8String());
+                            if (!delta.isEmpty()) {
+                                deltas.add(delta);
+                            }
+                        })
+                        .build())
+                .build();
 
-            TranscriptionSummaryResponse summary = parseNovaResponse(responseBody);
-            log.info("Summary: {}", summary);
+        CompletableFuture<Void> completion = bedrockAsyncClient.invokeModelWithResponseStream(streamRequest, handler);
 
-            return summary;
-        } catch (Exception e) {
-            log.error("Failed to generate transcription summary for appointment: {}", request.appointmentId(), e);
-            return TranscriptionSummaryResponse.builder()
-                    .success(false)
-                    .errorMessage("Failed to generate summary: " + e.getMessage())
-                    .build();
+        StringBuilder text = new StringBuilder();
+        try {
+            boolean done = false;
+            while (!done) {
+                // Check completion before polling, so deltas queued just before it are still drained
+                done = completion.isDone();
+                String delta = deltas.poll(DELTA_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                while (delta != null) {
+                    text.append(delta);
+                    onDelta.accept(delta);
+                    delta = deltas.poll();
+                }
+            }
+        } catch (InterruptedException e) {
+            completion.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while streaming from Bedrock", e);
         }
+
+        try {
+            completion.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+
+        if (text.toString().trim().isEmpty()) {
+            throw new IllegalStateException("Empty response from Nova model");
+        }
+
+        log.debug("Bedrock streamed {} characters for a {} character prompt", text.length(), prompt.length());
+        return text.toString();
     }
 
     @Override
@@ -84,44 +145,7 @@ public class BedrockAiService implements AiServiceStrategy {
         return modelId;
     }
 
-    private String buildPrompt(TranscriptionSummaryRequest request) {
-        return String.format(
-                """
-                        You are a medical AI assistant helping to summarize a telemedicine appointment transcription.
-
-                        **Appointment Details:**
-                        - Patient: %s
-                        - Doctor: %s
-                        - Appointment Type: %s
-                        - Reason for Visit: %s
-
-                        **Transcription:**
-                        %s
-
-                        Please provide a comprehensive summary in the following JSON format:
-                        {
-                            "patientSummary": "A clear, concise summary for the patient in simple language, including key points discussed, recommendations, and next steps",
-                            "doctorSummary": "A detailed clinical summary for the doctor including key observations, patient concerns, recommendations made, and follow-up required",
-                            "keyPoints": ["List of important medical points and findings discussed"],
-                            "actionItems": ["List of specific actions, medications, or follow-ups recommended"]
-                        }
-
-                        Important guidelines:
-                        - Use clear, professional medical language for doctor summary
-                        - Use simple, patient-friendly language for patient summary
-                        - Focus on actionable items and important medical information
-                        - Ensure accuracy and maintain patient confidentiality
-                        - If the transcription is unclear or incomplete, note this in the summaries
-                        - Ensure to provide paragraphs instead of bullet points for the content of each JSON key
-                        """,
-                request.patientName(),
-                request.doctorName(),
-                request.appointmentType(),
-                request.reasonForVisit(),
-                request.transcriptionText());
-    }
-
-    private String buildNovaRequest(String prompt) throws JsonProcessingException {
+    private String buildNovaRequest(String prompt, int maxOutputTokens) throws JsonProcessingException {
         ObjectNode root = objectMapper.createObjectNode();
 
         // Add user message under messages array
@@ -141,7 +165,7 @@ public class BedrockAiService implements AiServiceStrategy {
 
         // Add inferenceConfig (valid keys under this object)
         ObjectNode inferenceConfig = objectMapper.createObjectNode();
-        inferenceConfig.put("maxTokens", 2048); // Optional
+        inferenceConfig.put("maxTokens", maxOutputTokens);
         inferenceConfig.put("temperature", 0.7); // Optional
         inferenceConfig.put("topP", 0.9); // Optional
         inferenceConfig.put("topK", 20); // Optional
@@ -150,68 +174,30 @@ public class BedrockAiService implements AiServiceStrategy {
         return objectMapper.writeValueAsString(root);
     }
 
-    private TranscriptionSummaryResponse parseNovaResponse(String responseBody) {
+    /**
+     * Extracts the text of a streamed Nova chunk. Chunks other than content deltas,
+     * such as message start and usage metadata, carry no text.
+     */
+    private String parseNovaDelta(String chunkBody) {
         try {
-            JsonNode response = objectMapper.readTree(responseBody);
-            JsonNode contentArray = response.path("output").path("message").path("content");
-
-            String text = null;
-            if (contentArray.isArray() && !contentArray.isEmpty()) {
-                text = contentArray.get(0).path("text").asText();
-            }
-
-            if (text == null || text.trim().isEmpty()) {
-                return TranscriptionSummaryResponse.builder()
-                        .success(false)
-                        .errorMessage("Empty response from Nova model")
-                        .build();
-            }
-
-            // Extract JSON substring
-            int jsonStart = text.indexOf("{");
-            int jsonEnd = text.lastIndexOf("}") + 1;
-
-            if (jsonStart >= 0 && jsonEnd > jsonStart) {
-                String jsonStr = text.substring(jsonStart, jsonEnd).trim();
-
-                JsonNode summaryJson;
-                try {
-                    // Try to parse directly
-                    summaryJson = objectMapper.readTree(jsonStr);
-                } catch (JsonProcessingException e) {
-                    // Maybe it's a stringified JSON, try parsing again
-                    log.warn("First JSON parse failed, attempting to double-parse escaped string");
-                    summaryJson = objectMapper.readTree(objectMapper.readTree(jsonStr).asText());
-                }
-
-                return TranscriptionSummaryResponse.builder()
-                        .patientSummary(summaryJson.path("patientSummary").asText(null))
-                        .doctorSummary(summaryJson.path("doctorSummary").asText(null))
-                        .keyPoints(parseArrayField(summaryJson.path("keyPoints")))
-                        .actionItems(parseArrayField(summaryJson.path("actionItems")))
-                        .success(true)
-                        .build();
-            }
+            return objectMapper.readTree(chunkBody).path("contentBlockDelta").path("delta").path("text").asText("");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to parse Nova stream chunk", e);
+        }
+    }
 
-            return TranscriptionSummaryResponse.builder()
-                    .success(false)
-                    .errorMessage("Invalid JSON format in Nova response")
-                    .build();
+    private String parseNovaResponse(String responseBody) throws JsonProcessingException {
+        JsonNode response = objectMapper.readTree(responseBody);
+        JsonNode contentArray = response.path("output").path("message").path("content");
 
-        } catch (Exception e) {
-            log.error("Failed to parse Nova response", e);
-            return TranscriptionSummaryResponse.builder()
-                    .success(false)
-                    .errorMessage("Failed to parse AI response: " + e.getMessage())
-                    .build();
+        String text = null;
+        if (contentArray.isArray() && !contentArray.isEmpty()) {
+            text = contentArray.get(0).path("text").asText();
         }
-    }
 
-    private List<String> parseArrayField(JsonNode arrayNode) {
-        List<String> items = new ArrayList<>();
-        if (arrayNode.isArray()) {
-            arrayNode.forEach(item -> items.add(item.asText()));
+        if (text == null || text.trim().isEmpty()) {
+            throw new IllegalStateException("Empty response from Nova model");
         }
-        return items;
+        return text;
     }
 }
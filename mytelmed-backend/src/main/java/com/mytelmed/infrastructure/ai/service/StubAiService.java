@@ -0,0 +1,63 @@
+package com.mytelmed.infrastructure.ai.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Local AI service that answers every prompt with a summary derived from the prompt's
+ * hash, without calling a model. The same prompt always yields the same summary, so
+ * the summarization pipeline can be exercised offline and asserted on. Enabled with
+ * {@code ai.provider=stub}.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "ai.provider", havingValue = "stub")
+public class StubAiService implements AiServiceStrategy {
+    private static final String MODEL_IDENTIFIER = "local-stub";
+
+    private final ObjectMapper objectMapper;
+
+    public StubAiService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String generateText(String prompt, int maxOutputTokens) {
+        String digest = sha256(prompt).substring(0, 12);
+
+        ObjectNode summary = objectMapper.createObjectNode();
+        summary.put("patientSummary", "Patient summary " + digest);
+        summary.put("doctorSummary", "Doctor summary " + digest);
+        summary.putArray("keyPoints").add("Key point " + digest);
+        summary.putArray("actionItems").add("Action item " + digest);
+
+        try {
+            log.debug("Stub AI service answered a {} character prompt with {}", prompt.length(), digest);
+            return objectMapper.writeValueAsString(summary);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize stub summary", e);
+        }
+    }
+
+    @Override
+    public String getModelIdentifier() {
+        return MODEL_IDENTIFIER;
+    }
+
+    private String sha256(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.mytelmed.infrastructure.ai.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Splits a transcript into chunks that each fit a token budget.
+ * <p>
+ * Transcripts from {@code StreamTranscriptionService} hold one speaker turn per line,
+ * prefixed with the speaker's label. Chunks break between turns, so no chunk starts
+ * mid-sentence or loses who was speaking. A single turn over the budget is split at
+ * sentence ends, and every piece keeps the speaker label.
+ */
+final class TranscriptChunker {
+    // Models tokenize English and Malay at roughly four characters per token
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final Pattern SENTENCE_END = Pattern.compile("(?<=[.!?])\\s+");
+
+    private TranscriptChunker() {
+    }
+
+    static int estimateTokens(String text) {
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    static List<String> split(String transcript, int tokenBudget) {
+        int charBudget = tokenBudget * CHARS_PER_TOKEN;
+        List<String> chunks = new ArrayList<>();
+        StringBuilder chunk = new StringBuilder();
+
+        for (String line : transcript.split("\\R")) {
+            String turn = line.trim();
+            if (turn.isEmpty()) {
+                continue;
+            }
+
+            for (String piece : splitTurn(turn, charBudget)) {
+                if (!chunk.isEmpty() && chunk.length() + 1 + piece.length() > charBudget) {
+                    chunks.add(chunk.toString());
+                    chunk.setLength(0);
+                }
+                if (!chunk.isEmpty()) {
+                    chunk.append('\n');
+                }
+                chunk.append(piece);
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk.toString());
+        }
+        return chunks;
+    }
+
+    private static List<String> splitTurn(String turn, int charBudget) {
+        if (turn.length() <= charBudget) {
+            return List.of(turn);
+        }
+
+        int separator = turn.indexOf(": ");
+        String label = separator > 0 ? turn.substring(0, separator + 2) : "";
+        int textBudget = Math.max(1, charBudget - label.length());
+
+        List<String> pieces = new ArrayList<>();
+        StringBuilder piece = new StringBuilder();
+        for (String sentence : SENTENCE_END.split(turn.substring(label.length()))) {
+            // A sentence longer than the budget is cut wherever it overflows
+            for (int start = 0; start < sentence.length(); start += textBudget) {
+                String part = sentence.substring(start, Math.min(sentence.length(), start + textBudget));
+
+                if (!piece.isEmpty() && piece.length() + 1 + part.length() > textBudget) {
+                    pieces.add(label + piece);
+                    piece.setLength(0);
+                }
+                if (!piece.isEmpty()) {
+                    piece.append(' ');
+                }
+                piece.append(part);
+            }
+        }
+
+        if (!piece.isEmpty()) {
+            pieces.add(label + piece);
+        }
+        return pieces;
+    }
+}
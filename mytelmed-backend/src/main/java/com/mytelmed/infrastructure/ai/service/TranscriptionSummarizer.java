@@ -0,0 +1,378 @@
+package com.mytelmed.infrastructure.ai.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mytelmed.infrastructure.ai.dto.TranscriptionSummaryRequest;
+import com.mytelmed.infrastructure.ai.dto.TranscriptionSummaryResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Summarizes consultation transcripts with the configured {@link AiServiceStrategy}.
+ * <p>
+ * A transcript that fits one chunk is summarized in a single call, as before. A longer
+ * one is split at speaker turns into chunks of at most {@code ai.summary.chunk-tokens},
+ * each chunk is summarized on {@code summarizationExecutor}, and the part summaries are
+ * combined into the final summary. Parts too long to combine in one prompt are first
+ * combined in groups. The executor bounds model calls across all transcripts, so a
+ * long consultation cannot exhaust the model's request quota for the others.
+ * <p>
+ * Callers may stream the call that produces the final summary; part summaries are
+ * never streamed, since they are not shown to anyone.
+ */
+@Slf4j
+@Service
+public class TranscriptionSummarizer {
+    private static final String METRIC_NAME = "mytelmed.ai.summary.call.duration";
+
+    private static final String JSON_FORMAT = """
+            {
+                "patientSummary": "A clear, concise summary for the patient in simple language, including key points discussed, recommendations, and next steps",
+                "doctorSummary": "A detailed clinical summary for the doctor including key observations, patient concerns, recommendations made, and follow-up required",
+                "keyPoints": ["List of important medical points and findings discussed"],
+                "actionItems": ["List of specific actions, medications, or follow-ups recommended"]
+            }
+            """;
+
+    private static final String GUIDELINES = """
+            Important guidelines:
+            - Use clear, professional medical language for doctor summary
+            - Use simple, patient-friendly language for patient summary
+            - Focus on actionable items and important medical information
+            - Ensure accuracy and maintain patient confidentiality
+            - If the transcription is unclear or incomplete, note this in the summaries
+            - Ensure to provide paragraphs instead of bullet points for the content of each JSON key
+            """;
+
+    private final AiServiceStrategy aiService;
+    private final Executor summarizationExecutor;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int chunkTokens;
+    private final int reduceInputTokens;
+    private final int chunkMaxOutputTokens;
+    private final int maxOutputTokens;
+
+    public TranscriptionSummarizer(AiServiceStrategy aiService,
+                                   @Qualifier("summarizationExecutor") Executor summarizationExecutor,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${ai.summary.chunk-tokens:4000}") int chunkTokens,
+                                   @Value("${ai.summary.reduce-input-tokens:8000}") int reduceInputTokens,
+                                   @Value("${ai.summary.chunk-max-output-tokens:800}") int chunkMaxOutputTokens,
+                                   @Value("${ai.summary.max-output-tokens:2048}") int maxOutputTokens) {
+        this.aiService = aiService;
+        this.summarizationExecutor = summarizationExecutor;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.chunkTokens = chunkTokens;
+        this.reduceInputTokens = reduceInputTokens;
+        this.chunkMaxOutputTokens = chunkMaxOutputTokens;
+        this.maxOutputTokens = maxOutputTokens;
+    }
+
+    /**
+     * Generate summary from video call transcription
+     *
+     * @param request the transcription summary request
+     * @return the generated summary, or an unsuccessful response with the reason
+     */
+    public TranscriptionSummaryResponse summarize(TranscriptionSummaryRequest request) {
+        return summarize(request, null);
+    }
+
+    /**
+     * Generate summary from video call transcription, streaming the final summary
+     *
+     * @param request the transcription summary request
+     * @param onDelta receives the final summary's raw model output as it is generated, or {@code null}
+     * @return the generated summary, or an unsuccessful response with the reason
+     */
+    public TranscriptionSummaryResponse summarize(TranscriptionSummaryRequest request, Consumer<String> onDelta) {
+        try {
+            String transcript = request.transcriptionText();
+            List<String> chunks = transcript == null ? List.of() : TranscriptChunker.split(transcript, chunkTokens);
+            if (chunks.isEmpty()) {
+                return failure("Transcription is empty");
+            }
+
+            if (chunks.size() == 1) {
+                log.info("Generating transcription summary for appointment: {}", request.appointmentId());
+                return parseSummary(call("single", buildPrompt(request, transcript), maxOutputTokens, onDelta));
+            }
+
+            log.info("Generating transcription summary for appointment: {} from {} transcript chunks",
+                    request.appointmentId(), chunks.size());
+
+            List<CompletableFuture<String>> partSummaries = new ArrayList<>();
+            for (int i = 0; i < chunks.size(); i++) {
+                String prompt = buildChunkPrompt(request, chunks.get(i), i + 1, chunks.size());
+                partSummaries.add(CompletableFuture.supplyAsync(
+                        () -> toPartSummary(call("map", prompt, chunkMaxOutputTokens, null)), summarizationExecutor));
+            }
+
+            return parseSummary(reduce(request, awaitAll(partSummaries), onDelta));
+        } catch (Exception e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Failed to generate transcription summary for appointment: {}", request.appointmentId(), cause);
+            return failure("Failed to generate summary: " + cause.getMessage());
+        }
+    }
+
+    public String getModelIdentifier() {
+        return aiService.getModelIdentifier();
+    }
+
+    private String reduce(TranscriptionSummaryRequest request, List<String> partSummaries, Consumer<String> onDelta) {
+        List<String> current = partSummaries;
+
+        while (current.size() > 1 && totalTokens(current) > reduceInputTokens) {
+            List<List<String>> groups = groupByTokens(current);
+            if (groups.size() == current.size()) {
+                // Every part summary fills a prompt on its own, so grouping cannot shrink the input
+                break;
+            }
+
+            List<CompletableFuture<String>> combined = new ArrayList<>();
+            for (List<String> group : groups) {
+                combined.add(group.size() == 1
+                        ? CompletableFuture.completedFuture(group.get(0))
+                        : CompletableFuture.supplyAsync(() -> toPartSummary(
+                        call("reduce", buildReducePrompt(request, group), chunkMaxOutputTokens, null)),
+                        summarizationExecutor));
+            }
+            current = awaitAll(combined);
+        }
+
+        return call("reduce", buildReducePrompt(request, current), maxOutputTokens, onDelta);
+    }
+
+    private List<List<String>> groupByTokens(List<String> partSummaries) {
+        List<List<String>> groups = new ArrayList<>();
+        List<String> group = new ArrayList<>();
+        int groupTokens = 0;
+
+        for (String partSummary : partSummaries) {
+            int tokens = TranscriptChunker.estimateTokens(partSummary);
+            if (!group.isEmpty() && groupTokens + tokens > reduceInputTokens) {
+                groups.add(group);
+                group = new ArrayList<>();
+                groupTokens = 0;
+            }
+            group.add(partSummary);
+            groupTokens += tokens;
+        }
+
+        if (!group.isEmpty()) {
+            groups.add(group);
+        }
+        return groups;
+    }
+
+    private int totalTokens(List<String> texts) {
+        return texts.stream().mapToInt(TranscriptChunker::estimateTokens).sum();
+    }
+
+    /**
+     * Waits for every future, failing as soon as one fails and cancelling those not yet started.
+     */
+    private List<String> awaitAll(List<CompletableFuture<String>> futures) {
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        futures.forEach(future -> future.whenComplete((result, error) -> {
+            if (error != null) {
+                firstFailure.completeExceptionally(error);
+            }
+        }));
+
+        try {
+            CompletableFuture.anyOf(CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)), firstFailure)
+                    .join();
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(false));
+            throw e;
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private String call(String stage, String prompt, int maxTokens, Consumer<String> onDelta) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            String text = onDelta != null
+                    ? aiService.generateText(prompt, maxTokens, onDelta)
+                    : aiService.generateText(prompt, maxTokens);
+            outcome = "success";
+            return text;
+        } finally {
+            Timer.builder(METRIC_NAME)
+                    .description("Latency of model calls made to summarize transcripts")
+                    .tag("stage", stage)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Re-serializes a part summary compactly, dropping any text the model wrapped around it.
+     */
+    private String toPartSummary(String text) {
+        TranscriptionSummaryResponse summary = parseSummary(text);
+        if (!summary.success()) {
+            throw new IllegalStateException(summary.errorMessage());
+        }
+
+        ObjectNode json = objectMapper.createObjectNode();
+        json.put("patientSummary", summary.patientSummary());
+        json.put("doctorSummary", summary.doctorSummary());
+        summary.keyPoints().forEach(json.putArray("keyPoints")::add);
+        summary.actionItems().forEach(json.putArray("actionItems")::add);
+
+        try {
+            return objectMapper.writeValueAsString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize part summary", e);
+        }
+    }
+
+    private String buildPrompt(TranscriptionSummaryRequest request, String transcript) {
+        return String.format(
+                """
+                        You are a medical AI assistant helping to summarize a telemedicine appointment transcription.
+
+                        %s
+                        **Transcription:**
+                        %s
+
+                        Please provide a comprehensive summary in the following JSON format:
+                        %s
+                        %s""",
+                appointmentDetails(request), transcript, JSON_FORMAT, GUIDELINES);
+    }
+
+    private String buildChunkPrompt(TranscriptionSummaryRequest request, String chunk, int part, int parts) {
+        return String.format(
+                """
+                        You are a medical AI assistant helping to summarize a telemedicine appointment transcription.
+                        The transcription is too long to summarize at once, so you are given part %d of %d.
+                        Summarize only this part; the part summaries are combined afterwards.
+
+                        %s
+                        **Transcription (part %d of %d):**
+                        %s
+
+                        Please provide the summary of this part in the following JSON format:
+                        %s
+                        %s\
+                        - Keep every symptom, finding, diagnosis, medication with its dose, recommendation and follow-up in this part
+                        - Do not guess what other parts contain; if this part starts or ends mid-topic, summarize only what it says
+                        """,
+                part, parts, appointmentDetails(request), part, parts, chunk, JSON_FORMAT, GUIDELINES);
+    }
+
+    private String buildReducePrompt(TranscriptionSummaryRequest request, List<String> partSummaries) {
+        StringBuilder parts = new StringBuilder();
+        for (int i = 0; i < partSummaries.size(); i++) {
+            parts.append("Part ").append(i + 1).append(": ").append(partSummaries.get(i)).append('\n');
+        }
+
+        return String.format(
+                """
+                        You are a medical AI assistant helping to summarize a telemedicine appointment transcription.
+                        The transcription was summarized in consecutive parts. Combine the part summaries below,
+                        given in the order the conversation happened, into one summary of the whole appointment.
+
+                        %s
+                        **Part Summaries:**
+                        %s
+                        Please provide a comprehensive summary in the following JSON format:
+                        %s
+                        %s\
+                        - Merge duplicate key points and action items
+                        - Where parts conflict, prefer what was said later in the appointment
+                        """,
+                appointmentDetails(request), parts, JSON_FORMAT, GUIDELINES);
+    }
+
+    private String appointmentDetails(TranscriptionSummaryRequest request) {
+        return String.format(
+                """
+                        **Appointment Details:**
+                        - Patient: %s
+                        - Doctor: %s
+                        - Appointment Type: %s
+                        - Reason for Visit: %s
+                        """,
+                request.patientName(),
+                request.doctorName(),
+                request.appointmentType(),
+                request.reasonForVisit());
+    }
+
+    private TranscriptionSummaryResponse parseSummary(String text) {
+        try {
+            if (text == null || text.trim().isEmpty()) {
+                return failure("Empty response from AI model");
+            }
+
+            // Extract JSON substring
+            int jsonStart = text.indexOf("{");
+            int jsonEnd = text.lastIndexOf("}") + 1;
+
+            if (jsonStart >= 0 && jsonEnd > jsonStart) {
+                String jsonStr = text.substring(jsonStart, jsonEnd).trim();
+
+                JsonNode summaryJson;
+                try {
+                    // Try to parse directly
+                    summaryJson = objectMapper.readTree(jsonStr);
+                } catch (JsonProcessingException e) {
+                    // Maybe it's a stringified JSON, try parsing again
+                    log.warn("First JSON parse failed, attempting to double-parse escaped string");
+                    summaryJson = objectMapper.readTree(objectMapper.readTree(jsonStr).asText());
+                }
+
+                return TranscriptionSummaryResponse.builder()
+                        .patientSummary(summaryJson.path("patientSummary").asText(null))
+                        .doctorSummary(summaryJson.path("doctorSummary").asText(null))
+                        .keyPoints(parseArrayField(summaryJson.path("keyPoints")))
+                        .actionItems(parseArrayField(summaryJson.path("actionItems")))
+                        .success(true)
+                        .build();
+            }
+
+            return failure("Invalid JSON format in AI response");
+        } catch (Exception e) {
+            log.error("Failed to parse AI response", e);
+            return failure("Failed to parse AI response: " + e.getMessage());
+        }
+    }
+
+    private List<String> parseArrayField(JsonNode arrayNode) {
+        List<String> items = new ArrayList<>();
+        if (arrayNode.isArray()) {
+            arrayNode.forEach(item -> items.add(item.asText()));
+        }
+        return items;
+    }
+
+    private TranscriptionSummaryResponse failure(String errorMessage) {
+        return TranscriptionSummaryResponse.builder()
+                .success(false)
+                .errorMessage(errorMessage)
+                .build();
+    }
+}
@@ -2,18 +2,25 @@ package com.mytelmed.infrastructure.aws.config;
 
 import com.mytelmed.core.article.entity.Article;
 import com.mytelmed.core.transcription.entity.TranscriptionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
-import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Configuration;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import java.net.URI;
+import java.time.Duration;
 
 @Configuration
 public class AwsConfig {
@@ -21,33 +28,72 @@ public class AwsConfig {
     private final String transcriptionTableName;
     private final Region region;
     private final StaticCredentialsProvider credentialsProvider;
+    private final URI s3Endpoint;
+    private final S3Configuration s3Configuration;
+    private final int s3AsyncMaxConcurrency;
+    private final int s3AsyncMaxPendingAcquires;
+    private final Duration s3AsyncAcquisitionTimeout;
 
     public AwsConfig(@Value("${aws.accessKey}") String accessKey,
             @Value("${aws.secretKey}") String secretKey,
             @Value("${aws.region}") String region,
             @Value("${aws.dynamodb.article.table-name}") String articleTableName,
-            @Value("${aws.dynamodb.transcription.table-name}") String transcriptionTableName) {
+            @Value("${aws.dynamodb.transcription.table-name}") String transcriptionTableName,
+            @Value("${aws.s3.endpoint:}") String s3Endpoint,
+            @Value("${aws.s3.path-style-access:false}") boolean pathStyleAccess,
+            @Value("${aws.s3.async.max-concurrency:64}") int s3AsyncMaxConcurrency,
+            @Value("${aws.s3.async.max-pending-acquires:10000}") int s3AsyncMaxPendingAcquires,
+            @Value("${aws.s3.async.connection-acquisition-timeout-ms:30000}") long s3AsyncAcquisitionTimeoutMs) {
         this.credentialsProvider = StaticCredentialsProvider.create(
                 AwsBasicCredentials.create(accessKey, secretKey));
         this.region = Region.of(region);
         this.articleTableName = articleTableName;
         this.transcriptionTableName = transcriptionTableName;
+        // An endpoint override points S3 at a local S3-compatible server such as MinIO or LocalStack
+        this.s3Endpoint = StringUtils.hasText(s3Endpoint) ? URI.create(s3Endpoint) : null;
+        this.s3Configuration = S3Configuration.builder()
+                .pathStyleAccessEnabled(pathStyleAccess)
+                .build();
+        this.s3AsyncMaxConcurrency = s3AsyncMaxConcurrency;
+        this.s3AsyncMaxPendingAcquires = s3AsyncMaxPendingAcquires;
+        this.s3AsyncAcquisitionTimeout = Duration.ofMillis(s3AsyncAcquisitionTimeoutMs);
     }
 
+    /**
+     * Non-blocking client for all S3 calls, from single uploads and downloads to fan-out
+     * work such as HLS segment and image derivative uploads. Connections are capped at
+     * {@code max-concurrency}; further requests wait for a connection instead of opening
+     * more, so one large job cannot exhaust the bucket's request rate or the host's sockets.
+     */
     @Bean
-    public S3Client s3Client() {
-        return S3Client.builder()
+    public S3AsyncClient s3AsyncClient(MeterRegistry meterRegistry) {
+        S3AsyncClient.Builder builder = S3AsyncClient.builder()
                 .credentialsProvider(credentialsProvider)
                 .region(region)
-                .build();
+                .serviceConfiguration(s3Configuration)
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(s3AsyncMaxConcurrency)
+                        .maxPendingConnectionAcquires(s3AsyncMaxPendingAcquires)
+                        .connectionAcquisitionTimeout(s3AsyncAcquisitionTimeout))
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                        .addExecutionInterceptor(new S3MetricsInterceptor(meterRegistry, "async"))
+                        .build());
+        if (s3Endpoint != null) {
+            builder.endpointOverride(s3Endpoint);
+        }
+        return builder.build();
     }
 
     @Bean
     public S3Presigner s3Presigner() {
-        return S3Presigner.builder()
+        S3Presigner.Builder builder = S3Presigner.builder()
                 .credentialsProvider(credentialsProvider)
                 .region(region)
-                .build();
+                .serviceConfiguration(s3Configuration);
+        if (s3Endpoint != null) {
+            builder.endpointOverride(s3Endpoint);
+        }
+        return builder.build();
     }
 
     @Bean
@@ -0,0 +1,63 @@
+package com.mytelmed.infrastructure.aws.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latency of every S3 API call, including retries, tagged by operation,
+ * client and outcome.
+ */
+class S3MetricsInterceptor implements ExecutionInterceptor {
+    private static final String METRIC_NAME = "mytelmed.s3.operation.duration";
+    private static final ExecutionAttribute<Long> START_NANOS = new ExecutionAttribute<>("MyTelmedS3StartNanos");
+
+    private final MeterRegistry meterRegistry;
+    private final String client;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    S3MetricsInterceptor(MeterRegistry meterRegistry, String client) {
+        this.meterRegistry = meterRegistry;
+        this.client = client;
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        record(executionAttributes, "success");
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        record(executionAttributes, "error");
+    }
+
+    private void record(ExecutionAttributes executionAttributes, String outcome) {
+        Long start = executionAttributes.getAttribute(START_NANOS);
+        if (start == null) {
+            return;
+        }
+
+        String operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+        String name = operation != null ? operation : "unknown";
+
+        timers.computeIfAbsent(name + ":" + outcome, ignored -> Timer.builder(METRIC_NAME)
+                        .description("Latency of S3 API calls")
+                        .tag("operation", name)
+                        .tag("client", client)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,21 @@
+package com.mytelmed.infrastructure.aws.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A presigned request that lets a client upload one object straight to S3.
+ *
+ * @param key       the object key the upload is written to
+ * @param url       the presigned URL
+ * @param method    the HTTP method to use
+ * @param headers   headers the client must send unchanged, as they are part of the signature
+ * @param expiresAt when the URL stops being accepted
+ */
+public record PresignedUpload(
+        String key,
+        String url,
+        String method,
+        Map<String, String> headers,
+        Instant expiresAt) {
+}
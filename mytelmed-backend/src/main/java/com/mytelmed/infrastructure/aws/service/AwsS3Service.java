@@ -2,26 +2,56 @@ package com.mytelmed.infrastructure.aws.service;
 
 import com.mytelmed.common.advice.exception.InvalidInputException;
 import com.mytelmed.common.constant.file.FileType;
+import com.mytelmed.infrastructure.aws.dto.PresignedUpload;
 import com.mytelmed.infrastructure.aws.dto.S3StorageOptions;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.Delete;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Error;
 import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 import java.io.IOException;
-import java.net.URL;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.StreamSupport;
 
 
 @Slf4j
@@ -29,21 +59,29 @@ import java.util.UUID;
 public class AwsS3Service {
     private final String bucket;
     private final String cloudFrontDomainName;
-    private final S3Client s3Client;
+    private final S3AsyncClient s3AsyncClient;
     private final S3Presigner s3Presigner;
+    private final S3MultipartUploader s3MultipartUploader;
+    private final PresignedUrlCache presignedUrlCache;
 
     // Presigned URL expiry durations
     private static final Duration IMAGE_EXPIRY = Duration.ofMinutes(5);
     private static final Duration DOCUMENT_EXPIRY = Duration.ofMinutes(10);
 
+    // DeleteObjects accepts at most 1000 keys per request
+    private static final int DELETE_BATCH_SIZE = 1000;
+
     public AwsS3Service(
             @Value("${aws.s3.bucket.name}") String bucket,
             @Value("${aws.cloudfront.domain-name}") String cloudFrontDomainName,
-            S3Client s3Client, S3Presigner s3Presigner) {
+            S3AsyncClient s3AsyncClient, S3Presigner s3Presigner,
+            S3MultipartUploader s3MultipartUploader, PresignedUrlCache presignedUrlCache) {
         this.bucket = bucket;
         this.cloudFrontDomainName = cloudFrontDomainName;
-        this.s3Client = s3Client;
+        this.s3AsyncClient = s3AsyncClient;
         this.s3Presigner = s3Presigner;
+        this.s3MultipartUploader = s3MultipartUploader;
+        this.presignedUrlCache = presignedUrlCache;
     }
 
     public String generateVideoUrl(String key) {
@@ -76,9 +114,98 @@ public class AwsS3Service {
 
     }
 
+    /**
+     * Generates a presigned URL for reading a private video, e.g. for probing it
+     * without downloading (10 minutes expiry).
+     *
+     * @param key the S3 object key
+     * @return the presigned URL
+     * @throws S3Exception if there's an S3 error
+     */
+    public String generatePresignedVideoUrl(String key) throws S3Exception {
+        return generatePresignedUrl(key, FileType.VIDEO);
+    }
+
+    /**
+     * Generates a presigned PUT URL so a client can upload straight to S3. The
+     * content type and length are part of the signature, so S3 rejects a request
+     * whose headers differ from what was declared.
+     *
+     * @param storageOptions   options for storing the file
+     * @param originalFileName the client's file name, used for the key extension
+     * @param contentType      the declared content type
+     * @param contentLength    the declared content length in bytes
+     * @param expiry           how long the URL stays valid
+     * @return the new object key with the presigned request
+     * @throws S3Exception if there's an S3 error
+     */
+    public PresignedUpload generatePresignedUpload(S3StorageOptions storageOptions, String originalFileName,
+                                                   String contentType, long contentLength, Duration expiry)
+            throws S3Exception {
+        String key = buildObjectKey(storageOptions, originalFileName);
+
+        PutObjectPresignRequest presignRequest = PutObjectPresignRequest.builder()
+                .signatureDuration(expiry)
+                .putObjectRequest(PutObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .contentType(contentType)
+                        .contentLength(contentLength)
+                        .build())
+                .build();
+
+        PresignedPutObjectRequest presigned = s3Presigner.presignPutObject(presignRequest);
+
+        // Browsers set Host and Content-Length themselves and refuse to send them explicitly
+        Map<String, String> headers = new LinkedHashMap<>();
+        presigned.signedHeaders().forEach((name, values) -> {
+            if (!name.equalsIgnoreCase("host") && !name.equalsIgnoreCase("content-length")) {
+                headers.put(name, String.join(",", values));
+            }
+        });
+
+        log.debug("Generated presigned upload for key: {} ({} bytes, {})", key, contentLength, contentType);
+        return new PresignedUpload(key, presigned.url().toString(), presigned.httpRequest().method().name(),
+                headers, presigned.expiration());
+    }
+
+    /**
+     * Reads the metadata of an object without downloading it.
+     *
+     * @param key the S3 object key
+     * @return the object metadata, or empty if the object does not exist
+     * @throws S3Exception if there's an S3 error other than a missing object
+     */
+    public Optional<HeadObjectResponse> headFile(String key) throws S3Exception {
+        return await(headFileAsync(key));
+    }
+
+    /**
+     * Reads the metadata of an object without blocking the caller.
+     *
+     * @param key the S3 object key
+     * @return the object metadata, or empty if the object does not exist
+     */
+    public CompletableFuture<Optional<HeadObjectResponse>> headFileAsync(String key) {
+        return s3AsyncClient.headObject(HeadObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .build())
+                .thenApply(Optional::of)
+                .exceptionally(e -> {
+                    if (unwrap(e) instanceof S3Exception s3Exception && s3Exception.statusCode() == 404) {
+                        return Optional.empty();
+                    }
+                    throw e instanceof CompletionException completionException
+                            ? completionException
+                            : new CompletionException(e);
+                });
+    }
+
     /**
      * Uploads a file to S3 and returns its key.
-     * All files are stored in the private assets bucket.
+     * All files are stored in the private assets bucket. The content is streamed
+     * from the multipart file rather than loaded into memory.
      *
      * @param storageOptions options for storing the file
      * @param file           the file to upload
@@ -93,7 +220,24 @@ public class AwsS3Service {
             throw new InvalidInputException("File cannot be null or empty");
         }
 
-        String originalFileName = file.getOriginalFilename();
+        return uploadFileAndGetKey(storageOptions, file.getOriginalFilename(), file, file.getSize());
+    }
+
+    /**
+     * Uploads content that is already available locally, such as a spooled upload,
+     * to S3 and returns its key.
+     *
+     * @param storageOptions   options for storing the file
+     * @param originalFileName the client's file name, used for the key extension
+     * @param content          the content to upload, opened once
+     * @param contentLength    the content length in bytes
+     * @return the S3 object key
+     * @throws IOException if the content cannot be read
+     * @throws S3Exception if the file cannot be uploaded to S3
+     */
+    public String uploadFileAndGetKey(S3StorageOptions storageOptions, String originalFileName,
+                                      InputStreamSource content, long contentLength)
+            throws IOException, S3Exception, InvalidInputException {
         String key = buildObjectKey(storageOptions, originalFileName);
 
         if (storageOptions.fileType().equals(FileType.DOCUMENT) && !Objects.requireNonNull(originalFileName).endsWith(".pdf")) {
@@ -115,7 +259,9 @@ public class AwsS3Service {
                         .build();
             }
 
-            s3Client.putObject(request, RequestBody.fromBytes(file.getBytes()));
+            try (InputStream inputStream = content.getInputStream()) {
+                s3MultipartUploader.upload(request, inputStream, contentLength);
+            }
             log.info("Successfully uploaded file to S3 with key: {}", key);
 
             return key;
@@ -157,18 +303,61 @@ public class AwsS3Service {
             throw new InvalidInputException("File must be a PDF");
         }
 
+        return updateFile(key, file, file.getSize());
+    }
+
+    /**
+     * Replaces the content at an existing key with content that is already
+     * available locally, such as a spooled upload.
+     *
+     * @param key           the existing object key to update
+     * @param content       the new content, opened once
+     * @param contentLength the content length in bytes
+     * @return the same key if the update was successful
+     * @throws IOException if the content cannot be read
+     * @throws S3Exception if the file cannot be uploaded to S3
+     */
+    public String updateFile(String key, InputStreamSource content, long contentLength)
+            throws IOException, S3Exception {
+        if (key == null || key.isEmpty()) {
+            log.warn("Attempted to update file with null or empty key");
+            throw new InvalidInputException("S3 object key cannot be null or empty");
+        }
+
+        return updateFile(key, headFileAsync(key), content, contentLength);
+    }
+
+    /**
+     * Replaces the content at an existing key, using an existence check the caller
+     * started earlier with {@link #headFileAsync}. The HEAD round trip then overlaps
+     * with the caller's own work, such as spooling and probing the upload, instead of
+     * delaying the PUT.
+     *
+     * @param key            the existing object key to update
+     * @param existingObject the pending result of {@link #headFileAsync} for the key
+     * @param content        the new content, opened once
+     * @param contentLength  the content length in bytes
+     * @return the same key if the update was successful
+     * @throws IOException if the content cannot be read
+     * @throws S3Exception if the file cannot be uploaded to S3
+     */
+    public String updateFile(String key, CompletableFuture<Optional<HeadObjectResponse>> existingObject,
+                             InputStreamSource content, long contentLength) throws IOException, S3Exception {
         try {
             // Check if file exists
+            Optional<HeadObjectResponse> existing;
             try {
-                s3Client.headObject(HeadObjectRequest.builder()
-                        .bucket(bucket)
-                        .key(key)
-                        .build());
+                existing = await(existingObject);
             } catch (S3Exception e) {
                 log.error("Cannot update file that doesn't exist in S3. Key: {} in bucket: {}", key,
                         bucket);
                 throw new IllegalArgumentException("File does not exist in S3", e);
             }
+            if (existing.isEmpty()) {
+                log.error("Cannot update file that doesn't exist in S3. Key: {} in bucket: {}", key,
+                        bucket);
+                throw new IllegalArgumentException("File does not exist in S3");
+            }
 
             PutObjectRequest request;
             if (key.startsWith("/document")) {
@@ -185,7 +374,10 @@ public class AwsS3Service {
             }
 
             log.debug("Updating existing S3 object at key: {} in bucket: {}", key, bucket);
-            s3Client.putObject(request, RequestBody.fromBytes(file.getBytes()));
+            try (InputStream inputStream = content.getInputStream()) {
+                s3MultipartUploader.upload(request, inputStream, contentLength);
+            }
+            presignedUrlCache.evict(key);
 
             return key;
         } catch (S3Exception e) {
@@ -201,6 +393,270 @@ public class AwsS3Service {
         }
     }
 
+    /**
+     * Uploads a local file to the given key, streaming it from disk.
+     *
+     * @param key         the object key
+     * @param file        the local file
+     * @param contentType the content type to store, or {@code null}
+     * @throws IOException if the file cannot be read
+     * @throws S3Exception if the file cannot be uploaded to S3
+     */
+    public void uploadFile(String key, Path file, String contentType) throws IOException, S3Exception {
+        uploadFile(key, new FileSystemResource(file), Files.size(file), contentType);
+    }
+
+    /**
+     * Uploads content to the given key, replacing any existing object.
+     *
+     * @param key           the object key
+     * @param content       the content, opened once
+     * @param contentLength the content length in bytes
+     * @param contentType   the content type to store, or {@code null}
+     * @throws IOException if the content cannot be read
+     * @throws S3Exception if the content cannot be uploaded to S3
+     */
+    public void uploadFile(String key, InputStreamSource content, long contentLength, String contentType)
+            throws IOException, S3Exception {
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .build();
+
+        try (InputStream inputStream = content.getInputStream()) {
+            s3MultipartUploader.upload(request, inputStream, contentLength);
+        }
+        presignedUrlCache.evict(key);
+        log.debug("Uploaded file to S3 with key: {}", key);
+    }
+
+    /**
+     * Uploads a local file to the given key without blocking the caller. Use
+     * {@link #awaitAll} to wait for a batch of uploads.
+     *
+     * @param key         the object key
+     * @param file        the local file, read when the request is sent
+     * @param contentType the content type to store, or {@code null}
+     * @return completes when S3 has stored the object
+     */
+    public CompletableFuture<Void> uploadFileAsync(String key, Path file, String contentType) {
+        return putObjectAsync(key, AsyncRequestBody.fromFile(file), contentType);
+    }
+
+    /**
+     * Uploads content held in memory to the given key without blocking the caller.
+     *
+     * @param key         the object key
+     * @param content     the content
+     * @param contentType the content type to store, or {@code null}
+     * @return completes when S3 has stored the object
+     */
+    public CompletableFuture<Void> uploadFileAsync(String key, byte[] content, String contentType) {
+        return putObjectAsync(key, AsyncRequestBody.fromBytes(content), contentType);
+    }
+
+    private CompletableFuture<Void> putObjectAsync(String key, AsyncRequestBody body, String contentType) {
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .build();
+
+        return s3AsyncClient.putObject(request, body)
+                .thenRun(() -> {
+                    presignedUrlCache.evict(key);
+                    log.debug("Uploaded file to S3 with key: {}", key);
+                });
+    }
+
+    /**
+     * Waits for operations started with the async methods. If one fails, the others
+     * are cancelled and its exception is rethrown unwrapped, as the blocking methods
+     * would have thrown it.
+     *
+     * @param operations the pending operations
+     * @throws S3Exception if an operation failed in S3
+     */
+    public void awaitAll(Collection<? extends CompletableFuture<?>> operations) throws S3Exception {
+        CompletableFuture<?>[] pending = operations.toArray(CompletableFuture[]::new);
+
+        // allOf only completes once every operation has, so fail fast on the first error
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        for (CompletableFuture<?> operation : pending) {
+            operation.whenComplete((result, e) -> {
+                if (e != null) {
+                    firstFailure.completeExceptionally(e);
+                }
+            });
+        }
+
+        try {
+            await(CompletableFuture.anyOf(CompletableFuture.allOf(pending), firstFailure));
+        } catch (RuntimeException e) {
+            for (CompletableFuture<?> operation : pending) {
+                operation.cancel(true);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Downloads an object to a local file, replacing the file if it exists.
+     *
+     * @param key    the object key
+     * @param target the local file to write
+     * @throws IOException if the file cannot be written
+     * @throws S3Exception if the object cannot be read from S3
+     */
+    public void downloadFile(String key, Path target) throws IOException, S3Exception {
+        Files.deleteIfExists(target);
+        await(s3AsyncClient.getObject(GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .build(), AsyncResponseTransformer.toFile(target)));
+        log.debug("Downloaded S3 object with key: {} to {}", key, target);
+    }
+
+    /**
+     * Lists the objects under a prefix in key order. Pages are fetched as the result
+     * is iterated, so a caller can walk a large prefix in bounded memory.
+     *
+     * @param prefix     the key prefix
+     * @param startAfter only keys after this one are listed, or {@code null} to list from the start
+     * @return the objects, in ascending key order
+     * @throws S3Exception if a page cannot be listed
+     */
+    public Iterable<S3Object> listFiles(String prefix, String startAfter) throws S3Exception {
+        Iterable<ListObjectsV2Response> pages = listPages(ListObjectsV2Request.builder()
+                .bucket(bucket)
+                .prefix(prefix)
+                .startAfter(startAfter)
+                .build());
+
+        return () -> StreamSupport.stream(pages.spliterator(), false)
+                .flatMap(page -> page.contents().stream())
+                .iterator();
+    }
+
+    /**
+     * Pages through a listing, requesting each page only when the previous one has
+     * been consumed.
+     */
+    private Iterable<ListObjectsV2Response> listPages(ListObjectsV2Request request) {
+        return () -> new Iterator<>() {
+            private ListObjectsV2Response last;
+
+            @Override
+            public boolean hasNext() {
+                return last == null || Boolean.TRUE.equals(last.isTruncated());
+            }
+
+            @Override
+            public ListObjectsV2Response next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                ListObjectsV2Request pageRequest = last == null
+                        ? request
+                        : request.toBuilder().continuationToken(last.nextContinuationToken()).build();
+                last = await(s3AsyncClient.listObjectsV2(pageRequest));
+                return last;
+            }
+        };
+    }
+
+    /**
+     * Deletes every object under the given prefix, e.g. all segments of an HLS rendition set.
+     *
+     * @param prefix the key prefix; must not be blank
+     * @return the number of deleted objects
+     * @throws S3Exception if the objects cannot be listed or deleted
+     */
+    public int deleteFilesByPrefix(String prefix) throws S3Exception {
+        if (!StringUtils.hasText(prefix) || !prefix.endsWith("/")) {
+            throw new InvalidInputException("S3 key prefix must be a non-empty folder prefix");
+        }
+
+        int deleted = 0;
+        List<CompletableFuture<Void>> deletions = new ArrayList<>();
+
+        // Each page is deleted while the next one is listed
+        for (ListObjectsV2Response page : listPages(ListObjectsV2Request.builder()
+                .bucket(bucket)
+                .prefix(prefix)
+                .build())) {
+            if (page.contents().isEmpty()) {
+                continue;
+            }
+
+            deletions.add(deleteFilesAsync(page.contents().stream().map(S3Object::key).toList()));
+            deleted += page.contents().size();
+        }
+        awaitAll(deletions);
+
+        log.info("Deleted {} objects from S3 under prefix: {}", deleted, prefix);
+        return deleted;
+    }
+
+    /**
+     * Deletes several objects with batched DeleteObjects requests. Missing keys are
+     * ignored, as with {@link #deleteFile}.
+     *
+     * @param keys the object keys
+     * @throws S3Exception if any object cannot be deleted from S3
+     */
+    public void deleteFiles(Collection<String> keys) throws S3Exception {
+        await(deleteFilesAsync(keys));
+    }
+
+    /**
+     * Deletes several objects without blocking the caller, sending the batches
+     * concurrently.
+     *
+     * @param keys the object keys
+     * @return completes when every batch has been deleted
+     */
+    public CompletableFuture<Void> deleteFilesAsync(Collection<String> keys) {
+        List<String> distinctKeys = keys.stream()
+                .filter(StringUtils::hasText)
+                .distinct()
+                .toList();
+
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (int from = 0; from < distinctKeys.size(); from += DELETE_BATCH_SIZE) {
+            List<String> batch = distinctKeys.subList(from, Math.min(from + DELETE_BATCH_SIZE, distinctKeys.size()));
+            List<ObjectIdentifier> objects = batch.stream()
+                    .map(key -> ObjectIdentifier.builder().key(key).build())
+                    .toList();
+
+            batches.add(s3AsyncClient.deleteObjects(DeleteObjectsRequest.builder()
+                            .bucket(bucket)
+                            .delete(Delete.builder().objects(objects).quiet(true).build())
+                            .build())
+                    .thenAccept(response -> {
+                        batch.forEach(presignedUrlCache::evict);
+
+                        // Quiet mode only reports the keys that failed
+                        if (response.hasErrors() && !response.errors().isEmpty()) {
+                            S3Error error = response.errors().getFirst();
+                            throw new CompletionException((S3Exception) S3Exception.builder()
+                                    .message("Failed to delete " + response.errors().size()
+                                            + " objects from S3, first key: " + error.key())
+                                    .awsErrorDetails(AwsErrorDetails.builder()
+                                            .errorCode(error.code())
+                                            .errorMessage(error.message())
+                                            .serviceName("S3")
+                                            .build())
+                                    .build());
+                        }
+                        log.debug("Deleted {} objects from S3", batch.size());
+                    }));
+        }
+        return CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new));
+    }
+
     /**
      * Deletes a file from S3.
      *
@@ -218,7 +674,8 @@ public class AwsS3Service {
                     .key(key)
                     .build();
 
-            s3Client.deleteObject(request);
+            await(s3AsyncClient.deleteObject(request));
+            presignedUrlCache.evict(key);
             log.info("Successfully deleted file from S3 with key: {}", key);
         } catch (S3Exception e) {
             log.error("Error deleting file from S3: {}", e.getMessage(), e);
@@ -229,32 +686,29 @@ public class AwsS3Service {
         }
     }
 
+    private <T> T await(CompletableFuture<T> operation) throws S3Exception {
+        try {
+            return operation.join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("S3 operation failed", cause);
+        }
+    }
+
+    private Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
     private String generatePresignedUrl(String key, FileType fileType) throws S3Exception {
         if (key == null || key.isEmpty()) {
             throw new InvalidInputException("S3 object key cannot be null or empty");
         }
 
         try {
-            // Determine expiry duration based on file type
-            Duration expiry = switch (fileType) {
-                case IMAGE -> IMAGE_EXPIRY;
-                case DOCUMENT -> DOCUMENT_EXPIRY;
-                case VIDEO -> DOCUMENT_EXPIRY; // Non-tutorial videos get document expiry
-            };
-
-            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
-                    .bucket(bucket)
-                    .key(key)
-                    .responseContentDisposition("inline")
-                    .build();
-
-            GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
-                    .signatureDuration(expiry)
-                    .getObjectRequest(getObjectRequest)
-                    .build();
-
-            URL presignedUrl = s3Presigner.presignGetObject(presignRequest).url();
-            return presignedUrl.toString();
+            return presignedUrlCache.get(key, fileType, () -> presignGetObject(key, fileType));
         } catch (S3Exception e) {
             log.error("S3 error generating pre-signed URL for key: {} from bucket: {}. Error code: {}",
                     key, bucket, e.awsErrorDetails().errorCode(), e);
@@ -265,6 +719,49 @@ public class AwsS3Service {
         }
     }
 
+    private PresignedGetObjectRequest presignGetObject(String key, FileType fileType) {
+        // Determine expiry duration based on file type
+        Duration expiry = switch (fileType) {
+            case IMAGE -> IMAGE_EXPIRY;
+            case DOCUMENT -> DOCUMENT_EXPIRY;
+            case VIDEO -> DOCUMENT_EXPIRY; // Non-tutorial videos get document expiry
+        };
+
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .responseContentDisposition("inline")
+                .build();
+
+        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
+                .signatureDuration(expiry)
+                .getObjectRequest(getObjectRequest)
+                .build();
+
+        return s3Presigner.presignGetObject(presignRequest);
+    }
+
+    /**
+     * Builds the key for content-addressed storage: the usual folder layout with the
+     * content hash as the file name, so identical uploads for the same entity share a key.
+     *
+     * @param storageOptions   options for storing the file
+     * @param originalFileName the client's file name, used for the key extension
+     * @param contentHash      the hex-encoded SHA-256 of the content
+     * @return the S3 object key
+     */
+    public String buildContentAddressedKey(S3StorageOptions storageOptions, String originalFileName,
+                                           String contentHash) {
+        String extension = StringUtils.getFilenameExtension(originalFileName);
+
+        return String.format("%s/%s/%s/%s%s",
+                storageOptions.fileType().name().toLowerCase(),
+                storageOptions.folderName(),
+                storageOptions.entityId(),
+                contentHash,
+                StringUtils.hasText(extension) ? "." + extension.toLowerCase() : "");
+    }
+
     private String generateRandomFileName(String originalFileName) {
         String fileExtension = StringUtils.hasText(originalFileName)
                 ? originalFileName.substring(originalFileName.lastIndexOf("."))
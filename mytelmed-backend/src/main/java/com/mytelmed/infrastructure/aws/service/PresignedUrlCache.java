@@ -0,0 +1,121 @@
+package com.mytelmed.infrastructure.aws.service;
+
+import com.mytelmed.common.constant.file.FileType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Reuses presigned GET URLs per object key and file type.
+ * <p>
+ * Listing pages map dozens of DTOs that each presign an image, and every presign
+ * derives a SigV4 signing key. A cached URL is handed out until {@code safety-margin}
+ * before it expires, so clients always receive a URL that is valid for at least
+ * that long. Entries are dropped when the object is replaced or deleted.
+ */
+@Slf4j
+@Component
+public class PresignedUrlCache {
+    private static final String METRIC_PREFIX = "mytelmed.s3.presign";
+
+    private final boolean enabled;
+    private final Duration safetyMargin;
+    private final int maxEntries;
+    private final Map<CacheKey, CachedUrl> cache = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer presignTimer;
+
+    public PresignedUrlCache(MeterRegistry meterRegistry,
+                             @Value("${aws.s3.presigned-url-cache.enabled:true}") boolean enabled,
+                             @Value("${aws.s3.presigned-url-cache.safety-margin-seconds:60}") long safetyMarginSeconds,
+                             @Value("${aws.s3.presigned-url-cache.max-entries:10000}") int maxEntries) {
+        this.enabled = enabled;
+        this.safetyMargin = Duration.ofSeconds(safetyMarginSeconds);
+        this.maxEntries = maxEntries;
+
+        this.hits = Counter.builder(METRIC_PREFIX + ".cache")
+                .description("Presigned URL lookups by cache result")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder(METRIC_PREFIX + ".cache")
+                .description("Presigned URL lookups by cache result")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.presignTimer = Timer.builder(METRIC_PREFIX + ".duration")
+                .description("Time to sign a presigned URL")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".cache.size", cache, Map::size)
+                .description("Presigned URLs currently cached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns a cached URL for the object, or presigns and caches a new one.
+     *
+     * @param key       the S3 object key
+     * @param fileType  the file type, which determines the URL lifetime
+     * @param presigner signs a new URL on a cache miss
+     * @return a URL valid for at least the safety margin
+     */
+    public String get(String key, FileType fileType, Supplier<PresignedGetObjectRequest> presigner) {
+        if (!enabled) {
+            return presignTimer.record(presigner).url().toString();
+        }
+
+        CacheKey cacheKey = new CacheKey(key, fileType);
+        Instant now = Instant.now();
+
+        CachedUrl cached = cache.get(cacheKey);
+        if (cached != null && now.isBefore(cached.refreshAt())) {
+            hits.increment();
+            return cached.url();
+        }
+
+        misses.increment();
+        PresignedGetObjectRequest presigned = presignTimer.record(presigner);
+        String url = presigned.url().toString();
+
+        // URLs that expire within the safety margin are still returned, but not reused
+        Instant refreshAt = presigned.expiration().minus(safetyMargin);
+        if (refreshAt.isAfter(now) && (cached != null || cache.size() < maxEntries)) {
+            cache.put(cacheKey, new CachedUrl(url, refreshAt));
+        }
+        return url;
+    }
+
+    /**
+     * Drops the cached URLs for an object whose content was replaced or deleted, so
+     * clients do not keep a browser-cached copy of the old content under the same URL.
+     */
+    public void evict(String key) {
+        for (FileType fileType : FileType.values()) {
+            cache.remove(new CacheKey(key, fileType));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${aws.s3.presigned-url-cache.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        Instant now = Instant.now();
+        int before = cache.size();
+        cache.values().removeIf(entry -> !now.isBefore(entry.refreshAt()));
+        log.trace("Evicted {} expired presigned URLs", before - cache.size());
+    }
+
+    private record CacheKey(String key, FileType fileType) {
+    }
+
+    private record CachedUrl(String url, Instant refreshAt) {
+    }
+}
@@ -0,0 +1,253 @@
+package com.mytelmed.infrastructure.aws.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.BlockingInputStreamAsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams uploads to S3 without holding the whole file in memory.
+ * <p>
+ * Small files are sent with a single PUT straight from the input stream. Larger
+ * files use a multipart upload: the stream is read into fixed-size parts and up to
+ * {@code max-parts-in-flight} parts are uploaded concurrently, so an upload holds at
+ * most {@code part-size * max-parts-in-flight} bytes in heap. A failed upload is
+ * aborted so S3 does not keep the orphaned parts.
+ * <p>
+ * Requests go through the non-blocking client. The calling thread only reads the
+ * stream and waits; parts in flight do not each hold a thread.
+ */
+@Slf4j
+@Component
+public class S3MultipartUploader {
+    private static final String METRIC_PREFIX = "mytelmed.s3.upload";
+
+    // S3 rejects multipart parts below 5 MiB, except the last one
+    private static final int MINIMUM_PART_SIZE = 5 * 1024 * 1024;
+
+    private final S3AsyncClient s3AsyncClient;
+    private final MeterRegistry meterRegistry;
+    private final long multipartThreshold;
+    private final int partSize;
+    private final int maxPartsInFlight;
+    private final Counter uploadedBytes;
+    private final Counter uploadedParts;
+    private final AtomicLong bytesInFlight = new AtomicLong();
+
+    public S3MultipartUploader(S3AsyncClient s3AsyncClient,
+                               MeterRegistry meterRegistry,
+                               @Value("${aws.s3.multipart.threshold-bytes:16777216}") long multipartThreshold,
+                               @Value("${aws.s3.multipart.part-size-bytes:8388608}") int partSize,
+                               @Value("${aws.s3.multipart.max-parts-in-flight:4}") int maxPartsInFlight) {
+        this.s3AsyncClient = s3AsyncClient;
+        this.meterRegistry = meterRegistry;
+        this.partSize = Math.max(partSize, MINIMUM_PART_SIZE);
+        this.multipartThreshold = Math.max(multipartThreshold, this.partSize);
+        this.maxPartsInFlight = Math.max(maxPartsInFlight, 1);
+
+        this.uploadedBytes = Counter.builder(METRIC_PREFIX + ".bytes")
+                .description("Bytes uploaded to S3")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.uploadedParts = Counter.builder(METRIC_PREFIX + ".parts")
+                .description("Multipart upload parts sent to S3")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".in.flight.bytes", bytesInFlight, AtomicLong::get)
+                .description("Bytes read from clients and not yet acknowledged by S3")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Uploads the stream to the bucket and key of the given request, copying its content type.
+     *
+     * @param request       the target object; only bucket, key and content type are used
+     * @param inputStream   the content, read once and not closed
+     * @param contentLength the content length in bytes
+     * @throws IOException if the stream cannot be read
+     */
+    public void upload(PutObjectRequest request, InputStream inputStream, long contentLength) throws IOException {
+        boolean multipart = contentLength > multipartThreshold;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+
+        try {
+            if (multipart) {
+                uploadMultipart(request, inputStream, contentLength);
+            } else {
+                putObject(request, inputStream, contentLength);
+                uploadedBytes.increment(contentLength);
+            }
+            outcome = "success";
+        } finally {
+            sample.stop(Timer.builder(METRIC_PREFIX + ".duration")
+                    .description("Time to upload an object to S3")
+                    .tag("mode", multipart ? "multipart" : "single")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private void putObject(PutObjectRequest request, InputStream inputStream, long contentLength) {
+        // The stream is written on the calling thread as the client sends it, without buffering it
+        BlockingInputStreamAsyncRequestBody body = AsyncRequestBody.forBlockingInputStream(contentLength);
+        CompletableFuture<PutObjectResponse> response = s3AsyncClient.putObject(request, body);
+
+        try {
+            body.writeInputStream(inputStream);
+        } catch (RuntimeException e) {
+            // A request that failed before reading the body explains the write failure better
+            if (response.isCompletedExceptionally()) {
+                join(response);
+            }
+            response.cancel(true);
+            throw e;
+        }
+        join(response);
+    }
+
+    private void uploadMultipart(PutObjectRequest request, InputStream inputStream, long contentLength)
+            throws IOException {
+        String uploadId = join(s3AsyncClient.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                        .bucket(request.bucket())
+                        .key(request.key())
+                        .contentType(request.contentType())
+                        .build()))
+                .uploadId();
+        log.debug("Started multipart upload {} for key: {} ({} bytes)", uploadId, request.key(), contentLength);
+
+        Semaphore permits = new Semaphore(maxPartsInFlight);
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+
+        try {
+            int partNumber = 1;
+            long bytesRead = 0;
+
+            while (true) {
+                // Wait for a free slot before reading, so at most maxPartsInFlight buffers exist at once
+                permits.acquire();
+                byte[] buffer = new byte[partSize];
+                int length = inputStream.readNBytes(buffer, 0, partSize);
+                if (length == 0) {
+                    permits.release();
+                    break;
+                }
+
+                bytesRead += length;
+                bytesInFlight.addAndGet(length);
+                parts.add(uploadPart(request, uploadId, partNumber++, buffer, length, permits));
+
+                // Fail fast instead of reading the rest of the stream after a part failed
+                if (parts.stream().anyMatch(CompletableFuture::isCompletedExceptionally)) {
+                    break;
+                }
+                log.trace("Multipart upload {} read {} of {} bytes", uploadId, bytesRead, contentLength);
+            }
+
+            List<CompletedPart> completedParts = CompletableFuture.allOf(parts.toArray(new CompletableFuture[0]))
+                    .thenApply(ignored -> parts.stream()
+                            .map(CompletableFuture::join)
+                            .sorted(Comparator.comparing(CompletedPart::partNumber))
+                            .toList())
+                    .join();
+
+            join(s3AsyncClient.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(request.bucket())
+                    .key(request.key())
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build()));
+            log.debug("Completed multipart upload {} for key: {} in {} parts",
+                    uploadId, request.key(), completedParts.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(request, uploadId, parts);
+            throw new IOException("Interrupted while uploading to S3", e);
+        } catch (CompletionException e) {
+            abort(request, uploadId, parts);
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        } catch (IOException | RuntimeException e) {
+            abort(request, uploadId, parts);
+            throw e;
+        }
+    }
+
+    private CompletableFuture<CompletedPart> uploadPart(PutObjectRequest request, String uploadId, int partNumber,
+                                                        byte[] buffer, int length, Semaphore permits) {
+        CompletableFuture<CompletedPart> part;
+        try {
+            // Each part has its own buffer, so the client can send it without copying
+            part = s3AsyncClient.uploadPart(UploadPartRequest.builder()
+                                    .bucket(request.bucket())
+                                    .key(request.key())
+                                    .uploadId(uploadId)
+                                    .partNumber(partNumber)
+                                    .contentLength((long) length)
+                                    .build(),
+                            AsyncRequestBody.fromByteBufferUnsafe(ByteBuffer.wrap(buffer, 0, length)))
+                    .thenApply(response -> {
+                        uploadedParts.increment();
+                        uploadedBytes.increment(length);
+                        return CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build();
+                    });
+        } catch (RuntimeException e) {
+            part = CompletableFuture.failedFuture(e);
+        }
+
+        return part.whenComplete((completed, e) -> {
+            bytesInFlight.addAndGet(-length);
+            permits.release();
+        });
+    }
+
+    private void abort(PutObjectRequest request, String uploadId, List<CompletableFuture<CompletedPart>> parts) {
+        // Let running parts finish first, otherwise they can recreate parts after the abort
+        parts.forEach(part -> part.exceptionally(e -> null).join());
+
+        try {
+            join(s3AsyncClient.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(request.bucket())
+                    .key(request.key())
+                    .uploadId(uploadId)
+                    .build()));
+            log.warn("Aborted multipart upload {} for key: {}", uploadId, request.key());
+        } catch (Exception e) {
+            log.error("Failed to abort multipart upload {} for key: {}", uploadId, request.key(), e);
+        }
+    }
+
+    /**
+     * Waits for a request and rethrows its failure unwrapped, as the blocking client would.
+     */
+    private static <T> T join(CompletableFuture<T> operation) {
+        try {
+            return operation.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        }
+    }
+}
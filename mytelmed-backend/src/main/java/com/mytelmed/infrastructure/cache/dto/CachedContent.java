@@ -0,0 +1,12 @@
+package com.mytelmed.infrastructure.cache.dto;
+
+import java.time.Instant;
+
+/**
+ * Content served from {@link com.mytelmed.infrastructure.cache.service.ContentCache}, with
+ * the time it last changed for the {@code Last-Modified} header.
+ */
+public record CachedContent<T>(
+        T value,
+        Instant lastModified) {
+}
@@ -0,0 +1,54 @@
+package com.mytelmed.infrastructure.cache.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Builds content responses that clients can revalidate with {@code If-None-Match} or
+ * {@code If-Modified-Since}; Spring MVC answers a matching GET with 304 and no body.
+ * <p>
+ * The strong ETag hashes the serialized body rather than the content version, because
+ * content responses embed presigned image URLs. A client revalidating after those were
+ * re-signed receives the new body instead of a 304 that keeps the expiring URLs.
+ */
+@Component
+public class ConditionalResponseFactory {
+    private final ObjectMapper objectMapper;
+
+    public ConditionalResponseFactory(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param body         the response body
+     * @param lastModified when the content last changed, or {@code null} if unknown
+     * @return a 200 response with {@code ETag}, {@code Last-Modified} and {@code Cache-Control: no-cache}
+     */
+    public <T> ResponseEntity<T> ok(T body, Instant lastModified) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(strongETag(body))
+                .cacheControl(CacheControl.noCache());
+        if (lastModified != null) {
+            builder.lastModified(lastModified);
+        }
+        return builder.body(body);
+    }
+
+    private String strongETag(Object body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(body));
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize response body for its ETag", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
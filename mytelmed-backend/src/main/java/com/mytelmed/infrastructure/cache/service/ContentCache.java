@@ -0,0 +1,152 @@
+package com.mytelmed.infrastructure.cache.service;
+
+import com.mytelmed.infrastructure.cache.dto.CachedContent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for public content that is read far more often than it is written.
+ * <p>
+ * Each region carries a version that every write bumps. Entries remember the version
+ * they were loaded under and are ignored once it changes, so a load that raced with a
+ * write can never be served after it. Writes inside a transaction bump the version
+ * after commit, when readers can see the new rows. Entries also expire after
+ * {@code ttl}, which bounds staleness when another instance made the write.
+ */
+@Slf4j
+@Component
+public class ContentCache {
+    private static final String METRIC_PREFIX = "mytelmed.content.cache";
+
+    public enum Region {
+        ARTICLE,
+        TUTORIAL
+    }
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Map<Region, RegionState> regions = new EnumMap<>(Region.class);
+
+    public ContentCache(MeterRegistry meterRegistry,
+                        @Value("${application.content-cache.enabled:true}") boolean enabled,
+                        @Value("${application.content-cache.ttl-seconds:300}") long ttlSeconds,
+                        @Value("${application.content-cache.max-entries:1000}") int maxEntries) {
+        this.enabled = enabled;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.maxEntries = maxEntries;
+
+        for (Region region : Region.values()) {
+            String tag = region.name().toLowerCase();
+            regions.put(region, new RegionState(
+                    Counter.builder(METRIC_PREFIX)
+                            .description("Content cache lookups by result")
+                            .tag("region", tag)
+                            .tag("result", "hit")
+                            .register(meterRegistry),
+                    Counter.builder(METRIC_PREFIX)
+                            .description("Content cache lookups by result")
+                            .tag("region", tag)
+                            .tag("result", "miss")
+                            .register(meterRegistry)));
+        }
+    }
+
+    /**
+     * Returns the cached content for the key, or loads and caches it.
+     *
+     * @param region       the region the content belongs to
+     * @param key          identifies the query within the region
+     * @param loader       reads the content from its store on a miss
+     * @param lastModified the latest modification time within the loaded content, or {@code null}
+     * @return the content and when it last changed, to the second
+     */
+    public <T> CachedContent<T> get(Region region, String key, Supplier<T> loader,
+                                    Function<T, Instant> lastModified) {
+        RegionState state = regions.get(region);
+        long version = state.version.get();
+        Instant now = Instant.now();
+
+        if (enabled) {
+            Entry entry = state.entries.get(key);
+            if (entry != null && entry.version() == version && now.isBefore(entry.expiresAt())) {
+                state.hits.increment();
+                @SuppressWarnings("unchecked")
+                CachedContent<T> content = (CachedContent<T>) entry.content();
+                return content;
+            }
+        }
+
+        state.misses.increment();
+        T value = loader.get();
+
+        // Deletes leave no item behind to carry a newer timestamp, so the region's last write counts too
+        Instant modified = state.changedAt;
+        Instant itemsModified = lastModified.apply(value);
+        if (itemsModified != null && itemsModified.isAfter(modified)) {
+            modified = itemsModified;
+        }
+        CachedContent<T> content = new CachedContent<>(value, modified.truncatedTo(ChronoUnit.SECONDS));
+
+        if (enabled && (state.entries.containsKey(key) || state.entries.size() < maxEntries)) {
+            state.entries.put(key, new Entry(content, version, now.plus(ttl)));
+        }
+        return content;
+    }
+
+    /**
+     * Drops every cached entry of the region. Called inside a transaction, the entries
+     * are dropped once it commits.
+     */
+    public void invalidate(Region region) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(region);
+                }
+            });
+            return;
+        }
+        bump(region);
+    }
+
+    private void bump(Region region) {
+        RegionState state = regions.get(region);
+        state.changedAt = Instant.now();
+        state.version.incrementAndGet();
+        state.entries.clear();
+        log.debug("Invalidated {} content cache", region);
+    }
+
+    private record Entry(CachedContent<?> content, long version, Instant expiresAt) {
+    }
+
+    private static final class RegionState {
+        private final AtomicLong version = new AtomicLong();
+        private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+        private final Counter hits;
+        private final Counter misses;
+        // Startup counts as a change, since writes before it are unknown
+        private volatile Instant changedAt = Instant.now();
+
+        private RegionState(Counter hits, Counter misses) {
+            this.hits = hits;
+            this.misses = misses;
+        }
+    }
+}
@@ -7,5 +7,6 @@ public enum EmailFamily {
     FAMILY,
     PAYMENT,
     REFERRAL,
-    DELIVERY
+    DELIVERY,
+    DIGEST
 }
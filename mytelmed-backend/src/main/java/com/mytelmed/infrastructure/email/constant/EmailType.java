@@ -52,7 +52,10 @@ public enum EmailType {
     DELIVERY_READY_FOR_PICKUP(EmailFamily.DELIVERY),
     DELIVERY_CANCELLED(EmailFamily.DELIVERY),
     DELIVERY_COMPLETED(EmailFamily.DELIVERY),
-    DELIVERY_OUT(EmailFamily.DELIVERY);
+    DELIVERY_OUT(EmailFamily.DELIVERY),
+
+    // Several coalesced notifications for one recipient
+    NOTIFICATION_DIGEST(EmailFamily.DIGEST);
 
     private final EmailFamily family;
 
@@ -0,0 +1,43 @@
+package com.mytelmed.infrastructure.email.factory.digest;
+
+import com.mytelmed.infrastructure.email.constant.EmailFamily;
+import com.mytelmed.infrastructure.email.constant.EmailType;
+import com.mytelmed.infrastructure.email.factory.AbstractEmailSenderFactory;
+import com.mytelmed.infrastructure.email.strategy.EmailSenderStrategy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Email sender factory for digest emails that combine several coalesced
+ * notifications for one recipient.
+ */
+@Slf4j
+@Component
+public class DigestEmailSenderFactory implements AbstractEmailSenderFactory {
+    private final Map<EmailType, EmailSenderStrategy> digestEmailStrategyMap;
+
+    public DigestEmailSenderFactory(List<EmailSenderStrategy> strategies) {
+        this.digestEmailStrategyMap = strategies.stream()
+                .filter(strategy -> strategy.getEmailType().getFamily() == EmailFamily.DIGEST)
+                .collect(Collectors.toMap(EmailSenderStrategy::getEmailType, Function.identity()));
+
+        log.info("Initialized DigestEmailSenderFactory with {} digest email strategies",
+                digestEmailStrategyMap.size());
+    }
+
+    @Override
+    public boolean supports(EmailFamily family) {
+        return family == EmailFamily.DIGEST;
+    }
+
+    @Override
+    public EmailSenderStrategy getEmailSender(EmailType type) {
+        return Optional.ofNullable(digestEmailStrategyMap.get(type))
+                .orElseThrow(() -> new IllegalArgumentException("No email sender for digest type: " + type));
+    }
+}
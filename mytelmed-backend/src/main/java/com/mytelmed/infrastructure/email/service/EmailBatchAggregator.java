@@ -0,0 +1,106 @@
+package com.mytelmed.infrastructure.email.service;
+
+import com.mytelmed.infrastructure.email.constant.EmailType;
+import lombok.extern.slf4j.Slf4j;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Collects emails with identical rendered content (same type, sender, subject and
+ * body) for a short window so they can be sent as one Mailgun batch message.
+ * Per-recipient values travel with each recipient and are substituted by Mailgun
+ * into the {@code %recipient.<name>%} placeholders of the shared body.
+ * <p>
+ * A batch is flushed when its window elapses or when it reaches the Mailgun
+ * recipient limit, whichever comes first.
+ */
+@Slf4j
+class EmailBatchAggregator {
+    private final ScheduledExecutorService scheduler;
+    private final long windowMs;
+    private final int maxRecipients;
+    private final Consumer<EmailBatch> flusher;
+    private final Map<BatchKey, EmailBatch> openBatches = new HashMap<>();
+
+    EmailBatchAggregator(ScheduledExecutorService scheduler, long windowMs, int maxRecipients,
+                         Consumer<EmailBatch> flusher) {
+        this.scheduler = scheduler;
+        this.windowMs = windowMs;
+        this.maxRecipients = maxRecipients;
+        this.flusher = flusher;
+    }
+
+    CompletableFuture<Void> add(EmailType type, String from, String subject, String html, String to,
+                                Map<String, String> recipientValues) {
+        BatchKey key = new BatchKey(type, from, subject, html);
+        List<EmailBatch> ready = new ArrayList<>(2);
+        CompletableFuture<Void> result;
+
+        synchronized (openBatches) {
+            EmailBatch batch = openBatches.get(key);
+            Map<String, String> existing = batch == null ? null : batch.recipients().get(to);
+            if (existing != null && !existing.equals(recipientValues)) {
+                // Mailgun holds one set of values per address, so the same recipient with
+                // different values has to go out in the next message
+                openBatches.remove(key);
+                ready.add(batch);
+                batch = null;
+            }
+
+            if (batch == null) {
+                batch = new EmailBatch(key, new LinkedHashMap<>(), new CompletableFuture<>());
+                openBatches.put(key, batch);
+                scheduleFlush(key, batch);
+            }
+
+            batch.recipients().put(to, recipientValues);
+            result = batch.result();
+
+            if (batch.recipients().size() >= maxRecipients) {
+                openBatches.remove(key);
+                ready.add(batch);
+            }
+        }
+
+        ready.forEach(flusher);
+
+        return result;
+    }
+
+    /**
+     * Flushes every open batch immediately, e.g. on shutdown.
+     */
+    void flushAll() {
+        List<EmailBatch> batches;
+        synchronized (openBatches) {
+            batches = new ArrayList<>(openBatches.values());
+            openBatches.clear();
+        }
+        batches.forEach(flusher);
+    }
+
+    private void scheduleFlush(BatchKey key, EmailBatch batch) {
+        scheduler.schedule(() -> {
+            boolean removed;
+            synchronized (openBatches) {
+                removed = openBatches.remove(key, batch);
+            }
+            if (removed) {
+                flusher.accept(batch);
+            }
+        }, windowMs, TimeUnit.MILLISECONDS);
+    }
+
+    record BatchKey(EmailType type, String from, String subject, String html) {
+    }
+
+    record EmailBatch(BatchKey key, Map<String, Map<String, String>> recipients, CompletableFuture<Void> result) {
+    }
+}
@@ -0,0 +1,454 @@
+package com.mytelmed.infrastructure.email.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mailgun.api.v3.MailgunMessagesApi;
+import com.mailgun.model.message.Message;
+import com.mytelmed.common.advice.exception.EmailSendingException;
+import com.mytelmed.infrastructure.email.constant.EmailType;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous Mailgun dispatch pipeline.
+ * <p>
+ * Rendered messages are placed on a bounded in-memory queue and drained by a
+ * single dispatcher thread that keeps at most {@code max-in-flight} Mailgun
+ * requests outstanding. Completion is handled on the Mailgun client's callback,
+ * so no executor thread is held for the HTTP round-trip. Failed sends are
+ * retried with jittered exponential backoff on a scheduler instead of sleeping
+ * on the calling thread. On shutdown new emails are rejected and whatever is
+ * already queued gets a bounded grace period to reach Mailgun before the
+ * remainder is failed.
+ * <p>
+ * Emails with identical rendered content are held for a short batching window
+ * and sent as a single Mailgun batch message (one API call for up to 1000
+ * recipients). Each recipient gets an entry in {@code recipient-variables}, so
+ * Mailgun still delivers an individual copy to every address and fills in that
+ * recipient's values for the {@code %recipient.<name>%} placeholders in the body.
+ */
+@Slf4j
+@Service
+public class EmailDispatchService {
+    private static final String METRIC_PREFIX = "mytelmed.email.dispatch";
+    private static final int MAILGUN_MAX_BATCH_RECIPIENTS = 1000;
+    private static final long QUEUE_FULL_RECHECK_MS = 50;
+    private static final long SHUTDOWN_POLL_MS = 50;
+
+    private final MailgunMessagesApi mailgunApi;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final String mailGunDomain;
+    private final BlockingQueue<PendingEmail> queue;
+    private final Semaphore inFlightPermits;
+    private final int maxInFlight;
+    private final long enqueueTimeoutMs;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final long shutdownGraceMs;
+    private final boolean batchingEnabled;
+    private final ScheduledExecutorService scheduler;
+    private final EmailBatchAggregator batchAggregator;
+    private final Thread dispatcherThread;
+    private volatile boolean running;
+    private volatile boolean accepting;
+
+    public EmailDispatchService(
+            MailgunMessagesApi mailgunApi,
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper,
+            @Value("${mailgun.api.domain}") String mailGunDomain,
+            @Value("${mailgun.dispatch.queue-capacity:2000}") int queueCapacity,
+            @Value("${mailgun.dispatch.max-in-flight:8}") int maxInFlight,
+            @Value("${mailgun.dispatch.enqueue-timeout-ms:2000}") long enqueueTimeoutMs,
+            @Value("${mailgun.dispatch.max-attempts:3}") int maxAttempts,
+            @Value("${mailgun.dispatch.initial-backoff-ms:1000}") long initialBackoffMs,
+            @Value("${mailgun.dispatch.max-backoff-ms:30000}") long maxBackoffMs,
+            @Value("${mailgun.dispatch.shutdown-grace-ms:10000}") long shutdownGraceMs,
+            @Value("${mailgun.batch.enabled:true}") boolean batchingEnabled,
+            @Value("${mailgun.batch.window-ms:250}") long batchWindowMs,
+            @Value("${mailgun.batch.max-recipients:1000}") int batchMaxRecipients) {
+        this.mailgunApi = mailgunApi;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.mailGunDomain = mailGunDomain;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.inFlightPermits = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.enqueueTimeoutMs = enqueueTimeoutMs;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.shutdownGraceMs = shutdownGraceMs;
+        this.batchingEnabled = batchingEnabled;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "EmailDispatchScheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batchAggregator = new EmailBatchAggregator(scheduler, batchWindowMs,
+                Math.min(batchMaxRecipients, MAILGUN_MAX_BATCH_RECIPIENTS), this::dispatchBatch);
+        this.dispatcherThread = new Thread(this::dispatchLoop, "EmailDispatcher");
+        this.dispatcherThread.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        Gauge.builder(METRIC_PREFIX + ".queue.size", queue, BlockingQueue::size)
+                .description("Emails waiting to be handed to Mailgun")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".in.flight", inFlightPermits,
+                        permits -> maxInFlight - permits.availablePermits())
+                .description("Mailgun requests currently outstanding")
+                .register(meterRegistry);
+
+        running = true;
+        accepting = true;
+        dispatcherThread.start();
+
+        log.info("Email dispatcher started (queue capacity: {}, max in-flight: {}, max attempts: {})",
+                queue.remainingCapacity(), maxInFlight, maxAttempts);
+    }
+
+    /**
+     * Stops accepting emails, sends the open batches and the queue for at most
+     * {@code shutdown-grace-ms}, then fails whatever is still pending. Failures during
+     * the grace period are not retried.
+     */
+    @PreDestroy
+    public void stop() {
+        accepting = false;
+        batchAggregator.flushAll();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownGraceMs);
+        try {
+            while ((!queue.isEmpty() || inFlightPermits.availablePermits() < maxInFlight)
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(SHUTDOWN_POLL_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        running = false;
+        dispatcherThread.interrupt();
+
+        // Run the pending offers and retries now, so every email they carry ends up in the
+        // queue or failed rather than dropped with the scheduler
+        scheduler.shutdownNow().forEach(Runnable::run);
+
+        List<PendingEmail> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(email -> email.result().completeExceptionally(
+                new EmailSendingException("Email dispatcher shut down before sending " + email.type() + " email")));
+
+        log.info("Email dispatcher stopped, {} queued emails were not sent", remaining.size());
+    }
+
+    /**
+     * Sends a rendered email, batching it with other recipients of identical
+     * content when batching is enabled.
+     *
+     * @param recipientValues values for the {@code %recipient.<name>%} placeholders in
+     *                        {@code html}, already HTML-escaped
+     * @return a future completed once Mailgun accepts the message that carries
+     * this recipient
+     */
+    public CompletableFuture<Void> dispatch(EmailType type, String from, String to, String subject, String html,
+                                            Map<String, String> recipientValues) {
+        rejectIfStopping(type);
+
+        if (batchingEnabled) {
+            return batchAggregator.add(type, from, subject, html, to, recipientValues);
+        }
+
+        Message.MessageBuilder builder = Message.builder()
+                .from(from)
+                .to(to)
+                .subject(subject)
+                .html(html);
+
+        if (!recipientValues.isEmpty()) {
+            try {
+                builder.recipientVariables(objectMapper.writeValueAsString(Map.of(to, recipientValues)));
+            } catch (JsonProcessingException e) {
+                throw new EmailSendingException("Failed to serialize recipient variables for " + type + " email", e);
+            }
+        }
+
+        return dispatch(type, to, builder.build());
+    }
+
+    /**
+     * Queues a rendered message for delivery. Blocks the caller for at most
+     * {@code enqueue-timeout-ms} when the queue is full, then rejects the email.
+     *
+     * @return a future completed once Mailgun accepts the message, or
+     * completed exceptionally after the final failed attempt
+     */
+    public CompletableFuture<Void> dispatch(EmailType type, String to, Message message) {
+        rejectIfStopping(type);
+
+        PendingEmail email = new PendingEmail(type, to, message, new CompletableFuture<>(), 1, System.nanoTime());
+
+        try {
+            if (!queue.offer(email, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                recordFailure(type, "queue_full");
+                throw new EmailSendingException("Email dispatch queue is full, rejected " + type + " email");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EmailSendingException("Interrupted while queueing " + type + " email", e);
+        }
+
+        return email.result();
+    }
+
+    private void rejectIfStopping(EmailType type) {
+        if (!accepting) {
+            recordFailure(type, "shutting_down");
+            throw new EmailSendingException("Email dispatcher is shutting down, rejected " + type + " email");
+        }
+    }
+
+    private void dispatchBatch(EmailBatchAggregator.EmailBatch batch) {
+        EmailBatchAggregator.BatchKey key = batch.key();
+        List<String> recipients = new ArrayList<>(batch.recipients().keySet());
+
+        try {
+            // An entry per recipient makes Mailgun send individual copies instead of one shared To: list
+            Message message = Message.builder()
+                    .from(key.from())
+                    .to(recipients)
+                    .subject(key.subject())
+                    .html(key.html())
+                    .recipientVariables(objectMapper.writeValueAsString(batch.recipients()))
+                    .build();
+
+            DistributionSummary.builder(METRIC_PREFIX + ".batch.recipients")
+                    .description("Recipients per Mailgun API call")
+                    .tag("template", key.type().name())
+                    .register(meterRegistry)
+                    .record(recipients.size());
+
+            String label = recipients.size() == 1 ? recipients.get(0) : recipients.size() + " recipients";
+            PendingEmail email = new PendingEmail(key.type(), label, message, new CompletableFuture<>(), 1,
+                    System.nanoTime());
+            email.result().whenComplete((ignored, throwable) -> {
+                if (throwable == null) {
+                    batch.result().complete(null);
+                } else {
+                    batch.result().completeExceptionally(throwable);
+                }
+            });
+            offerWithoutBlocking(email, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(enqueueTimeoutMs));
+        } catch (JsonProcessingException | RuntimeException e) {
+            batch.result().completeExceptionally(
+                    new EmailSendingException("Failed to dispatch " + key.type() + " email batch", e));
+        }
+    }
+
+    /**
+     * Queues an email without blocking. Batches are flushed on the scheduler thread that
+     * also runs batch windows and retries, so while the queue is full the offer is
+     * rescheduled instead of waiting, until {@code enqueue-timeout-ms} has passed.
+     */
+    private void offerWithoutBlocking(PendingEmail email, long deadlineNanos) {
+        if (queue.offer(email)) {
+            return;
+        }
+
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        if (remainingMs <= 0 || !running) {
+            recordFailure(email.type(), "queue_full");
+            email.result().completeExceptionally(
+                    new EmailSendingException("Email dispatch queue is full, rejected " + email.type() + " email"));
+            return;
+        }
+
+        try {
+            scheduler.schedule(() -> offerWithoutBlocking(email, deadlineNanos),
+                    Math.min(remainingMs, QUEUE_FULL_RECHECK_MS), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            email.result().completeExceptionally(new EmailSendingException(
+                    "Email dispatcher shut down before sending " + email.type() + " email", e));
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                // Take the permit first, so an interrupt on shutdown never drops an email already taken
+                inFlightPermits.acquire();
+                PendingEmail email;
+                try {
+                    email = queue.take();
+                } catch (InterruptedException e) {
+                    inFlightPermits.release();
+                    throw e;
+                }
+                send(email);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Unexpected error in email dispatcher loop", e);
+            }
+        }
+    }
+
+    private void send(PendingEmail email) {
+        long startedAt = System.nanoTime();
+        CompletableFuture<Response> responseFuture;
+
+        try {
+            responseFuture = mailgunApi.sendMessageFeignResponseAsync(mailGunDomain, email.message());
+        } catch (Exception e) {
+            inFlightPermits.release();
+            handleFailure(email, e, true);
+            return;
+        }
+
+        responseFuture.whenComplete((response, throwable) -> {
+            inFlightPermits.release();
+            recordLatency(email.type(), System.nanoTime() - startedAt);
+
+            if (throwable != null) {
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                        ? throwable.getCause() : throwable;
+                handleFailure(email, cause, true);
+                return;
+            }
+
+            try (response) {
+                int status = response.status();
+                if (status >= 200 && status < 300) {
+                    meterRegistry.timer(METRIC_PREFIX + ".end.to.end", "template", email.type().name())
+                            .record(System.nanoTime() - email.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+                    email.result().complete(null);
+                    log.debug("Mailgun accepted {} email to: {}", email.type(), email.to());
+                } else {
+                    handleFailure(email,
+                            new EmailSendingException("Mailgun API returned error status: " + status),
+                            isRetryableStatus(status));
+                }
+            }
+        });
+    }
+
+    private void handleFailure(PendingEmail email, Throwable cause, boolean retryable) {
+        if (retryable && email.attempt() < maxAttempts && accepting) {
+            long delay = computeBackoff(email.attempt());
+            Counter.builder(METRIC_PREFIX + ".retries")
+                    .tag("template", email.type().name())
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Failed to send {} email to: {} (attempt {}/{}), retrying in {} ms: {}",
+                    email.type(), email.to(), email.attempt(), maxAttempts, delay, cause.getMessage());
+            scheduleRetry(email.nextAttempt(), delay);
+            return;
+        }
+
+        recordFailure(email.type(), retryable ? "retries_exhausted" : "rejected");
+        log.error("Failed to send {} email to: {} after {} attempt(s)",
+                email.type(), email.to(), email.attempt(), cause);
+        email.result().completeExceptionally(
+                new EmailSendingException("Failed to send " + email.type() + " email", cause));
+    }
+
+    /**
+     * Re-queues a failed email after a delay. A retry that finds the queue full uses up
+     * its attempt, so a saturated queue cannot keep an email rescheduling forever.
+     */
+    private void scheduleRetry(PendingEmail email, long delayMs) {
+        try {
+            scheduler.schedule(() -> {
+                if (queue.offer(email)) {
+                    return;
+                }
+
+                if (email.attempt() >= maxAttempts || !accepting) {
+                    recordFailure(email.type(), "queue_full");
+                    log.error("Failed to requeue {} email to: {} after {} attempt(s), dispatch queue is full",
+                            email.type(), email.to(), email.attempt());
+                    email.result().completeExceptionally(new EmailSendingException(
+                            "Email dispatch queue is full, gave up retrying " + email.type() + " email"));
+                    return;
+                }
+
+                // Back off again rather than blocking the scheduler thread
+                scheduleRetry(email.nextAttempt(), computeBackoff(email.attempt()));
+            }, delayMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            email.result().completeExceptionally(
+                    new EmailSendingException("Unable to schedule retry for " + email.type() + " email", e));
+        }
+    }
+
+    /**
+     * Exponential backoff with "equal jitter": half of the capped delay is fixed and
+     * the other half is randomized, so retries from a burst do not realign.
+     */
+    private long computeBackoff(int attempt) {
+        long exponential = initialBackoffMs * (1L << Math.min(attempt - 1, 20));
+        long capped = Math.min(maxBackoffMs, exponential);
+        long half = capped / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    private boolean isRetryableStatus(int status) {
+        return status == 429 || status >= 500;
+    }
+
+    private void recordLatency(EmailType type, long nanos) {
+        Timer.builder(METRIC_PREFIX + ".latency")
+                .description("Mailgun send round-trip latency")
+                .tag("template", type.name())
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordFailure(EmailType type, String reason) {
+        Counter.builder(METRIC_PREFIX + ".failures")
+                .tag("template", type.name())
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private record PendingEmail(
+            EmailType type,
+            String to,
+            Message message,
+            CompletableFuture<Void> result,
+            int attempt,
+            long enqueuedAtNanos) {
+
+        PendingEmail nextAttempt() {
+            return new PendingEmail(type, to, message, result, attempt + 1, enqueuedAtNanos);
+        }
+    }
+}
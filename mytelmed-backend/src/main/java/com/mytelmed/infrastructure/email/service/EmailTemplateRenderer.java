@@ -0,0 +1,123 @@
+package com.mytelmed.infrastructure.email.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.AbstractConfigurableTemplateResolver;
+import org.thymeleaf.templateresolver.ITemplateResolver;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders email templates through the shared Thymeleaf engine.
+ * <p>
+ * On startup it verifies that template caching is enabled and pre-parses every
+ * email template, so the first reminder burst does not pay for parsing. Once a
+ * template is cached, its static markup (head, inline styles, header/footer) is
+ * held as pre-built text and only the expressions are evaluated per render.
+ */
+@Slf4j
+@Service
+public class EmailTemplateRenderer {
+    private static final String TEMPLATE_LOCATION = "classpath:templates/";
+    private static final String TEMPLATE_SUFFIX = ".html";
+    private static final String METRIC_PREFIX = "mytelmed.email.render";
+
+    private final SpringTemplateEngine templateEngine;
+    private final MeterRegistry meterRegistry;
+    private final ResourcePatternResolver resourceResolver = new PathMatchingResourcePatternResolver();
+
+    public EmailTemplateRenderer(SpringTemplateEngine templateEngine, MeterRegistry meterRegistry) {
+        this.templateEngine = templateEngine;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public String render(String templatePath, Map<String, Object> variables) {
+        Context context = new Context();
+        context.setVariables(variables);
+
+        long startedAt = System.nanoTime();
+        String content = templateEngine.process(templatePath, context);
+
+        Timer.builder(METRIC_PREFIX + ".time")
+                .description("Email template render time")
+                .tag("template", templatePath)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(METRIC_PREFIX + ".size")
+                .description("Rendered email size")
+                .baseUnit("bytes")
+                .tag("template", templatePath)
+                .register(meterRegistry)
+                .record(content.length());
+
+        return content;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpTemplates() {
+        if (!isTemplateCacheEnabled()) {
+            log.warn("Thymeleaf template cache is disabled; every email will re-parse its template. " +
+                    "Set spring.thymeleaf.cache=true outside of local development.");
+            return;
+        }
+
+        List<String> templates = findEmailTemplates();
+        long startedAt = System.nanoTime();
+        int parsed = 0;
+
+        for (String template : templates) {
+            try {
+                // The template model is cached as soon as it is parsed, before expressions are evaluated
+                templateEngine.process(template, new Context(), Writer.nullWriter());
+                parsed++;
+            } catch (Exception e) {
+                // Expected for templates that dereference required variables; the parse result is still cached
+                parsed++;
+                log.trace("Warm-up render of template {} failed after parsing: {}", template, e.getMessage());
+            }
+        }
+
+        log.info("Pre-parsed {} email templates in {} ms", parsed,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    private boolean isTemplateCacheEnabled() {
+        boolean cacheable = false;
+        for (ITemplateResolver resolver : templateEngine.getTemplateResolvers()) {
+            if (resolver instanceof AbstractConfigurableTemplateResolver configurable) {
+                cacheable |= configurable.isCacheable();
+            }
+        }
+        return cacheable;
+    }
+
+    private List<String> findEmailTemplates() {
+        List<String> templates = new ArrayList<>();
+
+        try {
+            for (Resource resource : resourceResolver.getResources(TEMPLATE_LOCATION + "**/*" + TEMPLATE_SUFFIX)) {
+                String url = resource.getURL().toString();
+                int start = url.lastIndexOf("/templates/") + "/templates/".length();
+                templates.add(url.substring(start, url.length() - TEMPLATE_SUFFIX.length()));
+            }
+        } catch (IOException e) {
+            log.warn("Unable to list email templates for warm-up", e);
+        }
+
+        return templates;
+    }
+}
@@ -1,58 +1,57 @@
 package com.mytelmed.infrastructure.email.strategy;
 
-import com.mailgun.api.v3.MailgunMessagesApi;
-import com.mailgun.model.message.Message;
 import com.mytelmed.common.advice.exception.EmailSendingException;
-import feign.Response;
+import com.mytelmed.infrastructure.email.service.EmailDispatchService;
+import com.mytelmed.infrastructure.email.service.EmailTemplateRenderer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.util.StringUtils;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.springframework.web.util.HtmlUtils;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CompletionException;
 
 
 @Slf4j
 public abstract class BaseEmailSenderStrategy implements EmailSenderStrategy {
-    protected final MailgunMessagesApi mailgunApi;
-    protected final SpringTemplateEngine templateEngine;
+    protected final EmailDispatchService emailDispatchService;
+    protected final EmailTemplateRenderer templateRenderer;
     protected final String mailGunDomain;
 
     protected BaseEmailSenderStrategy(
-            MailgunMessagesApi mailgunApi,
-            SpringTemplateEngine templateEngine,
+            EmailDispatchService emailDispatchService,
+            EmailTemplateRenderer templateRenderer,
             @Value("${mailgun.api.domain}") String mailGunDomain) {
-        this.mailgunApi = mailgunApi;
-        this.templateEngine = templateEngine;
+        this.emailDispatchService = emailDispatchService;
+        this.templateRenderer = templateRenderer;
         this.mailGunDomain = mailGunDomain;
     }
 
     @Override
-    @Retryable(retryFor = {EmailSendingException.class, CompletionException.class},
-            backoff = @Backoff(delay = 1000, multiplier = 2))
-    public void sendEmail(String to, Map<String, Object> variables) {
+    public CompletableFuture<Void> sendEmail(String to, Map<String, Object> variables) {
         try {
             validateInput(to, variables);
 
-            log.info("Sending {} email to: {}", getEmailType(), to);
+            log.info("Queueing {} email to: {}", getEmailType(), to);
 
-            String content = processTemplate(variables);
-            Message message = buildMessage(to, variables, content);
-
-            sendEmailAsync(message, to);
-
-            log.info("Successfully sent {} email to: {}", getEmailType(), to);
+            Set<String> recipientVariables = getRecipientVariables();
+            String content = processTemplate(withRecipientPlaceholders(variables, recipientVariables));
+            String subject = buildSubject(variables);
 
+            return sendEmailAsync(to, subject, content, recipientValues(variables, recipientVariables));
         } catch (Exception e) {
             log.error("Failed to send {} email to: {}", getEmailType(), to, e);
             throw new EmailSendingException("Failed to send " + getEmailType() + " email", e);
         }
     }
 
+    @Override
+    public String getSubject(Map<String, Object> variables) {
+        return buildSubject(variables);
+    }
+
     protected void validateInput(String to, Map<String, Object> variables) {
         if (!StringUtils.hasText(to)) {
             throw new IllegalArgumentException("Email recipient cannot be null or empty");
@@ -70,30 +69,49 @@ public abstract class BaseEmailSenderStrategy implements EmailSenderStrategy {
     }
 
     protected String processTemplate(Map<String, Object> variables) {
-        Context context = new Context();
-        context.setVariables(variables);
-        return templateEngine.process(getTemplatePath(), context);
+        return templateRenderer.render(getTemplatePath(), variables);
     }
 
-    protected Message buildMessage(String to, Map<String, Object> variables, String content) {
-        return Message.builder()
-                .from(getFromAddress())
-                .to(to)
-                .subject(buildSubject(variables))
-                .html(content)
-                .build();
+    protected CompletableFuture<Void> sendEmailAsync(String to, String subject, String content,
+                                                     Map<String, String> recipientValues) {
+        return emailDispatchService.dispatch(getEmailType(), getFromAddress(), to, subject, content, recipientValues)
+                .whenComplete((ignored, throwable) -> {
+                    if (throwable == null) {
+                        log.info("Successfully sent {} email to: {}", getEmailType(), to);
+                    }
+                });
     }
 
-    protected void sendEmailAsync(Message message, String to) {
-        CompletableFuture<Response> feignResponse = mailgunApi.sendMessageFeignResponseAsync(mailGunDomain, message);
+    /**
+     * Template variables that differ per recipient but are only ever rendered as plain text.
+     * They are rendered as Mailgun {@code %recipient.<name>%} placeholders and sent as
+     * recipient variables, so emails that differ only in these values share one rendered body
+     * and can be batched. Variables used in links, attributes, conditions or formatting must
+     * not be listed here.
+     */
+    protected Set<String> getRecipientVariables() {
+        return Set.of();
+    }
 
-        try (Response response = feignResponse.join()) {
-            if (response.status() < 200 || response.status() >= 300) {
-                throw new EmailSendingException("Mailgun API returned error status: " + response.status());
-            }
-        } catch (CompletionException ce) {
-            throw new EmailSendingException("Async email sending failed", ce.getCause());
+    private Map<String, Object> withRecipientPlaceholders(Map<String, Object> variables,
+                                                          Set<String> recipientVariables) {
+        if (recipientVariables.isEmpty()) {
+            return variables;
         }
+
+        Map<String, Object> rendered = new HashMap<>(variables);
+        recipientVariables.forEach(name -> rendered.put(name, "%recipient." + name + "%"));
+        return rendered;
+    }
+
+    private Map<String, String> recipientValues(Map<String, Object> variables, Set<String> recipientVariables) {
+        // Mailgun substitutes these verbatim, so escape them the way Thymeleaf's th:text would have
+        Map<String, String> values = new LinkedHashMap<>();
+        recipientVariables.forEach(name -> {
+            Object value = variables.get(name);
+            values.put(name, value == null ? "" : HtmlUtils.htmlEscape(value.toString()));
+        });
+        return values;
     }
 
     protected String getFromAddress() {
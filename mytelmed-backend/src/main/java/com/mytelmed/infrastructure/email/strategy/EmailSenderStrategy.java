@@ -2,10 +2,13 @@ package com.mytelmed.infrastructure.email.strategy;
 
 import com.mytelmed.infrastructure.email.constant.EmailType;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 
 public interface EmailSenderStrategy {
     EmailType getEmailType();
 
-    void sendEmail(String to, Map<String, Object> variables);
+    CompletableFuture<Void> sendEmail(String to, Map<String, Object> variables);
+
+    String getSubject(Map<String, Object> variables);
 }
@@ -1,24 +1,25 @@
 package com.mytelmed.infrastructure.email.strategy.account;
 
-import com.mailgun.api.v3.MailgunMessagesApi;
 import com.mytelmed.infrastructure.email.constant.EmailType;
+import com.mytelmed.infrastructure.email.service.EmailDispatchService;
+import com.mytelmed.infrastructure.email.service.EmailTemplateRenderer;
 import com.mytelmed.infrastructure.email.strategy.BaseEmailSenderStrategy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 import java.util.Map;
+import java.util.Set;
 
 
 @Slf4j
 @Component
 public class AccountDeletedEmailSender extends BaseEmailSenderStrategy {
     public AccountDeletedEmailSender(
-            MailgunMessagesApi mailgunApi,
-            SpringTemplateEngine templateEngine,
+            EmailDispatchService emailDispatchService,
+            EmailTemplateRenderer templateRenderer,
             @Value("${mailgun.api.domain}") String mailGunDomain) {
-        super(mailgunApi, templateEngine, mailGunDomain);
+        super(emailDispatchService, templateRenderer, mailGunDomain);
     }
 
     @Override
@@ -31,6 +32,11 @@ public class AccountDeletedEmailSender extends BaseEmailSenderStrategy {
         return "account/delete";
     }
 
+    @Override
+    protected Set<String> getRecipientVariables() {
+        return Set.of("name", "username", "role");
+    }
+
     @Override
     protected String buildSubject(Map<String, Object> variables) {
         return "MyTelmed - Account Deleted";
@@ -1,23 +1,24 @@
 package com.mytelmed.infrastructure.email.strategy.delivery;
 
-import com.mailgun.api.v3.MailgunMessagesApi;
 import com.mytelmed.infrastructure.email.constant.EmailType;
+import com.mytelmed.infrastructure.email.service.EmailDispatchService;
+import com.mytelmed.infrastructure.email.service.EmailTemplateRenderer;
 import com.mytelmed.infrastructure.email.strategy.BaseEmailSenderStrategy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 import java.util.Map;
+import java.util.Set;
 
 
 @Slf4j
 @Component
 public class DeliveryPaymentConfirmedStartedEmailSender extends BaseEmailSenderStrategy {
     public DeliveryPaymentConfirmedStartedEmailSender(
-            MailgunMessagesApi mailgunApi,
-            SpringTemplateEngine templateEngine,
+            EmailDispatchService emailDispatchService,
+            EmailTemplateRenderer templateRenderer,
             @Value("${mailgun.api.domain}") String mailGunDomain) {
-        super(mailgunApi, templateEngine, mailGunDomain);
+        super(emailDispatchService, templateRenderer, mailGunDomain);
     }
 
     @Override
@@ -30,6 +31,11 @@ public class DeliveryPaymentConfirmedStartedEmailSender extends BaseEmailSenderS
         return "delivery/payment-confirmed";
     }
 
+    @Override
+    protected Set<String> getRecipientVariables() {
+        return Set.of("patientName", "prescriptionNumber", "facilityName", "deliveryMethod");
+    }
+
     @Override
     protected String buildSubject(Map<String, Object> variables) {
         return "MyTelmed - Medication Delivery Payment Confirmed";
@@ -1,22 +1,23 @@
 package com.mytelmed.infrastructure.email.strategy.delivery;
 
-import com.mailgun.api.v3.MailgunMessagesApi;
 import com.mytelmed.infrastructure.email.constant.EmailType;
+import com.mytelmed.infrastructure.email.service.EmailDispatchService;
+import com.mytelmed.infrastructure.email.service.EmailTemplateRenderer;
 import com.mytelmed.infrastructure.email.strategy.BaseEmailSenderStrategy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Component
 public class DeliveryProcessingStartedEmailSender extends BaseEmailSenderStrategy {
     public DeliveryProcessingStartedEmailSender(
-            MailgunMessagesApi mailgunApi,
-            SpringTemplateEngine templateEngine,
+            EmailDispatchService emailDispatchService,
+            EmailTemplateRenderer templateRenderer,
             @Value("${mailgun.api.domain}") String mailGunDomain) {
-        super(mailgunApi, templateEngine, mailGunDomain);
+        super(emailDispatchService, templateRenderer, mailGunDomain);
     }
 
     @Override
@@ -29,6 +30,11 @@ public class DeliveryProcessingStartedEmailSender extends BaseEmailSenderStrateg
         return "delivery/processing-started";
     }
 
+    @Override
+    protected Set<String> getRecipientVariables() {
+        return Set.of("patientName", "prescriptionNumber", "facilityName");
+    }
+
     @Override
     protected String buildSubject(Map<String, Object> variables) {
         String deliveryMethod = (String) variables.get("deliveryMethod");
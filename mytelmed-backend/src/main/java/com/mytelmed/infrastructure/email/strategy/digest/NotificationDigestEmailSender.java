@@ -0,0 +1,60 @@
+package com.mytelmed.infrastructure.email.strategy.digest;
+
+import com.mytelmed.infrastructure.email.constant.EmailType;
+import com.mytelmed.infrastructure.email.service.EmailDispatchService;
+import com.mytelmed.infrastructure.email.service.EmailTemplateRenderer;
+import com.mytelmed.infrastructure.email.strategy.BaseEmailSenderStrategy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Email sender strategy for notification digests.
+ * Sends a single email listing the subject and key details of several notifications that were
+ * queued for the same recipient within the coalescing window.
+ */
+@Slf4j
+@Component
+public class NotificationDigestEmailSender extends BaseEmailSenderStrategy {
+
+    public NotificationDigestEmailSender(
+            EmailDispatchService emailDispatchService,
+            EmailTemplateRenderer templateRenderer,
+            @Value("${mailgun.api.domain}") String mailGunDomain) {
+        super(emailDispatchService, templateRenderer, mailGunDomain);
+    }
+
+    @Override
+    public EmailType getEmailType() {
+        return EmailType.NOTIFICATION_DIGEST;
+    }
+
+    @Override
+    protected String getTemplatePath() {
+        return "digest/notification-digest";
+    }
+
+    @Override
+    protected String buildSubject(Map<String, Object> variables) {
+        return "MyTelmed - You have " + variables.get("notificationCount") + " new updates";
+    }
+
+    @Override
+    protected void validateRequiredVariables(Map<String, Object> variables) {
+        if (!(variables.get("notifications") instanceof List<?> notifications) || notifications.isEmpty()) {
+            throw new IllegalArgumentException("Digest notifications are required");
+        }
+
+        if (variables.get("notificationCount") == null) {
+            throw new IllegalArgumentException("Notification count is required");
+        }
+
+        if (variables.get("uiHost") == null) {
+            throw new IllegalArgumentException("UI host is required");
+        }
+
+        log.debug("All required variables validated for notification digest email");
+    }
+}
@@ -1,12 +1,12 @@
 package com.mytelmed.infrastructure.email.strategy.referral;
 
-import com.mailgun.api.v3.MailgunMessagesApi;
 import com.mytelmed.infrastructure.email.constant.EmailType;
+import com.mytelmed.infrastructure.email.service.EmailDispatchService;
+import com.mytelmed.infrastructure.email.service.EmailTemplateRenderer;
 import com.mytelmed.infrastructure.email.strategy.BaseEmailSenderStrategy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 import java.util.Map;
 
 /**
@@ -20,10 +20,10 @@ import java.util.Map;
 public class ReferralCreatedEmailSender extends BaseEmailSenderStrategy {
 
   public ReferralCreatedEmailSender(
-      MailgunMessagesApi mailgunApi,
-      SpringTemplateEngine templateEngine,
+      EmailDispatchService emailDispatchService,
+      EmailTemplateRenderer templateRenderer,
       @Value("${mailgun.api.domain}") String mailGunDomain) {
-    super(mailgunApi, templateEngine, mailGunDomain);
+    super(emailDispatchService, templateRenderer, mailGunDomain);
   }
 
   @Override
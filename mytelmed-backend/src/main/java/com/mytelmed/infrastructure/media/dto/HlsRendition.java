@@ -0,0 +1,24 @@
+package com.mytelmed.infrastructure.media.dto;
+
+/**
+ * One HLS quality level, e.g. {@code 480p} at 1400 kbps video and 96 kbps audio.
+ */
+public record HlsRendition(String name, int height, int videoBitrateKbps, int audioBitrateKbps) {
+
+    /**
+     * Parses {@code name:height:videoKbps:audioKbps}, e.g. {@code 480p:480:1400:96}.
+     */
+    public static HlsRendition parse(String value) {
+        String[] parts = value.trim().split(":");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Invalid HLS rendition, expected name:height:videoKbps:audioKbps: "
+                    + value);
+        }
+        return new HlsRendition(parts[0], Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                Integer.parseInt(parts[3]));
+    }
+
+    public long bandwidthBitsPerSecond() {
+        return (videoBitrateKbps + audioBitrateKbps) * 1000L;
+    }
+}
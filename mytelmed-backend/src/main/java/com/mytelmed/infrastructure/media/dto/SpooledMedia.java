@@ -0,0 +1,29 @@
+package com.mytelmed.infrastructure.media.dto;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * An upload spooled to a local file once, so it can be probed and streamed to
+ * storage without copying it again. Closing it deletes the file.
+ */
+@Slf4j
+public record SpooledMedia(Path path, String originalFilename, long size) implements AutoCloseable {
+
+    public InputStreamSource content() {
+        return new FileSystemResource(path);
+    }
+
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete spooled media file: {}", path, e);
+        }
+    }
+}
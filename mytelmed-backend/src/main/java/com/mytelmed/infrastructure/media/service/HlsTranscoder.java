@@ -0,0 +1,209 @@
+package com.mytelmed.infrastructure.media.service;
+
+import com.mytelmed.infrastructure.media.dto.HlsRendition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ws.schild.jave.EncoderException;
+import ws.schild.jave.MultimediaObject;
+import ws.schild.jave.info.MultimediaInfo;
+import ws.schild.jave.info.VideoSize;
+import ws.schild.jave.process.ProcessLocator;
+import ws.schild.jave.process.ProcessWrapper;
+import ws.schild.jave.process.ffmpeg.DefaultFFMPEGLocator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Transcodes a video into multi-bitrate HLS with the ffmpeg binary bundled with JAVE.
+ * <p>
+ * Each rendition is encoded in its own ffmpeg run into {@code <name>/index.m3u8} and
+ * its segments, then a {@code master.m3u8} listing the renditions is written, so
+ * players can switch quality to match the connection.
+ */
+@Slf4j
+@Component
+public class HlsTranscoder {
+    public static final String MASTER_PLAYLIST = "master.m3u8";
+
+    private final ProcessLocator ffmpegLocator = new DefaultFFMPEGLocator();
+    private final List<HlsRendition> renditions;
+    private final int segmentSeconds;
+
+    public HlsTranscoder(
+            @Value("${video.transcoding.renditions:360p:360:800:96,480p:480:1400:128,720p:720:2800:128}") String renditions,
+            @Value("${video.transcoding.segment-seconds:6}") int segmentSeconds) {
+        this.renditions = Arrays.stream(renditions.split(","))
+                .map(HlsRendition::parse)
+                .sorted(Comparator.comparingInt(HlsRendition::height))
+                .toList();
+        this.segmentSeconds = segmentSeconds;
+    }
+
+    /**
+     * Transcodes the source into {@code outputDirectory}, skipping renditions taller
+     * than the source.
+     *
+     * @param onProgress receives the overall progress in percent as it changes
+     * @return the renditions that were produced
+     */
+    public List<HlsRendition> transcode(Path source, Path outputDirectory, IntConsumer onProgress)
+            throws IOException, EncoderException {
+        MultimediaInfo info = new MultimediaObject(source.toFile()).getInfo();
+        if (info.getVideo() == null) {
+            throw new IOException("Source has no video stream");
+        }
+
+        VideoSize sourceSize = info.getVideo().getSize();
+        long durationMicros = Math.max(info.getDuration(), 1) * 1000L;
+        List<HlsRendition> selected = selectRenditions(sourceSize.getHeight());
+        AtomicInteger lastPercent = new AtomicInteger(-1);
+
+        for (int i = 0; i < selected.size(); i++) {
+            HlsRendition rendition = selected.get(i);
+            int completedRenditions = i;
+            encodeRendition(source, outputDirectory, rendition, durationMicros, fraction -> {
+                int percent = (int) ((completedRenditions + fraction) * 100 / selected.size());
+                // ffmpeg reports twice a second; only pass on actual changes
+                if (lastPercent.getAndSet(percent) != percent) {
+                    onProgress.accept(percent);
+                }
+            });
+            log.debug("Encoded HLS rendition {} for {}", rendition.name(), source.getFileName());
+        }
+
+        writeMasterPlaylist(outputDirectory, selected, sourceSize);
+        onProgress.accept(100);
+        return selected;
+    }
+
+    private List<HlsRendition> selectRenditions(int sourceHeight) {
+        List<HlsRendition> selected = renditions.stream()
+                .filter(rendition -> rendition.height() <= sourceHeight)
+                .toList();
+        // Low-resolution sources still get the smallest rendition
+        return selected.isEmpty() ? List.of(renditions.getFirst()) : selected;
+    }
+
+    private void encodeRendition(Path source, Path outputDirectory, HlsRendition rendition, long durationMicros,
+                                 DoubleConsumer onFraction) throws IOException {
+        Path renditionDirectory = Files.createDirectories(outputDirectory.resolve(rendition.name()));
+        int videoKbps = rendition.videoBitrateKbps();
+
+        ProcessWrapper ffmpeg = ffmpegLocator.createExecutor();
+        try {
+            ffmpeg.addArgument("-hide_banner");
+            ffmpeg.addArgument("-loglevel");
+            ffmpeg.addArgument("error");
+            ffmpeg.addArgument("-y");
+            ffmpeg.addArgument("-i");
+            ffmpeg.addArgument(source.toAbsolutePath().toString());
+            ffmpeg.addArgument("-map");
+            ffmpeg.addArgument("0:v:0");
+            ffmpeg.addArgument("-map");
+            ffmpeg.addArgument("0:a:0?");
+            ffmpeg.addArgument("-vf");
+            ffmpeg.addArgument("scale=-2:" + rendition.height());
+            ffmpeg.addArgument("-c:v");
+            ffmpeg.addArgument("libx264");
+            ffmpeg.addArgument("-preset");
+            ffmpeg.addArgument("veryfast");
+            ffmpeg.addArgument("-profile:v");
+            ffmpeg.addArgument("main");
+            ffmpeg.addArgument("-b:v");
+            ffmpeg.addArgument(videoKbps + "k");
+            ffmpeg.addArgument("-maxrate");
+            ffmpeg.addArgument((videoKbps * 107 / 100) + "k");
+            ffmpeg.addArgument("-bufsize");
+            ffmpeg.addArgument((videoKbps * 3 / 2) + "k");
+            // Keyframes on segment boundaries so every segment starts playable
+            ffmpeg.addArgument("-force_key_frames");
+            ffmpeg.addArgument("expr:gte(t,n_forced*" + segmentSeconds + ")");
+            ffmpeg.addArgument("-sc_threshold");
+            ffmpeg.addArgument("0");
+            ffmpeg.addArgument("-c:a");
+            ffmpeg.addArgument("aac");
+            ffmpeg.addArgument("-b:a");
+            ffmpeg.addArgument(rendition.audioBitrateKbps() + "k");
+            ffmpeg.addArgument("-ac");
+            ffmpeg.addArgument("2");
+            ffmpeg.addArgument("-f");
+            ffmpeg.addArgument("hls");
+            ffmpeg.addArgument("-hls_time");
+            ffmpeg.addArgument(String.valueOf(segmentSeconds));
+            ffmpeg.addArgument("-hls_playlist_type");
+            ffmpeg.addArgument("vod");
+            ffmpeg.addArgument("-hls_segment_filename");
+            ffmpeg.addArgument(renditionDirectory.resolve("segment_%04d.ts").toAbsolutePath().toString());
+            ffmpeg.addArgument("-progress");
+            ffmpeg.addArgument("pipe:1");
+            ffmpeg.addArgument("-nostats");
+            ffmpeg.addArgument(renditionDirectory.resolve("index.m3u8").toAbsolutePath().toString());
+            ffmpeg.execute();
+
+            readProgress(ffmpeg, durationMicros, onFraction);
+
+            int exitCode = ffmpeg.getProcessExitCode();
+            if (exitCode != 0) {
+                String error;
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(ffmpeg.getErrorStream(), StandardCharsets.UTF_8))) {
+                    error = reader.lines().collect(Collectors.joining("\n"));
+                }
+                throw new IOException("ffmpeg exited with code " + exitCode + " for rendition "
+                        + rendition.name() + ": " + error);
+            }
+        } finally {
+            ffmpeg.destroy();
+        }
+    }
+
+    /**
+     * Reads ffmpeg's {@code -progress} key=value output until the process closes it.
+     */
+    private void readProgress(ProcessWrapper ffmpeg, long durationMicros,
+                              DoubleConsumer onFraction) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(ffmpeg.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // out_time_us is the current output position; older builds only print out_time_ms, also in microseconds
+                if (line.startsWith("out_time_us=") || line.startsWith("out_time_ms=")) {
+                    try {
+                        long position = Long.parseLong(line.substring(line.indexOf('=') + 1).trim());
+                        onFraction.accept(Math.min(1.0, Math.max(0.0, (double) position / durationMicros)));
+                    } catch (NumberFormatException ignored) {
+                        // "N/A" before the first frame is written
+                    }
+                }
+            }
+        }
+    }
+
+    private void writeMasterPlaylist(Path outputDirectory, List<HlsRendition> renditions, VideoSize sourceSize)
+            throws IOException {
+        StringBuilder playlist = new StringBuilder("#EXTM3U\n#EXT-X-VERSION:3\n");
+        for (HlsRendition rendition : renditions) {
+            int height = rendition.height();
+            // Matches ffmpeg's scale=-2:height, which keeps the aspect ratio with an even width
+            int width = (int) Math.round((double) sourceSize.getWidth() * height / sourceSize.getHeight() / 2) * 2;
+
+            playlist.append("#EXT-X-STREAM-INF:BANDWIDTH=").append(rendition.bandwidthBitsPerSecond())
+                    .append(",RESOLUTION=").append(width).append('x').append(height)
+                    .append('\n')
+                    .append(rendition.name()).append("/index.m3u8\n");
+        }
+        Files.writeString(outputDirectory.resolve(MASTER_PLAYLIST), playlist.toString(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,298 @@
+package com.mytelmed.infrastructure.media.service;
+
+import com.mytelmed.common.constant.file.ImageSize;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+import org.w3c.dom.Node;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Produces the resized JPEG copies of an uploaded image listed in {@link ImageSize}.
+ * <p>
+ * Large photos are decoded with subsampling, so a 12 MP phone photo is never fully
+ * expanded in heap, and then halved step by step down to each size, which keeps
+ * thumbnails sharp without a dedicated imaging library. EXIF orientation is applied,
+ * since the derivatives carry no metadata for browsers to rotate by.
+ */
+@Slf4j
+@Component
+public class ImageDerivativeGenerator {
+    private static final int EXIF_ORIENTATION_TAG = 0x0112;
+    private static final int APP1_MARKER = 0xE1;
+
+    private final float jpegQuality;
+
+    public ImageDerivativeGenerator(@Value("${application.media.image.jpeg-quality:0.8}") float jpegQuality) {
+        this.jpegQuality = jpegQuality;
+    }
+
+    /**
+     * Decodes the image and encodes one JPEG per size. Images smaller than a size are
+     * not upscaled.
+     *
+     * @param source the uploaded image, opened once
+     * @return the encoded derivatives by size
+     * @throws IOException if the image cannot be read or is in a format ImageIO cannot decode
+     */
+    public Map<ImageSize, byte[]> generate(InputStreamSource source) throws IOException {
+        BufferedImage image = decode(source);
+
+        Map<ImageSize, byte[]> derivatives = new EnumMap<>(ImageSize.class);
+        BufferedImage current = image;
+
+        // Largest first, so each size is scaled down from the previous one
+        ImageSize[] sizes = ImageSize.values();
+        for (int i = sizes.length - 1; i >= 0; i--) {
+            current = scaleDown(current, sizes[i].getMaxDimension());
+            derivatives.put(sizes[i], encodeJpeg(current));
+        }
+
+        log.debug("Generated {} image derivatives from a {}x{} source",
+                derivatives.size(), image.getWidth(), image.getHeight());
+        return derivatives;
+    }
+
+    private BufferedImage decode(InputStreamSource source) throws IOException {
+        try (InputStream inputStream = source.getInputStream();
+             ImageInputStream input = ImageIO.createImageInputStream(inputStream)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, false);
+
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int orientation = readExifOrientation(reader.getImageMetadata(0));
+
+                // Keep the decoded image at least as large as the biggest derivative
+                int largest = ImageSize.LARGE.getMaxDimension();
+                int subsampling = Math.max(1, Math.max(width, height) / largest);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+                return applyOrientation(toRgb(reader.read(0, param)), orientation);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Flattens transparency onto white and normalizes the pixel format for the JPEG encoder.
+     */
+    private BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    private BufferedImage scaleDown(BufferedImage image, int maxDimension) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double scale = (double) maxDimension / Math.max(width, height);
+        if (scale >= 1) {
+            return image;
+        }
+
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        // Halve repeatedly while far above the target; one bilinear pass over a large ratio aliases badly
+        BufferedImage current = image;
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = resize(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        return resize(current, targetWidth, targetHeight);
+    }
+
+    private BufferedImage resize(BufferedImage image, int width, int height) {
+        if (image.getWidth() == width && image.getHeight() == height) {
+            return image;
+        }
+
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(output)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+
+            writer.setOutput(imageOutput);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+
+    private BufferedImage applyOrientation(BufferedImage image, int orientation) {
+        if (orientation <= 1 || orientation > 8) {
+            return image;
+        }
+
+        int width = image.getWidth();
+        int height = image.getHeight();
+        boolean swapsAxes = orientation >= 5;
+
+        AffineTransform transform = new AffineTransform();
+        switch (orientation) {
+            case 2 -> {
+                transform.translate(width, 0);
+                transform.scale(-1, 1);
+            }
+            case 3 -> {
+                transform.translate(width, height);
+                transform.rotate(Math.PI);
+            }
+            case 4 -> {
+                transform.translate(0, height);
+                transform.scale(1, -1);
+            }
+            case 5 -> {
+                transform.rotate(Math.PI / 2);
+                transform.scale(1, -1);
+            }
+            case 6 -> {
+                transform.translate(height, 0);
+                transform.rotate(Math.PI / 2);
+            }
+            case 7 -> {
+                transform.scale(-1, 1);
+                transform.translate(-height, 0);
+                transform.translate(0, width);
+                transform.rotate(3 * Math.PI / 2);
+            }
+            case 8 -> {
+                transform.translate(0, width);
+                transform.rotate(3 * Math.PI / 2);
+            }
+            default -> {
+                return image;
+            }
+        }
+
+        BufferedImage oriented = new BufferedImage(swapsAxes ? height : width, swapsAxes ? width : height,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = oriented.createGraphics();
+        try {
+            graphics.drawImage(image, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return oriented;
+    }
+
+    /**
+     * Reads the EXIF orientation from a JPEG's APP1 segment, or returns 1 (upright) if absent.
+     */
+    private int readExifOrientation(IIOMetadata metadata) {
+        if (metadata == null || !"javax_imageio_jpeg_image_1.0".equals(metadata.getNativeMetadataFormatName())) {
+            return 1;
+        }
+
+        Node markerSequence = findChild(metadata.getAsTree("javax_imageio_jpeg_image_1.0"), "markerSequence");
+        if (markerSequence == null) {
+            return 1;
+        }
+
+        for (Node node = markerSequence.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof IIOMetadataNode marker
+                    && "unknown".equals(marker.getNodeName())
+                    && String.valueOf(APP1_MARKER).equals(marker.getAttribute("MarkerTag"))
+                    && marker.getUserObject() instanceof byte[] data) {
+                int orientation = parseExifOrientation(data);
+                if (orientation > 0) {
+                    return orientation;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private int parseExifOrientation(byte[] data) {
+        // "Exif\0\0" followed by a TIFF header
+        if (data.length < 14 || data[0] != 'E' || data[1] != 'x' || data[2] != 'i' || data[3] != 'f') {
+            return -1;
+        }
+
+        try {
+            ByteBuffer tiff = ByteBuffer.wrap(data, 6, data.length - 6).slice();
+            tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+
+            int ifdOffset = tiff.getInt(4);
+            int entries = Short.toUnsignedInt(tiff.getShort(ifdOffset));
+            for (int i = 0; i < entries; i++) {
+                int entry = ifdOffset + 2 + i * 12;
+                if (Short.toUnsignedInt(tiff.getShort(entry)) == EXIF_ORIENTATION_TAG) {
+                    return Short.toUnsignedInt(tiff.getShort(entry + 8));
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            log.debug("Ignoring malformed EXIF segment", e);
+        }
+        return -1;
+    }
+
+    private Node findChild(Node parent, String name) {
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (name.equals(node.getNodeName())) {
+                return node;
+            }
+        }
+        return null;
+    }
+}
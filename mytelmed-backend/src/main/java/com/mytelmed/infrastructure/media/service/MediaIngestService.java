@@ -0,0 +1,73 @@
+package com.mytelmed.infrastructure.media.service;
+
+import com.mytelmed.infrastructure.media.dto.SpooledMedia;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+import ws.schild.jave.EncoderException;
+import ws.schild.jave.MultimediaObject;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Spools media uploads to disk once so that probing and uploading share a single
+ * local copy instead of each reading the upload into memory or its own temp file.
+ */
+@Slf4j
+@Service
+public class MediaIngestService {
+    private final Path spoolDirectory;
+
+    public MediaIngestService(@Value("${application.media.spool-dir:${java.io.tmpdir}}") String spoolDirectory)
+            throws IOException {
+        this.spoolDirectory = Files.createDirectories(Path.of(spoolDirectory));
+    }
+
+    /**
+     * Writes the upload to a spool file. When the servlet container has already
+     * stored the upload on disk, this usually moves that file rather than copying it.
+     * The caller must close the returned media to delete the file.
+     */
+    public SpooledMedia spool(MultipartFile file) throws IOException {
+        String originalFilename = file.getOriginalFilename();
+        String extension = StringUtils.getFilenameExtension(originalFilename);
+        Path path = Files.createTempFile(spoolDirectory, "media-ingest-", extension != null ? "." + extension : null);
+
+        try {
+            file.transferTo(path.toFile());
+            SpooledMedia media = new SpooledMedia(path, originalFilename, Files.size(path));
+            log.debug("Spooled upload {} ({} bytes) to {}", originalFilename, media.size(), path);
+            return media;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a scratch directory in the spool location for multi-file work such as
+     * transcoding. The caller must delete it.
+     */
+    public Path createWorkDirectory(String prefix) throws IOException {
+        return Files.createTempDirectory(spoolDirectory, prefix);
+    }
+
+    /**
+     * Reads the media duration from the spooled file's headers.
+     */
+    public long probeDurationSeconds(SpooledMedia media) throws EncoderException {
+        return new MultimediaObject(media.path().toFile()).getInfo().getDuration() / 1000L;
+    }
+
+    /**
+     * Reads the media duration from a remote file, such as a presigned S3 URL.
+     * ffmpeg only fetches the ranges it needs to parse the headers.
+     */
+    public long probeDurationSeconds(URL source) throws EncoderException {
+        return new MultimediaObject(source).getInfo().getDuration() / 1000L;
+    }
+}
@@ -3,6 +3,7 @@ package com.mytelmed.infrastructure.push.config;
 import com.mytelmed.infrastructure.push.factory.AbstractPushNotificationFactory;
 import com.mytelmed.infrastructure.push.factory.appointment.AppointmentPushNotificationFactory;
 import com.mytelmed.infrastructure.push.factory.delivery.DeliveryPushNotificationFactory;
+import com.mytelmed.infrastructure.push.factory.digest.DigestPushNotificationFactory;
 import com.mytelmed.infrastructure.push.factory.payment.PaymentPushNotificationFactory;
 import com.mytelmed.infrastructure.push.factory.prescription.PrescriptionPushNotificationFactory;
 import com.mytelmed.infrastructure.push.strategy.PushNotificationStrategy;
@@ -44,6 +45,12 @@ public class PushNotificationFactoryConfig {
         return new PaymentPushNotificationFactory(strategies);
     }
 
+    @Bean
+    public DigestPushNotificationFactory digestPushNotificationFactory(List<PushNotificationStrategy> strategies) {
+        log.info("Registering DigestPushNotificationFactory with {} total strategies", strategies.size());
+        return new DigestPushNotificationFactory(strategies);
+    }
+
     @Bean
     @Primary
     public Map<String, AbstractPushNotificationFactory> pushFactoryRegistry(
@@ -0,0 +1,31 @@
+package com.mytelmed.infrastructure.push.constant;
+
+/**
+ * Classification of a push service response (RFC 8030).
+ */
+public enum PushDeliveryOutcome {
+    DELIVERED,
+    // 404 Not Found / 410 Gone: the subscription has expired or was revoked and must not be used again
+    GONE,
+    RATE_LIMITED,
+    // 5xx or no response at all
+    TRANSIENT_ERROR,
+    // Any other 4xx, e.g. payload too large or VAPID mismatch
+    REJECTED;
+
+    public static PushDeliveryOutcome fromStatusCode(int statusCode) {
+        if (statusCode >= 200 && statusCode < 300) {
+            return DELIVERED;
+        }
+        if (statusCode == 404 || statusCode == 410) {
+            return GONE;
+        }
+        if (statusCode == 429) {
+            return RATE_LIMITED;
+        }
+        if (statusCode >= 400 && statusCode < 500) {
+            return REJECTED;
+        }
+        return TRANSIENT_ERROR;
+    }
+}
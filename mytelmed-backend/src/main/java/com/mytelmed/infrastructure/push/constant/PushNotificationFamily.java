@@ -5,5 +5,6 @@ public enum PushNotificationFamily {
     PRESCRIPTION,
     DELIVERY,
     REFERRAL,
-    PAYMENT
+    PAYMENT,
+    DIGEST
 }
\ No newline at end of file
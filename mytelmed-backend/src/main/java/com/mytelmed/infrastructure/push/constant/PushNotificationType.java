@@ -33,7 +33,9 @@ public enum PushNotificationType {
     REFERRAL_REJECTED(PushNotificationFamily.REFERRAL),
     REFERRAL_SCHEDULED(PushNotificationFamily.REFERRAL),
 
-    REFUND_SUCCESS(PushNotificationFamily.PAYMENT);
+    REFUND_SUCCESS(PushNotificationFamily.PAYMENT),
+
+    NOTIFICATION_DIGEST(PushNotificationFamily.DIGEST);
 
     private final PushNotificationFamily family;
 
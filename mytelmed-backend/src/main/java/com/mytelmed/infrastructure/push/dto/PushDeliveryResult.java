@@ -0,0 +1,33 @@
+package com.mytelmed.infrastructure.push.dto;
+
+import com.mytelmed.infrastructure.push.constant.PushDeliveryOutcome;
+import java.util.UUID;
+
+/**
+ * Outcome of sending a notification to a single push subscription.
+ *
+ * @param statusCode HTTP status returned by the push service, or 0 when no response was received
+ */
+public record PushDeliveryResult(
+        UUID subscriptionId,
+        String endpoint,
+        int statusCode,
+        String error) {
+
+    public static PushDeliveryResult response(PushEndpoint endpoint, int statusCode) {
+        String error = statusCode >= 200 && statusCode < 300 ? null : "Push service returned status " + statusCode;
+        return new PushDeliveryResult(endpoint.subscriptionId(), endpoint.endpoint(), statusCode, error);
+    }
+
+    public static PushDeliveryResult failure(PushEndpoint endpoint, Throwable throwable) {
+        return new PushDeliveryResult(endpoint.subscriptionId(), endpoint.endpoint(), 0, throwable.getMessage());
+    }
+
+    public PushDeliveryOutcome outcome() {
+        return PushDeliveryOutcome.fromStatusCode(statusCode);
+    }
+
+    public boolean isSuccess() {
+        return outcome() == PushDeliveryOutcome.DELIVERED;
+    }
+}
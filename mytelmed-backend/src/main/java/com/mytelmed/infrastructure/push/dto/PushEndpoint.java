@@ -0,0 +1,72 @@
+package com.mytelmed.infrastructure.push.dto;
+
+import nl.martijndwars.webpush.Utils;
+import java.security.PublicKey;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Decoded, validated key material for one push subscription.
+ * <p>
+ * Decoding the P-256 public key is the expensive part of building a web push
+ * notification, so instances are built once per subscription and reused for
+ * every send.
+ */
+public record PushEndpoint(
+        UUID subscriptionId,
+        String endpoint,
+        PublicKey userPublicKey,
+        byte[] userAuth) {
+
+    private static final int P256DH_KEY_LENGTH = 65;
+    private static final int AUTH_KEY_LENGTH = 16;
+
+    public static PushEndpoint of(UUID subscriptionId, String endpoint, String p256dh, String auth) {
+        String normalizedP256dh = normalizeKey(p256dh, "P256DH");
+        String normalizedAuth = normalizeKey(auth, "Auth");
+
+        try {
+            return new PushEndpoint(
+                    subscriptionId,
+                    endpoint,
+                    Utils.loadPublicKey(normalizedP256dh),
+                    Base64.getUrlDecoder().decode(normalizedAuth));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid subscription keys: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Accepts standard or URL-safe Base64, with or without padding, checks the decoded
+     * length and returns the key as unpadded URL-safe Base64 (the form web push expects).
+     */
+    public static String normalizeKey(String key, String keyType) {
+        if (key == null || key.trim().isEmpty()) {
+            throw new IllegalArgumentException(keyType + " key cannot be null or empty");
+        }
+
+        String cleanKey = key.trim().replace('+', '-').replace('/', '_');
+        while (cleanKey.endsWith("=")) {
+            cleanKey = cleanKey.substring(0, cleanKey.length() - 1);
+        }
+
+        byte[] keyBytes;
+        try {
+            keyBytes = Base64.getUrlDecoder().decode(cleanKey);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(keyType + " key is not valid base64: " + e.getMessage(), e);
+        }
+
+        int expectedLength = "Auth".equals(keyType) ? AUTH_KEY_LENGTH : P256DH_KEY_LENGTH;
+        if (keyBytes.length != expectedLength) {
+            throw new IllegalArgumentException(keyType + " key must be " + expectedLength
+                    + " bytes when decoded, got: " + keyBytes.length);
+        }
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(keyBytes);
+    }
+
+    public String truncatedEndpoint() {
+        return endpoint.length() > 50 ? endpoint.substring(0, 50) + "..." : endpoint;
+    }
+}
@@ -0,0 +1,43 @@
+package com.mytelmed.infrastructure.push.factory.digest;
+
+import com.mytelmed.infrastructure.push.constant.PushNotificationFamily;
+import com.mytelmed.infrastructure.push.constant.PushNotificationType;
+import com.mytelmed.infrastructure.push.factory.AbstractPushNotificationFactory;
+import com.mytelmed.infrastructure.push.strategy.PushNotificationStrategy;
+import lombok.extern.slf4j.Slf4j;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Push notification factory for digest notifications that combine several
+ * coalesced notifications for one account.
+ */
+@Slf4j
+public class DigestPushNotificationFactory extends AbstractPushNotificationFactory {
+    private final Map<PushNotificationType, PushNotificationStrategy> digestNotificationStrategyMap;
+
+    public DigestPushNotificationFactory(List<PushNotificationStrategy> strategies) {
+        this.digestNotificationStrategyMap = strategies.stream()
+                .filter(strategy -> strategy.getNotificationType().getFamily() == PushNotificationFamily.DIGEST)
+                .collect(Collectors.toMap(PushNotificationStrategy::getNotificationType, Function.identity()));
+
+        log.info("Initialized DigestPushNotificationFactory with {} digest notification strategies: {}",
+                digestNotificationStrategyMap.size(), digestNotificationStrategyMap.keySet());
+    }
+
+    @Override
+    public boolean supports(PushNotificationFamily family) {
+        return family == PushNotificationFamily.DIGEST;
+    }
+
+    @Override
+    public PushNotificationStrategy getNotificationSender(PushNotificationType type) {
+        PushNotificationStrategy strategy = digestNotificationStrategyMap.get(type);
+        if (strategy == null) {
+            throw new IllegalArgumentException("No push notification strategy found for digest type: " + type);
+        }
+        return strategy;
+    }
+}
@@ -0,0 +1,84 @@
+package com.mytelmed.infrastructure.push.service;
+
+import com.mytelmed.infrastructure.push.constant.PushNotificationType;
+import com.mytelmed.infrastructure.push.dto.PushDeliveryResult;
+import com.mytelmed.infrastructure.push.dto.PushEndpoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import nl.martijndwars.webpush.Notification;
+import nl.martijndwars.webpush.PushService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends encrypted web push messages on the dedicated push executor.
+ * <p>
+ * A notification for an account is fanned out to all of its devices in parallel;
+ * the returned future completes once every device has answered, with one result
+ * per endpoint. Individual failures never fail the future.
+ */
+@Slf4j
+@Service
+public class PushDeliveryService {
+    private static final String METRIC_PREFIX = "mytelmed.push.send";
+
+    private final PushService pushService;
+    private final Executor pushExecutor;
+    private final MeterRegistry meterRegistry;
+
+    public PushDeliveryService(PushService pushService,
+                               @Qualifier("pushExecutor") Executor pushExecutor,
+                               MeterRegistry meterRegistry) {
+        this.pushService = pushService;
+        this.pushExecutor = pushExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public CompletableFuture<List<PushDeliveryResult>> deliver(PushNotificationType notificationType,
+                                                               List<PushEndpoint> endpoints, byte[] payload) {
+        List<CompletableFuture<PushDeliveryResult>> sends = endpoints.stream()
+                .map(endpoint -> CompletableFuture.supplyAsync(
+                        () -> send(notificationType, endpoint, payload), pushExecutor))
+                .toList();
+
+        return CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> sends.stream().map(CompletableFuture::join).toList());
+    }
+
+    private PushDeliveryResult send(PushNotificationType notificationType, PushEndpoint endpoint, byte[] payload) {
+        long startedAt = System.nanoTime();
+        PushDeliveryResult result;
+
+        try {
+            Notification notification = new Notification(
+                    endpoint.endpoint(), endpoint.userPublicKey(), endpoint.userAuth(), payload);
+            int statusCode = pushService.send(notification).getStatusLine().getStatusCode();
+            result = PushDeliveryResult.response(endpoint, statusCode);
+
+            if (result.isSuccess()) {
+                log.debug("Sent {} push notification to endpoint: {}", notificationType, endpoint.truncatedEndpoint());
+            } else {
+                log.warn("Push service returned {} ({}) for {} notification to endpoint: {}",
+                        statusCode, result.outcome(), notificationType, endpoint.truncatedEndpoint());
+            }
+        } catch (Exception e) {
+            log.error("Push notification sending failed for endpoint: {}. Error: {}",
+                    endpoint.truncatedEndpoint(), e.getMessage(), e);
+            result = PushDeliveryResult.failure(endpoint, e);
+        }
+
+        Timer.builder(METRIC_PREFIX + ".latency")
+                .description("Web push send latency")
+                .tag("type", notificationType.name())
+                .tag("outcome", result.outcome().name().toLowerCase())
+                .register(meterRegistry)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+        return result;
+    }
+}
@@ -1,10 +1,17 @@
 package com.mytelmed.infrastructure.push.strategy;
 
 import com.mytelmed.infrastructure.push.constant.PushNotificationType;
+import com.mytelmed.infrastructure.push.dto.PushDeliveryResult;
+import com.mytelmed.infrastructure.push.dto.PushEndpoint;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface PushNotificationStrategy {
     PushNotificationType getNotificationType();
 
-    void sendNotification(String endpoint, String p256dh, String auth, Map<String, Object> variables);
+    CompletableFuture<List<PushDeliveryResult>> sendNotification(List<PushEndpoint> endpoints,
+                                                                 Map<String, Object> variables);
+
+    String getTitle(Map<String, Object> variables);
 }
@@ -3,8 +3,8 @@ package com.mytelmed.infrastructure.push.strategy.appointment.doctor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mytelmed.infrastructure.push.config.VapidConfiguration;
 import com.mytelmed.infrastructure.push.constant.PushNotificationType;
+import com.mytelmed.infrastructure.push.service.PushDeliveryService;
 import com.mytelmed.infrastructure.push.strategy.BasePushNotificationStrategy;
-import nl.martijndwars.webpush.PushService;
 import org.springframework.stereotype.Component;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -14,10 +14,10 @@ import java.util.Map;
 public class AppointmentCancellationDoctorPushSender extends BasePushNotificationStrategy {
 
     public AppointmentCancellationDoctorPushSender(
-            PushService pushService,
+            PushDeliveryService pushDeliveryService,
             VapidConfiguration vapidConfiguration,
             ObjectMapper objectMapper) {
-        super(pushService, vapidConfiguration, objectMapper);
+        super(pushDeliveryService, vapidConfiguration, objectMapper);
     }
 
     @Override
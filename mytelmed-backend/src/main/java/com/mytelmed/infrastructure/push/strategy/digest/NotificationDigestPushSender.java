@@ -0,0 +1,74 @@
+package com.mytelmed.infrastructure.push.strategy.digest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mytelmed.infrastructure.push.config.VapidConfiguration;
+import com.mytelmed.infrastructure.push.constant.PushNotificationType;
+import com.mytelmed.infrastructure.push.service.PushDeliveryService;
+import com.mytelmed.infrastructure.push.strategy.BasePushNotificationStrategy;
+import org.springframework.stereotype.Component;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Push notification strategy for notification digests.
+ * Replaces several back-to-back notifications for the same account with one
+ * notification listing their titles.
+ */
+@Component
+public class NotificationDigestPushSender extends BasePushNotificationStrategy {
+    private static final int MAX_BODY_LENGTH = 240;
+
+    public NotificationDigestPushSender(
+            PushDeliveryService pushDeliveryService,
+            VapidConfiguration vapidConfiguration,
+            ObjectMapper objectMapper) {
+        super(pushDeliveryService, vapidConfiguration, objectMapper);
+    }
+
+    @Override
+    public PushNotificationType getNotificationType() {
+        return PushNotificationType.NOTIFICATION_DIGEST;
+    }
+
+    @Override
+    protected String buildTitle(Map<String, Object> variables) {
+        return "You have " + variables.get("notificationCount") + " new updates";
+    }
+
+    @Override
+    protected String buildBody(Map<String, Object> variables) {
+        List<?> titles = (List<?>) variables.get("titles");
+        String body = String.join(" • ", titles.stream().map(String::valueOf).toList());
+
+        if (body.length() > MAX_BODY_LENGTH) {
+            return body.substring(0, MAX_BODY_LENGTH - 3) + "...";
+        }
+        return body;
+    }
+
+    @Override
+    protected Map<String, Object> buildNotificationData(Map<String, Object> variables) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("type", "notification_digest");
+        data.put("notificationCount", variables.get("notificationCount"));
+        data.put("url", "/");
+        return data;
+    }
+
+    @Override
+    protected String getNotificationTag() {
+        return "notification_digest_" + System.currentTimeMillis();
+    }
+
+    @Override
+    protected void validateRequiredVariables(Map<String, Object> variables) {
+        if (!(variables.get("titles") instanceof List<?> titles) || titles.isEmpty()) {
+            throw new IllegalArgumentException("Digest titles are required");
+        }
+
+        if (variables.get("notificationCount") == null) {
+            throw new IllegalArgumentException("Notification count is required");
+        }
+    }
+}
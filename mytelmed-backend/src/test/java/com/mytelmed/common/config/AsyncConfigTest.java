@@ -0,0 +1,101 @@
+package com.mytelmed.common.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class AsyncConfigTest {
+    private static final int TASKS = 5000;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new AsyncConfig(meterRegistry, false).buildExecutor("TestExecutor-", 1, 1, 1, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        meterRegistry.close();
+    }
+
+    @Test
+    void saturatedExecutorRunsOverflowOnCallerAndCompletesEveryTask() throws InterruptedException {
+        Thread caller = Thread.currentThread();
+        CountDownLatch workerStarted = new CountDownLatch(1);
+        CountDownLatch releaseWorker = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(TASKS + 1);
+        AtomicInteger ranOnCaller = new AtomicInteger();
+
+        // Occupy the only worker so the single queue slot fills and everything after it overflows
+        executor.execute(() -> {
+            workerStarted.countDown();
+            try {
+                releaseWorker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            completed.countDown();
+        });
+        assertTrue(workerStarted.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < TASKS; i++) {
+            executor.execute(() -> {
+                if (Thread.currentThread() == caller) {
+                    ranOnCaller.incrementAndGet();
+                }
+                completed.countDown();
+            });
+        }
+
+        assertEquals(1.0, gauge("mytelmed.executor.queue.size"));
+        assertEquals(1.0, gauge("mytelmed.executor.active"));
+
+        releaseWorker.countDown();
+        assertTrue(completed.await(10, TimeUnit.SECONDS), "every submitted task should complete");
+        assertEquals(0.0, gauge("mytelmed.executor.queue.size"));
+
+        // Waits for the worker to finish, so the duration timer has recorded its last task
+        executor.shutdown();
+
+        assertEquals(TASKS - 1, ranOnCaller.get());
+        assertEquals(TASKS - 1, meterRegistry.get("mytelmed.executor.rejected")
+                .tag("executor", "TestExecutor").counter().count());
+        assertEquals(TASKS + 1, meterRegistry.get("mytelmed.executor.task.duration")
+                .tag("executor", "TestExecutor").timer().count());
+    }
+
+    @Test
+    void unsaturatedExecutorRunsEveryTaskOnItsOwnThreads() throws InterruptedException {
+        Thread caller = Thread.currentThread();
+        CountDownLatch completed = new CountDownLatch(1);
+        AtomicInteger ranOnCaller = new AtomicInteger();
+
+        executor.execute(() -> {
+            if (Thread.currentThread() == caller) {
+                ranOnCaller.incrementAndGet();
+            }
+            completed.countDown();
+        });
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(0, ranOnCaller.get());
+        assertEquals(0.0, meterRegistry.get("mytelmed.executor.rejected")
+                .tag("executor", "TestExecutor").counter().count());
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag("executor", "TestExecutor").gauge().value();
+    }
+}
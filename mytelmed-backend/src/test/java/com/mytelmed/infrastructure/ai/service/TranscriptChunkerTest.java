@@ -0,0 +1,93 @@
+package com.mytelmed.infrastructure.ai.service;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class TranscriptChunkerTest {
+
+    @Test
+    void estimateTokensRoundsUp() {
+        assertEquals(0, TranscriptChunker.estimateTokens(""));
+        assertEquals(1, TranscriptChunker.estimateTokens("abcd"));
+        assertEquals(2, TranscriptChunker.estimateTokens("abcde"));
+    }
+
+    @Test
+    void shortTranscriptIsOneChunkWithoutBlankLines() {
+        String transcript = "Doctor: How are you feeling?\n\n  Patient: Better, thank you.  \r\n";
+
+        assertEquals(List.of("Doctor: How are you feeling?\nPatient: Better, thank you."),
+                TranscriptChunker.split(transcript, 4000));
+    }
+
+    @Test
+    void chunksBreakBetweenTurns() {
+        String first = "Doctor: Any pain in the chest?";
+        String second = "Patient: Only when I climb stairs.";
+        String third = "Doctor: Let us book an ECG then.";
+
+        List<String> chunks = TranscriptChunker.split(String.join("\n", first, second, third), 17);
+
+        assertEquals(List.of(first + "\n" + second, third), chunks);
+    }
+
+    @Test
+    void overLongTurnIsSplitAtSentenceEndsAndKeepsItsLabel() {
+        String text = "Take the tablets after meals. Drink plenty of water daily. Come back in two weeks.";
+        String turn = "Doctor: " + text;
+
+        List<String> chunks = TranscriptChunker.split(turn, 10);
+
+        assertEquals(List.of(
+                "Doctor: Take the tablets after meals.",
+                "Doctor: Drink plenty of water daily.",
+                "Doctor: Come back in two weeks."), chunks);
+        chunks.forEach(chunk -> assertTrue(chunk.length() <= 40, chunk));
+    }
+
+    @Test
+    void labelEndsAtFirstColonFollowedBySpace() {
+        String turn = "Dr. Lim: Note: take 5mg at 10:30 every morning. Then rest for an hour before lunch.";
+
+        List<String> chunks = TranscriptChunker.split(turn, 15);
+
+        assertEquals(List.of(
+                "Dr. Lim: Note: take 5mg at 10:30 every morning.",
+                "Dr. Lim: Then rest for an hour before lunch."), chunks);
+    }
+
+    @Test
+    void turnWithoutLabelIsSplitWithoutOne() {
+        String turn = "The call dropped at 10:30 for a while. Connection came back a minute later.";
+
+        List<String> chunks = TranscriptChunker.split(turn, 10);
+
+        assertEquals(List.of("The call dropped at 10:30 for a while.", "Connection came back a minute later."),
+                chunks);
+    }
+
+    @Test
+    void sentenceLongerThanBudgetIsCutAndEveryPieceKeepsTheLabel() {
+        String label = "Patient: ";
+        String sentence = "a".repeat(100);
+
+        List<String> chunks = TranscriptChunker.split(label + sentence, 10);
+
+        assertEquals(4, chunks.size());
+        StringBuilder text = new StringBuilder();
+        for (String chunk : chunks) {
+            assertTrue(chunk.startsWith(label), chunk);
+            assertTrue(chunk.length() <= 40, chunk);
+            text.append(chunk.substring(label.length()));
+        }
+        assertEquals(sentence, text.toString());
+    }
+
+    @Test
+    void blankTranscriptHasNoChunks() {
+        assertTrue(TranscriptChunker.split("\n  \n", 100).isEmpty());
+    }
+}
@@ -0,0 +1,135 @@
+package com.mytelmed.infrastructure.ai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mytelmed.infrastructure.ai.dto.TranscriptionSummaryRequest;
+import com.mytelmed.infrastructure.ai.dto.TranscriptionSummaryResponse;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class TranscriptionSummarizerTest {
+    private static final String METRIC_NAME = "mytelmed.ai.summary.call.duration";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private RecordingAiService aiService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        aiService = new RecordingAiService(objectMapper);
+    }
+
+    @Test
+    void shortTranscriptIsSummarizedInOneStreamedCall() {
+        List<String> deltas = new ArrayList<>();
+
+        TranscriptionSummaryResponse response = summarizer(4000, 8000).summarize(request(turns(3)), deltas::add);
+
+        assertTrue(response.success());
+        assertEquals(1, aiService.prompts.size());
+        assertTrue(aiService.prompts.get(0).contains("**Transcription:**"));
+        assertEquals(1, calls("single"));
+        assertNull(meterRegistry.find(METRIC_NAME).tag("stage", "map").timer());
+        assertEquals(1, deltas.size());
+        assertTrue(deltas.get(0).contains(response.patientSummary()));
+    }
+
+    @Test
+    void longTranscriptIsSummarizedPerChunkThenCombinedOnce() {
+        List<String> deltas = new ArrayList<>();
+
+        TranscriptionSummaryResponse response = summarizer(20, 8000).summarize(request(turns(3)), deltas::add);
+
+        assertTrue(response.success());
+        assertEquals(3, calls("map"));
+        assertEquals(1, calls("reduce"));
+
+        String finalPrompt = aiService.prompts.get(aiService.prompts.size() - 1);
+        assertTrue(finalPrompt.contains("Part 3: "));
+        assertFalse(finalPrompt.contains("Part 4: "));
+        // Only the final summary is streamed, never the part summaries
+        assertEquals(1, deltas.size());
+    }
+
+    @Test
+    void partSummariesTooLongForOnePromptAreCombinedInGroups() {
+        // Each part summary from the stub is 45 tokens, so at most two fit a 100 token reduce prompt:
+        // 6 parts are combined into 3, then into 2 (one part passes through), then into the final summary
+        TranscriptionSummaryResponse response = summarizer(20, 100).summarize(request(turns(6)), null);
+
+        assertTrue(response.success());
+        assertEquals(6, calls("map"));
+        assertEquals(5, calls("reduce"));
+
+        String finalPrompt = aiService.prompts.get(aiService.prompts.size() - 1);
+        assertTrue(finalPrompt.contains("Part 2: "));
+        assertFalse(finalPrompt.contains("Part 3: "));
+    }
+
+    @Test
+    void emptyTranscriptFailsWithoutCallingTheModel() {
+        TranscriptionSummaryResponse response = summarizer(4000, 8000).summarize(request(" \n "));
+
+        assertFalse(response.success());
+        assertEquals("Transcription is empty", response.errorMessage());
+        assertTrue(aiService.prompts.isEmpty());
+    }
+
+    private TranscriptionSummarizer summarizer(int chunkTokens, int reduceInputTokens) {
+        return new TranscriptionSummarizer(aiService, Runnable::run, objectMapper, meterRegistry,
+                chunkTokens, reduceInputTokens, 800, 2048);
+    }
+
+    private long calls(String stage) {
+        Timer timer = meterRegistry.get(METRIC_NAME).tag("stage", stage).tag("outcome", "success").timer();
+        return timer.count();
+    }
+
+    /**
+     * Builds turns of about 60 characters, so that each one is its own chunk at a 20 token budget.
+     */
+    private static String turns(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> (i % 2 == 1 ? "Doctor" : "Patient") + ": Turn " + i
+                        + " of the consultation about blood pressure.")
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static TranscriptionSummaryRequest request(String transcript) {
+        return TranscriptionSummaryRequest.builder()
+                .appointmentId(UUID.randomUUID())
+                .transcriptionText(transcript)
+                .patientName("Patient")
+                .doctorName("Doctor")
+                .appointmentType("VIRTUAL")
+                .reasonForVisit("Follow-up")
+                .build();
+    }
+
+    private static class RecordingAiService extends StubAiService {
+        private final List<String> prompts = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingAiService(ObjectMapper objectMapper) {
+            super(objectMapper);
+        }
+
+        @Override
+        public String generateText(String prompt, int maxOutputTokens) {
+            prompts.add(prompt);
+            return super.generateText(prompt, maxOutputTokens);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.mytelmed.infrastructure.aws.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListMultipartUploadsRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+@Testcontainers(disabledWithoutDocker = true)
+class S3MultipartUploaderTest {
+    private static final String BUCKET = "mytelmed-test";
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+
+    @Container
+    private static final MinIOContainer MINIO = new MinIOContainer("minio/minio:RELEASE.2024-12-18T13-15-44Z");
+
+    private static S3AsyncClient s3AsyncClient;
+
+    private SimpleMeterRegistry meterRegistry;
+    private S3MultipartUploader uploader;
+
+    @BeforeAll
+    static void createBucket() {
+        s3AsyncClient = S3AsyncClient.builder()
+                .endpointOverride(URI.create(MINIO.getS3URL()))
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(MINIO.getUserName(), MINIO.getPassword())))
+                .forcePathStyle(true)
+                .build();
+        s3AsyncClient.createBucket(CreateBucketRequest.builder().bucket(BUCKET).build()).join();
+    }
+
+    @AfterAll
+    static void closeClient() {
+        s3AsyncClient.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Anything above one part is uploaded in parts, at most two of them in flight
+        uploader = new S3MultipartUploader(s3AsyncClient, meterRegistry, PART_SIZE, PART_SIZE, 2);
+    }
+
+    @Test
+    void uploadLargerThanOnePartIsStoredInParts() throws IOException {
+        String key = newKey();
+        byte[] content = randomBytes(2 * PART_SIZE + 123);
+
+        uploader.upload(putRequest(key), new ByteArrayInputStream(content), content.length);
+
+        assertArrayEquals(content, download(key));
+        assertEquals(3.0, meterRegistry.get("mytelmed.s3.upload.parts").counter().count());
+        assertEquals(content.length, meterRegistry.get("mytelmed.s3.upload.bytes").counter().count());
+        assertEquals(0.0, meterRegistry.get("mytelmed.s3.upload.in.flight.bytes").gauge().value());
+    }
+
+    @Test
+    void uploadWithinOnePartIsSentAsSinglePut() throws IOException {
+        String key = newKey();
+        byte[] content = randomBytes(PART_SIZE - 1);
+
+        uploader.upload(putRequest(key), new ByteArrayInputStream(content), content.length);
+
+        assertArrayEquals(content, download(key));
+        assertEquals(0.0, meterRegistry.get("mytelmed.s3.upload.parts").counter().count());
+    }
+
+    @Test
+    void failedReadAbortsTheMultipartUpload() {
+        String key = newKey();
+        byte[] content = randomBytes(3 * PART_SIZE);
+        // The first part is read and sent before the stream fails inside the second
+        InputStream failing = new FailingInputStream(new ByteArrayInputStream(content), PART_SIZE + 1024);
+
+        assertThrows(IOException.class, () -> uploader.upload(putRequest(key), failing, content.length));
+
+        assertTrue(s3AsyncClient.listMultipartUploads(ListMultipartUploadsRequest.builder()
+                        .bucket(BUCKET)
+                        .prefix(key)
+                        .build())
+                .join()
+                .uploads()
+                .isEmpty(), "the multipart upload should have been aborted");
+
+        CompletionException missing = assertThrows(CompletionException.class, () -> s3AsyncClient.headObject(
+                HeadObjectRequest.builder().bucket(BUCKET).key(key).build()).join());
+        assertTrue(missing.getCause() instanceof NoSuchKeyException
+                || missing.getCause() instanceof S3Exception s3Exception && s3Exception.statusCode() == 404);
+    }
+
+    private byte[] download(String key) {
+        return s3AsyncClient.getObject(builder -> builder.bucket(BUCKET).key(key), AsyncResponseTransformer.toBytes())
+                .join()
+                .asByteArray();
+    }
+
+    private static PutObjectRequest putRequest(String key) {
+        return PutObjectRequest.builder()
+                .bucket(BUCKET)
+                .key(key)
+                .contentType("application/octet-stream")
+                .build();
+    }
+
+    private static String newKey() {
+        return "document/test/" + UUID.randomUUID() + ".bin";
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * Fails once more than {@code limit} bytes have been read, like a client that
+     * disconnects halfway through an upload.
+     */
+    private static final class FailingInputStream extends FilterInputStream {
+        private final long limit;
+        private long read;
+
+        private FailingInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkLimit(1);
+            int b = super.read();
+            read++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int allowed = (int) Math.min(length, Math.max(limit - read, 0));
+            if (allowed == 0) {
+                checkLimit(length);
+            }
+            int n = super.read(buffer, offset, allowed);
+            read += Math.max(n, 0);
+            return n;
+        }
+
+        private void checkLimit(int length) throws IOException {
+            if (read + length > limit) {
+                throw new IOException("Client disconnected after " + read + " bytes");
+            }
+        }
+    }
+}